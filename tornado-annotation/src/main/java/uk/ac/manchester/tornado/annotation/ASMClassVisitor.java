@@ -18,7 +18,8 @@
 package uk.ac.manchester.tornado.annotation;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -58,9 +59,9 @@ public class ASMClassVisitor extends ClassVisitor implements ASMClassVisitorProv
     @Override
     public ParallelAnnotationProvider[] getParallelAnnotations(ResolvedJavaMethod method) {
         String methodClassFile = method.getDeclaringClass().getName().replaceFirst("L", "").replaceFirst(";", ".class");
-        InputStream inputStream = ClassLoader.getSystemClassLoader().getResourceAsStream(methodClassFile);
+        byte[] generatedClassFile = ASMFusedKernelBuilder.getClassFile(method.getDeclaringClass().toJavaName());
         try {
-            ClassReader classReader = new ClassReader(inputStream);
+            ClassReader classReader = generatedClassFile != null ? new ClassReader(generatedClassFile) : new ClassReader(ClassLoader.getSystemClassLoader().getResourceAsStream(methodClassFile));
             ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
             ASMClassVisitor visitor = new ASMClassVisitor(Opcodes.ASM9, cw, method);
             classReader.accept(visitor, 0);
@@ -72,4 +73,14 @@ public class ASMClassVisitor extends ClassVisitor implements ASMClassVisitorProv
             throw new TornadoRuntimeException("[ERROR] Class reader could not be instantiated for class file: " + methodClassFile);
         }
     }
+
+    @Override
+    public MethodHandle getHostParallelKernel(Method method) {
+        return ASMHostKernelBuilder.build(method);
+    }
+
+    @Override
+    public Method getFusedKernel(Method[] tasks, int[][] argumentMapping, Class<?>[] parameterTypes) {
+        return ASMFusedKernelBuilder.build(tasks, argumentMapping, parameterTypes);
+    }
 }
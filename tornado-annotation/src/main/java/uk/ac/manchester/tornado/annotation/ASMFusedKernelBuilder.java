@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+
+/**
+ * Builds the methods that fuse a sequence of tasks into a single kernel. The
+ * new method takes the union of the arguments of the tasks and calls each task
+ * in order, so that the compiler can inline the tasks and merge their loops.
+ *
+ * <p>
+ * The new class is defined in the package of the first task when its module is
+ * open, so package-private tasks can be fused. Otherwise, it is defined in this
+ * package and the tasks must be public. The class files are kept, because the
+ * parallel annotations of the generated methods are read from their bytecode.
+ * </p>
+ */
+public final class ASMFusedKernelBuilder {
+
+    private static final String KERNEL_CLASS_SUFFIX = "$$TornadoFusedKernel";
+    private static final AtomicInteger kernelCounter = new AtomicInteger(0);
+    private static final Map<String, byte[]> generatedClasses = new ConcurrentHashMap<>();
+    private static final TornadoLogger logger = new TornadoLogger(ASMFusedKernelBuilder.class);
+
+    private ASMFusedKernelBuilder() {
+    }
+
+    private static Method unsupported(Method[] tasks, String reason) {
+        logger.debug("[Task Fusion] %s cannot be fused: %s", getKernelName(tasks), reason);
+        return null;
+    }
+
+    private static String getKernelName(Method[] tasks) {
+        StringBuilder name = new StringBuilder("fused");
+        for (Method task : tasks) {
+            name.append('_').append(task.getName());
+        }
+        return name.toString();
+    }
+
+    /**
+     * Returns the class file of a fused kernel class, or {@code null} if the class
+     * was not generated by this builder.
+     */
+    static byte[] getClassFile(String className) {
+        return generatedClasses.get(className);
+    }
+
+    private static boolean isAccessibleFromPackage(Method task, Class<?> host) {
+        Class<?> declaringClass = task.getDeclaringClass();
+        if (Modifier.isPrivate(task.getModifiers())) {
+            return false;
+        } else if (Modifier.isPublic(task.getModifiers()) && Modifier.isPublic(declaringClass.getModifiers())) {
+            return isExported(declaringClass);
+        }
+        return declaringClass.getPackageName().equals(host.getPackageName()) && declaringClass.getClassLoader() == host.getClassLoader();
+    }
+
+    private static boolean isPublic(Method task) {
+        return Modifier.isPublic(task.getModifiers()) && Modifier.isPublic(task.getDeclaringClass().getModifiers()) && isExported(task.getDeclaringClass());
+    }
+
+    private static boolean isExported(Class<?> klass) {
+        return klass.getModule().isExported(klass.getPackageName(), ASMFusedKernelBuilder.class.getModule());
+    }
+
+    /**
+     * Reads the names of the parameters of a task from its local variable table.
+     */
+    private static String[] readParameterNames(Method task) {
+        String[] names = new String[task.getParameterCount()];
+        int[] slots = new int[task.getParameterCount()];
+        int slot = 0;
+        for (int i = 0; i < names.length; i++) {
+            slots[i] = slot;
+            slot += Type.getType(task.getParameterTypes()[i]).getSize();
+        }
+        String classFile = task.getDeclaringClass().getName().replace('.', '/') + ".class";
+        ClassLoader classLoader = task.getDeclaringClass().getClassLoader() != null ? task.getDeclaringClass().getClassLoader() : ClassLoader.getSystemClassLoader();
+        try (InputStream inputStream = classLoader.getResourceAsStream(classFile)) {
+            if (inputStream == null) {
+                return names;
+            }
+            final String descriptor = Type.getMethodDescriptor(task);
+            new ClassReader(inputStream).accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String methodDescriptor, String signature, String[] exceptions) {
+                    if (!name.equals(task.getName()) || !methodDescriptor.equals(descriptor)) {
+                        return null;
+                    }
+                    return new MethodVisitor(Opcodes.ASM9) {
+                        @Override
+                        public void visitLocalVariable(String localName, String localDescriptor, String localSignature, Label start, Label end, int index) {
+                            for (int i = 0; i < slots.length; i++) {
+                                if (slots[i] == index && names[i] == null) {
+                                    names[i] = localName;
+                                }
+                            }
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_FRAMES);
+        } catch (IOException e) {
+            logger.debug("[Task Fusion] the parameter names of %s could not be read: %s", task.getName(), e.getMessage());
+        }
+        return names;
+    }
+
+    private static String[] getParameterNames(Method[] tasks, int[][] argumentMapping, int numParameters) {
+        String[] names = new String[numParameters];
+        Set<String> used = new HashSet<>();
+        for (int t = 0; t < tasks.length; t++) {
+            String[] taskNames = readParameterNames(tasks[t]);
+            for (int i = 0; i < taskNames.length; i++) {
+                int parameter = argumentMapping[t][i];
+                if (names[parameter] == null && taskNames[i] != null && used.add(taskNames[i])) {
+                    names[parameter] = taskNames[i];
+                }
+            }
+        }
+        for (int i = 0; i < numParameters; i++) {
+            if (names[i] == null) {
+                String name = "arg" + i;
+                while (!used.add(name)) {
+                    name = "_" + name;
+                }
+                names[i] = name;
+            }
+        }
+        return names;
+    }
+
+    private static byte[] generate(String className, String methodName, Method[] tasks, int[][] argumentMapping, Class<?>[] parameterTypes) {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V21, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, "java/lang/Object", null);
+
+        Type[] argumentTypes = new Type[parameterTypes.length];
+        int[] slots = new int[parameterTypes.length];
+        int slot = 0;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            argumentTypes[i] = Type.getType(parameterTypes[i]);
+            slots[i] = slot;
+            slot += argumentTypes[i].getSize();
+        }
+        MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, methodName, Type.getMethodDescriptor(Type.VOID_TYPE, argumentTypes), null, null);
+        methodVisitor.visitCode();
+        Label start = new Label();
+        Label end = new Label();
+        methodVisitor.visitLabel(start);
+        for (int t = 0; t < tasks.length; t++) {
+            Class<?>[] taskParameterTypes = tasks[t].getParameterTypes();
+            for (int i = 0; i < taskParameterTypes.length; i++) {
+                int parameter = argumentMapping[t][i];
+                methodVisitor.visitVarInsn(argumentTypes[parameter].getOpcode(Opcodes.ILOAD), slots[parameter]);
+                if (!taskParameterTypes[i].isPrimitive() && !taskParameterTypes[i].isAssignableFrom(parameterTypes[parameter])) {
+                    methodVisitor.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(taskParameterTypes[i]));
+                }
+            }
+            Class<?> owner = tasks[t].getDeclaringClass();
+            methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(owner), tasks[t].getName(), Type.getMethodDescriptor(tasks[t]), owner.isInterface());
+        }
+        methodVisitor.visitInsn(Opcodes.RETURN);
+        methodVisitor.visitLabel(end);
+        String[] names = getParameterNames(tasks, argumentMapping, parameterTypes.length);
+        for (int i = 0; i < parameterTypes.length; i++) {
+            methodVisitor.visitLocalVariable(names[i], argumentTypes[i].getDescriptor(), null, start, end, slots[i]);
+        }
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * Builds a method that calls the given tasks in order.
+     *
+     * @param tasks
+     *     Static methods of the tasks.
+     * @param argumentMapping
+     *     For each task, the index of the parameter of the new method passed as
+     *     each of its arguments.
+     * @param parameterTypes
+     *     Types of the parameters of the new method.
+     * @return the new method, or {@code null} if the tasks cannot be fused.
+     */
+    public static Method build(Method[] tasks, int[][] argumentMapping, Class<?>[] parameterTypes) {
+        for (Method task : tasks) {
+            String signatureProblem = ASMHostKernelBuilder.checkSignature(task);
+            if (signatureProblem != null) {
+                return unsupported(tasks, signatureProblem);
+            }
+        }
+        final Class<?> host = tasks[0].getDeclaringClass();
+        final String methodName = getKernelName(tasks);
+        try {
+            MethodHandles.Lookup lookup = null;
+            String className = null;
+            boolean accessibleFromHost = true;
+            for (Method task : tasks) {
+                accessibleFromHost &= isAccessibleFromPackage(task, host);
+            }
+            if (accessibleFromHost) {
+                try {
+                    ASMFusedKernelBuilder.class.getModule().addReads(host.getModule());
+                    lookup = MethodHandles.privateLookupIn(host, MethodHandles.lookup());
+                    className = Type.getInternalName(host) + KERNEL_CLASS_SUFFIX + kernelCounter.getAndIncrement();
+                } catch (IllegalAccessException e) {
+                    // The package of the task is not open to this module
+                    lookup = null;
+                }
+            }
+            if (lookup == null) {
+                for (Method task : tasks) {
+                    if (!isPublic(task)) {
+                        return unsupported(tasks, "the task " + task.getName() + " is not public and its package is not open");
+                    }
+                }
+                lookup = MethodHandles.lookup();
+                className = Type.getInternalName(ASMFusedKernelBuilder.class).replace("ASMFusedKernelBuilder", "TornadoFusedKernel") + kernelCounter.getAndIncrement();
+            }
+            for (Method task : tasks) {
+                ASMFusedKernelBuilder.class.getModule().addReads(task.getDeclaringClass().getModule());
+            }
+
+            byte[] classFile = generate(className, methodName, tasks, argumentMapping, parameterTypes);
+            generatedClasses.put(className.replace('/', '.'), classFile);
+            Class<?> kernelClass = lookup.defineClass(classFile);
+            Method kernel = kernelClass.getMethod(methodName, parameterTypes);
+            logger.debug("[Task Fusion] generated %s.%s", kernelClass.getName(), methodName);
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError | IllegalArgumentException | SecurityException e) {
+            return unsupported(tasks, e.toString());
+        }
+    }
+}
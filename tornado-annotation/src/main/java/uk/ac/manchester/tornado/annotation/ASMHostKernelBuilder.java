@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Builds host versions of task methods in which the outermost {@code @Parallel}
+ * loop is split across workers. The new method is defined in a new class that
+ * lives in the same package and class loader as the original method, so it can
+ * access the same package-private members.
+ */
+public final class ASMHostKernelBuilder {
+
+    private static final String KERNEL_CLASS_SUFFIX = "$$TornadoHostKernel";
+    private static final AtomicInteger kernelCounter = new AtomicInteger(0);
+    private static final TornadoLogger logger = new TornadoLogger(ASMHostKernelBuilder.class);
+
+    private ASMHostKernelBuilder() {
+    }
+
+    private static String getParallelAnnotationName() {
+        return ASMMethodVisitor.parallelAnnotationClassPath != null ? ASMMethodVisitor.parallelAnnotationClassPath : Parallel.class.getName();
+    }
+
+    private static int getChunkBits() {
+        int chunk = Math.max(1, TornadoOptions.HOST_PARALLEL_FALLBACK_CHUNK);
+        return Integer.numberOfTrailingZeros(Integer.highestOneBit(chunk));
+    }
+
+    private static MethodHandle unsupported(Method method, String reason) {
+        logger.debug("[Host Fallback] %s.%s runs sequentially: %s", method.getDeclaringClass().getSimpleName(), method.getName(), reason);
+        return null;
+    }
+
+    static String checkSignature(Method method) {
+        if (!Modifier.isStatic(method.getModifiers())) {
+            return "the task is not a static method";
+        }
+        if (method.getReturnType() != void.class) {
+            return "the task returns a value";
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (parameterType == KernelContext.class) {
+                return "the task uses the KernelContext API";
+            }
+        }
+        for (Annotation[] annotations : method.getParameterAnnotations()) {
+            for (Annotation annotation : annotations) {
+                if (annotation instanceof Reduce) {
+                    return "the task contains a reduction";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static byte[] readClassFile(Class<?> klass) throws IOException {
+        String classFile = klass.getName().replace('.', '/') + ".class";
+        InputStream inputStream = klass.getResourceAsStream("/" + classFile);
+        if (inputStream == null) {
+            inputStream = ClassLoader.getSystemClassLoader().getResourceAsStream(classFile);
+        }
+        if (inputStream == null) {
+            throw new IOException("Class file not found: " + classFile);
+        }
+        try (InputStream in = inputStream) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * The new class is not a nest-mate of the original one. Any access to a private
+     * member would fail at link time, potentially after some iterations have
+     * already been executed, so these methods are rejected up-front.
+     */
+    private static boolean referencesPrivateMember(Class<?> declaringClass, ASMParallelLoopScanner scanner) {
+        final String packagePrefix = Type.getInternalName(declaringClass).substring(0, Type.getInternalName(declaringClass).lastIndexOf('/') + 1);
+        for (ASMParallelLoopScanner.MemberReference reference : scanner.getMemberReferences()) {
+            if (!reference.owner().startsWith(packagePrefix) || reference.owner().substring(packagePrefix.length()).contains("/")) {
+                // Members of other packages can only be public or protected
+                continue;
+            }
+            try {
+                Class<?> owner = Class.forName(reference.owner().replace('/', '.'), false, declaringClass.getClassLoader());
+                if (reference.isField()) {
+                    for (Field field : owner.getDeclaredFields()) {
+                        if (field.getName().equals(reference.name()) && Modifier.isPrivate(field.getModifiers())) {
+                            return true;
+                        }
+                    }
+                } else {
+                    for (Method m : owner.getDeclaredMethods()) {
+                        if (m.getName().equals(reference.name()) && Type.getMethodDescriptor(m).equals(reference.descriptor()) && Modifier.isPrivate(m.getModifiers())) {
+                            return true;
+                        }
+                    }
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ClassWriter createClassWriter(ClassLoader classLoader) {
+        return new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                return classLoader != null ? classLoader : ClassLoader.getSystemClassLoader();
+            }
+        };
+    }
+
+    /**
+     * Builds the host version of the input method.
+     *
+     * @param method
+     *     Static task method.
+     * @return {@link MethodHandle} with the signature of the input method plus two {@code int} parameters
+     *     (worker index, number of workers), or {@code null} if the method cannot be split.
+     */
+    public static MethodHandle build(Method method) {
+        String signatureProblem = checkSignature(method);
+        if (signatureProblem != null) {
+            return unsupported(method, signatureProblem);
+        }
+
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final String methodName = method.getName();
+        final String methodDescriptor = Type.getMethodDescriptor(method);
+
+        try {
+            ClassReader classReader = new ClassReader(readClassFile(declaringClass));
+
+            // First pass: find the loop to split
+            final ASMParallelLoopScanner scanner = new ASMParallelLoopScanner(Opcodes.ASM9, getParallelAnnotationName());
+            classReader.accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    return (name.equals(methodName) && descriptor.equals(methodDescriptor)) ? scanner : null;
+                }
+            }, ClassReader.SKIP_FRAMES);
+
+            ASMParallelLoopScanner.LoopSplitPlan plan = scanner.computePlan();
+            if (plan == null) {
+                return unsupported(method, scanner.getRejectReason());
+            }
+            if (scanner.hasInvokeDynamic()) {
+                return unsupported(method, "the task contains invokedynamic call sites");
+            }
+            if (referencesPrivateMember(declaringClass, scanner)) {
+                return unsupported(method, "the task accesses private members");
+            }
+
+            // Second pass: copy the method into a new class and split the loop
+            Type[] argumentTypes = Type.getArgumentTypes(methodDescriptor);
+            int argumentSlots = 0;
+            for (Type argumentType : argumentTypes) {
+                argumentSlots += argumentType.getSize();
+            }
+            Type[] newArgumentTypes = Arrays.copyOf(argumentTypes, argumentTypes.length + 2);
+            newArgumentTypes[argumentTypes.length] = Type.INT_TYPE;
+            newArgumentTypes[argumentTypes.length + 1] = Type.INT_TYPE;
+            final String newDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, newArgumentTypes);
+
+            final String kernelClassName = Type.getInternalName(declaringClass) + KERNEL_CLASS_SUFFIX + kernelCounter.getAndIncrement();
+            final ClassWriter classWriter = createClassWriter(declaringClass.getClassLoader());
+            final int splitArgumentSlots = argumentSlots;
+            final int chunkBits = getChunkBits();
+
+            classReader.accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                    classWriter.visit(version, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, kernelClassName, null, "java/lang/Object", null);
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    if (name.equals(methodName) && descriptor.equals(methodDescriptor)) {
+                        MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, methodName, newDescriptor, null, exceptions);
+                        return new ASMParallelLoopSplitter(Opcodes.ASM9, methodVisitor, plan, splitArgumentSlots, chunkBits);
+                    }
+                    return null;
+                }
+            }, ClassReader.SKIP_FRAMES);
+            classWriter.visitEnd();
+
+            ASMHostKernelBuilder.class.getModule().addReads(declaringClass.getModule());
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            Class<?> kernelClass = lookup.defineClass(classWriter.toByteArray());
+
+            Class<?>[] parameterTypes = Arrays.copyOf(method.getParameterTypes(), method.getParameterCount() + 2);
+            parameterTypes[method.getParameterCount()] = int.class;
+            parameterTypes[method.getParameterCount() + 1] = int.class;
+            MethodHandle kernel = lookup.findStatic(kernelClass, methodName, MethodType.methodType(void.class, parameterTypes));
+            logger.debug("[Host Fallback] %s.%s split in blocks of %d iterations", declaringClass.getSimpleName(), methodName, 1 << chunkBits);
+            return kernel;
+        } catch (IOException | ReflectiveOperationException | LinkageError | IllegalArgumentException | SecurityException e) {
+            return unsupported(method, e.toString());
+        }
+    }
+}
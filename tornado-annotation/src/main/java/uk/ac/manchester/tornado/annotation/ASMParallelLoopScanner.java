@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.TypePath;
+
+/**
+ * First pass over a task method. It records the position of every instruction
+ * and label, and the ranges of the locals annotated with {@code @Parallel}, so
+ * that {@link #computePlan()} can decide whether the outermost parallel loop
+ * can be split by {@link ASMParallelLoopSplitter}.
+ */
+class ASMParallelLoopScanner extends MethodVisitor {
+
+    private final String parallelAnnotationName;
+    private final Map<Label, Integer> labelPositions;
+    private final List<Integer> opcodes;
+    private final Map<Integer, Label> jumpTargets;
+    private final Map<Integer, int[]> increments;
+    private final Map<Integer, Integer> stores;
+    private final List<MemberReference> memberReferences;
+    private final List<LoopAnnotation> loopAnnotations;
+    private boolean hasInvokeDynamic;
+    private int maxLocals;
+    private String rejectReason;
+
+    ASMParallelLoopScanner(int api, String parallelAnnotationName) {
+        super(api);
+        this.parallelAnnotationName = parallelAnnotationName;
+        this.labelPositions = new HashMap<>();
+        this.opcodes = new ArrayList<>();
+        this.jumpTargets = new HashMap<>();
+        this.increments = new HashMap<>();
+        this.stores = new HashMap<>();
+        this.memberReferences = new ArrayList<>();
+        this.loopAnnotations = new ArrayList<>();
+    }
+
+    record MemberReference(String owner, String name, String descriptor, boolean isField) {
+    }
+
+    private record LoopAnnotation(Label start, Label end, int index) {
+    }
+
+    /**
+     * Description of the loop to split. Positions are instruction indexes in the
+     * original method, counted in the same way by {@link ASMParallelLoopSplitter}.
+     *
+     * @param indexSlot
+     *     Local slot of the induction variable.
+     * @param exitJumpPosition
+     *     Position of the conditional jump that leaves the loop.
+     * @param incrementPosition
+     *     Position of the {@code IINC} that updates the induction variable.
+     * @param maxLocals
+     *     Number of locals of the original method.
+     */
+    record LoopSplitPlan(int indexSlot, int exitJumpPosition, int incrementPosition, int maxLocals) {
+    }
+
+    private void addInstruction(int opcode) {
+        opcodes.add(opcode);
+    }
+
+    private int currentPosition() {
+        return opcodes.size();
+    }
+
+    @Override
+    public void visitLabel(Label label) {
+        labelPositions.put(label, currentPosition());
+    }
+
+    @Override
+    public void visitInsn(int opcode) {
+        addInstruction(opcode);
+    }
+
+    @Override
+    public void visitIntInsn(int opcode, int operand) {
+        addInstruction(opcode);
+    }
+
+    @Override
+    public void visitVarInsn(int opcode, int varIndex) {
+        if (opcode == Opcodes.ISTORE) {
+            stores.put(currentPosition(), varIndex);
+        }
+        addInstruction(opcode);
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+        addInstruction(opcode);
+    }
+
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+        memberReferences.add(new MemberReference(owner, name, descriptor, true));
+        addInstruction(opcode);
+    }
+
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+        memberReferences.add(new MemberReference(owner, name, descriptor, false));
+        addInstruction(opcode);
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+        hasInvokeDynamic = true;
+        addInstruction(Opcodes.INVOKEDYNAMIC);
+    }
+
+    @Override
+    public void visitJumpInsn(int opcode, Label label) {
+        jumpTargets.put(currentPosition(), label);
+        addInstruction(opcode);
+    }
+
+    @Override
+    public void visitLdcInsn(Object value) {
+        addInstruction(Opcodes.LDC);
+    }
+
+    @Override
+    public void visitIincInsn(int varIndex, int increment) {
+        increments.put(currentPosition(), new int[] { varIndex, increment });
+        addInstruction(Opcodes.IINC);
+    }
+
+    @Override
+    public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+        addInstruction(Opcodes.TABLESWITCH);
+    }
+
+    @Override
+    public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+        addInstruction(Opcodes.LOOKUPSWITCH);
+    }
+
+    @Override
+    public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+        addInstruction(Opcodes.MULTIANEWARRAY);
+    }
+
+    @Override
+    public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+        String annotationName = descriptor.replaceFirst("L", "").replace(";", "").replace("/", ".");
+        if (parallelAnnotationName.equals(annotationName)) {
+            if (start.length != 1) {
+                // The annotated variable has several live ranges. We do not try to split it.
+                rejectReason = "the @Parallel induction variable has more than one live range";
+            } else {
+                loopAnnotations.add(new LoopAnnotation(start[0], end[0], index[0]));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void visitMaxs(int maxStack, int maxLocals) {
+        this.maxLocals = maxLocals;
+    }
+
+    List<MemberReference> getMemberReferences() {
+        return memberReferences;
+    }
+
+    boolean hasInvokeDynamic() {
+        return hasInvokeDynamic;
+    }
+
+    String getRejectReason() {
+        return rejectReason;
+    }
+
+    private LoopSplitPlan reject(String reason) {
+        rejectReason = reason;
+        return null;
+    }
+
+    /**
+     * Looks for the shape that javac emits for a counted loop:
+     *
+     * <pre>
+     *     start: condition; if_xx end
+     *            body
+     *            iinc i, 1
+     *            goto start
+     *     end:
+     * </pre>
+     *
+     * @return {@link LoopSplitPlan}, or {@code null} if the method does not have exactly one outermost
+     *     {@code @Parallel} loop of that shape.
+     */
+    LoopSplitPlan computePlan() {
+        if (rejectReason != null) {
+            return null;
+        }
+        if (loopAnnotations.isEmpty()) {
+            return reject("no @Parallel loop found");
+        }
+
+        LoopAnnotation outermost = loopAnnotations.getFirst();
+        for (LoopAnnotation annotation : loopAnnotations) {
+            if (labelPositions.get(annotation.start()) < labelPositions.get(outermost.start())) {
+                outermost = annotation;
+            }
+        }
+
+        final int start = labelPositions.get(outermost.start());
+        final int end = labelPositions.get(outermost.end());
+        for (LoopAnnotation annotation : loopAnnotations) {
+            int nestedStart = labelPositions.get(annotation.start());
+            int nestedEnd = labelPositions.get(annotation.end());
+            if (nestedStart < start || nestedEnd > end) {
+                return reject("more than one outermost @Parallel loop");
+            }
+        }
+
+        final int indexSlot = outermost.index();
+
+        int exitJump = -1;
+        int backEdge = -1;
+        for (int position = start; position < end; position++) {
+            Label target = jumpTargets.get(position);
+            if (target == null) {
+                continue;
+            }
+            int targetPosition = labelPositions.get(target);
+            int opcode = opcodes.get(position);
+            if (exitJump == -1 && opcode != Opcodes.GOTO && targetPosition == end) {
+                exitJump = position;
+            } else if (opcode == Opcodes.GOTO && targetPosition == start) {
+                if (backEdge != -1) {
+                    return reject("the @Parallel loop has more than one back-edge");
+                }
+                backEdge = position;
+            }
+        }
+
+        if (exitJump == -1 || backEdge == -1) {
+            return reject("the @Parallel loop is not a counted loop");
+        }
+
+        final int incrementPosition = backEdge - 1;
+        int[] increment = increments.get(incrementPosition);
+        if (increment == null || increment[0] != indexSlot || increment[1] != 1) {
+            return reject("the @Parallel loop does not have a unit stride");
+        }
+
+        if (exitJump > incrementPosition) {
+            return reject("the @Parallel loop condition is not at the loop header");
+        }
+
+        for (int position = start; position < end; position++) {
+            Integer storedSlot = stores.get(position);
+            int[] otherIncrement = increments.get(position);
+            boolean writesIndex = (storedSlot != null && storedSlot == indexSlot) || (otherIncrement != null && otherIncrement[0] == indexSlot && position != incrementPosition);
+            if (writesIndex) {
+                return reject("the @Parallel induction variable is updated inside the loop body");
+            }
+        }
+
+        return new LoopSplitPlan(indexSlot, exitJump, incrementPosition, maxLocals);
+    }
+}
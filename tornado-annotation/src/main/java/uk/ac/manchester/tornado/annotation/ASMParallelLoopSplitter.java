@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.TypePath;
+
+/**
+ * Second pass over a task method. It copies the method into a new method that
+ * receives two extra {@code int} parameters (worker index and number of
+ * workers) and guards the body of the outermost {@code @Parallel} loop so that
+ * each worker only executes the blocks of iterations it owns. Blocks are
+ * assigned in a round-robin fashion; a worker jumps straight to the first
+ * iteration of its next block instead of visiting every index. The trip count
+ * does not need to be known before running the loop.
+ *
+ * <p>
+ * Locals of the original method that follow the parameters are shifted by two
+ * slots to make room for the new parameters.
+ * </p>
+ */
+class ASMParallelLoopSplitter extends MethodVisitor {
+
+    private final ASMParallelLoopScanner.LoopSplitPlan plan;
+    private final int argumentSlots;
+    private final int chunkBits;
+    private final int workerSlot;
+    private final int numWorkersSlot;
+    private final int blockSlot;
+    private final int distanceSlot;
+    private final int ownedBlockSlot;
+    private final Label incrementLabel;
+    private int position;
+
+    ASMParallelLoopSplitter(int api, MethodVisitor methodVisitor, ASMParallelLoopScanner.LoopSplitPlan plan, int argumentSlots, int chunkBits) {
+        super(api, methodVisitor);
+        this.plan = plan;
+        this.argumentSlots = argumentSlots;
+        this.chunkBits = chunkBits;
+        this.workerSlot = argumentSlots;
+        this.numWorkersSlot = argumentSlots + 1;
+        this.blockSlot = plan.maxLocals() + 2;
+        this.distanceSlot = plan.maxLocals() + 3;
+        this.ownedBlockSlot = plan.maxLocals() + 4;
+        this.incrementLabel = new Label();
+    }
+
+    private int remap(int varIndex) {
+        return varIndex < argumentSlots ? varIndex : varIndex + 2;
+    }
+
+    private void beforeInstruction() {
+        if (position == plan.incrementPosition()) {
+            super.visitLabel(incrementLabel);
+        }
+    }
+
+    private void afterInstruction() {
+        if (position == plan.exitJumpPosition()) {
+            emitOwnershipCheck();
+        }
+        position++;
+    }
+
+    /**
+     * Emits:
+     *
+     * <pre>
+     * block = i >> chunkBits;
+     * if (block != ownedBlock) {
+     *     distance = Math.floorMod(block - worker, numWorkers);
+     *     if (distance != 0) {
+     *         i = (int) Math.min(((long) block + numWorkers - distance << chunkBits) - 1, Integer.MAX_VALUE - 1);
+     *         goto increment;
+     *     }
+     *     ownedBlock = block;
+     * }
+     * </pre>
+     *
+     * The start of the next block is computed in {@code long}, because it is past
+     * {@link Integer#MAX_VALUE} for the last blocks of a loop that ends near it.
+     * The index is then clamped, so the increment sets it to
+     * {@link Integer#MAX_VALUE}, which ends any loop with an {@code int} bound.
+     * The common case (an iteration inside the block that the worker is already
+     * executing) only costs a shift and a comparison.
+     */
+    private void emitOwnershipCheck() {
+        final int indexSlot = remap(plan.indexSlot());
+        Label body = new Label();
+        Label owned = new Label();
+
+        super.visitVarInsn(Opcodes.ILOAD, indexSlot);
+        super.visitIntInsn(Opcodes.BIPUSH, chunkBits);
+        super.visitInsn(Opcodes.ISHR);
+        super.visitVarInsn(Opcodes.ISTORE, blockSlot);
+
+        super.visitVarInsn(Opcodes.ILOAD, blockSlot);
+        super.visitVarInsn(Opcodes.ILOAD, ownedBlockSlot);
+        super.visitJumpInsn(Opcodes.IF_ICMPEQ, body);
+
+        super.visitVarInsn(Opcodes.ILOAD, blockSlot);
+        super.visitVarInsn(Opcodes.ILOAD, workerSlot);
+        super.visitInsn(Opcodes.ISUB);
+        super.visitVarInsn(Opcodes.ILOAD, numWorkersSlot);
+        super.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "floorMod", "(II)I", false);
+        super.visitVarInsn(Opcodes.ISTORE, distanceSlot);
+
+        super.visitVarInsn(Opcodes.ILOAD, distanceSlot);
+        super.visitJumpInsn(Opcodes.IFEQ, owned);
+
+        super.visitVarInsn(Opcodes.ILOAD, blockSlot);
+        super.visitInsn(Opcodes.I2L);
+        super.visitVarInsn(Opcodes.ILOAD, numWorkersSlot);
+        super.visitInsn(Opcodes.I2L);
+        super.visitInsn(Opcodes.LADD);
+        super.visitVarInsn(Opcodes.ILOAD, distanceSlot);
+        super.visitInsn(Opcodes.I2L);
+        super.visitInsn(Opcodes.LSUB);
+        super.visitIntInsn(Opcodes.BIPUSH, chunkBits);
+        super.visitInsn(Opcodes.LSHL);
+        super.visitInsn(Opcodes.LCONST_1);
+        super.visitInsn(Opcodes.LSUB);
+        super.visitLdcInsn((long) Integer.MAX_VALUE - 1);
+        super.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "min", "(JJ)J", false);
+        super.visitInsn(Opcodes.L2I);
+        super.visitVarInsn(Opcodes.ISTORE, indexSlot);
+        super.visitJumpInsn(Opcodes.GOTO, incrementLabel);
+
+        super.visitLabel(owned);
+        super.visitVarInsn(Opcodes.ILOAD, blockSlot);
+        super.visitVarInsn(Opcodes.ISTORE, ownedBlockSlot);
+
+        super.visitLabel(body);
+    }
+
+    @Override
+    public void visitCode() {
+        super.visitCode();
+        // No block is owned before the first iteration
+        super.visitLdcInsn(Integer.MIN_VALUE);
+        super.visitVarInsn(Opcodes.ISTORE, ownedBlockSlot);
+    }
+
+    @Override
+    public void visitParameter(String name, int access) {
+        // The copy has a different number of parameters
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        return null;
+    }
+
+    @Override
+    public void visitAnnotableParameterCount(int parameterCount, boolean visible) {
+        // Parameter annotations are not copied
+    }
+
+    @Override
+    public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+        return null;
+    }
+
+    @Override
+    public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        return null;
+    }
+
+    @Override
+    public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        return null;
+    }
+
+    @Override
+    public AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        return null;
+    }
+
+    @Override
+    public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+        return null;
+    }
+
+    @Override
+    public void visitFrame(int type, int numLocal, Object[] local, int numStack, Object[] stack) {
+        // Frames are recomputed by the ClassWriter
+    }
+
+    @Override
+    public void visitInsn(int opcode) {
+        beforeInstruction();
+        super.visitInsn(opcode);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitIntInsn(int opcode, int operand) {
+        beforeInstruction();
+        super.visitIntInsn(opcode, operand);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitVarInsn(int opcode, int varIndex) {
+        beforeInstruction();
+        super.visitVarInsn(opcode, remap(varIndex));
+        afterInstruction();
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+        beforeInstruction();
+        super.visitTypeInsn(opcode, type);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+        beforeInstruction();
+        super.visitFieldInsn(opcode, owner, name, descriptor);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+        beforeInstruction();
+        super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+        beforeInstruction();
+        super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitJumpInsn(int opcode, Label label) {
+        beforeInstruction();
+        super.visitJumpInsn(opcode, label);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitLdcInsn(Object value) {
+        beforeInstruction();
+        super.visitLdcInsn(value);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitIincInsn(int varIndex, int increment) {
+        beforeInstruction();
+        super.visitIincInsn(remap(varIndex), increment);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+        beforeInstruction();
+        super.visitTableSwitchInsn(min, max, dflt, labels);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+        beforeInstruction();
+        super.visitLookupSwitchInsn(dflt, keys, labels);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+        beforeInstruction();
+        super.visitMultiANewArrayInsn(descriptor, numDimensions);
+        afterInstruction();
+    }
+
+    @Override
+    public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index) {
+        super.visitLocalVariable(name, descriptor, signature, start, end, remap(index));
+    }
+
+    @Override
+    public void visitMaxs(int maxStack, int maxLocals) {
+        // Recomputed by the ClassWriter (COMPUTE_FRAMES)
+        super.visitMaxs(0, 0);
+    }
+}
@@ -19,10 +19,12 @@ package uk.ac.manchester.tornado.api;
 
 import uk.ac.manchester.tornado.api.plan.types.OffConcurrentDevices;
 import uk.ac.manchester.tornado.api.plan.types.OffMemoryLimit;
+import uk.ac.manchester.tornado.api.plan.types.OffPrelinkedBytecodes;
 import uk.ac.manchester.tornado.api.plan.types.OffPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.OffProfiler;
 import uk.ac.manchester.tornado.api.plan.types.OffThreadInfo;
 import uk.ac.manchester.tornado.api.plan.types.WithAllGraphs;
+import uk.ac.manchester.tornado.api.plan.types.WithAutomaticBatch;
 import uk.ac.manchester.tornado.api.plan.types.WithBatch;
 import uk.ac.manchester.tornado.api.plan.types.WithClearProfiles;
 import uk.ac.manchester.tornado.api.plan.types.WithCompilerFlags;
@@ -34,6 +36,8 @@ import uk.ac.manchester.tornado.api.plan.types.WithFreeDeviceMemory;
 import uk.ac.manchester.tornado.api.plan.types.WithGraph;
 import uk.ac.manchester.tornado.api.plan.types.WithGridScheduler;
 import uk.ac.manchester.tornado.api.plan.types.WithMemoryLimit;
+import uk.ac.manchester.tornado.api.plan.types.WithPipelinedBatch;
+import uk.ac.manchester.tornado.api.plan.types.WithPrelinkedBytecodes;
 import uk.ac.manchester.tornado.api.plan.types.WithPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.WithProfiler;
 import uk.ac.manchester.tornado.api.plan.types.WithResetDevice;
@@ -41,10 +45,10 @@ import uk.ac.manchester.tornado.api.plan.types.WithThreadInfo;
 import uk.ac.manchester.tornado.api.plan.types.WithWarmUp;
 
 public abstract sealed class ExecutionPlanType extends TornadoExecutionPlan //
-        permits OffConcurrentDevices, OffMemoryLimit, OffPrintKernel, OffProfiler, //
-        OffThreadInfo, WithAllGraphs, WithBatch, WithClearProfiles, WithCompilerFlags,  //
+        permits OffConcurrentDevices, OffMemoryLimit, OffPrelinkedBytecodes, OffPrintKernel, OffProfiler, //
+        OffThreadInfo, WithAllGraphs, WithAutomaticBatch, WithBatch, WithClearProfiles, WithCompilerFlags,  //
         WithConcurrentDevices, WithDefaultScheduler, WithDevice, WithDynamicReconfiguration, //
-        WithFreeDeviceMemory, WithGraph, WithGridScheduler, WithMemoryLimit, WithPrintKernel, //
+        WithFreeDeviceMemory, WithGraph, WithGridScheduler, WithMemoryLimit, WithPipelinedBatch, WithPrelinkedBytecodes, WithPrintKernel, //
         WithProfiler, WithResetDevice, WithThreadInfo, WithWarmUp { //
 
     public ExecutionPlanType(TornadoExecutionPlan parentNode) {
@@ -127,6 +127,18 @@ public class ImmutableTaskGraph {
         return taskGraph.getTotalBytesCopyOut();
     }
 
+    long getBatchPipelineTime() {
+        return taskGraph.getBatchPipelineTime();
+    }
+
+    long getBatchOverlapTime() {
+        return taskGraph.getBatchOverlapTime();
+    }
+
+    long getDynamicReconfigurationExplorationTime() {
+        return taskGraph.getDynamicReconfigurationExplorationTime();
+    }
+
     String getProfileLog() {
         return taskGraph.getProfileLog();
     }
@@ -155,6 +167,14 @@ public class ImmutableTaskGraph {
         taskGraph.batch(batchSize);
     }
 
+    void withAutomaticBatch() {
+        taskGraph.automaticBatch();
+    }
+
+    void withPipelinedBatch(String batchSize, int numBufferSlots) {
+        taskGraph.pipelinedBatch(batchSize, numBufferSlots);
+    }
+
     void withMemoryLimit(String memoryLimit) {
         taskGraph.withMemoryLimit(memoryLimit);
     }
@@ -191,6 +211,14 @@ public class ImmutableTaskGraph {
         taskGraph.withoutThreadInfo();
     }
 
+    void withPrelinkedBytecodes() {
+        taskGraph.withPrelinkedBytecodes();
+    }
+
+    void withoutPrelinkedBytecodes() {
+        taskGraph.withoutPrelinkedBytecodes();
+    }
+
     void withPrintKernel() {
         taskGraph.withPrintKernel();
     }
@@ -219,6 +247,10 @@ public class ImmutableTaskGraph {
         return taskGraph.getCurrentDeviceMemoryUsage();
     }
 
+    long getDeviceMemoryUsageWithoutBufferSharing() {
+        return taskGraph.getDeviceMemoryUsageWithoutBufferSharing();
+    }
+
     void mapOnDeviceMemoryRegion(Object destArray, Object srcArray, long offset, ImmutableTaskGraph taskGraphSrc) {
         taskGraph.mapOnDeviceMemoryRegion(destArray, srcArray, offset, taskGraphSrc.taskGraph.taskGraphImpl);
     }
@@ -57,7 +57,7 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: blockIdx.x * blockDim.x + threadIdx.x
      */
-    public final Integer globalIdx = 0;
+    public final Integer globalIdx;
 
     /**
      * It returns the thread identifier for the second dimension.
@@ -66,7 +66,7 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: blockIdx.y * blockDim.y + threadIdx.y
      */
-    public final Integer globalIdy = 0;
+    public final Integer globalIdy;
 
     /**
      * It returns the thread identifier for the third dimension.
@@ -75,14 +75,14 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: blockIdx.z * blockDim.z + threadIdx.z
      */
-    public final Integer globalIdz = 0;
-    public final Integer groupIdx = 0;
-    public final Integer groupIdy = 0;
-    public final Integer groupIdz = 0;
+    public final Integer globalIdz;
+    public final Integer groupIdx;
+    public final Integer groupIdy;
+    public final Integer groupIdz;
 
-    public final Integer localIdx = 0;
-    public final Integer localIdy = 0;
-    public final Integer localIdz = 0;
+    public final Integer localIdx;
+    public final Integer localIdy;
+    public final Integer localIdz;
 
     /**
      * It returns the global group size of a particular dimension (e.g. X, Y, Z).
@@ -91,9 +91,9 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: gridDim * blockDim
      */
-    public final Integer globalGroupSizeX = 0;
-    public final Integer globalGroupSizeY = 0;
-    public final Integer globalGroupSizeZ = 0;
+    public final Integer globalGroupSizeX;
+    public final Integer globalGroupSizeY;
+    public final Integer globalGroupSizeZ;
 
     /**
      * It returns the global group size of a particular dimension (e.g. X, Y, Z).
@@ -102,15 +102,50 @@ public class KernelContext implements ExecutionContext {
      * <p>
      * PTX equivalent: blockDim
      */
-    public final Integer localGroupSizeX = 0;
-    public final Integer localGroupSizeY = 0;
-    public final Integer localGroupSizeZ = 0;
+    public final Integer localGroupSizeX;
+    public final Integer localGroupSizeY;
+    public final Integer localGroupSizeZ;
 
     /**
      * Class constructor specifying a particular {@link WorkerGrid} object.
      */
     public KernelContext() {
+        this(new int[3], new int[3], new int[3], new int[3], new int[3]);
+    }
 
+    /**
+     * Creates the context of a single work-item. It is used to run kernels on the
+     * host, where each work-item reads its own identifiers from the context.
+     *
+     * @param globalId
+     *     Global identifiers of the work-item in the X, Y and Z dimensions.
+     * @param groupId
+     *     Identifiers of the work-group of the work-item.
+     * @param localId
+     *     Identifiers of the work-item within its work-group.
+     * @param globalGroupSize
+     *     Number of work-items in each dimension.
+     * @param localGroupSize
+     *     Number of work-items of the work-group in each dimension.
+     *
+     * @since v1.1.1
+     */
+    protected KernelContext(int[] globalId, int[] groupId, int[] localId, int[] globalGroupSize, int[] localGroupSize) {
+        globalIdx = globalId[0];
+        globalIdy = globalId[1];
+        globalIdz = globalId[2];
+        groupIdx = groupId[0];
+        groupIdy = groupId[1];
+        groupIdz = groupId[2];
+        localIdx = localId[0];
+        localIdy = localId[1];
+        localIdz = localId[2];
+        globalGroupSizeX = globalGroupSize[0];
+        globalGroupSizeY = globalGroupSize[1];
+        globalGroupSizeZ = globalGroupSize[2];
+        localGroupSizeX = localGroupSize[0];
+        localGroupSizeY = localGroupSize[1];
+        localGroupSizeZ = localGroupSize[2];
     }
 
     /**
@@ -796,6 +796,14 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.withBatch(batchSize);
     }
 
+    void automaticBatch() {
+        taskGraphImpl.withAutomaticBatch();
+    }
+
+    void pipelinedBatch(String batchSize, int numBufferSlots) {
+        taskGraphImpl.withPipelinedBatch(batchSize, numBufferSlots);
+    }
+
     void withMemoryLimit(String memoryLimit) {
         taskGraphImpl.withMemoryLimit(memoryLimit);
     }
@@ -895,6 +903,18 @@ public class TaskGraph implements TaskGraphInterface {
         return taskGraphImpl.getTotalBytesCopyOut();
     }
 
+    long getBatchPipelineTime() {
+        return taskGraphImpl.getBatchPipelineTime();
+    }
+
+    long getBatchOverlapTime() {
+        return taskGraphImpl.getBatchOverlapTime();
+    }
+
+    long getDynamicReconfigurationExplorationTime() {
+        return taskGraphImpl.getDynamicReconfigurationExplorationTime();
+    }
+
     protected String getProfileLog() {
         return taskGraphImpl.getProfileLog();
     }
@@ -919,6 +939,14 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.withoutThreadInfo();
     }
 
+    void withPrelinkedBytecodes() {
+        taskGraphImpl.withPrelinkedBytecodes();
+    }
+
+    void withoutPrelinkedBytecodes() {
+        taskGraphImpl.withoutPrelinkedBytecodes();
+    }
+
     void withPrintKernel() {
         taskGraphImpl.withPrintKernel();
     }
@@ -947,6 +975,10 @@ public class TaskGraph implements TaskGraphInterface {
         return taskGraphImpl.getCurrentDeviceMemoryUsage();
     }
 
+    long getDeviceMemoryUsageWithoutBufferSharing() {
+        return taskGraphImpl.getDeviceMemoryUsageWithoutBufferSharing();
+    }
+
     void mapOnDeviceMemoryRegion(Object destArray, Object srcArray, long offset, TornadoTaskGraphInterface taskGraphSrc) {
         taskGraphImpl.mapOnDeviceMemoryRegion(destArray, srcArray, offset, taskGraphSrc);
     }
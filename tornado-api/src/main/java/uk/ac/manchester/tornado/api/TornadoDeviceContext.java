@@ -51,4 +51,30 @@ public interface TornadoDeviceContext {
     int getDriverIndex();
 
     Set<Long> getRegisteredPlanIds();
+
+    /**
+     * Leases the command queues used by an execution of an execution plan.
+     * Backends that share a bounded set of command queues between execution
+     * plans use it to prevent two executions from using the same queue at the
+     * same time.
+     *
+     * @param executionPlanId
+     *     Identifier of the execution plan.
+     * @param transferQueueId
+     *     Identifier of the queue used for the data transfers of the execution
+     *     plan. It is equal to {@code executionPlanId} when the execution plan
+     *     does not use a separate transfer queue.
+     *
+     * @since v1.1.1
+     */
+    default void acquireCommandQueues(long executionPlanId, long transferQueueId) {
+    }
+
+    /**
+     * Returns the command queues leased with {@link #acquireCommandQueues}.
+     *
+     * @since v1.1.1
+     */
+    default void releaseCommandQueues(long executionPlanId, long transferQueueId) {
+    }
 }
@@ -29,10 +29,12 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.plan.types.OffConcurrentDevices;
 import uk.ac.manchester.tornado.api.plan.types.OffMemoryLimit;
+import uk.ac.manchester.tornado.api.plan.types.OffPrelinkedBytecodes;
 import uk.ac.manchester.tornado.api.plan.types.OffPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.OffProfiler;
 import uk.ac.manchester.tornado.api.plan.types.OffThreadInfo;
 import uk.ac.manchester.tornado.api.plan.types.WithAllGraphs;
+import uk.ac.manchester.tornado.api.plan.types.WithAutomaticBatch;
 import uk.ac.manchester.tornado.api.plan.types.WithBatch;
 import uk.ac.manchester.tornado.api.plan.types.WithClearProfiles;
 import uk.ac.manchester.tornado.api.plan.types.WithCompilerFlags;
@@ -44,6 +46,8 @@ import uk.ac.manchester.tornado.api.plan.types.WithFreeDeviceMemory;
 import uk.ac.manchester.tornado.api.plan.types.WithGraph;
 import uk.ac.manchester.tornado.api.plan.types.WithGridScheduler;
 import uk.ac.manchester.tornado.api.plan.types.WithMemoryLimit;
+import uk.ac.manchester.tornado.api.plan.types.WithPipelinedBatch;
+import uk.ac.manchester.tornado.api.plan.types.WithPrelinkedBytecodes;
 import uk.ac.manchester.tornado.api.plan.types.WithPrintKernel;
 import uk.ac.manchester.tornado.api.plan.types.WithProfiler;
 import uk.ac.manchester.tornado.api.plan.types.WithResetDevice;
@@ -399,6 +403,60 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         return new WithBatch(this, batchSize);
     }
 
+    /**
+     * Enable batch processing with a batch size selected by TornadoVM. The batch
+     * size is the largest one for which the batched objects of the task graph fit
+     * in the device memory that is still available, taking into account the
+     * memory limit of the execution plan ({@link #withMemoryLimit(String)}), the
+     * maximum allocation size of the device and the memory used by the kernel
+     * stack frames and the atomics region. The batch size is selected again in
+     * each execution, so it adapts to changes in the input sizes and in the
+     * device memory usage.
+     *
+     * @since v1.1.1
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withAutomaticBatch() {
+        tornadoExecutor.withAutomaticBatch();
+        return new WithAutomaticBatch(this);
+    }
+
+    /**
+     * Enable pipelined batch processing with two device buffers per batched
+     * object. While the kernel processes one batch, TornadoVM copies the next
+     * batch to the device and the previous batch back to the host, using a
+     * separate command queue for the data transfers.
+     *
+     * @param batchSize
+     *     String in the format a number + "MB" Example "512MB".
+     * @since v1.1.1
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withPipelinedBatch(String batchSize) {
+        return withPipelinedBatch(batchSize, 2);
+    }
+
+    /**
+     * Enable pipelined batch processing with a given number of device buffers
+     * per batched object. With N buffers, the copies to the device run up to N - 1
+     * batches ahead of the kernel. The device memory used is N times the batch
+     * size for each batched object.
+     *
+     * @param batchSize
+     *     String in the format a number + "MB" Example "512MB".
+     * @param numBufferSlots
+     *     Number of device buffers per batched object. It must be at least 2.
+     * @since v1.1.1
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withPipelinedBatch(String batchSize, int numBufferSlots) {
+        if (numBufferSlots < 2) {
+            throw new TornadoRuntimeException("[ERROR] Pipelined batches need at least 2 buffer slots. Found: " + numBufferSlots);
+        }
+        tornadoExecutor.withPipelinedBatch(batchSize, numBufferSlots);
+        return new WithPipelinedBatch(this, batchSize, numBufferSlots);
+    }
+
     /**
      * Enables the profiler. The profiler includes options to query device kernel
      * time, data transfers and compilation at different stages (JIT, driver
@@ -454,6 +512,35 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         return new OffMemoryLimit(this);
     }
 
+    /**
+     * Execute the TornadoVM bytecodes of this plan through a pre-linked sequence
+     * of actions instead of decoding them on every execution. The bytecodes are
+     * decoded once, after the first execution, and later executions run the
+     * linked actions directly. This reduces the host-side dispatch cost for small
+     * kernels that are launched very often.
+     *
+     * @since v1.1.1
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withPrelinkedBytecodes() {
+        tornadoExecutor.withPrelinkedBytecodes();
+        return new WithPrelinkedBytecodes(this);
+    }
+
+    /**
+     * Execute the TornadoVM bytecodes of this plan with the bytecode interpreter.
+     * This is the default mode.
+     *
+     * @since v1.1.1
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withoutPrelinkedBytecodes() {
+        tornadoExecutor.withoutPrelinkedBytecodes();
+        return new OffPrelinkedBytecodes(this);
+    }
+
     /**
      * Reset the execution context for the current execution plan. The TornadoVM
      * runtime system will clean the code cache and all events associated with the
@@ -566,7 +653,9 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
     }
 
     /**
-     * It returns the current memory usage on the device in bytes.
+     * It returns the current memory usage on the device in bytes. When
+     * intermediate arrays share device buffers (see
+     * {@code -Dtornado.buffers.liveness}), this is the footprint after sharing.
      * 
      * @return long
      *     Number of bytes used.
@@ -575,6 +664,20 @@ public sealed class TornadoExecutionPlan implements AutoCloseable permits Execut
         return tornadoExecutor.getCurrentDeviceMemoryUsage();
     }
 
+    /**
+     * It returns the memory usage on the device in bytes that the execution plan
+     * would have if each intermediate array had its own device buffer. Compared
+     * with {@link #getCurrentDeviceMemoryUsage()}, it gives the footprint before
+     * and after the buffer sharing of {@code -Dtornado.buffers.liveness}. Both
+     * are equal when no buffers are shared.
+     *
+     * @return long
+     *     Number of bytes used without buffer sharing.
+     */
+    public long getDeviceMemoryUsageWithoutBufferSharing() {
+        return tornadoExecutor.getDeviceMemoryUsageWithoutBufferSharing();
+    }
+
     public TornadoExecutionResult getPlanResult(int index) {
         if (index >= planResults.size()) {
             throw new TornadoRuntimeException("[ERROR] Execution result not found");
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+
+/**
+ * Runs an execution plan once per chunk of data taken from a source of
+ * {@link MemorySegment} chunks, and passes the output of each execution to a
+ * sink.
+ *
+ * <p>
+ * The task-graph of the execution plan reads the chunks from an input native
+ * array and writes the results to an output native array. Both arrays are
+ * reused by all chunks, so the device buffers are allocated once. The input
+ * array must be transferred with
+ * {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#EVERY_EXECUTION}
+ * and its capacity determines the maximum chunk size. If a chunk is smaller,
+ * the remaining bytes of the input array are set to zero, and the sink receives
+ * the number of valid elements of the chunk.
+ * </p>
+ *
+ * <p>
+ * The source and the sink run in their own threads, so the device executes the
+ * next chunk while the source produces data and the sink consumes results. The
+ * number of chunks between the source and the sink is bounded: when the sink
+ * falls behind, the execution waits, and when the execution falls behind, the
+ * source waits (backpressure).
+ * </p>
+ *
+ * <p>
+ * The source does not need to be interruptible. When the stream ends before the
+ * source is exhausted, the source thread is interrupted and given
+ * {@link #SOURCE_SHUTDOWN_TIMEOUT_MILLIS} milliseconds to finish. If it is
+ * still blocked after that time, for example in a read that ignores
+ * interrupts, it is left running as a daemon thread and its chunks are
+ * discarded.
+ * </p>
+ *
+ * <p>
+ * How to use?
+ * </p>
+ *
+ * <code>
+ * TornadoExecutionStream stream = new TornadoExecutionStream(executionPlan, input, output, 4);
+ * long numChunks = stream.run(source, (chunkIndex, result, numElements) -> consume(result, numElements));
+ * </code>
+ *
+ * @since v1.1.1
+ */
+public class TornadoExecutionStream {
+
+    /**
+     * Time that the source thread is given to finish after the stream ends.
+     */
+    public static final long SOURCE_SHUTDOWN_TIMEOUT_MILLIS = 1000;
+
+    private static final Chunk END_OF_STREAM = new Chunk(-1, null, 0);
+
+    private final TornadoExecutionPlan executionPlan;
+    private final TornadoNativeArray input;
+    private final TornadoNativeArray output;
+    private final int maxInFlightChunks;
+
+    /**
+     * Sink that receives the output of the execution plan for each chunk.
+     */
+    @FunctionalInterface
+    public interface ChunkSink {
+        /**
+         * @param chunkIndex
+         *     Index of the chunk in the source, starting at 0.
+         * @param result
+         *     Copy of the output array, without the array header. It is only
+         *     valid until this method returns.
+         * @param numElements
+         *     Number of elements of the input array that were filled by the
+         *     chunk. It is smaller than the size of the input array for a
+         *     partial chunk, usually the last one, whose remaining elements are
+         *     zero.
+         */
+        void accept(long chunkIndex, MemorySegment result, int numElements);
+    }
+
+    /**
+     * @param executionPlan
+     *     Execution plan to run once per chunk.
+     * @param input
+     *     Native array of the task-graph that receives each chunk.
+     * @param output
+     *     Native array of the task-graph with the result of each chunk.
+     * @param maxInFlightChunks
+     *     Maximum number of chunks waiting to be executed, and maximum number of
+     *     results waiting for the sink.
+     */
+    public TornadoExecutionStream(TornadoExecutionPlan executionPlan, TornadoNativeArray input, TornadoNativeArray output, int maxInFlightChunks) {
+        if (maxInFlightChunks < 1) {
+            throw new TornadoRuntimeException("[ERROR] The number of chunks in flight must be at least 1. Found: " + maxInFlightChunks);
+        }
+        this.executionPlan = executionPlan;
+        this.input = input;
+        this.output = output;
+        this.maxInFlightChunks = maxInFlightChunks;
+    }
+
+    /**
+     * Runs the execution plan for all chunks of the source. The segments returned
+     * by the source must remain valid until the execution of their chunk starts,
+     * which happens at most {@code maxInFlightChunks} chunks later.
+     *
+     * @param source
+     *     Source of chunks. It is consumed in a separate thread.
+     * @param sink
+     *     Sink of results. It is called in a separate thread, in chunk order.
+     * @return number of chunks processed.
+     * @throws InterruptedException
+     *     if the calling thread is interrupted while waiting for the source or
+     *     the sink.
+     */
+    public long run(Iterator<MemorySegment> source, ChunkSink sink) throws InterruptedException {
+        final BlockingQueue<Chunk> pendingChunks = new ArrayBlockingQueue<>(maxInFlightChunks);
+        final BlockingQueue<Chunk> pendingResults = new ArrayBlockingQueue<>(maxInFlightChunks);
+        final BlockingQueue<MemorySegment> freeResults = new ArrayBlockingQueue<>(maxInFlightChunks);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        try (Arena arena = Arena.ofShared()) {
+            for (int i = 0; i < maxInFlightChunks; i++) {
+                freeResults.add(arena.allocate(output.getNumBytesOfSegment(), Long.BYTES));
+            }
+
+            Thread sourceThread = Thread.ofPlatform().daemon().name("TornadoStream-Source").start(() -> {
+                try {
+                    long chunkIndex = 0;
+                    while (source.hasNext() && failure.get() == null) {
+                        pendingChunks.put(new Chunk(chunkIndex++, source.next(), 0));
+                    }
+                    pendingChunks.put(END_OF_STREAM);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    // The execution checks for failures after each chunk, so the end of the stream
+                    // is only needed when it waits for a new chunk, with the queue empty.
+                    pendingChunks.offer(END_OF_STREAM);
+                }
+            });
+
+            Thread sinkThread = Thread.ofPlatform().daemon().name("TornadoStream-Sink").start(() -> {
+                try {
+                    for (Chunk result = pendingResults.take(); result != END_OF_STREAM; result = pendingResults.take()) {
+                        if (failure.get() == null) {
+                            sink.accept(result.index(), result.segment(), result.numElements());
+                        }
+                        freeResults.put(result.segment());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    // Keep releasing the results, so the execution does not wait for the sink
+                    drainResults(pendingResults, freeResults);
+                }
+            });
+
+            long numChunks = 0;
+            boolean interrupted = false;
+            try {
+                for (Chunk chunk = pendingChunks.take(); chunk != END_OF_STREAM && failure.get() == null; chunk = pendingChunks.take()) {
+                    copyToInput(chunk.segment());
+                    executionPlan.execute();
+                    MemorySegment result = freeResults.take();
+                    result.copyFrom(output.getSegment());
+                    pendingResults.put(new Chunk(chunk.index(), result, (int) (chunk.segment().byteSize() / input.getElementSize())));
+                    numChunks++;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                // Unblock the source if it waits for a free slot
+                sourceThread.interrupt();
+                if (interrupted) {
+                    sinkThread.interrupt();
+                } else {
+                    pendingResults.put(END_OF_STREAM);
+                }
+                // The source may be blocked in a call that ignores interrupts, so it is not
+                // waited for indefinitely. It does not use the result buffers of the arena.
+                sourceThread.join(SOURCE_SHUTDOWN_TIMEOUT_MILLIS);
+                sinkThread.join();
+            }
+            if (interrupted) {
+                throw new InterruptedException("Stream interrupted after " + numChunks + " chunks");
+            }
+
+            Throwable error = failure.get();
+            if (error instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (error instanceof Error e) {
+                throw e;
+            } else if (error instanceof Exception exception) {
+                throw new TornadoRuntimeException(exception);
+            }
+            return numChunks;
+        }
+    }
+
+    private void copyToInput(MemorySegment chunk) {
+        MemorySegment inputSegment = input.getSegment();
+        if (chunk.byteSize() > inputSegment.byteSize()) {
+            throw new TornadoRuntimeException("[ERROR] Chunk of " + chunk.byteSize() + " bytes does not fit in the input array of " + inputSegment.byteSize() + " bytes");
+        }
+        MemorySegment.copy(chunk, 0, inputSegment, 0, chunk.byteSize());
+        if (chunk.byteSize() < inputSegment.byteSize()) {
+            inputSegment.asSlice(chunk.byteSize()).fill((byte) 0);
+        }
+    }
+
+    private static void drainResults(BlockingQueue<Chunk> pendingResults, BlockingQueue<MemorySegment> freeResults) {
+        try {
+            for (Chunk result = pendingResults.take(); result != END_OF_STREAM; result = pendingResults.take()) {
+                freeResults.put(result.segment());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Chunk(long index, MemorySegment segment, int numElements) {
+    }
+}
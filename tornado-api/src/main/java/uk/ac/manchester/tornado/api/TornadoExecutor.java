@@ -75,6 +75,14 @@ class TornadoExecutor {
         immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withBatch(batchSize));
     }
 
+    void withAutomaticBatch() {
+        immutableTaskGraphList.forEach(ImmutableTaskGraph::withAutomaticBatch);
+    }
+
+    void withPipelinedBatch(String batchSize, int numBufferSlots) {
+        immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withPipelinedBatch(batchSize, numBufferSlots));
+    }
+
     void withMemoryLimit(String memoryLimit) {
         immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withMemoryLimit(memoryLimit));
     }
@@ -179,6 +187,18 @@ class TornadoExecutor {
         return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getTotalBytesCopyOut).mapToLong(Long::longValue).sum();
     }
 
+    long getBatchPipelineTime() {
+        return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getBatchPipelineTime).mapToLong(Long::longValue).sum();
+    }
+
+    long getBatchOverlapTime() {
+        return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getBatchOverlapTime).mapToLong(Long::longValue).sum();
+    }
+
+    long getDynamicReconfigurationExplorationTime() {
+        return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getDynamicReconfigurationExplorationTime).mapToLong(Long::longValue).sum();
+    }
+
     String getProfileLog() {
         return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getProfileLog).collect(Collectors.joining());
     }
@@ -216,6 +236,14 @@ class TornadoExecutor {
         immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutThreadInfo);
     }
 
+    void withPrelinkedBytecodes() {
+        immutableTaskGraphList.forEach(ImmutableTaskGraph::withPrelinkedBytecodes);
+    }
+
+    void withoutPrelinkedBytecodes() {
+        immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutPrelinkedBytecodes);
+    }
+
     void withPrintKernel() {
         immutableTaskGraphList.forEach(ImmutableTaskGraph::withPrintKernel);
     }
@@ -240,6 +268,10 @@ class TornadoExecutor {
         return immutableTaskGraphList.stream().mapToLong(ImmutableTaskGraph::getCurrentDeviceMemoryUsage).sum();
     }
 
+    long getDeviceMemoryUsageWithoutBufferSharing() {
+        return immutableTaskGraphList.stream().mapToLong(ImmutableTaskGraph::getDeviceMemoryUsageWithoutBufferSharing).sum();
+    }
+
     void selectGraph(int graphIndex) {
         if (subgraphList == null) {
             subgraphList = new ArrayList<>();
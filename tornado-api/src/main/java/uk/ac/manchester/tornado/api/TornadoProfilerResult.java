@@ -228,6 +228,44 @@ public class TornadoProfilerResult implements ProfilerInterface {
         return executor.getTotalDeviceMemoryUsage();
     }
 
+    /**
+     * Returns the total time (in ns) spent in pipelined batch processing, enabled
+     * with {@link TornadoExecutionPlan#withPipelinedBatch(String)}. It returns 0 if
+     * the execution plan does not use pipelined batches.
+     *
+     * @return long
+     */
+    @Override
+    public long getBatchPipelineTime() {
+        return executor.getBatchPipelineTime();
+    }
+
+    /**
+     * Returns the time (in ns) in which data transfers and kernels of different
+     * batches ran at the same time. The value is measured from the host, and the
+     * pipeline is efficient when it is close to the shorter of the total transfer
+     * time and the total kernel time.
+     *
+     * @return long
+     */
+    @Override
+    public long getBatchOverlapTime() {
+        return executor.getBatchOverlapTime();
+    }
+
+    /**
+     * Returns the time (in ns) spent by the dynamic reconfiguration to run the
+     * task-graph on all devices and select one. It returns 0 if the execution did
+     * not explore the devices, because a device was already selected by a
+     * previous execution or by the dynamic reconfiguration model.
+     *
+     * @return long
+     */
+    @Override
+    public long getDynamicReconfigurationExplorationTime() {
+        return executor.getDynamicReconfigurationExplorationTime();
+    }
+
     public String getTraceExecutionPlan() {
         return traceExecutionPlan;
     }
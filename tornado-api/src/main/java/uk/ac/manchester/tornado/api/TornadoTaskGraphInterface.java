@@ -54,6 +54,10 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
     void withBatch(String batchSize);
 
+    void withPipelinedBatch(String batchSize, int numBufferSlots);
+
+    void withAutomaticBatch();
+
     void withMemoryLimit(String memoryLimit);
 
     void withoutMemoryLimit();
@@ -124,6 +128,10 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
     void withoutThreadInfo();
 
+    void withPrelinkedBytecodes();
+
+    void withoutPrelinkedBytecodes();
+
     void withPrintKernel();
 
     void withoutPrintKernel();
@@ -132,6 +140,8 @@ public interface TornadoTaskGraphInterface extends ProfilerInterface {
 
     long getCurrentDeviceMemoryUsage();
 
+    long getDeviceMemoryUsageWithoutBufferSharing();
+
     Map<String, List<Object>> getPersistedTaskToObjectsMap();
 
     void withCompilerFlags(TornadoVMBackendType backendType, String compilerFlags);
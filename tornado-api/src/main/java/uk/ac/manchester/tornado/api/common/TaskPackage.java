@@ -44,6 +44,12 @@ public class TaskPackage {
 
     private boolean isPrebuiltTask;
 
+    private TaskPackage(String id, int taskType, Object[] taskParameters) {
+        this.id = id;
+        this.taskType = taskType;
+        this.taskParameters = taskParameters;
+    }
+
     public TaskPackage(String id, Task code) {
         this.id = id;
         this.taskType = 0;
@@ -253,4 +259,21 @@ public class TaskPackage {
         return isPrebuiltTask;
     }
 
+    /**
+     * Creates a copy of this task that runs the same code with other arguments.
+     *
+     * @param taskParameters
+     *     Parameters of the new task. The first parameter must be the code of this task, and the rest must have the
+     *     same types as the parameters of this task.
+     * @return a new {@link TaskPackage} with the same identifier and code.
+     */
+    public TaskPackage withTaskParameters(Object[] taskParameters) {
+        if (taskParameters.length != this.taskParameters.length || taskParameters[0] != this.taskParameters[0]) {
+            throw new IllegalArgumentException("The parameters must contain the code of task " + id + " followed by " + (this.taskParameters.length - 1) + " arguments");
+        }
+        TaskPackage taskPackage = new TaskPackage(id, taskType, taskParameters);
+        taskPackage.numThreadsToRun = numThreadsToRun;
+        return taskPackage;
+    }
+
 }
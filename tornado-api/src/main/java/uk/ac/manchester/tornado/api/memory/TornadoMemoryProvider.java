@@ -21,4 +21,47 @@ public interface TornadoMemoryProvider {
 
     long getHeapSize();
 
+    /**
+     * Bounds the number of bytes that a backend may keep cached in released
+     * device buffers for later reuse, until the limit is removed with
+     * {@link #removeBufferPoolLimit(long)}. Backends without a buffer pool ignore
+     * it.
+     *
+     * @param limitInBytes
+     *     Maximum number of bytes retained by the pool.
+     */
+    default void addBufferPoolLimit(long limitInBytes) {
+    }
+
+    /**
+     * Removes a limit added with {@link #addBufferPoolLimit(long)}.
+     *
+     * @param limitInBytes
+     *     The limit to remove.
+     */
+    default void removeBufferPoolLimit(long limitInBytes) {
+    }
+
+    /**
+     * Releases the device buffers cached by the backend for later reuse.
+     */
+    default void drainBufferPool() {
+    }
+
+    /**
+     * @return number of 64-bit slots that the backend reserves at the start of
+     *     each kernel stack frame, before the kernel arguments.
+     */
+    default int getKernelStackFrameReservedSlots() {
+        return 0;
+    }
+
+    /**
+     * @return size in bytes of the region that the backend allocates on the
+     *     device for the atomics of the kernels.
+     */
+    default long getAtomicsRegionSize() {
+        return 0;
+    }
+
 }
@@ -19,6 +19,15 @@ package uk.ac.manchester.tornado.api.profiler;
 
 import java.io.File;
 
+/**
+ * In-memory writer of Chrome trace events.
+ *
+ * @deprecated The events of {@link ChromeEventTracer} are recorded by a bounded
+ *     recorder and written incrementally to the trace file. Events added to this
+ *     writer are not part of that trace; use the {@code enqueue} methods of
+ *     {@link ChromeEventTracer} instead.
+ */
+@Deprecated
 public class ChromeEventJSonWriter extends JSonWriter<ChromeEventJSonWriter> {
     ContentWriter NO_ARGS = null;
 
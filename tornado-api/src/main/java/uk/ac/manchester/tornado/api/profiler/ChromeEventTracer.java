@@ -17,9 +17,14 @@
  */
 package uk.ac.manchester.tornado.api.profiler;
 
-import java.io.File;
 import java.util.Map;
 
+/**
+ * Traces events in the Chrome trace format (chrome://tracing, Perfetto). The
+ * events are recorded in per-thread buffers and written incrementally to the
+ * trace file by {@link ChromeTraceRecorder}, so the memory used by the tracer
+ * is bounded and tracing can stay enabled in long-running applications.
+ */
 public class ChromeEventTracer {
     /**
      * The filename for ChromeEventTracer to write json file.
@@ -27,13 +32,13 @@ public class ChromeEventTracer {
     public static final String CHROME_EVENT_TRACER_FILENAME_KEY = "tornado.chrome.event.tracer.filename";
     public static final String CHROME_EVENT_TRACER_FILENAME = System.getProperties().getProperty(CHROME_EVENT_TRACER_FILENAME_KEY, "chrome.json");
     public static final String CHROME_EVENT_TRACER_ENABLED_KEY = "tornado.chrome.event.tracer.enabled";
-    public static final ChromeEventJSonWriter json = new ChromeEventJSonWriter();
 
-    static {
-        if (isEnabled()) {
-            Runtime.getRuntime().addShutdownHook(new Thread(() -> json.write(new File(getChromeEventTracerFileName()))));
-        }
-    }
+    /**
+     * @deprecated Events added to this writer are not written to the trace file.
+     *     Use the {@code enqueue} methods instead.
+     */
+    @Deprecated
+    public static final ChromeEventJSonWriter json = new ChromeEventJSonWriter();
 
     public ChromeEventTracer() {
 
@@ -61,27 +66,37 @@ public class ChromeEventTracer {
         return isChromeEventTracerEnabled();
     }
 
+    /**
+     * Writes the events recorded so far by all threads to the trace file. The
+     * events are also written periodically and when the JVM exits.
+     */
+    public static void flush() {
+        if (isEnabled()) {
+            ChromeTraceRecorder.getInstance().flush();
+        }
+    }
+
     public static void enqueueWriteIfEnabled(String tag, long bytes, long startNs, long endNs) {
         if (isEnabled()) {
-            json.x(tag, "write", startNs, endNs, () -> json.kv("bytes", bytes));
+            ChromeTraceRecorder.getInstance().record(tag, "write", startNs, endNs, bytes);
         }
     }
 
     public static void enqueueReadIfEnabled(String tag, long bytes, long startNs, long endNs) {
         if (isEnabled()) {
-            json.x(tag, "read", startNs, endNs, () -> json.kv("bytes", bytes));
+            ChromeTraceRecorder.getInstance().record(tag, "read", startNs, endNs, bytes);
         }
     }
 
     public static void enqueueNDRangeKernelIfEnabled(String tag, long startNs, long endNs) {
         if (isEnabled()) {
-            json.x(tag, "NDRangeKernel", startNs, endNs, null);
+            ChromeTraceRecorder.getInstance().record(tag, "NDRangeKernel", startNs, endNs);
         }
     }
 
     public static void enqueueTaskIfEnabled(String tag, long startNs, long endNs) {
         if (isEnabled()) {
-            json.x(tag, "exec", startNs, endNs, null);
+            ChromeTraceRecorder.getInstance().record(tag, "exec", startNs, endNs);
         }
     }
 
@@ -89,7 +104,7 @@ public class ChromeEventTracer {
         long startNs = System.nanoTime();
         r.run();
         if (isEnabled()) {
-            json.x(tag, "trace", startNs, System.nanoTime(), null);
+            ChromeTraceRecorder.getInstance().record(tag, "trace", startNs, System.nanoTime());
         }
     }
 
@@ -97,20 +112,19 @@ public class ChromeEventTracer {
         long startNs = System.nanoTime();
         T value = b.build();
         if (isEnabled()) {
-            json.x(tag, "trace", startNs, System.nanoTime(), null);
+            ChromeTraceRecorder.getInstance().record(tag, "trace", startNs, System.nanoTime());
         }
         return value;
     }
 
     public static void opencltimes(int localId, long queuedNs, long submitNs, long startNs, long endNs, Map<String, ?> meta) {
-        json.x("queued", null, queuedNs, endNs, meta == null ? null : () -> {
-            for (String k : meta.keySet()) {
-                json.kv(k, (String) meta.get(k));
-            }
-        });
-        json.x("submit", null, submitNs, endNs, null);
-        json.x("start", null, startNs, endNs, null);
-        // order queue submit start end
+        if (isEnabled()) {
+            // order queue submit start end
+            ChromeTraceRecorder recorder = ChromeTraceRecorder.getInstance();
+            recorder.record("queued", null, queuedNs, endNs, meta);
+            recorder.record("submit", null, submitNs, endNs);
+            recorder.record("start", null, startNs, endNs);
+        }
     }
 
     public interface Builder<T> {
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.profiler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorder of Chrome trace events with a bounded memory footprint.
+ *
+ * <p>
+ * Each thread records its events into its own ring buffer, without locks. The
+ * slots of the buffer are allocated in chunks the first time the thread reaches
+ * them, so threads that record few events only hold a small buffer. A
+ * background thread drains all buffers periodically and appends the events to
+ * the trace file. When a thread records events faster than they are drained and
+ * its buffer is full, the new events are dropped, and the number of dropped
+ * events is written to the trace as a counter.
+ * </p>
+ *
+ * <p>
+ * Each trace file holds a bounded number of events. When it is full, the file
+ * is closed and the events continue in a new file ({@code chrome.1.json},
+ * {@code chrome.2.json}, etc.). Only the most recent files are kept.
+ * </p>
+ */
+final class ChromeTraceRecorder {
+
+    /**
+     * Number of events of the buffer of each thread. It is rounded up to a power of
+     * two.
+     */
+    static final String BUFFER_SIZE_KEY = "tornado.chrome.event.tracer.buffer";
+
+    /**
+     * Maximum number of events per trace file.
+     */
+    static final String MAX_EVENTS_KEY = "tornado.chrome.event.tracer.events";
+
+    /**
+     * Maximum number of trace files kept on disk.
+     */
+    static final String MAX_FILES_KEY = "tornado.chrome.event.tracer.files";
+
+    /**
+     * Interval in milliseconds between two flushes of the buffers.
+     */
+    static final String FLUSH_INTERVAL_KEY = "tornado.chrome.event.tracer.flush";
+
+    private static final long NO_BYTES = -1;
+
+    private final Path basePath;
+    private final int bufferSize;
+    private final long maxEventsPerFile;
+    private final int maxFiles;
+    private final List<EventBuffer> buffers;
+    private final ThreadLocal<EventBuffer> threadBuffer;
+    private final ScheduledExecutorService flusher;
+
+    // State of the trace files, guarded by this
+    private final Deque<Path> files;
+    private BufferedWriter writer;
+    private long eventsInFile;
+    private int fileIndex;
+    private boolean closed;
+
+    private ChromeTraceRecorder(Path basePath, int bufferSize, long maxEventsPerFile, int maxFiles, long flushIntervalMs) {
+        this.basePath = basePath;
+        this.bufferSize = Integer.highestOneBit(Math.max(bufferSize - 1, 1)) << 1;
+        this.maxEventsPerFile = Math.max(maxEventsPerFile, 1);
+        this.maxFiles = Math.max(maxFiles, 1);
+        this.buffers = new CopyOnWriteArrayList<>();
+        this.threadBuffer = ThreadLocal.withInitial(this::registerThread);
+        this.files = new ArrayDeque<>();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> Thread.ofPlatform().daemon().name("TornadoVM-ChromeTrace").unstarted(runnable));
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    private static final class Holder {
+        private static final ChromeTraceRecorder INSTANCE = new ChromeTraceRecorder( //
+                Path.of(ChromeEventTracer.getChromeEventTracerFileName()), //
+                Integer.getInteger(BUFFER_SIZE_KEY, 16384), //
+                Long.getLong(MAX_EVENTS_KEY, 1_000_000L), //
+                Integer.getInteger(MAX_FILES_KEY, 4), //
+                Long.getLong(FLUSH_INTERVAL_KEY, 1000L));
+    }
+
+    /**
+     * Returns the recorder, and starts it the first time.
+     */
+    static ChromeTraceRecorder getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private EventBuffer registerThread() {
+        EventBuffer buffer = new EventBuffer(Thread.currentThread(), bufferSize);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Records a complete event of the calling thread.
+     */
+    void record(String name, String category, long startNs, long endNs) {
+        threadBuffer.get().offer(name, category, startNs, endNs, NO_BYTES, null);
+    }
+
+    /**
+     * Records a complete event of the calling thread with the number of bytes
+     * transferred.
+     */
+    void record(String name, String category, long startNs, long endNs, long bytes) {
+        threadBuffer.get().offer(name, category, startNs, endNs, bytes, null);
+    }
+
+    /**
+     * Records a complete event of the calling thread with a map of arguments.
+     */
+    void record(String name, String category, long startNs, long endNs, Map<String, ?> args) {
+        threadBuffer.get().offer(name, category, startNs, endNs, NO_BYTES, args);
+    }
+
+    /**
+     * Writes the events of all threads to the trace file.
+     */
+    synchronized void flush() {
+        if (closed) {
+            return;
+        }
+        try {
+            for (EventBuffer buffer : buffers) {
+                drain(buffer);
+                Thread owner = buffer.owner.get();
+                if (buffer.isEmpty() && (owner == null || !owner.isAlive())) {
+                    buffers.remove(buffer);
+                }
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("[TornadoVM] Chrome trace disabled, the file cannot be written: " + e.getMessage());
+            closed = true;
+            flusher.shutdown();
+        }
+    }
+
+    private void drain(EventBuffer buffer) throws IOException {
+        long head = buffer.head;
+        long tail = buffer.tail;
+        for (long i = head; i < tail; i++) {
+            Event event = buffer.slot(i);
+            writeEvent(buffer.threadId, event);
+            event.args = null;
+        }
+        // Release the slots for the producer
+        buffer.head = tail;
+
+        long dropped = buffer.dropped;
+        if (dropped != buffer.reportedDrops) {
+            buffer.reportedDrops = dropped;
+            StringBuilder sb = new StringBuilder(128);
+            sb.append("{\"ph\":\"C\",\"name\":\"dropped events\",\"pid\":0,\"tid\":").append(buffer.threadId);
+            sb.append(",\"ts\":").append(System.nanoTime() / 1000 - JSonWriter.EPOCH_US);
+            sb.append(",\"args\":{\"dropped\":").append(dropped).append("}}");
+            append(sb);
+        }
+    }
+
+    private void writeEvent(long threadId, Event event) throws IOException {
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("{\"ph\":\"X\",\"name\":");
+        quote(sb, event.name);
+        if (event.category != null) {
+            sb.append(",\"cat\":");
+            quote(sb, event.category);
+        }
+        sb.append(",\"pid\":0,\"tid\":").append(threadId);
+        sb.append(",\"ts\":").append(event.startNs / 1000 - JSonWriter.EPOCH_US);
+        sb.append(",\"dur\":").append((event.endNs - event.startNs) / 1000);
+        if (event.bytes != NO_BYTES) {
+            sb.append(",\"args\":{\"bytes\":").append(event.bytes).append('}');
+        } else if (event.args != null) {
+            sb.append(",\"args\":{");
+            boolean first = true;
+            for (Map.Entry<String, ?> entry : event.args.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                quote(sb, entry.getKey());
+                sb.append(':');
+                quote(sb, String.valueOf(entry.getValue()));
+            }
+            sb.append('}');
+        }
+        sb.append('}');
+        append(sb);
+    }
+
+    private static void quote(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private void append(CharSequence event) throws IOException {
+        if (writer == null || eventsInFile >= maxEventsPerFile) {
+            rotate();
+        }
+        writer.write(eventsInFile == 0 ? "\n" : ",\n");
+        writer.append(event);
+        eventsInFile++;
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        Path path = fileIndex == 0 ? basePath : indexedPath(fileIndex);
+        fileIndex++;
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        writer.write("{\"traceEvents\":[");
+        eventsInFile = 0;
+        files.addLast(path);
+        while (files.size() > maxFiles) {
+            Files.deleteIfExists(files.removeFirst());
+        }
+    }
+
+    private Path indexedPath(int index) {
+        String name = basePath.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String indexedName = extension > 0 ? name.substring(0, extension) + "." + index + name.substring(extension) : name + "." + index;
+        return basePath.resolveSibling(indexedName);
+    }
+
+    private void closeFile() throws IOException {
+        if (writer != null) {
+            writer.write("\n]}\n");
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * Writes the remaining events and closes the trace file. It runs at shutdown.
+     */
+    synchronized void close() {
+        flush();
+        flusher.shutdown();
+        if (!closed) {
+            closed = true;
+            try {
+                closeFile();
+            } catch (IOException e) {
+                System.err.println("[TornadoVM] The Chrome trace file cannot be closed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Mutable slot of a ring buffer. Slots are reused, so recording an event only
+     * allocates memory when the thread reaches a chunk of its buffer for the first
+     * time.
+     */
+    private static final class Event {
+        private String name;
+        private String category;
+        private long startNs;
+        private long endNs;
+        private long bytes;
+        private Map<String, ?> args;
+    }
+
+    /**
+     * Single-producer, single-consumer ring buffer. The producer is the thread
+     * that owns the buffer, and the consumer is the flusher, which holds the lock
+     * of the recorder.
+     */
+    private static final class EventBuffer {
+        private static final int CHUNK_SHIFT = 8;
+        private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+        private final long threadId;
+        private final WeakReference<Thread> owner;
+        private final int capacity;
+        // Chunks of slots, allocated by the producer before it publishes their first event
+        private final Event[][] chunks;
+
+        // Next slot to read, written by the consumer
+        private volatile long head;
+        // Next slot to write, written by the producer
+        private volatile long tail;
+        // Written by the producer only
+        private volatile long dropped;
+        // Accessed by the consumer only
+        private long reportedDrops;
+
+        EventBuffer(Thread thread, int size) {
+            this.threadId = thread.threadId();
+            this.owner = new WeakReference<>(thread);
+            this.capacity = size;
+            this.chunks = new Event[(size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT][];
+        }
+
+        /**
+         * Returns the slot of an event that has been published by the producer.
+         */
+        Event slot(long index) {
+            int i = (int) (index & (capacity - 1));
+            return chunks[i >>> CHUNK_SHIFT][i & (CHUNK_SIZE - 1)];
+        }
+
+        private Event allocateSlot(long index) {
+            int i = (int) (index & (capacity - 1));
+            Event[] chunk = chunks[i >>> CHUNK_SHIFT];
+            if (chunk == null) {
+                chunk = new Event[Math.min(CHUNK_SIZE, capacity)];
+                for (int j = 0; j < chunk.length; j++) {
+                    chunk[j] = new Event();
+                }
+                chunks[i >>> CHUNK_SHIFT] = chunk;
+            }
+            return chunk[i & (CHUNK_SIZE - 1)];
+        }
+
+        void offer(String name, String category, long startNs, long endNs, long bytes, Map<String, ?> args) {
+            long t = tail;
+            if (t - head >= capacity) {
+                dropped = dropped + 1;
+                return;
+            }
+            Event event = allocateSlot(t);
+            event.name = name;
+            event.category = category;
+            event.startNs = startNs;
+            event.endNs = endNs;
+            event.bytes = bytes;
+            event.args = args;
+            // Publish the event to the consumer
+            tail = t + 1;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+    }
+}
@@ -48,4 +48,10 @@ public interface ProfilerInterface {
     long getTotalBytesTransferred();
 
     long getTotalDeviceMemoryUsage();
+
+    long getBatchPipelineTime();
+
+    long getBatchOverlapTime();
+
+    long getDynamicReconfigurationExplorationTime();
 }
@@ -44,6 +44,8 @@ public enum ProfilerType {
     TOTAL_BYTE_CODE_GENERATION("Total-Bytecode-Gen"),
     TOTAL_DRIVER_COMPILE_TIME("Total-Driver-Compilation-Time"),
     TOTAL_GRAAL_COMPILE_TIME("Total-Graal-Compilation-Time"),
+    TOTAL_COMPILE_WALL_TIME("Total-Compilation-Wall-Time"),
+    TOTAL_COMPILE_CPU_TIME("Total-Compilation-CPU-Time"),
 
     TOTAL_CODE_GENERATION_TIME("Total-Task-Code-Generation-Time"),
     TOTAL_KERNEL_TIME("Kernel-Time"),
@@ -52,6 +54,9 @@ public enum ProfilerType {
     SYSTEM_POWER_CONSUMPTION_W("System-Power-Consumption-(W)"),
     SYSTEM_VOLTAGE_V("System-Voltage-(V)"),
     SYSTEM_CURRENT_A("System-Current-(A)"),
+    BATCH_PIPELINE_TIME("Batch-Pipeline-Time"),
+    BATCH_OVERLAP_TIME("Batch-Overlap-Time"),
+    DYNAMIC_RECONFIGURATION_EXPLORATION_TIME("Dynamic-Reconfiguration-Exploration-Time"),
     BACKEND("Backend");
     // @formatter:on
 
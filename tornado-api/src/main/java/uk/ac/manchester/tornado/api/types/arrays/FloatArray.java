@@ -20,13 +20,18 @@ package uk.ac.manchester.tornado.api.types.arrays;
 import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
 
 /**
  * This class represents an array of floats stored in native memory.
@@ -63,6 +68,53 @@ public final class FloatArray extends TornadoNativeArray {
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
+    /**
+     * Constructs a new instance of the {@link FloatArray} that will store a user-specified number of elements, allocated with the
+     * given allocator, such as an {@link Arena} or a {@link NativeArrayPool}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The allocator of the memory segment.
+     * @since v1.1.1
+     */
+    public FloatArray(int numberOfElements, SegmentAllocator allocator) {
+        this(numberOfElements, allocator, TornadoNativeArray.DEFAULT_ALIGNMENT);
+    }
+
+    /**
+     * Constructs a new instance of the {@link FloatArray} that will store a user-specified number of elements, allocated with the
+     * given allocator and alignment, such as {@link TornadoNativeArray#PAGE_ALIGNMENT} or {@link TornadoNativeArray#DEVICE_ALIGNMENT}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The allocator of the memory segment.
+     * @param alignment
+     *     The alignment in bytes of the memory segment, including the header. It must be a power of two.
+     * @since v1.1.1
+     */
+    public FloatArray(int numberOfElements, SegmentAllocator allocator, long alignment) {
+        this(TornadoNativeArray.allocateSegment(allocator, alignment, numberOfElements, FLOAT_BYTES), numberOfElements);
+        setPool(allocator);
+    }
+
+    /**
+     * Constructs a new instance of the {@link FloatArray} that uses a segment which already contains the array header.
+     *
+     * @param segmentWithHeader
+     *     The segment, including the header.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    private FloatArray(MemorySegment segmentWithHeader, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / FLOAT_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+    }
+
     /**
      * Constructs a new {@link FloatArray} instance by concatenating the contents of the given array of {@link FloatArray} instances.
      *
@@ -82,9 +134,7 @@ public final class FloatArray extends TornadoNativeArray {
      */
     private static FloatArray createSegment(float[] values) {
         FloatArray array = new FloatArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_FLOAT, (long) array.baseIndex * FLOAT_BYTES, values.length);
         return array;
     }
 
@@ -126,6 +176,54 @@ public final class FloatArray extends TornadoNativeArray {
         return floatArray;
     }
 
+    /**
+     * Creates a new instance of the {@link FloatArray} class that maps a file written with {@link #toFile(Path)}.
+     * The file already contains the array header, so the array uses the mapped file without copying the data.
+     * The file is mapped in read-only mode, so the array can be used as the input of a task-graph but cannot be updated,
+     * and it is rejected as an output of a task-graph.
+     *
+     * @param path
+     *     The path of the file.
+     * @return A new {@link FloatArray} instance backed by the mapped file.
+     * @throws IOException
+     *     if the file cannot be mapped.
+     * @since v1.1.1
+     */
+    public static FloatArray fromFile(Path path) throws IOException {
+        MemorySegment segment = TornadoNativeArray.mapFile(path, FLOAT_BYTES);
+        return new FloatArray(segment, segment.get(JAVA_INT, 0));
+    }
+
+    /**
+     * Creates a new instance of the {@link FloatArray} class that maps a region of a file with float elements,
+     * without copying the data. The mapping starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the offset,
+     * where the array header is stored, so the offset must leave room for it.
+     *
+     * <p>
+     * With {@link FileChannel.MapMode#PRIVATE}, the header is written in a private copy of the mapped pages, and the
+     * updates of the array are not written to the file. With {@link FileChannel.MapMode#READ_WRITE}, the updates are
+     * written to the file, which makes it possible to use the mapped array as the output of a task-graph. The bytes
+     * before the offset belong to the file, so they are not modified: they must already contain the array header, as
+     * in the files written by {@code toFile}. Call {@code getSegmentWithHeader().force()} to flush the updates.
+     * </p>
+     *
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The position in bytes of the first element in the file.
+     * @param numElements
+     *     The number of elements to map.
+     * @param mode
+     *     The mapping mode: {@link FileChannel.MapMode#PRIVATE} or {@link FileChannel.MapMode#READ_WRITE}.
+     * @return A new {@link FloatArray} instance backed by the mapped file region.
+     * @throws IOException
+     *     if the file cannot be mapped.
+     * @since v1.1.1
+     */
+    public static FloatArray fromFile(Path path, long offset, int numElements, FileChannel.MapMode mode) throws IOException {
+        return new FloatArray(TornadoNativeArray.mapFileRegion(path, offset, numElements, FLOAT_BYTES, mode), numElements);
+    }
+
     /**
      * Creates a new instance of the {@link FloatArray} class from a {@link FloatBuffer}.
      *
@@ -148,9 +246,7 @@ public final class FloatArray extends TornadoNativeArray {
      */
     public float[] toHeapArray() {
         float[] outputArray = new float[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        MemorySegment.copy(segment, JAVA_FLOAT, (long) baseIndex * FLOAT_BYTES, outputArray, 0, getSize());
         return outputArray;
     }
 
@@ -197,9 +293,7 @@ public final class FloatArray extends TornadoNativeArray {
      *     The float value to initialize the {@link FloatArray} instance with.
      */
     public void init(float value) {
-        for (int i = 0; i < getSize(); i++) {
-            segment.setAtIndex(JAVA_FLOAT, baseIndex + i, value);
-        }
+        SegmentOps.fill(getSegment(), value);
     }
 
     /**
@@ -232,6 +326,24 @@ public final class FloatArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
+    /**
+     * Writes the array, including the header, to a file that can be mapped with {@link #fromFile(Path)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @throws IOException
+     *     if the file cannot be written.
+     * @since v1.1.1
+     */
+    public void toFile(Path path) throws IOException {
+        TornadoNativeArray.writeToFile(path, segment);
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link FloatArray} instance, occupies.
      *
@@ -253,6 +365,19 @@ public final class FloatArray extends TornadoNativeArray {
         return segmentByteSize - TornadoNativeArray.ARRAY_HEADER;
     }
 
+    /**
+     * Creates a new {@link FloatArray} with a copy of the elements of this instance. The data is copied with a single bulk
+     * copy of the {@link MemorySegment}.
+     *
+     * @return A new {@link FloatArray} instance with the same elements.
+     */
+    @Override
+    public FloatArray duplicate() {
+        FloatArray copy = new FloatArray(getSize());
+        copy.getSegment().copyFrom(getSegment());
+        return copy;
+    }
+
     /**
      * Factory method to initialize a {@link FloatArray}. This method can be invoked from a Task-Graph.
      *
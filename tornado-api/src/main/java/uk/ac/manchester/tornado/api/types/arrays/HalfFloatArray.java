@@ -20,13 +20,18 @@ package uk.ac.manchester.tornado.api.types.arrays;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
 import static java.lang.foreign.ValueLayout.JAVA_SHORT;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
 
 /**
  * This class represents an array of half floats (float16 types) stored in native memory.
@@ -64,6 +69,53 @@ public final class HalfFloatArray extends TornadoNativeArray {
         segment.setAtIndex(JAVA_INT, 0, numberOfElements);
     }
 
+    /**
+     * Constructs a new instance of the {@link HalfFloatArray} that will store a user-specified number of elements, allocated with the
+     * given allocator, such as an {@link Arena} or a {@link NativeArrayPool}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The allocator of the memory segment.
+     * @since v1.1.1
+     */
+    public HalfFloatArray(int numberOfElements, SegmentAllocator allocator) {
+        this(numberOfElements, allocator, TornadoNativeArray.DEFAULT_ALIGNMENT);
+    }
+
+    /**
+     * Constructs a new instance of the {@link HalfFloatArray} that will store a user-specified number of elements, allocated with the
+     * given allocator and alignment, such as {@link TornadoNativeArray#PAGE_ALIGNMENT} or {@link TornadoNativeArray#DEVICE_ALIGNMENT}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The allocator of the memory segment.
+     * @param alignment
+     *     The alignment in bytes of the memory segment, including the header. It must be a power of two.
+     * @since v1.1.1
+     */
+    public HalfFloatArray(int numberOfElements, SegmentAllocator allocator, long alignment) {
+        this(TornadoNativeArray.allocateSegment(allocator, alignment, numberOfElements, HALF_FLOAT_BYTES), numberOfElements);
+        setPool(allocator);
+    }
+
+    /**
+     * Constructs a new instance of the {@link HalfFloatArray} that uses a segment which already contains the array header.
+     *
+     * @param segmentWithHeader
+     *     The segment, including the header.
+     * @param numberOfElements
+     *     The number of elements in the array.
+     */
+    private HalfFloatArray(MemorySegment segmentWithHeader, int numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / HALF_FLOAT_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+    }
+
     /**
      * Constructs a new {@link HalfFloatArray} instance by concatenating the contents of the given array of {@link HalfFloatArray} instances.
      *
@@ -127,6 +179,54 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return halfFloatArray;
     }
 
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class that maps a file written with {@link #toFile(Path)}.
+     * The file already contains the array header, so the array uses the mapped file without copying the data.
+     * The file is mapped in read-only mode, so the array can be used as the input of a task-graph but cannot be updated,
+     * and it is rejected as an output of a task-graph.
+     *
+     * @param path
+     *     The path of the file.
+     * @return A new {@link HalfFloatArray} instance backed by the mapped file.
+     * @throws IOException
+     *     if the file cannot be mapped.
+     * @since v1.1.1
+     */
+    public static HalfFloatArray fromFile(Path path) throws IOException {
+        MemorySegment segment = TornadoNativeArray.mapFile(path, HALF_FLOAT_BYTES);
+        return new HalfFloatArray(segment, segment.get(JAVA_INT, 0));
+    }
+
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class that maps a region of a file with half float elements,
+     * without copying the data. The mapping starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the offset,
+     * where the array header is stored, so the offset must leave room for it.
+     *
+     * <p>
+     * With {@link FileChannel.MapMode#PRIVATE}, the header is written in a private copy of the mapped pages, and the
+     * updates of the array are not written to the file. With {@link FileChannel.MapMode#READ_WRITE}, the updates are
+     * written to the file, which makes it possible to use the mapped array as the output of a task-graph. The bytes
+     * before the offset belong to the file, so they are not modified: they must already contain the array header, as
+     * in the files written by {@code toFile}. Call {@code getSegmentWithHeader().force()} to flush the updates.
+     * </p>
+     *
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The position in bytes of the first element in the file.
+     * @param numElements
+     *     The number of elements to map.
+     * @param mode
+     *     The mapping mode: {@link FileChannel.MapMode#PRIVATE} or {@link FileChannel.MapMode#READ_WRITE}.
+     * @return A new {@link HalfFloatArray} instance backed by the mapped file region.
+     * @throws IOException
+     *     if the file cannot be mapped.
+     * @since v1.1.1
+     */
+    public static HalfFloatArray fromFile(Path path, long offset, int numElements, FileChannel.MapMode mode) throws IOException {
+        return new HalfFloatArray(TornadoNativeArray.mapFileRegion(path, offset, numElements, HALF_FLOAT_BYTES, mode), numElements);
+    }
+
     /**
      * Converts the {@link HalfFloat} data from off-heap to on-heap, by copying the values of a {@link HalfFloatArray}
      * instance into a new on-heap {@link HalfFloat}.
@@ -150,9 +250,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      */
     public short[] toShortArray() {
         short[] outputArray = new short[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i).getHalfFloatValue();
-        }
+        MemorySegment.copy(segment, JAVA_SHORT, (long) baseIndex * HALF_FLOAT_BYTES, outputArray, 0, getSize());
         return outputArray;
     }
 
@@ -180,6 +278,111 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return new HalfFloat(halfFloatValue);
     }
 
+    /**
+     * Gets the raw 16-bit representation of the half-float value stored at the specified index, without allocating a
+     * {@link HalfFloat} instance. This method is intended for host code; kernels should use {@link #get(int)}.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The half-float value as a short.
+     * @since v1.1.1
+     */
+    public short getHalf(int index) {
+        return segment.getAtIndex(JAVA_SHORT, baseIndex + index);
+    }
+
+    /**
+     * Sets the raw 16-bit representation of the half-float value at a specified index, without allocating a
+     * {@link HalfFloat} instance. This method is intended for host code; kernels should use {@link #set(int, HalfFloat)}.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The half-float value as a short.
+     * @since v1.1.1
+     */
+    public void setHalf(int index, short value) {
+        segment.setAtIndex(JAVA_SHORT, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the half-float value stored at the specified index, converted to a float with {@link Float#float16ToFloat}.
+     * This method is intended for host code; kernels should use {@link #get(int)}.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value as a float.
+     * @since v1.1.1
+     */
+    public float getHalfAsFloat(int index) {
+        return Float.float16ToFloat(getHalf(index));
+    }
+
+    /**
+     * Converts a float value to half-float with {@link Float#floatToFloat16} and stores it at a specified index. This
+     * method is intended for host code; kernels should use {@link #set(int, HalfFloat)}.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The float value to convert.
+     * @since v1.1.1
+     */
+    public void setFromFloat(int index, float value) {
+        setHalf(index, Float.floatToFloat16(value));
+    }
+
+    /**
+     * Converts all the elements of the {@link HalfFloatArray} instance to floats.
+     *
+     * @return A new {@link FloatArray} instance with the converted values.
+     * @since v1.1.1
+     */
+    public FloatArray toFloatArray() {
+        FloatArray floatArray = new FloatArray(getSize());
+        toFloatArray(floatArray);
+        return floatArray;
+    }
+
+    /**
+     * Converts all the elements of the {@link HalfFloatArray} instance to floats, and stores them in an existing
+     * {@link FloatArray} of the same size.
+     *
+     * @param destination
+     *     The {@link FloatArray} that receives the converted values.
+     * @since v1.1.1
+     */
+    public void toFloatArray(FloatArray destination) {
+        SegmentOps.convertHalfToFloat(getSegment(), destination.getSegment());
+    }
+
+    /**
+     * Converts all the elements of a {@link FloatArray} to half-floats, and stores them in this instance. Both arrays
+     * must have the same size.
+     *
+     * @param source
+     *     The {@link FloatArray} with the values to convert.
+     * @since v1.1.1
+     */
+    public void setFromFloatArray(FloatArray source) {
+        SegmentOps.convertFloatToHalf(source.getSegment(), getSegment());
+    }
+
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class with the values of a {@link FloatArray}, converted to
+     * half-floats.
+     *
+     * @param values
+     *     The {@link FloatArray} with the values to convert.
+     * @return A new {@link HalfFloatArray} instance.
+     * @since v1.1.1
+     */
+    public static HalfFloatArray fromFloatArray(FloatArray values) {
+        HalfFloatArray array = new HalfFloatArray(values.getSize());
+        array.setFromFloatArray(values);
+        return array;
+    }
+
     /**
      * Sets all the values of the {@link HalfFloatArray} instance to zero.
      */
@@ -200,9 +403,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     The {@link HalfFloat} value to initialize the {@link HalfFloatArray} instance with.
      */
     public void init(HalfFloat value) {
-        for (int i = 0; i < getSize(); i++) {
-            segment.setAtIndex(JAVA_SHORT, baseIndex + i, value.getHalfFloatValue());
-        }
+        SegmentOps.fill(getSegment(), value.getHalfFloatValue());
     }
 
     /**
@@ -235,6 +436,24 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
+    /**
+     * Writes the array, including the header, to a file that can be mapped with {@link #fromFile(Path)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @throws IOException
+     *     if the file cannot be written.
+     * @since v1.1.1
+     */
+    public void toFile(Path path) throws IOException {
+        TornadoNativeArray.writeToFile(path, segment);
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link HalfFloatArray} instance, occupies.
      *
@@ -256,6 +475,19 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return segmentByteSize - TornadoNativeArray.ARRAY_HEADER;
     }
 
+    /**
+     * Creates a new {@link HalfFloatArray} with a copy of the elements of this instance. The data is copied with a single bulk
+     * copy of the {@link MemorySegment}.
+     *
+     * @return A new {@link HalfFloatArray} instance with the same elements.
+     */
+    @Override
+    public HalfFloatArray duplicate() {
+        HalfFloatArray copy = new HalfFloatArray(getSize());
+        copy.getSegment().copyFrom(getSegment());
+        return copy;
+    }
+
     /**
      * Factory method to initialize a {@link HalfFloatArray}. This method can be invoked from a Task-Graph.
      *
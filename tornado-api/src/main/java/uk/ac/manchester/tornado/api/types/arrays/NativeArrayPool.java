@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.arrays;
+
+import static java.lang.String.format;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Pool of native memory for the TornadoVM native arrays. The pool reserves
+ * large slabs of memory from a shared {@link Arena} and splits them into blocks
+ * with a size that is a power of two. When a native array allocated from the
+ * pool is closed with {@link TornadoNativeArray#close()}, its block returns to
+ * the pool and is reused by the next array of a similar size, so applications
+ * that create many short-lived arrays do not depend on the garbage collector to
+ * release native memory.
+ *
+ * <p>
+ * Closing the pool releases all slabs at once. Arrays allocated from the pool
+ * cannot be used after the pool is closed.
+ * </p>
+ *
+ * <p>
+ * How to use?
+ * </p>
+ *
+ * <code>
+ * try (NativeArrayPool pool = new NativeArrayPool()) {
+ *     try (FloatArray a = new FloatArray(size, pool, TornadoNativeArray.PAGE_ALIGNMENT)) {
+ *         ...
+ *     }
+ * }
+ * </code>
+ *
+ * @since v1.1.1
+ */
+public final class NativeArrayPool implements SegmentAllocator, AutoCloseable {
+
+    /**
+     * Default size in bytes of each slab: 64 MB.
+     */
+    public static final long DEFAULT_SLAB_SIZE = 64L * 1024 * 1024;
+
+    private static final long MIN_BLOCK_SIZE = 64;
+
+    private final Arena arena;
+    private final long slabSize;
+    private final Map<Long, ArrayDeque<MemorySegment>> freeBlocks;
+    private final Map<Long, MemorySegment> usedBlocks;
+
+    private MemorySegment slab;
+    private long slabOffset;
+    private long reservedBytes;
+    private boolean closed;
+
+    /**
+     * Creates a pool with slabs of {@link #DEFAULT_SLAB_SIZE} bytes.
+     */
+    public NativeArrayPool() {
+        this(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a pool with slabs of the given size. Blocks larger than half a slab
+     * are allocated individually, and they are also reused after their array is
+     * closed.
+     *
+     * @param slabSize
+     *     The size in bytes of each slab.
+     */
+    public NativeArrayPool(long slabSize) {
+        if (slabSize < MIN_BLOCK_SIZE) {
+            throw new IllegalArgumentException(format("The slab size (%d) must be at least %d bytes", slabSize, MIN_BLOCK_SIZE));
+        }
+        this.arena = Arena.ofShared();
+        this.slabSize = slabSize;
+        this.freeBlocks = new HashMap<>();
+        this.usedBlocks = new HashMap<>();
+    }
+
+    /**
+     * Allocates a block of the pool. The block is filled with zeros, as the
+     * memory returned by an {@link Arena}.
+     *
+     * @param byteSize
+     *     The size in bytes of the segment.
+     * @param byteAlignment
+     *     The alignment in bytes of the segment. It must be a power of two.
+     * @return A segment of {@code byteSize} bytes.
+     */
+    @Override
+    public synchronized MemorySegment allocate(long byteSize, long byteAlignment) {
+        if (closed) {
+            throw new IllegalStateException("The native array pool is closed");
+        }
+        if (byteSize < 0 || byteAlignment <= 0 || Long.bitCount(byteAlignment) != 1) {
+            throw new IllegalArgumentException(format("Invalid size (%d) or alignment (%d)", byteSize, byteAlignment));
+        }
+        long blockSize = Math.max(MIN_BLOCK_SIZE, Long.highestOneBit(Math.max(1, byteSize - 1)) << 1);
+        MemorySegment block = takeFreeBlock(blockSize, byteAlignment);
+        if (block == null) {
+            block = allocateBlock(blockSize, byteAlignment);
+        } else {
+            block.asSlice(0, byteSize).fill((byte) 0);
+        }
+        usedBlocks.put(block.address(), block);
+        return block.asSlice(0, byteSize);
+    }
+
+    private MemorySegment takeFreeBlock(long blockSize, long byteAlignment) {
+        ArrayDeque<MemorySegment> blocks = freeBlocks.get(blockSize);
+        if (blocks != null) {
+            Iterator<MemorySegment> iterator = blocks.iterator();
+            while (iterator.hasNext()) {
+                MemorySegment block = iterator.next();
+                if (block.address() % byteAlignment == 0) {
+                    iterator.remove();
+                    return block;
+                }
+            }
+        }
+        return null;
+    }
+
+    private MemorySegment allocateBlock(long blockSize, long byteAlignment) {
+        if (blockSize > slabSize / 2 || byteAlignment > slabSize / 2) {
+            reservedBytes += blockSize;
+            return arena.allocate(blockSize, byteAlignment);
+        }
+        if (slab != null) {
+            long offset = alignUp(slab.address() + slabOffset, byteAlignment) - slab.address();
+            if (offset + blockSize <= slab.byteSize()) {
+                slabOffset = offset + blockSize;
+                return slab.asSlice(offset, blockSize);
+            }
+        }
+        // The remaining bytes of the current slab are not used
+        slab = arena.allocate(slabSize, Math.max(byteAlignment, TornadoNativeArray.PAGE_ALIGNMENT));
+        reservedBytes += slabSize;
+        slabOffset = blockSize;
+        return slab.asSlice(0, blockSize);
+    }
+
+    private static long alignUp(long address, long alignment) {
+        return (address + alignment - 1) & -alignment;
+    }
+
+    /**
+     * Returns a segment allocated by this pool, so its block can be reused. It is
+     * called when a native array allocated from the pool is closed.
+     *
+     * @param segment
+     *     The segment returned by {@link #allocate(long, long)}.
+     */
+    synchronized void release(MemorySegment segment) {
+        if (closed) {
+            return;
+        }
+        MemorySegment block = usedBlocks.remove(segment.address());
+        if (block == null) {
+            throw new IllegalArgumentException("The segment was not allocated by this pool or it has already been released");
+        }
+        freeBlocks.computeIfAbsent(block.byteSize(), size -> new ArrayDeque<>()).push(block);
+    }
+
+    /**
+     * Returns the number of bytes of native memory reserved by the pool.
+     *
+     * @return The total size in bytes of the slabs and the individual blocks.
+     */
+    public synchronized long getReservedBytes() {
+        return reservedBytes;
+    }
+
+    /**
+     * Returns the number of bytes of the blocks that are in use by native arrays.
+     *
+     * @return The total size in bytes of the blocks that have not been released.
+     */
+    public synchronized long getUsedBytes() {
+        return usedBlocks.values().stream().mapToLong(MemorySegment::byteSize).sum();
+    }
+
+    /**
+     * Releases all the native memory of the pool. The arrays allocated from the
+     * pool cannot be used afterward.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            freeBlocks.clear();
+            usedBlocks.clear();
+            slab = null;
+            arena.close();
+        }
+    }
+}
@@ -17,12 +17,21 @@
  */
 package uk.ac.manchester.tornado.api.types.arrays;
 
+import static java.lang.String.format;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 
 import uk.ac.manchester.tornado.api.types.tensors.Tensor;
 
-import static java.lang.String.format;
-
 /**
  * This abstract sealed class represents the common functionality of the TornadoVM custom native arrays,
  * (e.g., {@link ByteArray}, {@link IntArray}, etc.)
@@ -36,8 +45,14 @@ import static java.lang.String.format;
  * <p>
  * The constant {@link ARRAY_HEADER} represents the size of the header in bytes.
  * </p>
+ *
+ * <p>
+ * By default, the memory of a native array is released by the garbage collector. Arrays can also be allocated
+ * from a {@link SegmentAllocator}, such as a confined or shared {@link java.lang.foreign.Arena} that is closed by the
+ * application, or a {@link NativeArrayPool}, in which case {@link #close()} returns the memory to the pool.
+ * </p>
  */
-public abstract sealed class TornadoNativeArray //
+public abstract sealed class TornadoNativeArray implements AutoCloseable //
         permits ByteArray, CharArray, DoubleArray, //
         FloatArray, HalfFloatArray, IntArray, //
         LongArray, ShortArray, Tensor {
@@ -48,6 +63,37 @@ public abstract sealed class TornadoNativeArray //
      */
     public static final long ARRAY_HEADER = Long.parseLong(System.getProperty("tornado.panama.objectHeader", "24"));
 
+    /**
+     * Alignment in bytes of a memory page. Segments aligned to a page can be pinned by the drivers and used by the
+     * devices without an intermediate copy.
+     *
+     * @since v1.1.1
+     */
+    public static final long PAGE_ALIGNMENT = 4096;
+
+    /**
+     * Alignment in bytes required by OpenCL for the base address of a buffer, which is the size of the largest
+     * built-in type ({@code long16}).
+     *
+     * @since v1.1.1
+     */
+    public static final long DEVICE_ALIGNMENT = 128;
+
+    /**
+     * Default alignment in bytes of the segments allocated with a {@link SegmentAllocator}.
+     */
+    static final long DEFAULT_ALIGNMENT = Long.BYTES;
+
+    /**
+     * Pool that allocated the segment of the array, or {@code null} if the memory is not owned by a pool.
+     */
+    private NativeArrayPool pool;
+
+    /**
+     * Whether the segment of the array has been released to its pool.
+     */
+    private boolean closed;
+
     /**
      * Returns the number of elements stored in the native array.
      *
@@ -83,6 +129,58 @@ public abstract sealed class TornadoNativeArray //
      */
     public abstract long getNumBytesOfSegment();
 
+    /**
+     * Creates a new native array of the same type and size, with a copy of the elements of this instance.
+     *
+     * @return A new native array with the same elements.
+     */
+    public abstract TornadoNativeArray duplicate();
+
+    /**
+     * Releases the memory of the native array if it was allocated from a {@link NativeArrayPool}, so the pool can reuse
+     * it for other arrays. The array cannot be used after it is closed: its segment is replaced with
+     * {@link MemorySegment#NULL}, so any later access throws an exception instead of reading or writing the memory of
+     * another array. For arrays allocated with the default
+     * constructors, or with an {@link java.lang.foreign.Arena}, this method has no effect: their memory is released by
+     * the garbage collector or when the arena is closed.
+     *
+     * <p>
+     * If the array was used by an execution plan, its device buffer should be released first with
+     * {@code freeDeviceMemory()}.
+     * </p>
+     *
+     * @since v1.1.1
+     */
+    @Override
+    public void close() {
+        NativeArrayPool owner = pool;
+        if (owner != null) {
+            pool = null;
+            closed = true;
+            MemorySegment segment = getSegmentWithHeader();
+            detachSegment();
+            owner.release(segment);
+        }
+    }
+
+    /**
+     * Returns whether the memory of the native array has been returned to its {@link NativeArrayPool} with
+     * {@link #close()}.
+     *
+     * @return {@code true} if the array has been closed and cannot be used.
+     * @since v1.1.1
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Replaces the segment of the array with {@link MemorySegment#NULL} once it has been released to its pool.
+     * Arrays that cannot be allocated from a {@link NativeArrayPool} do not override it.
+     */
+    void detachSegment() {
+    }
+
     /**
      * Clears the contents of the native array.
      */
@@ -90,6 +188,30 @@ public abstract sealed class TornadoNativeArray //
 
     public abstract int getElementSize();
 
+    /**
+     * Allocates the segment of a native array, including the header, with the given allocator and alignment. If the
+     * allocator is a {@link NativeArrayPool}, the array releases the segment to the pool when it is closed.
+     *
+     * @return the segment, with the number of elements stored in the header.
+     */
+    static MemorySegment allocateSegment(SegmentAllocator allocator, long byteAlignment, int numberOfElements, long elementSize) {
+        if (byteAlignment < DEFAULT_ALIGNMENT || Long.bitCount(byteAlignment) != 1) {
+            throw new IllegalArgumentException(format("The alignment (%d) must be a power of two and at least %d bytes", byteAlignment, DEFAULT_ALIGNMENT));
+        }
+        MemorySegment segment = allocator.allocate(ARRAY_HEADER + numberOfElements * elementSize, byteAlignment);
+        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        return segment;
+    }
+
+    /**
+     * Sets the pool that owns the segment of the array.
+     */
+    void setPool(SegmentAllocator allocator) {
+        if (allocator instanceof NativeArrayPool nativeArrayPool) {
+            pool = nativeArrayPool;
+        }
+    }
+
     /**
      * Checks that the byte size is a multiple of the element size.
      */
@@ -99,4 +221,88 @@ public abstract sealed class TornadoNativeArray //
         }
     }
 
+    /**
+     * Maps a file written by the {@code toFile} method of a native array. The file
+     * starts with the array header, which stores the number of elements, so the
+     * mapped segment is used as the segment of the array without a copy. The file
+     * is mapped in read-only mode, so it can be shared by several processes, and
+     * the array cannot be updated.
+     *
+     * @return the mapped segment, including the header.
+     */
+    static MemorySegment mapFile(Path path, long elementSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            long fileSize = channel.size();
+            if (fileSize < ARRAY_HEADER) {
+                throw new IllegalArgumentException(format("The file %s (%d bytes) is smaller than the array header (%d bytes)", path, fileSize, ARRAY_HEADER));
+            }
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize, Arena.ofAuto());
+            long byteSize = ARRAY_HEADER + segment.get(JAVA_INT, 0) * elementSize;
+            if (byteSize < ARRAY_HEADER || byteSize > fileSize) {
+                throw new IllegalArgumentException(format("The file %s (%d bytes) does not contain the %d elements stored in its header", path, fileSize, segment.get(JAVA_INT, 0)));
+            }
+            return segment.asSlice(0, byteSize);
+        }
+    }
+
+    /**
+     * Maps the elements of a native array stored in a region of a file. The
+     * mapping starts {@link #ARRAY_HEADER} bytes before the first element, where
+     * the array header is stored, so the mapped segment is used as the segment of
+     * the array without a copy.
+     *
+     * <p>
+     * With {@link FileChannel.MapMode#PRIVATE}, the header is written in a private
+     * copy of the mapped pages, and so are the updates of the array. With
+     * {@link FileChannel.MapMode#READ_WRITE}, the updates are written to the file,
+     * and the bytes before the first element are not modified because they belong
+     * to the file: they must already contain the header, as in the files written
+     * by {@link #writeToFile(Path, MemorySegment)}.
+     * </p>
+     *
+     * @return the mapped segment, including the header.
+     */
+    static MemorySegment mapFileRegion(Path path, long offset, int numberOfElements, long elementSize, FileChannel.MapMode mode) throws IOException {
+        if (mode == FileChannel.MapMode.READ_ONLY) {
+            throw new IllegalArgumentException("Native arrays cannot be mapped in read-only mode, because the array header is written in the mapped region. Use MapMode.PRIVATE instead");
+        }
+        if (offset < ARRAY_HEADER) {
+            throw new IllegalArgumentException(format("The offset of the data (%d) must leave room for the array header (%d bytes)", offset, ARRAY_HEADER));
+        }
+        if (offset % Math.max(elementSize, Integer.BYTES) != 0) {
+            throw new IllegalArgumentException(format("The offset of the data (%d) is not aligned to the element size (%d)", offset, elementSize));
+        }
+        long byteSize = numberOfElements * elementSize;
+        // Private mappings also need a writable channel, although the file is not modified
+        try (FileChannel channel = FileChannel.open(path, READ, WRITE)) {
+            if (offset + byteSize > channel.size()) {
+                throw new IllegalArgumentException(format("The file %s (%d bytes) does not contain %d bytes at offset %d", path, channel.size(), byteSize, offset));
+            }
+            MemorySegment segment = channel.map(mode, offset - ARRAY_HEADER, ARRAY_HEADER + byteSize, Arena.ofAuto());
+            if (mode == FileChannel.MapMode.READ_WRITE) {
+                if (segment.get(JAVA_INT, 0) != numberOfElements) {
+                    throw new IllegalArgumentException(format("The file %s does not reserve an array header for %d elements before offset %d. Use MapMode.PRIVATE instead", path,
+                            numberOfElements, offset));
+                }
+            } else {
+                segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * Writes the segment of a native array, including the header, to a file that
+     * can be mapped with {@link #mapFile(Path, long)}.
+     */
+    static void writeToFile(Path path, MemorySegment segmentWithHeader) throws IOException {
+        long byteSize = segmentWithHeader.byteSize();
+        try (FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE); Arena arena = Arena.ofConfined()) {
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_WRITE, 0, byteSize, arena);
+            file.copyFrom(segmentWithHeader);
+            file.force();
+            channel.truncate(byteSize);
+        }
+    }
+
 }
@@ -38,4 +38,6 @@ VectorHalf, VectorHalf2, VectorHalf3, VectorHalf4, VectorHalf8, VectorHalf16 {
     MemorySegment getSegment();
 
     MemorySegment getSegmentWithHeader();
+
+    TornadoCollectionInterface<T> duplicate();
 }
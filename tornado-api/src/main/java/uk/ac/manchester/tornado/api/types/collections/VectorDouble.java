@@ -172,11 +172,7 @@ public final class VectorDouble implements TornadoCollectionInterface<DoubleBuff
      *
      */
     public VectorDouble duplicate() {
-        DoubleArray cp = new DoubleArray(storage.getSize());
-        for (int i = 0; i < cp.getSize(); i++) {
-            cp.set(i, storage.get(i));
-        }
-        return new VectorDouble(cp);
+        return new VectorDouble(storage.duplicate());
     }
 
     /**
@@ -143,9 +143,7 @@ public final class VectorDouble16 implements TornadoCollectionInterface<DoubleBu
      * @return
      */
     public VectorDouble16 duplicate() {
-        VectorDouble16 vector = new VectorDouble16(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorDouble16(storage.duplicate());
     }
 
     public String toString() {
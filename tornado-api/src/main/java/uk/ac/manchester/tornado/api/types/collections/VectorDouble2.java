@@ -142,9 +142,7 @@ public final class VectorDouble2 implements TornadoCollectionInterface<DoubleBuf
      * @return
      */
     public VectorDouble2 duplicate() {
-        VectorDouble2 vector = new VectorDouble2(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorDouble2(storage.duplicate());
     }
 
     public String toString() {
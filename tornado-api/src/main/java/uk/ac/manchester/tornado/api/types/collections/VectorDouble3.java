@@ -143,9 +143,7 @@ public final class VectorDouble3 implements TornadoCollectionInterface<DoubleBuf
      * @return
      */
     public VectorDouble3 duplicate() {
-        VectorDouble3 vector = new VectorDouble3(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorDouble3(storage.duplicate());
     }
 
     public String toString() {
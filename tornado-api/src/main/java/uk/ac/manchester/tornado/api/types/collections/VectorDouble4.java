@@ -146,9 +146,7 @@ public final class VectorDouble4 implements TornadoCollectionInterface<DoubleBuf
      * @return
      */
     public VectorDouble4 duplicate() {
-        VectorDouble4 vector = new VectorDouble4(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorDouble4(storage.duplicate());
     }
 
     public String toString() {
@@ -144,9 +144,7 @@ public final class VectorDouble8 implements TornadoCollectionInterface<DoubleBuf
      * @return
      */
     public VectorDouble8 duplicate() {
-        VectorDouble8 vector = new VectorDouble8(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorDouble8(storage.duplicate());
     }
 
     public String toString() {
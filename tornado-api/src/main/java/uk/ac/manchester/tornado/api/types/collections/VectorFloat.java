@@ -164,11 +164,7 @@ public final class VectorFloat implements TornadoCollectionInterface<FloatBuffer
      *
      */
     public VectorFloat duplicate() {
-        FloatArray cp = new FloatArray(storage.getSize());
-        for (int i = 0; i < cp.getSize(); i++) {
-            cp.set(i, storage.get(i));
-        }
-        return new VectorFloat(cp);
+        return new VectorFloat(storage.duplicate());
     }
 
     /**
@@ -90,9 +90,7 @@ public final class VectorFloat16 implements TornadoCollectionInterface<FloatBuff
     }
 
     public VectorFloat16 duplicate() {
-        VectorFloat16 vector = new VectorFloat16(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorFloat16(storage.duplicate());
     }
 
     public String toString() {
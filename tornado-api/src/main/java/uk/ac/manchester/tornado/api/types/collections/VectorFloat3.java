@@ -155,9 +155,7 @@ public final class VectorFloat3 implements TornadoCollectionInterface<FloatBuffe
      * @return A new vector
      */
     public VectorFloat3 duplicate() {
-        VectorFloat3 vector = new VectorFloat3(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorFloat3(storage.duplicate());
     }
 
     public String toString() {
@@ -153,9 +153,7 @@ public final class VectorFloat4 implements TornadoCollectionInterface<FloatBuffe
      * @return {@link VectorFloat4}
      */
     public VectorFloat4 duplicate() {
-        VectorFloat4 vector = new VectorFloat4(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorFloat4(storage.duplicate());
     }
 
     public String toString() {
@@ -150,9 +150,7 @@ public final class VectorFloat8 implements TornadoCollectionInterface<FloatBuffe
      * @return
      */
     public VectorFloat8 duplicate() {
-        VectorFloat8 vector = new VectorFloat8(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorFloat8(storage.duplicate());
     }
 
     public String toString() {
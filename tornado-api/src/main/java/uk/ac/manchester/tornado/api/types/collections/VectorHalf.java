@@ -149,11 +149,7 @@ public final class VectorHalf implements TornadoCollectionInterface<ShortBuffer>
      *
      */
     public VectorHalf duplicate() {
-        HalfFloatArray cp = new HalfFloatArray(storage.getSize());
-        for (int i = 0; i < cp.getSize(); i++) {
-            cp.set(i, storage.get(i));
-        }
-        return new VectorHalf(cp);
+        return new VectorHalf(storage.duplicate());
     }
 
     /**
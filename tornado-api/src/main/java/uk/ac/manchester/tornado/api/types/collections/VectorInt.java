@@ -179,11 +179,7 @@ public final class VectorInt implements TornadoCollectionInterface<IntBuffer> {
      * @return {@link VectorInt}
      */
     public VectorInt duplicate() {
-        IntArray cp = new IntArray(storage.getSize());
-        for (int i = 0; i < cp.getSize(); i++) {
-            cp.set(i, storage.get(i));
-        }
-        return new VectorInt(cp);
+        return new VectorInt(storage.duplicate());
     }
 
     /**
@@ -145,9 +145,7 @@ public final class VectorInt16 implements TornadoCollectionInterface<IntBuffer>
      * @return
      */
     public VectorInt16 duplicate() {
-        VectorInt16 vector = new VectorInt16(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorInt16(storage.duplicate());
     }
 
     public String toString() {
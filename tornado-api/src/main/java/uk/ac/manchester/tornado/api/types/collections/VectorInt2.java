@@ -142,9 +142,7 @@ public final class VectorInt2 implements TornadoCollectionInterface<IntBuffer> {
      * @return
      */
     public VectorInt2 duplicate() {
-        VectorInt2 vector = new VectorInt2(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorInt2(storage.duplicate());
     }
 
     public String toString() {
@@ -144,9 +144,7 @@ public final class VectorInt3 implements TornadoCollectionInterface<IntBuffer> {
      * @return
      */
     public VectorInt3 duplicate() {
-        VectorInt3 vector = new VectorInt3(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorInt3(storage.duplicate());
     }
 
     public String toString() {
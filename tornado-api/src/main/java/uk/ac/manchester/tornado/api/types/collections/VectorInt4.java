@@ -147,9 +147,7 @@ public final class VectorInt4 implements TornadoCollectionInterface<IntBuffer> {
      * @return
      */
     public VectorInt4 duplicate() {
-        VectorInt4 vector = new VectorInt4(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorInt4(storage.duplicate());
     }
 
     public String toString() {
@@ -146,9 +146,7 @@ public final class VectorInt8 implements TornadoCollectionInterface<IntBuffer> {
      * @return
      */
     public VectorInt8 duplicate() {
-        VectorInt8 vector = new VectorInt8(numElements);
-        vector.set(this);
-        return vector;
+        return new VectorInt8(storage.duplicate());
     }
 
     public String toString() {
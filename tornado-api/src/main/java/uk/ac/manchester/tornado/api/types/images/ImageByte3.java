@@ -133,9 +133,7 @@ public final class ImageByte3 implements TornadoImagesInterface<ByteBuffer> {
     }
 
     public ImageByte3 duplicate() {
-        final ImageByte3 image = new ImageByte3(X, Y);
-        image.set(this);
-        return image;
+        return new ImageByte3(X, Y, storage.duplicate());
     }
 
     public void set(ImageByte3 m) {
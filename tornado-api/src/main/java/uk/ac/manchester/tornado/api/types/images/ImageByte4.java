@@ -136,9 +136,7 @@ public final class ImageByte4 implements TornadoImagesInterface<ByteBuffer> {
     }
 
     public ImageByte4 duplicate() {
-        final ImageByte4 matrix = new ImageByte4(X, Y);
-        matrix.set(this);
-        return matrix;
+        return new ImageByte4(X, Y, storage.duplicate());
     }
 
     public void set(ImageByte4 m) {
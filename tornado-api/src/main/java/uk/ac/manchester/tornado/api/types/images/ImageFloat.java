@@ -148,9 +148,7 @@ public final class ImageFloat implements TornadoImagesInterface<FloatBuffer> {
     }
 
     public ImageFloat duplicate() {
-        final ImageFloat matrix = new ImageFloat(X, Y);
-        matrix.set(this);
-        return matrix;
+        return new ImageFloat(X, Y, storage.duplicate());
     }
 
     public void set(ImageFloat m) {
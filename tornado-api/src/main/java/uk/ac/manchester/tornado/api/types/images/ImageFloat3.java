@@ -135,9 +135,7 @@ public final class ImageFloat3 implements TornadoImagesInterface<FloatBuffer> {
     }
 
     public ImageFloat3 duplicate() {
-        ImageFloat3 matrix = new ImageFloat3(X, Y);
-        matrix.set(this);
-        return matrix;
+        return new ImageFloat3(X, Y, storage.duplicate());
     }
 
     public void set(ImageFloat3 m) {
@@ -135,9 +135,7 @@ public final class ImageFloat4 implements TornadoImagesInterface<FloatBuffer> {
     }
 
     public ImageFloat4 duplicate() {
-        ImageFloat4 matrix = new ImageFloat4(X, Y);
-        matrix.set(this);
-        return matrix;
+        return new ImageFloat4(X, Y, storage.duplicate());
     }
 
     public void set(ImageFloat4 m) {
@@ -141,9 +141,7 @@ public final class ImageFloat8 implements TornadoImagesInterface<FloatBuffer> {
     }
 
     public ImageFloat8 duplicate() {
-        ImageFloat8 image = new ImageFloat8(X, Y);
-        image.set(this);
-        return image;
+        return new ImageFloat8(X, Y, storage.duplicate());
     }
 
     public void set(ImageFloat8 m) {
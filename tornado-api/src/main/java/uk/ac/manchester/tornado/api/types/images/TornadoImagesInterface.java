@@ -35,4 +35,6 @@ public sealed interface TornadoImagesInterface<T extends Buffer> //
 
     MemorySegment getSegmentWithHeader();
 
+    TornadoImagesInterface<T> duplicate();
+
 }
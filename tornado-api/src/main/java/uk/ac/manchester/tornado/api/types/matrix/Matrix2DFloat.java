@@ -21,8 +21,10 @@ import static java.lang.String.format;
 import static uk.ac.manchester.tornado.api.types.utils.FloatOps.FMT;
 import static uk.ac.manchester.tornado.api.types.utils.StorageFormats.toRowMajor;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
 import java.nio.FloatBuffer;
+import java.nio.file.Path;
 
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.collections.VectorFloat;
@@ -68,6 +70,43 @@ public final class Matrix2DFloat extends Matrix2DType implements TornadoMatrixIn
         this(rows, columns, new FloatArray(rows * columns));
     }
 
+    /**
+     * Creates a matrix that maps a file written with {@link #toFile(Path)}, without
+     * copying the data. The file is mapped in read-only mode.
+     *
+     * @param rows
+     *     number of rows
+     * @param columns
+     *     number of columns
+     * @param path
+     *     path of the file
+     * @return matrix backed by the mapped file
+     * @throws IOException
+     *     if the file cannot be mapped
+     * @since v1.1.1
+     */
+    public static Matrix2DFloat fromFile(int rows, int columns, Path path) throws IOException {
+        Matrix2DFloat matrix = new Matrix2DFloat(rows, columns, FloatArray.fromFile(path));
+        if (matrix.storage.getSize() != matrix.numElements) {
+            throw new IllegalArgumentException(format("The file %s contains %d elements, but the matrix needs %d", path, matrix.storage.getSize(), matrix.numElements));
+        }
+        return matrix;
+    }
+
+    /**
+     * Writes the matrix storage to a file that can be mapped with
+     * {@link #fromFile(int, int, Path)}.
+     *
+     * @param path
+     *     path of the file
+     * @throws IOException
+     *     if the file cannot be written
+     * @since v1.1.1
+     */
+    public void toFile(Path path) throws IOException {
+        storage.toFile(path);
+    }
+
     public Matrix2DFloat(float[][] matrix) {
         this(matrix.length, matrix[0].length, toRowMajor(matrix));
     }
@@ -157,9 +196,7 @@ public final class Matrix2DFloat extends Matrix2DType implements TornadoMatrixIn
     }
 
     public Matrix2DFloat duplicate() {
-        Matrix2DFloat matrix = new Matrix2DFloat(ROWS, COLUMNS);
-        matrix.set(this);
-        return matrix;
+        return new Matrix2DFloat(ROWS, COLUMNS, storage.duplicate());
     }
 
     public void set(Matrix2DFloat m) {
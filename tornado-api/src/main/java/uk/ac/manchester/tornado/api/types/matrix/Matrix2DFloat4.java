@@ -17,8 +17,12 @@
  */
 package uk.ac.manchester.tornado.api.types.matrix;
 
+import static java.lang.String.format;
+
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
 import java.nio.FloatBuffer;
+import java.nio.file.Path;
 
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
@@ -72,6 +76,43 @@ public final class Matrix2DFloat4 extends Matrix2DType implements TornadoMatrixI
         this(rows, columns, new FloatArray(rows * columns * VECTOR_ELEMENTS));
     }
 
+    /**
+     * Creates a matrix that maps a file written with {@link #toFile(Path)}, without
+     * copying the data. The file is mapped in read-only mode.
+     *
+     * @param rows
+     *     number of rows
+     * @param columns
+     *     number of columns
+     * @param path
+     *     path of the file
+     * @return matrix backed by the mapped file
+     * @throws IOException
+     *     if the file cannot be mapped
+     * @since v1.1.1
+     */
+    public static Matrix2DFloat4 fromFile(int rows, int columns, Path path) throws IOException {
+        Matrix2DFloat4 matrix = new Matrix2DFloat4(rows, columns, FloatArray.fromFile(path));
+        if (matrix.storage.getSize() != matrix.numElements) {
+            throw new IllegalArgumentException(format("The file %s contains %d elements, but the matrix needs %d", path, matrix.storage.getSize(), matrix.numElements));
+        }
+        return matrix;
+    }
+
+    /**
+     * Writes the matrix storage to a file that can be mapped with
+     * {@link #fromFile(int, int, Path)}.
+     *
+     * @param path
+     *     path of the file
+     * @throws IOException
+     *     if the file cannot be written
+     * @since v1.1.1
+     */
+    public void toFile(Path path) throws IOException {
+        storage.toFile(path);
+    }
+
     /**
      * Transposes the matrix in-place.
      *
@@ -181,9 +222,7 @@ public final class Matrix2DFloat4 extends Matrix2DType implements TornadoMatrixI
     }
 
     public Matrix2DFloat4 duplicate() {
-        Matrix2DFloat4 matrix = new Matrix2DFloat4(ROWS, COLUMNS);
-        matrix.set(this);
-        return matrix;
+        return new Matrix2DFloat4(ROWS, COLUMNS, storage.duplicate());
     }
 
     public void set(Matrix2DFloat4 m) {
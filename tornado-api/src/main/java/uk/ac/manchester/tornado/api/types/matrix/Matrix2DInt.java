@@ -17,10 +17,13 @@
  */
 package uk.ac.manchester.tornado.api.types.matrix;
 
+import static java.lang.String.format;
 import static uk.ac.manchester.tornado.api.types.utils.StorageFormats.toRowMajor;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
 import java.nio.IntBuffer;
+import java.nio.file.Path;
 
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.collections.VectorInt;
@@ -67,6 +70,43 @@ public final class Matrix2DInt extends Matrix2DType implements TornadoMatrixInte
         this(rows, columns, new IntArray(rows * columns));
     }
 
+    /**
+     * Creates a matrix that maps a file written with {@link #toFile(Path)}, without
+     * copying the data. The file is mapped in read-only mode.
+     *
+     * @param rows
+     *     number of rows
+     * @param columns
+     *     number of columns
+     * @param path
+     *     path of the file
+     * @return matrix backed by the mapped file
+     * @throws IOException
+     *     if the file cannot be mapped
+     * @since v1.1.1
+     */
+    public static Matrix2DInt fromFile(int rows, int columns, Path path) throws IOException {
+        Matrix2DInt matrix = new Matrix2DInt(rows, columns, IntArray.fromFile(path));
+        if (matrix.storage.getSize() != matrix.numElements) {
+            throw new IllegalArgumentException(format("The file %s contains %d elements, but the matrix needs %d", path, matrix.storage.getSize(), matrix.numElements));
+        }
+        return matrix;
+    }
+
+    /**
+     * Writes the matrix storage to a file that can be mapped with
+     * {@link #fromFile(int, int, Path)}.
+     *
+     * @param path
+     *     path of the file
+     * @throws IOException
+     *     if the file cannot be written
+     * @since v1.1.1
+     */
+    public void toFile(Path path) throws IOException {
+        storage.toFile(path);
+    }
+
     public Matrix2DInt(int[][] matrix) {
         this(matrix.length, matrix[0].length, StorageFormats.toRowMajor(matrix));
     }
@@ -159,9 +199,7 @@ public final class Matrix2DInt extends Matrix2DType implements TornadoMatrixInte
     }
 
     public Matrix2DInt duplicate() {
-        Matrix2DInt matrix = new Matrix2DInt(ROWS, COLUMNS);
-        matrix.set(this);
-        return matrix;
+        return new Matrix2DInt(ROWS, COLUMNS, storage.duplicate());
     }
 
     public void set(Matrix2DInt m) {
@@ -17,8 +17,12 @@
  */
 package uk.ac.manchester.tornado.api.types.matrix;
 
+import static java.lang.String.format;
+
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
 import java.nio.FloatBuffer;
+import java.nio.file.Path;
 
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.utils.FloatOps;
@@ -73,6 +77,45 @@ public final class Matrix3DFloat4 extends Matrix3DType implements TornadoMatrixI
         this(rows, columns, depth, new FloatArray(rows * columns * depth * VECTOR_ELEMENTS));
     }
 
+    /**
+     * Creates a matrix that maps a file written with {@link #toFile(Path)}, without
+     * copying the data. The file is mapped in read-only mode.
+     *
+     * @param rows
+     *     number of rows
+     * @param columns
+     *     number of columns
+     * @param depth
+     *     number of elements in depth
+     * @param path
+     *     path of the file
+     * @return matrix backed by the mapped file
+     * @throws IOException
+     *     if the file cannot be mapped
+     * @since v1.1.1
+     */
+    public static Matrix3DFloat4 fromFile(int rows, int columns, int depth, Path path) throws IOException {
+        Matrix3DFloat4 matrix = new Matrix3DFloat4(rows, columns, depth, FloatArray.fromFile(path));
+        if (matrix.storage.getSize() != matrix.numElements) {
+            throw new IllegalArgumentException(format("The file %s contains %d elements, but the matrix needs %d", path, matrix.storage.getSize(), matrix.numElements));
+        }
+        return matrix;
+    }
+
+    /**
+     * Writes the matrix storage to a file that can be mapped with
+     * {@link #fromFile(int, int, int, Path)}.
+     *
+     * @param path
+     *     path of the file
+     * @throws IOException
+     *     if the file cannot be written
+     * @since v1.1.1
+     */
+    public void toFile(Path path) throws IOException {
+        storage.toFile(path);
+    }
+
     public static void scale(Matrix3DFloat4 matrix, float value) {
         for (int i = 0; i < matrix.storage.getSize(); i++) {
             matrix.storage.set(i, matrix.storage.get(i) * value);
@@ -115,9 +158,7 @@ public final class Matrix3DFloat4 extends Matrix3DType implements TornadoMatrixI
     }
 
     public Matrix3DFloat4 duplicate() {
-        Matrix3DFloat4 matrix = new Matrix3DFloat4(ROWS, COLUMNS, DEPTH);
-        matrix.set(this);
-        return matrix;
+        return new Matrix3DFloat4(ROWS, COLUMNS, DEPTH, storage.duplicate());
     }
 
     public void set(Matrix3DFloat4 m) {
@@ -17,12 +17,16 @@
  */
 package uk.ac.manchester.tornado.api.types.matrix;
 
+import static java.lang.String.format;
+
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.utils.IntOps;
 import uk.ac.manchester.tornado.api.types.utils.StorageFormats;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
 import java.nio.IntBuffer;
+import java.nio.file.Path;
 
 public final class Matrix3DInt extends Matrix3DType implements TornadoMatrixInterface<IntBuffer> {
 
@@ -59,6 +63,45 @@ public final class Matrix3DInt extends Matrix3DType implements TornadoMatrixInte
         this(rows, columns, depth, new IntArray(rows * columns * depth));
     }
 
+    /**
+     * Creates a matrix that maps a file written with {@link #toFile(Path)}, without
+     * copying the data. The file is mapped in read-only mode.
+     *
+     * @param rows
+     *     number of rows
+     * @param columns
+     *     number of columns
+     * @param depth
+     *     number of elements in depth
+     * @param path
+     *     path of the file
+     * @return matrix backed by the mapped file
+     * @throws IOException
+     *     if the file cannot be mapped
+     * @since v1.1.1
+     */
+    public static Matrix3DInt fromFile(int rows, int columns, int depth, Path path) throws IOException {
+        Matrix3DInt matrix = new Matrix3DInt(rows, columns, depth, IntArray.fromFile(path));
+        if (matrix.storage.getSize() != matrix.numElements) {
+            throw new IllegalArgumentException(format("The file %s contains %d elements, but the matrix needs %d", path, matrix.storage.getSize(), matrix.numElements));
+        }
+        return matrix;
+    }
+
+    /**
+     * Writes the matrix storage to a file that can be mapped with
+     * {@link #fromFile(int, int, int, Path)}.
+     *
+     * @param path
+     *     path of the file
+     * @throws IOException
+     *     if the file cannot be written
+     * @since v1.1.1
+     */
+    public void toFile(Path path) throws IOException {
+        storage.toFile(path);
+    }
+
     public Matrix3DInt(int[][][] matrix) {
         this(matrix.length, matrix[0].length, matrix[0][0].length, StorageFormats.toRowMajor3D(matrix));
     }
@@ -87,9 +130,7 @@ public final class Matrix3DInt extends Matrix3DType implements TornadoMatrixInte
     }
 
     public Matrix3DInt duplicate() {
-        Matrix3DInt matrix = new Matrix3DInt(ROWS, COLUMNS, DEPTH);
-        matrix.set(this);
-        return matrix;
+        return new Matrix3DInt(ROWS, COLUMNS, DEPTH, storage.duplicate());
     }
 
     public void set(Matrix3DInt m) {
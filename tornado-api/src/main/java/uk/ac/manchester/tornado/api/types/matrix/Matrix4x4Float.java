@@ -137,9 +137,7 @@ public final class Matrix4x4Float implements TornadoMatrixInterface<FloatBuffer>
     }
 
     public Matrix4x4Float duplicate() {
-        Matrix4x4Float matrix = new Matrix4x4Float();
-        matrix.set(this);
-        return matrix;
+        return new Matrix4x4Float(storage.duplicate());
     }
 
     public void set(Matrix4x4Float m) {
@@ -35,4 +35,6 @@ public sealed interface TornadoMatrixInterface<T extends Buffer> extends Primiti
 
     MemorySegment getSegmentWithHeader();
 
+    TornadoMatrixInterface<T> duplicate();
+
 }
@@ -56,9 +56,7 @@ public final class TensorByte extends Tensor {
     }
 
     public void init(byte value) {
-        for (int i = 0; i < getSize(); i++) {
-            tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_BYTE, getBaseIndex() + i, value);
-        }
+        tensorStorage.init(value);
     }
 
     public void set(int index, byte value) {
@@ -105,6 +103,13 @@ public final class TensorByte extends Tensor {
         return tensorStorage.getNumBytesOfSegment();
     }
 
+    @Override
+    public TensorByte duplicate() {
+        TensorByte copy = new TensorByte(getShape());
+        copy.getSegment().copyFrom(getSegment());
+        return copy;
+    }
+
     @Override
     protected void clear() {
         init((byte) 0);
@@ -20,10 +20,15 @@ package uk.ac.manchester.tornado.api.types.tensors;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_SHORT;
@@ -56,10 +61,71 @@ public final class TensorFP16 extends Tensor {
         this.tensorStorage = new HalfFloatArray(numberOfElements);
     }
 
-    public void init(HalfFloat value) {
-        for (int i = 0; i < getSize(); i++) {
-            tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + i, value.getHalfFloatValue());
+    private TensorFP16(Shape shape, HalfFloatArray tensorStorage) {
+        super(DType.HALF_FLOAT, shape);
+        if (tensorStorage.getSize() != shape.getSize()) {
+            throw new IllegalArgumentException("The shape " + shape + " does not match the number of elements in the file: " + tensorStorage.getSize());
         }
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = DType.HALF_FLOAT;
+        this.tensorStorage = tensorStorage;
+    }
+
+    /**
+     * Creates a tensor that maps a file written with {@link #toFile(Path)}, without copying the data.
+     * The file is mapped in read-only mode.
+     *
+     * @param shape
+     *     The shape of the tensor.
+     * @param path
+     *     The path of the file.
+     * @return A new {@link TensorFP16} backed by the mapped file.
+     * @throws IOException
+     *     if the file cannot be mapped.
+     * @since v1.1.1
+     */
+    public static TensorFP16 fromFile(Shape shape, Path path) throws IOException {
+        return new TensorFP16(shape, HalfFloatArray.fromFile(path));
+    }
+
+    /**
+     * Creates a tensor that maps a region of a file, without copying the data. See
+     * {@link HalfFloatArray#fromFile(Path, long, int, FileChannel.MapMode)} for the layout of the region.
+     *
+     * @param shape
+     *     The shape of the tensor.
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The position in bytes of the first element in the file.
+     * @param mode
+     *     The mapping mode: {@link FileChannel.MapMode#PRIVATE} or {@link FileChannel.MapMode#READ_WRITE}.
+     * @return A new {@link TensorFP16} backed by the mapped file region.
+     * @throws IOException
+     *     if the file cannot be mapped.
+     * @since v1.1.1
+     */
+    public static TensorFP16 fromFile(Shape shape, Path path, long offset, FileChannel.MapMode mode) throws IOException {
+        return new TensorFP16(shape, HalfFloatArray.fromFile(path, offset, shape.getSize(), mode));
+    }
+
+    /**
+     * Writes the tensor data, including the array header, to a file that can be mapped with
+     * {@link #fromFile(Shape, Path)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @throws IOException
+     *     if the file cannot be written.
+     * @since v1.1.1
+     */
+    public void toFile(Path path) throws IOException {
+        tensorStorage.toFile(path);
+    }
+
+    public void init(HalfFloat value) {
+        tensorStorage.init(value);
     }
 
     public void set(int index, HalfFloat value) {
@@ -82,6 +148,96 @@ public final class TensorFP16 extends Tensor {
         return new HalfFloat(halfFloatValue);
     }
 
+    /**
+     * Gets the raw 16-bit representation of the half-float value stored at the specified index, without allocating a
+     * {@link HalfFloat} instance. This method is intended for host code; kernels should use {@link #get(int)}.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The half-float value as a short.
+     * @since v1.1.1
+     */
+    public short getHalf(int index) {
+        return tensorStorage.getHalf(index);
+    }
+
+    /**
+     * Sets the raw 16-bit representation of the half-float value at a specified index, without allocating a
+     * {@link HalfFloat} instance. This method is intended for host code; kernels should use {@link #set(int, HalfFloat)}.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The half-float value as a short.
+     * @since v1.1.1
+     */
+    public void setHalf(int index, short value) {
+        tensorStorage.setHalf(index, value);
+    }
+
+    /**
+     * Gets the half-float value stored at the specified index, converted to a float with {@link Float#float16ToFloat}.
+     * This method is intended for host code; kernels should use {@link #get(int)}.
+     *
+     * @param index
+     *     The index of which to retrieve the value.
+     * @return The value as a float.
+     * @since v1.1.1
+     */
+    public float getHalfAsFloat(int index) {
+        return tensorStorage.getHalfAsFloat(index);
+    }
+
+    /**
+     * Converts a float value to half-float with {@link Float#floatToFloat16} and stores it at a specified index. This
+     * method is intended for host code; kernels should use {@link #set(int, HalfFloat)}.
+     *
+     * @param index
+     *     The index at which to set the value.
+     * @param value
+     *     The float value to convert.
+     * @since v1.1.1
+     */
+    public void setFromFloat(int index, float value) {
+        tensorStorage.setFromFloat(index, value);
+    }
+
+    /**
+     * Converts all the elements of the tensor to floats.
+     *
+     * @return A new {@link TensorFP32} with the same shape.
+     * @since v1.1.1
+     */
+    public TensorFP32 toTensorFP32() {
+        TensorFP32 tensor = new TensorFP32(shape);
+        SegmentOps.convertHalfToFloat(getSegment(), tensor.getSegment());
+        return tensor;
+    }
+
+    /**
+     * Converts all the elements of the tensor to floats, and stores them in an existing {@link FloatArray} with the
+     * same number of elements.
+     *
+     * @param destination
+     *     The {@link FloatArray} that receives the converted values.
+     * @since v1.1.1
+     */
+    public void toFloatArray(FloatArray destination) {
+        tensorStorage.toFloatArray(destination);
+    }
+
+    /**
+     * Converts all the elements of a {@link FloatArray} with the same number of elements to half-floats, and stores
+     * them in the tensor.
+     *
+     * @param source
+     *     The {@link FloatArray} with the values to convert.
+     * @since v1.1.1
+     */
+    public void setFromFloatArray(FloatArray source) {
+        tensorStorage.setFromFloatArray(source);
+    }
+
     @Override
     public int getSize() {
         return numberOfElements;
@@ -107,6 +263,13 @@ public final class TensorFP16 extends Tensor {
         return tensorStorage.getNumBytesOfSegment();
     }
 
+    @Override
+    public TensorFP16 duplicate() {
+        TensorFP16 copy = new TensorFP16(getShape());
+        copy.getSegment().copyFrom(getSegment());
+        return copy;
+    }
+
     @Override
     protected void clear() {
         init(new HalfFloat(0));
@@ -22,8 +22,11 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
+import java.io.IOException;
 import java.lang.foreign.MemorySegment;
 import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
@@ -57,10 +60,71 @@ public final class TensorFP32 extends Tensor {
         this.tensorStorage = new FloatArray(numberOfElements);
     }
 
-    public void init(float value) {
-        for (int i = 0; i < getSize(); i++) {
-            tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_FLOAT, getBaseIndex() + i, value);
+    private TensorFP32(Shape shape, FloatArray tensorStorage) {
+        super(DType.FLOAT, shape);
+        if (tensorStorage.getSize() != shape.getSize()) {
+            throw new IllegalArgumentException("The shape " + shape + " does not match the number of elements in the file: " + tensorStorage.getSize());
         }
+        this.shape = shape;
+        this.numberOfElements = shape.getSize();
+        this.dType = DType.FLOAT;
+        this.tensorStorage = tensorStorage;
+    }
+
+    /**
+     * Creates a tensor that maps a file written with {@link #toFile(Path)}, without copying the data.
+     * The file is mapped in read-only mode.
+     *
+     * @param shape
+     *     The shape of the tensor.
+     * @param path
+     *     The path of the file.
+     * @return A new {@link TensorFP32} backed by the mapped file.
+     * @throws IOException
+     *     if the file cannot be mapped.
+     * @since v1.1.1
+     */
+    public static TensorFP32 fromFile(Shape shape, Path path) throws IOException {
+        return new TensorFP32(shape, FloatArray.fromFile(path));
+    }
+
+    /**
+     * Creates a tensor that maps a region of a file, without copying the data. See
+     * {@link FloatArray#fromFile(Path, long, int, FileChannel.MapMode)} for the layout of the region.
+     *
+     * @param shape
+     *     The shape of the tensor.
+     * @param path
+     *     The path of the file.
+     * @param offset
+     *     The position in bytes of the first element in the file.
+     * @param mode
+     *     The mapping mode: {@link FileChannel.MapMode#PRIVATE} or {@link FileChannel.MapMode#READ_WRITE}.
+     * @return A new {@link TensorFP32} backed by the mapped file region.
+     * @throws IOException
+     *     if the file cannot be mapped.
+     * @since v1.1.1
+     */
+    public static TensorFP32 fromFile(Shape shape, Path path, long offset, FileChannel.MapMode mode) throws IOException {
+        return new TensorFP32(shape, FloatArray.fromFile(path, offset, shape.getSize(), mode));
+    }
+
+    /**
+     * Writes the tensor data, including the array header, to a file that can be mapped with
+     * {@link #fromFile(Shape, Path)}.
+     *
+     * @param path
+     *     The path of the file.
+     * @throws IOException
+     *     if the file cannot be written.
+     * @since v1.1.1
+     */
+    public void toFile(Path path) throws IOException {
+        tensorStorage.toFile(path);
+    }
+
+    public void init(float value) {
+        tensorStorage.init(value);
     }
 
     public void set(int index, float value) {
@@ -107,6 +171,13 @@ public final class TensorFP32 extends Tensor {
         return tensorStorage.getNumBytesOfSegment();
     }
 
+    @Override
+    public TensorFP32 duplicate() {
+        TensorFP32 copy = new TensorFP32(getShape());
+        copy.getSegment().copyFrom(getSegment());
+        return copy;
+    }
+
     @Override
     protected void clear() {
         init(0.0f);
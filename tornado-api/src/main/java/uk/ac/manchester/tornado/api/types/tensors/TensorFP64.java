@@ -58,9 +58,7 @@ public final class TensorFP64 extends Tensor {
     }
 
     public void init(double value) {
-        for (int i = 0; i < getSize(); i++) {
-            tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_DOUBLE, getBaseIndex() + i, value);
-        }
+        tensorStorage.init(value);
     }
 
     public void set(int index, double value) {
@@ -107,6 +105,13 @@ public final class TensorFP64 extends Tensor {
         return tensorStorage.getNumBytesOfSegment();
     }
 
+    @Override
+    public TensorFP64 duplicate() {
+        TensorFP64 copy = new TensorFP64(getShape());
+        copy.getSegment().copyFrom(getSegment());
+        return copy;
+    }
+
     @Override
     protected void clear() {
         init(0d);
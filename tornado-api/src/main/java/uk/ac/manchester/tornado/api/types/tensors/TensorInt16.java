@@ -59,9 +59,7 @@ public final class TensorInt16 extends Tensor {
     }
 
     public void init(short value) {
-        for (int i = 0; i < getSize(); i++) {
-            tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + i, value);
-        }
+        tensorStorage.init(value);
     }
 
     public void set(int index, short value) {
@@ -108,6 +106,13 @@ public final class TensorInt16 extends Tensor {
         return tensorStorage.getNumBytesOfSegment();
     }
 
+    @Override
+    public TensorInt16 duplicate() {
+        TensorInt16 copy = new TensorInt16(getShape());
+        copy.getSegment().copyFrom(getSegment());
+        return copy;
+    }
+
     @Override
     protected void clear() {
         init((short) 0);
@@ -59,9 +59,7 @@ public final class TensorInt32 extends Tensor {
     }
 
     public void init(int value) {
-        for (int i = 0; i < getSize(); i++) {
-            tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_INT, getBaseIndex() + i, value);
-        }
+        tensorStorage.init(value);
     }
 
     public void set(int index, int value) {
@@ -108,6 +106,13 @@ public final class TensorInt32 extends Tensor {
         return tensorStorage.getNumBytesOfSegment();
     }
 
+    @Override
+    public TensorInt32 duplicate() {
+        TensorInt32 copy = new TensorInt32(getShape());
+        copy.getSegment().copyFrom(getSegment());
+        return copy;
+    }
+
     @Override
     protected void clear() {
         init(0);
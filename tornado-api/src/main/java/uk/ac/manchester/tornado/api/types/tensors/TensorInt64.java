@@ -58,9 +58,7 @@ public final class TensorInt64 extends Tensor {
     }
 
     public void init(long value) {
-        for (int i = 0; i < getSize(); i++) {
-            tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_LONG, getBaseIndex() + i, value);
-        }
+        tensorStorage.init(value);
     }
 
     public void set(int index, long value) {
@@ -107,6 +105,13 @@ public final class TensorInt64 extends Tensor {
         return tensorStorage.getNumBytesOfSegment();
     }
 
+    @Override
+    public TensorInt64 duplicate() {
+        TensorInt64 copy = new TensorInt64(getShape());
+        copy.getSegment().copyFrom(getSegment());
+        return copy;
+    }
+
     @Override
     protected void clear() {
         init((long) 0);
@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.utils;
+
+import static java.lang.String.format;
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE_UNALIGNED;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT_UNALIGNED;
+import static java.lang.foreign.ValueLayout.JAVA_INT_UNALIGNED;
+import static java.lang.foreign.ValueLayout.JAVA_LONG_UNALIGNED;
+import static java.lang.foreign.ValueLayout.JAVA_SHORT_UNALIGNED;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Host-side bulk operations over the {@link MemorySegment} of the TornadoVM
+ * native arrays, implemented with the JDK Vector API. Each operation processes
+ * whole segments, so the segments must not include the array header (use
+ * {@code getSegment()} of the native arrays).
+ *
+ * <p>
+ * These methods run on the host only, and they cannot be invoked from a
+ * task-graph. Reductions add the elements in a different order than a
+ * sequential loop, so floating-point results may differ in the last bits.
+ * </p>
+ *
+ * @since v1.1.1
+ */
+public final class SegmentOps {
+
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORT_SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    private SegmentOps() {
+    }
+
+    private static long numElements(MemorySegment segment, int elementSize) {
+        if (segment.byteSize() % elementSize != 0) {
+            throw new IllegalArgumentException(format("The byte size (%d) is not a multiple of the element size (%d)", segment.byteSize(), elementSize));
+        }
+        return segment.byteSize() / elementSize;
+    }
+
+    private static long numElements(MemorySegment a, MemorySegment b, int elementSize) {
+        if (a.byteSize() != b.byteSize()) {
+            throw new IllegalArgumentException(format("The segments have different sizes (%d and %d bytes)", a.byteSize(), b.byteSize()));
+        }
+        return numElements(a, elementSize);
+    }
+
+    /**
+     * Sets all the float elements of a segment to the given value.
+     */
+    public static void fill(MemorySegment segment, float value) {
+        long length = numElements(segment, Float.BYTES) * Float.BYTES;
+        long step = FLOAT_SPECIES.vectorByteSize();
+        FloatVector vector = FloatVector.broadcast(FLOAT_SPECIES, value);
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            vector.intoMemorySegment(segment, offset, ORDER);
+        }
+        for (; offset < length; offset += Float.BYTES) {
+            segment.set(JAVA_FLOAT_UNALIGNED, offset, value);
+        }
+    }
+
+    /**
+     * Sets all the double elements of a segment to the given value.
+     */
+    public static void fill(MemorySegment segment, double value) {
+        long length = numElements(segment, Double.BYTES) * Double.BYTES;
+        long step = DOUBLE_SPECIES.vectorByteSize();
+        DoubleVector vector = DoubleVector.broadcast(DOUBLE_SPECIES, value);
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            vector.intoMemorySegment(segment, offset, ORDER);
+        }
+        for (; offset < length; offset += Double.BYTES) {
+            segment.set(JAVA_DOUBLE_UNALIGNED, offset, value);
+        }
+    }
+
+    /**
+     * Sets all the int elements of a segment to the given value.
+     */
+    public static void fill(MemorySegment segment, int value) {
+        long length = numElements(segment, Integer.BYTES) * Integer.BYTES;
+        long step = INT_SPECIES.vectorByteSize();
+        IntVector vector = IntVector.broadcast(INT_SPECIES, value);
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            vector.intoMemorySegment(segment, offset, ORDER);
+        }
+        for (; offset < length; offset += Integer.BYTES) {
+            segment.set(JAVA_INT_UNALIGNED, offset, value);
+        }
+    }
+
+    /**
+     * Sets all the long elements of a segment to the given value.
+     */
+    public static void fill(MemorySegment segment, long value) {
+        long length = numElements(segment, Long.BYTES) * Long.BYTES;
+        long step = LONG_SPECIES.vectorByteSize();
+        LongVector vector = LongVector.broadcast(LONG_SPECIES, value);
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            vector.intoMemorySegment(segment, offset, ORDER);
+        }
+        for (; offset < length; offset += Long.BYTES) {
+            segment.set(JAVA_LONG_UNALIGNED, offset, value);
+        }
+    }
+
+    /**
+     * Sets all the short elements of a segment to the given value. It is also
+     * used for char and half-float elements.
+     */
+    public static void fill(MemorySegment segment, short value) {
+        long length = numElements(segment, Short.BYTES) * Short.BYTES;
+        long step = SHORT_SPECIES.vectorByteSize();
+        ShortVector vector = ShortVector.broadcast(SHORT_SPECIES, value);
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            vector.intoMemorySegment(segment, offset, ORDER);
+        }
+        for (; offset < length; offset += Short.BYTES) {
+            segment.set(JAVA_SHORT_UNALIGNED, offset, value);
+        }
+    }
+
+    /**
+     * Copies the elements of a segment into another segment of the same size.
+     * Copies do not need the Vector API: {@link MemorySegment#copy} is a bulk
+     * copy of the memory.
+     */
+    public static void copy(MemorySegment source, MemorySegment destination) {
+        numElements(source, destination, Byte.BYTES);
+        destination.copyFrom(source);
+    }
+
+    /**
+     * Computes {@code y = alpha * x + y} for float elements.
+     */
+    public static void axpy(float alpha, MemorySegment x, MemorySegment y) {
+        long length = numElements(x, y, Float.BYTES) * Float.BYTES;
+        long step = FLOAT_SPECIES.vectorByteSize();
+        FloatVector valpha = FloatVector.broadcast(FLOAT_SPECIES, alpha);
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            FloatVector vx = FloatVector.fromMemorySegment(FLOAT_SPECIES, x, offset, ORDER);
+            FloatVector vy = FloatVector.fromMemorySegment(FLOAT_SPECIES, y, offset, ORDER);
+            vx.fma(valpha, vy).intoMemorySegment(y, offset, ORDER);
+        }
+        for (; offset < length; offset += Float.BYTES) {
+            y.set(JAVA_FLOAT_UNALIGNED, offset, Math.fma(alpha, x.get(JAVA_FLOAT_UNALIGNED, offset), y.get(JAVA_FLOAT_UNALIGNED, offset)));
+        }
+    }
+
+    /**
+     * Computes {@code y = alpha * x + y} for double elements.
+     */
+    public static void axpy(double alpha, MemorySegment x, MemorySegment y) {
+        long length = numElements(x, y, Double.BYTES) * Double.BYTES;
+        long step = DOUBLE_SPECIES.vectorByteSize();
+        DoubleVector valpha = DoubleVector.broadcast(DOUBLE_SPECIES, alpha);
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            DoubleVector vx = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, x, offset, ORDER);
+            DoubleVector vy = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, y, offset, ORDER);
+            vx.fma(valpha, vy).intoMemorySegment(y, offset, ORDER);
+        }
+        for (; offset < length; offset += Double.BYTES) {
+            y.set(JAVA_DOUBLE_UNALIGNED, offset, Math.fma(alpha, x.get(JAVA_DOUBLE_UNALIGNED, offset), y.get(JAVA_DOUBLE_UNALIGNED, offset)));
+        }
+    }
+
+    /**
+     * Computes the element-wise product {@code result = a * b} of float elements.
+     */
+    public static void mult(MemorySegment a, MemorySegment b, MemorySegment result) {
+        long length = numElements(a, b, Float.BYTES) * Float.BYTES;
+        numElements(a, result, Float.BYTES);
+        long step = FLOAT_SPECIES.vectorByteSize();
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            FloatVector va = FloatVector.fromMemorySegment(FLOAT_SPECIES, a, offset, ORDER);
+            FloatVector vb = FloatVector.fromMemorySegment(FLOAT_SPECIES, b, offset, ORDER);
+            va.mul(vb).intoMemorySegment(result, offset, ORDER);
+        }
+        for (; offset < length; offset += Float.BYTES) {
+            result.set(JAVA_FLOAT_UNALIGNED, offset, a.get(JAVA_FLOAT_UNALIGNED, offset) * b.get(JAVA_FLOAT_UNALIGNED, offset));
+        }
+    }
+
+    /**
+     * Computes the dot product of two segments of float elements.
+     */
+    public static float dotFloat(MemorySegment a, MemorySegment b) {
+        long length = numElements(a, b, Float.BYTES) * Float.BYTES;
+        long step = FLOAT_SPECIES.vectorByteSize();
+        FloatVector accumulator = FloatVector.zero(FLOAT_SPECIES);
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            FloatVector va = FloatVector.fromMemorySegment(FLOAT_SPECIES, a, offset, ORDER);
+            FloatVector vb = FloatVector.fromMemorySegment(FLOAT_SPECIES, b, offset, ORDER);
+            accumulator = va.fma(vb, accumulator);
+        }
+        float result = accumulator.reduceLanes(VectorOperators.ADD);
+        for (; offset < length; offset += Float.BYTES) {
+            result += a.get(JAVA_FLOAT_UNALIGNED, offset) * b.get(JAVA_FLOAT_UNALIGNED, offset);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the dot product of two segments of double elements.
+     */
+    public static double dotDouble(MemorySegment a, MemorySegment b) {
+        long length = numElements(a, b, Double.BYTES) * Double.BYTES;
+        long step = DOUBLE_SPECIES.vectorByteSize();
+        DoubleVector accumulator = DoubleVector.zero(DOUBLE_SPECIES);
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            DoubleVector va = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, a, offset, ORDER);
+            DoubleVector vb = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, b, offset, ORDER);
+            accumulator = va.fma(vb, accumulator);
+        }
+        double result = accumulator.reduceLanes(VectorOperators.ADD);
+        for (; offset < length; offset += Double.BYTES) {
+            result += a.get(JAVA_DOUBLE_UNALIGNED, offset) * b.get(JAVA_DOUBLE_UNALIGNED, offset);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the float elements of a segment.
+     */
+    public static float sumFloat(MemorySegment segment) {
+        return reduceFloat(segment, VectorOperators.ADD);
+    }
+
+    /**
+     * Returns the minimum of the float elements of a segment, or {@link Float#POSITIVE_INFINITY} for an
+     * empty segment.
+     */
+    public static float minFloat(MemorySegment segment) {
+        return reduceFloat(segment, VectorOperators.MIN);
+    }
+
+    /**
+     * Returns the maximum of the float elements of a segment, or {@link Float#NEGATIVE_INFINITY} for an
+     * empty segment.
+     */
+    public static float maxFloat(MemorySegment segment) {
+        return reduceFloat(segment, VectorOperators.MAX);
+    }
+
+    /**
+     * Adds the double elements of a segment.
+     */
+    public static double sumDouble(MemorySegment segment) {
+        return reduceDouble(segment, VectorOperators.ADD);
+    }
+
+    /**
+     * Returns the minimum of the double elements of a segment, or {@link Double#POSITIVE_INFINITY} for an
+     * empty segment.
+     */
+    public static double minDouble(MemorySegment segment) {
+        return reduceDouble(segment, VectorOperators.MIN);
+    }
+
+    /**
+     * Returns the maximum of the double elements of a segment, or {@link Double#NEGATIVE_INFINITY} for an
+     * empty segment.
+     */
+    public static double maxDouble(MemorySegment segment) {
+        return reduceDouble(segment, VectorOperators.MAX);
+    }
+
+    /**
+     * Adds the int elements of a segment. The sum overflows as the int addition.
+     */
+    public static int sumInt(MemorySegment segment) {
+        return reduceInt(segment, VectorOperators.ADD);
+    }
+
+    /**
+     * Returns the minimum of the int elements of a segment, or {@link Integer#MAX_VALUE} for an
+     * empty segment.
+     */
+    public static int minInt(MemorySegment segment) {
+        return reduceInt(segment, VectorOperators.MIN);
+    }
+
+    /**
+     * Returns the maximum of the int elements of a segment, or {@link Integer#MIN_VALUE} for an
+     * empty segment.
+     */
+    public static int maxInt(MemorySegment segment) {
+        return reduceInt(segment, VectorOperators.MAX);
+    }
+
+    private static float reduceFloat(MemorySegment segment, VectorOperators.Associative operator) {
+        long length = numElements(segment, Float.BYTES) * Float.BYTES;
+        long step = FLOAT_SPECIES.vectorByteSize();
+        FloatVector accumulator = FloatVector.broadcast(FLOAT_SPECIES, identity(operator, 0.0f, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY));
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            accumulator = accumulator.lanewise(operator, FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, offset, ORDER));
+        }
+        float result = accumulator.reduceLanes(operator);
+        for (; offset < length; offset += Float.BYTES) {
+            float value = segment.get(JAVA_FLOAT_UNALIGNED, offset);
+            result = combine(operator, result, value);
+        }
+        return result;
+    }
+
+    private static double reduceDouble(MemorySegment segment, VectorOperators.Associative operator) {
+        long length = numElements(segment, Double.BYTES) * Double.BYTES;
+        long step = DOUBLE_SPECIES.vectorByteSize();
+        DoubleVector accumulator = DoubleVector.broadcast(DOUBLE_SPECIES, identity(operator, 0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY));
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            accumulator = accumulator.lanewise(operator, DoubleVector.fromMemorySegment(DOUBLE_SPECIES, segment, offset, ORDER));
+        }
+        double result = accumulator.reduceLanes(operator);
+        for (; offset < length; offset += Double.BYTES) {
+            double value = segment.get(JAVA_DOUBLE_UNALIGNED, offset);
+            result = combine(operator, result, value);
+        }
+        return result;
+    }
+
+    private static int reduceInt(MemorySegment segment, VectorOperators.Associative operator) {
+        long length = numElements(segment, Integer.BYTES) * Integer.BYTES;
+        long step = INT_SPECIES.vectorByteSize();
+        IntVector accumulator = IntVector.broadcast(INT_SPECIES, identity(operator, 0, Integer.MAX_VALUE, Integer.MIN_VALUE));
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            accumulator = accumulator.lanewise(operator, IntVector.fromMemorySegment(INT_SPECIES, segment, offset, ORDER));
+        }
+        int result = accumulator.reduceLanes(operator);
+        for (; offset < length; offset += Integer.BYTES) {
+            int value = segment.get(JAVA_INT_UNALIGNED, offset);
+            result = combine(operator, result, value);
+        }
+        return result;
+    }
+
+    private static float combine(VectorOperators.Associative operator, float a, float b) {
+        if (operator == VectorOperators.ADD) {
+            return a + b;
+        }
+        return operator == VectorOperators.MIN ? Math.min(a, b) : Math.max(a, b);
+    }
+
+    private static double combine(VectorOperators.Associative operator, double a, double b) {
+        if (operator == VectorOperators.ADD) {
+            return a + b;
+        }
+        return operator == VectorOperators.MIN ? Math.min(a, b) : Math.max(a, b);
+    }
+
+    private static int combine(VectorOperators.Associative operator, int a, int b) {
+        if (operator == VectorOperators.ADD) {
+            return a + b;
+        }
+        return operator == VectorOperators.MIN ? Math.min(a, b) : Math.max(a, b);
+    }
+
+    private static <T> T identity(VectorOperators.Associative operator, T add, T min, T max) {
+        if (operator == VectorOperators.ADD) {
+            return add;
+        } else if (operator == VectorOperators.MIN) {
+            return min;
+        } else if (operator == VectorOperators.MAX) {
+            return max;
+        }
+        throw new IllegalArgumentException("Unsupported reduction: " + operator);
+    }
+
+    /**
+     * Converts int elements to float elements. The destination must have the
+     * same number of elements as the source.
+     */
+    public static void convertIntToFloat(MemorySegment source, MemorySegment destination) {
+        long length = numElements(source, destination, Integer.BYTES) * Integer.BYTES;
+        long step = INT_SPECIES.vectorByteSize();
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            IntVector vector = IntVector.fromMemorySegment(INT_SPECIES, source, offset, ORDER);
+            vector.convert(VectorOperators.I2F, 0).intoMemorySegment(destination, offset, ORDER);
+        }
+        for (; offset < length; offset += Integer.BYTES) {
+            destination.set(JAVA_FLOAT_UNALIGNED, offset, source.get(JAVA_INT_UNALIGNED, offset));
+        }
+    }
+
+    /**
+     * Converts float elements to int elements, rounding towards zero as the Java
+     * cast. The destination must have the same number of elements as the source.
+     */
+    public static void convertFloatToInt(MemorySegment source, MemorySegment destination) {
+        long length = numElements(source, destination, Float.BYTES) * Float.BYTES;
+        long step = FLOAT_SPECIES.vectorByteSize();
+        long offset = 0;
+        for (; offset <= length - step; offset += step) {
+            FloatVector vector = FloatVector.fromMemorySegment(FLOAT_SPECIES, source, offset, ORDER);
+            vector.convert(VectorOperators.F2I, 0).intoMemorySegment(destination, offset, ORDER);
+        }
+        for (; offset < length; offset += Float.BYTES) {
+            destination.set(JAVA_INT_UNALIGNED, offset, (int) source.get(JAVA_FLOAT_UNALIGNED, offset));
+        }
+    }
+
+    /**
+     * Packs float elements into half-float (fp16) elements. The destination must
+     * have the same number of elements as the source.
+     *
+     * <p>
+     * The Vector API of JDK 21 does not have a lane-wise conversion to fp16, so
+     * this loop uses {@link Float#floatToFloat16}, which HotSpot compiles to the
+     * conversion instructions of the CPU.
+     * </p>
+     */
+    public static void convertFloatToHalf(MemorySegment source, MemorySegment destination) {
+        long numElements = numElements(source, Float.BYTES);
+        if (numElements(destination, Short.BYTES) != numElements) {
+            throw new IllegalArgumentException(format("The destination has %d elements, expected %d", destination.byteSize() / Short.BYTES, numElements));
+        }
+        for (long i = 0; i < numElements; i++) {
+            destination.set(JAVA_SHORT_UNALIGNED, i * Short.BYTES, Float.floatToFloat16(source.get(JAVA_FLOAT_UNALIGNED, i * Float.BYTES)));
+        }
+    }
+
+    /**
+     * Unpacks half-float (fp16) elements into float elements. The destination
+     * must have the same number of elements as the source.
+     *
+     * @see #convertFloatToHalf(MemorySegment, MemorySegment)
+     */
+    public static void convertHalfToFloat(MemorySegment source, MemorySegment destination) {
+        long numElements = numElements(source, Short.BYTES);
+        if (numElements(destination, Float.BYTES) != numElements) {
+            throw new IllegalArgumentException(format("The destination has %d elements, expected %d", destination.byteSize() / Float.BYTES, numElements));
+        }
+        for (long i = 0; i < numElements; i++) {
+            destination.set(JAVA_FLOAT_UNALIGNED, i * Float.BYTES, Float.float16ToFloat(source.get(JAVA_SHORT_UNALIGNED, i * Short.BYTES)));
+        }
+    }
+}
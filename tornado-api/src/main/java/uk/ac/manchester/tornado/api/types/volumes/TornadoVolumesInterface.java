@@ -33,4 +33,6 @@ public sealed interface TornadoVolumesInterface<T extends Buffer> //
 
     MemorySegment getSegmentWithHeader();
 
+    TornadoVolumesInterface<T> duplicate();
+
 }
@@ -116,9 +116,7 @@ public final class VolumeShort2 implements TornadoVolumesInterface<ShortBuffer>
     }
 
     public VolumeShort2 duplicate() {
-        final VolumeShort2 volume = new VolumeShort2(X, Y, Z);
-        volume.set(this);
-        return volume;
+        return new VolumeShort2(X, Y, Z, storage.duplicate());
     }
 
     public void set(VolumeShort2 other) {
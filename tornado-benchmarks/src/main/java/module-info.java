@@ -34,7 +34,9 @@ module tornado.benchmarks {
     exports uk.ac.manchester.tornado.benchmarks.dotimage;
     exports uk.ac.manchester.tornado.benchmarks.dotvector;
     exports uk.ac.manchester.tornado.benchmarks.euler;
+    exports uk.ac.manchester.tornado.benchmarks.fusion;
     exports uk.ac.manchester.tornado.benchmarks.hilbert;
+    exports uk.ac.manchester.tornado.benchmarks.hostops;
     exports uk.ac.manchester.tornado.benchmarks.mandelbrot;
     exports uk.ac.manchester.tornado.benchmarks.montecarlo;
     exports uk.ac.manchester.tornado.benchmarks.nbody;
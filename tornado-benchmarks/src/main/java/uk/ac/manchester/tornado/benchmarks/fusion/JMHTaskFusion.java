@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.fusion;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+
+/**
+ * <p>
+ * Measures a pipeline of three element-wise tasks, in which each task consumes
+ * the array written by the previous one. With
+ * {@code -Dtornado.fusion=true} the three tasks are fused into a single
+ * kernel, and the two intermediate arrays are neither written nor read by the
+ * device. The benchmark methods run the same task-graph in two forks, with and
+ * without task fusion.
+ * </p>
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.fusion.JMHTaskFusion
+ * </code>
+ */
+public class JMHTaskFusion {
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray t) {
+        for (@Parallel int i = 0; i < x.getSize(); i++) {
+            t.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void scale(FloatArray t, FloatArray u) {
+        for (@Parallel int i = 0; i < t.getSize(); i++) {
+            u.set(i, t.get(i) * 0.5f);
+        }
+    }
+
+    public static void add(FloatArray u, FloatArray y, FloatArray z) {
+        for (@Parallel int i = 0; i < u.getSize(); i++) {
+            z.set(i, u.get(i) + y.get(i));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        private int numElements = Integer.parseInt(System.getProperty("x", "16777216"));
+        private FloatArray x;
+        private FloatArray y;
+        private FloatArray t;
+        private FloatArray u;
+        private FloatArray z;
+        private final float alpha = 2f;
+
+        private TornadoExecutionPlan executor;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            x = new FloatArray(numElements);
+            y = new FloatArray(numElements);
+            t = new FloatArray(numElements);
+            u = new FloatArray(numElements);
+            z = new FloatArray(numElements);
+
+            for (int i = 0; i < numElements; i++) {
+                x.set(i, i);
+                y.set(i, numElements - i);
+            }
+
+            TaskGraph taskGraph = new TaskGraph("benchmark") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, x, y) //
+                    .task("saxpy", JMHTaskFusion::saxpy, alpha, x, y, t) //
+                    .task("scale", JMHTaskFusion::scale, t, u) //
+                    .task("add", JMHTaskFusion::add, u, y, z) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+            ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+            executor = new TornadoExecutionPlan(immutableTaskGraph);
+            executor.withWarmUp();
+        }
+    }
+
+    private static void execute(BenchmarkSetup state, Blackhole blackhole) {
+        state.executor.execute();
+        blackhole.consume(state.z);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(value = 1, jvmArgsAppend = "-Dtornado.fusion=true")
+    public void executeFused(BenchmarkSetup state, Blackhole blackhole) {
+        execute(state, blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(value = 1, jvmArgsAppend = "-Dtornado.fusion=false")
+    public void executeUnfused(BenchmarkSetup state, Blackhole blackhole) {
+        execute(state, blackhole);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHTaskFusion.class.getName() + ".*") //
+                .mode(Mode.AverageTime) //
+                .timeUnit(TimeUnit.MILLISECONDS) //
+                .warmupTime(TimeValue.seconds(30)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(30)) //
+                .measurementIterations(5) //
+                .build();
+        new Runner(opt).run();
+    }
+}
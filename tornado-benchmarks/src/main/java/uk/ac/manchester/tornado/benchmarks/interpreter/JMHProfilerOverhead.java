@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.interpreter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.benchmarks.LinearAlgebraArrays;
+
+/**
+ * <p>
+ * Measures the overhead of the profiler for each {@code execute()} of a cached
+ * task-graph with a small kernel. The profiler parameter selects between no
+ * profiler and the {@link ProfilerMode#SILENT} profiler. Each benchmark method
+ * runs in its own fork with a different profiler implementation: the lock-free
+ * profiler ({@code -Dtornado.profiler.lockfree=true}) and the synchronized
+ * profiler ({@code -Dtornado.profiler.lockfree=false}). The overhead per
+ * execution is the difference with the {@code OFF} configuration. The
+ * iterations are short because the silent profiler keeps a log of every
+ * execution until {@code clearProfiles()} is called after each iteration.
+ * </p>
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.interpreter.JMHProfilerOverhead
+ * </code>
+ */
+public class JMHProfilerOverhead {
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        @Param({ "OFF", "SILENT" })
+        private String profiler;
+
+        private int numElements = Integer.parseInt(System.getProperty("x", "1024"));
+        private FloatArray x;
+        private FloatArray y;
+        private final float alpha = 2f;
+
+        private TornadoExecutionPlan executor;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            x = new FloatArray(numElements);
+            y = new FloatArray(numElements);
+
+            for (int i = 0; i < numElements; i++) {
+                x.set(i, i);
+            }
+
+            TaskGraph taskGraph = new TaskGraph("benchmark") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, x) //
+                    .task("saxpy", LinearAlgebraArrays::saxpy, alpha, x, y) //
+                    .transferToHost(DataTransferMode.UNDER_DEMAND, y);
+
+            ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+            executor = new TornadoExecutionPlan(immutableTaskGraph);
+            if (profiler.equals("SILENT")) {
+                executor.withProfiler(ProfilerMode.SILENT);
+            }
+            executor.withWarmUp();
+            executor.execute();
+        }
+
+        @TearDown(Level.Iteration)
+        public void doTearDown() {
+            // Release the profiler logs accumulated during the iteration
+            executor.clearProfiles();
+        }
+    }
+
+    private static void execute(BenchmarkSetup state, Blackhole blackhole) {
+        blackhole.consume(state.executor.execute());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 4, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 10, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(value = 1, jvmArgsAppend = "-Dtornado.profiler.lockfree=true")
+    public void executeLockFreeProfiler(BenchmarkSetup state, Blackhole blackhole) {
+        execute(state, blackhole);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 4, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 10, time = 5, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(value = 1, jvmArgsAppend = "-Dtornado.profiler.lockfree=false")
+    public void executeSynchronizedProfiler(BenchmarkSetup state, Blackhole blackhole) {
+        execute(state, blackhole);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHProfilerOverhead.class.getName() + ".*") //
+                .mode(Mode.AverageTime) //
+                .timeUnit(TimeUnit.NANOSECONDS) //
+                .warmupTime(TimeValue.seconds(5)) //
+                .warmupIterations(4) //
+                .measurementTime(TimeValue.seconds(5)) //
+                .measurementIterations(10) //
+                .addProfiler(GCProfiler.class) //
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of command queues (OpenCL command queues, CUDA streams or Level
+ * Zero command queues) of a device.
+ *
+ * <p>
+ * Each queue identifier (an execution plan, or the transfer queue of an
+ * execution plan) is bound to one of the queues of the pool the first time it
+ * is used, and it keeps that queue until the execution plan is reset, so the
+ * events of the execution plan are always resolved on the queue that created
+ * them. New identifiers are bound to the queue with the fewest identifiers,
+ * using the identifier modulo the pool size as a hint. The number of queues
+ * does not depend on the number of threads, so execution plans can be run from
+ * virtual threads or large thread pools, and the queues are only created during
+ * the first executions.
+ * </p>
+ *
+ * <p>
+ * An execution leases its queues with {@link #acquire} and returns them with
+ * {@link #release}. Executions whose identifiers are bound to the same queue
+ * wait for each other. An identifier is only unbound once its queue is not
+ * leased, and the queues are destroyed with {@link #destroy} when the device
+ * context shuts down. The locks do not pin the carrier thread of a virtual
+ * thread.
+ * </p>
+ *
+ * @param <Q>
+ *     Type of the command queue.
+ */
+public class CommandQueuePool<Q> {
+
+    private final Supplier<Q> factory;
+    private final Consumer<Q> recycler;
+    private final Object[] queues;
+    private final ReentrantLock[] queueLocks;
+    private final int[] bindingsPerQueue;
+    private final Map<Long, Integer> bindings;
+    private final ReentrantLock bindLock;
+
+    private final LongAdder acquisitions;
+    private final LongAdder contendedAcquisitions;
+    private final LongAdder waitTime;
+
+    /**
+     * @param size
+     *     Maximum number of queues of the pool.
+     * @param factory
+     *     Creates a queue. It is called at most {@code size} times.
+     */
+    public CommandQueuePool(int size, Supplier<Q> factory) {
+        this(size, factory, null);
+    }
+
+    /**
+     * @param size
+     *     Maximum number of queues of the pool.
+     * @param factory
+     *     Creates a queue. It is called at most {@code size} times.
+     * @param recycler
+     *     Called when the last identifier bound to a queue is unbound, to reset
+     *     the state that the queue keeps for its execution plans. It can be
+     *     {@code null}.
+     */
+    public CommandQueuePool(int size, Supplier<Q> factory, Consumer<Q> recycler) {
+        this.factory = factory;
+        this.recycler = recycler;
+        int numQueues = Math.max(1, size);
+        this.queues = new Object[numQueues];
+        this.queueLocks = new ReentrantLock[numQueues];
+        for (int i = 0; i < numQueues; i++) {
+            queueLocks[i] = new ReentrantLock();
+        }
+        this.bindingsPerQueue = new int[numQueues];
+        this.bindings = new ConcurrentHashMap<>();
+        this.bindLock = new ReentrantLock();
+        this.acquisitions = new LongAdder();
+        this.contendedAcquisitions = new LongAdder();
+        this.waitTime = new LongAdder();
+    }
+
+    /**
+     * Returns the queue bound to an identifier, and binds one if needed.
+     *
+     * @param queueId
+     *     Execution plan identifier, or transfer queue identifier.
+     * @return the command queue.
+     */
+    @SuppressWarnings("unchecked")
+    public Q get(long queueId) {
+        return (Q) queues[slotOf(queueId)];
+    }
+
+    /**
+     * Returns the queue bound to an identifier, or null if the identifier has no
+     * queue.
+     */
+    @SuppressWarnings("unchecked")
+    public Q getIfBound(long queueId) {
+        Integer slot = bindings.get(queueId);
+        return slot == null ? null : (Q) queues[slot];
+    }
+
+    private int slotOf(long queueId) {
+        Integer slot = bindings.get(queueId);
+        return slot != null ? slot : bind(queueId);
+    }
+
+    private int bind(long queueId) {
+        bindLock.lock();
+        try {
+            Integer bound = bindings.get(queueId);
+            if (bound != null) {
+                return bound;
+            }
+            int slot = (int) Math.floorMod(queueId, (long) queues.length);
+            for (int i = 0; i < queues.length; i++) {
+                if (bindingsPerQueue[i] < bindingsPerQueue[slot]) {
+                    slot = i;
+                }
+            }
+            if (queues[slot] == null) {
+                queues[slot] = factory.get();
+            }
+            bindingsPerQueue[slot]++;
+            bindings.put(queueId, slot);
+            return slot;
+        } finally {
+            bindLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the binding of an identifier. It waits for the executions that
+     * lease the queue of the identifier. The queue stays in the pool for other
+     * execution plans.
+     */
+    @SuppressWarnings("unchecked")
+    public void unbind(long queueId) {
+        Integer slot = bindings.get(queueId);
+        if (slot == null) {
+            return;
+        }
+        // The queue lock is taken before the bind lock, as in an execution that binds a new identifier
+        ReentrantLock queueLock = queueLocks[slot];
+        queueLock.lock();
+        try {
+            bindLock.lock();
+            try {
+                if (bindings.remove(queueId, slot) && --bindingsPerQueue[slot] == 0 && recycler != null) {
+                    recycler.accept((Q) queues[slot]);
+                }
+            } finally {
+                bindLock.unlock();
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Leases the queues of an execution. The queues are locked in index order, so
+     * two executions that need the same two queues cannot wait for each other.
+     *
+     * @param executionPlanId
+     *     Execution plan identifier.
+     * @param transferQueueId
+     *     Transfer queue identifier of the execution plan.
+     */
+    public void acquire(long executionPlanId, long transferQueueId) {
+        while (true) {
+            int first = slotOf(executionPlanId);
+            int second = slotOf(transferQueueId);
+            lock(Math.min(first, second));
+            if (first != second) {
+                lock(Math.max(first, second));
+            }
+            if (isBoundTo(executionPlanId, first) && isBoundTo(transferQueueId, second)) {
+                return;
+            }
+            // The identifiers were unbound while waiting for the queues
+            unlock(first, second);
+        }
+    }
+
+    private boolean isBoundTo(long queueId, int slot) {
+        Integer bound = bindings.get(queueId);
+        return bound != null && bound == slot;
+    }
+
+    private void unlock(int first, int second) {
+        if (first != second) {
+            queueLocks[Math.max(first, second)].unlock();
+        }
+        queueLocks[Math.min(first, second)].unlock();
+    }
+
+    /**
+     * Returns the queues leased with {@link #acquire}.
+     */
+    public void release(long executionPlanId, long transferQueueId) {
+        unlock(leasedSlotOf(executionPlanId), leasedSlotOf(transferQueueId));
+    }
+
+    private int leasedSlotOf(long queueId) {
+        Integer slot = bindings.get(queueId);
+        if (slot == null || !queueLocks[slot].isHeldByCurrentThread()) {
+            throw new IllegalStateException("The queue of " + queueId + " is not leased by the current thread");
+        }
+        return slot;
+    }
+
+    private void lock(int slot) {
+        ReentrantLock queueLock = queueLocks[slot];
+        acquisitions.increment();
+        if (queueLock.tryLock()) {
+            return;
+        }
+        long start = System.nanoTime();
+        queueLock.lock();
+        contendedAcquisitions.increment();
+        waitTime.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Destroys all queues created by the pool and removes all bindings. It waits
+     * for the executions that lease the queues. The pool creates new queues if it
+     * is used again.
+     *
+     * @param destroyer
+     *     Releases the resources of a queue.
+     */
+    @SuppressWarnings("unchecked")
+    public void destroy(Consumer<Q> destroyer) {
+        for (ReentrantLock queueLock : queueLocks) {
+            queueLock.lock();
+        }
+        bindLock.lock();
+        try {
+            for (int i = 0; i < queues.length; i++) {
+                if (queues[i] != null) {
+                    destroyer.accept((Q) queues[i]);
+                    queues[i] = null;
+                }
+                bindingsPerQueue[i] = 0;
+            }
+            bindings.clear();
+        } finally {
+            bindLock.unlock();
+            for (int i = queueLocks.length - 1; i >= 0; i--) {
+                queueLocks[i].unlock();
+            }
+        }
+    }
+
+    public int getMaxQueues() {
+        return queues.length;
+    }
+
+    public int getNumQueues() {
+        bindLock.lock();
+        try {
+            int numQueues = 0;
+            for (Object queue : queues) {
+                numQueues += queue != null ? 1 : 0;
+            }
+            return numQueues;
+        } finally {
+            bindLock.unlock();
+        }
+    }
+
+    public int getNumBindings() {
+        return bindings.size();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * Number of leases that had to wait for another execution.
+     */
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.sum();
+    }
+
+    /**
+     * Total time, in nanoseconds, spent waiting for queues leased by other
+     * executions.
+     */
+    public long getWaitTime() {
+        return waitTime.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CommandQueuePool[queues=%d/%d, bindings=%d, acquisitions=%d, contended=%d, waitTime=%dns]", getNumQueues(), getMaxQueues(), getNumBindings(), getAcquisitions(),
+                getContendedAcquisitions(), getWaitTime());
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Work-group autotuner of a kernel on a device.
+ *
+ * <p>
+ * For each global work size, the autotuner sweeps a set of candidate local work
+ * sizes during the first executions of the kernel: the local work size selected
+ * by the scheduler of the backend, the local work size selected by the driver
+ * (if the backend supports it), and work-groups with different sizes and shapes
+ * whose dimensions divide the global work size. Each candidate is measured
+ * {@link TornadoOptions#AUTOTUNE_SAMPLES} times with the kernel time of its
+ * event, and the fastest one is used for the following executions. The winner
+ * is stored in the {@link WorkGroupTuningDatabase}, keyed by a hash of the
+ * kernel code, the device and the global work size, so later runs start with
+ * the tuned configuration.
+ * </p>
+ *
+ * <p>
+ * The autotuner is enabled per task with {@code -Ds0.t0.autotune=true}, or for
+ * all tasks with {@code -Dtornado.autotune=true}. The backends only tune
+ * kernels whose results do not depend on the local work size.
+ * </p>
+ */
+public class WorkGroupAutotuner {
+
+    /**
+     * Maximum number of local work sizes swept for each global work size.
+     */
+    private static final int MAX_CANDIDATES = 16;
+
+    /**
+     * Work-groups with fewer work-items are only swept when the global work size
+     * does not allow larger work-groups.
+     */
+    private static final long MIN_WORK_GROUP_SIZE = 32;
+
+    private static final TornadoLogger logger = new TornadoLogger(WorkGroupAutotuner.class);
+
+    private final String kernelHash;
+    private final String deviceName;
+    private final long maxWorkGroupSize;
+    private final long[] maxWorkItemSizes;
+    private final boolean driverLocalWork;
+    private final boolean tunable;
+    private final Map<String, Tuning> tunings;
+    private volatile Tuning lastTuning;
+
+    /**
+     * @param kernelCode
+     *     Generated code of the kernel.
+     * @param deviceName
+     *     Name of the device.
+     * @param maxWorkGroupSize
+     *     Maximum number of work-items of a work-group for this kernel.
+     * @param maxWorkItemSizes
+     *     Maximum number of work-items in each dimension of a work-group.
+     * @param driverLocalWork
+     *     Whether the driver can select the local work size.
+     * @param tunable
+     *     Whether the results of the kernel are independent of the local work
+     *     size. Kernels that are not tunable always use the local work size of
+     *     the scheduler.
+     */
+    public WorkGroupAutotuner(byte[] kernelCode, String deviceName, long maxWorkGroupSize, long[] maxWorkItemSizes, boolean driverLocalWork, boolean tunable) {
+        this.kernelHash = hash(kernelCode);
+        this.deviceName = deviceName;
+        this.maxWorkGroupSize = maxWorkGroupSize;
+        this.maxWorkItemSizes = maxWorkItemSizes;
+        this.driverLocalWork = driverLocalWork;
+        this.tunable = tunable;
+        this.tunings = new ConcurrentHashMap<>();
+    }
+
+    private static String hash(byte[] kernelCode) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(kernelCode);
+            StringBuilder sb = new StringBuilder();
+            // The first 8 bytes are enough to tell the kernels apart
+            for (int i = 0; i < 8; i++) {
+                sb.append(String.format("%02x", digest[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new TornadoRuntimeException("SHA-256 is not available: " + e.getMessage());
+        }
+    }
+
+    private static String formatWork(long[] work) {
+        if (work == null) {
+            return "driver";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < work.length; i++) {
+            sb.append((i == 0) ? "" : ",").append(work[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the tuning of the kernel for a global work size.
+     *
+     * @param dims
+     *     Number of dimensions of the global work size.
+     * @param globalWork
+     *     Global work size.
+     * @param defaultLocalWork
+     *     Local work size selected by the scheduler of the backend, or
+     *     {@code null} if the driver selects it.
+     * @return the tuning, or {@code null} if the kernel is not tunable.
+     */
+    public Tuning getTuning(int dims, long[] globalWork, long[] defaultLocalWork) {
+        if (!tunable) {
+            return null;
+        }
+        Tuning tuning = findLastTuning(dims, globalWork);
+        return (tuning != null) ? tuning : findTuning(dims, globalWork, (defaultLocalWork != null) ? Arrays.copyOf(defaultLocalWork, dims) : null);
+    }
+
+    /**
+     * Returns the tuning of the kernel for a global work size, for backends that
+     * represent work-groups as {@code int} arrays.
+     *
+     * @see #getTuning(int, long[], long[])
+     */
+    public Tuning getTuning(int dims, long[] globalWork, int[] defaultLocalWork) {
+        if (!tunable) {
+            return null;
+        }
+        Tuning tuning = findLastTuning(dims, globalWork);
+        return (tuning != null) ? tuning : findTuning(dims, globalWork, Arrays.stream(defaultLocalWork, 0, dims).asLongStream().toArray());
+    }
+
+    private Tuning findLastTuning(int dims, long[] globalWork) {
+        // Executions of a task usually have the same global work size, so the lookup is only done when it changes
+        Tuning tuning = lastTuning;
+        return (tuning != null && tuning.matches(dims, globalWork)) ? tuning : null;
+    }
+
+    private Tuning findTuning(int dims, long[] globalWork, long[] defaultLocalWork) {
+        long[] global = Arrays.copyOf(globalWork, dims);
+        String configuration = kernelHash + "\t" + deviceName + "\t" + formatWork(global);
+        Tuning tuning = tunings.computeIfAbsent(configuration, key -> createTuning(key, global, defaultLocalWork));
+        lastTuning = tuning;
+        return tuning;
+    }
+
+    private Tuning createTuning(String configuration, long[] globalWork, long[] defaultLocalWork) {
+        List<long[]> candidates = new ArrayList<>();
+        candidates.add(defaultLocalWork);
+
+        WorkGroupTuningDatabase.Entry entry = WorkGroupTuningDatabase.getInstance().lookup(configuration);
+        if (entry != null && isValid(entry.localWork(), globalWork)) {
+            addCandidate(candidates, entry.localWork());
+            return new Tuning(configuration, globalWork, candidates, candidates.size() - 1);
+        }
+
+        if (driverLocalWork) {
+            addCandidate(candidates, null);
+        }
+        for (long[] candidate : generateCandidates(globalWork)) {
+            if (candidates.size() == MAX_CANDIDATES) {
+                break;
+            }
+            addCandidate(candidates, candidate);
+        }
+        return new Tuning(configuration, globalWork, candidates, (candidates.size() == 1) ? 0 : -1);
+    }
+
+    private static void addCandidate(List<long[]> candidates, long[] localWork) {
+        for (long[] candidate : candidates) {
+            if (Arrays.equals(candidate, localWork)) {
+                return;
+            }
+        }
+        candidates.add(localWork);
+    }
+
+    private boolean isValid(long[] localWork, long[] globalWork) {
+        if (localWork == null) {
+            return driverLocalWork;
+        }
+        if (localWork.length != globalWork.length) {
+            return false;
+        }
+        long workGroupSize = 1;
+        for (int i = 0; i < localWork.length; i++) {
+            if (localWork[i] < 1 || localWork[i] > maxWorkItemSizes[i] || globalWork[i] % localWork[i] != 0) {
+                return false;
+            }
+            workGroupSize *= localWork[i];
+        }
+        return workGroupSize <= maxWorkGroupSize;
+    }
+
+    /**
+     * Sizes of one dimension of the work-group: the powers of 2 that divide the
+     * global work size, and the largest divisors of the global work size below the
+     * maximum size, half of it, a quarter of it and an eighth of it, so global
+     * work sizes that are not powers of 2 also get a range of sizes.
+     */
+    private static long[] dimensionSizes(long globalWork, long maxSize) {
+        TreeSet<Long> sizes = new TreeSet<>();
+        for (long size = 1; size <= maxSize && size <= globalWork; size *= 2) {
+            if (globalWork % size == 0) {
+                sizes.add(size);
+            }
+        }
+        for (int shift = 0; shift < 4; shift++) {
+            long size = Math.max(1, Math.min(maxSize, globalWork) >> shift);
+            while (globalWork % size != 0) {
+                size--;
+            }
+            sizes.add(size);
+        }
+        return sizes.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void addShapes(long[][] sizes, long[] shape, int dim, long workGroupSize, TreeMap<Long, List<long[]>> shapes) {
+        if (dim == shape.length) {
+            shapes.computeIfAbsent(workGroupSize, size -> new ArrayList<>()).add(shape.clone());
+            return;
+        }
+        for (long size : sizes[dim]) {
+            if (workGroupSize * size <= maxWorkGroupSize) {
+                shape[dim] = size;
+                addShapes(sizes, shape, dim + 1, workGroupSize * size, shapes);
+            }
+        }
+    }
+
+    private static long imbalance(long[] shape) {
+        return Arrays.stream(shape).max().getAsLong() / Arrays.stream(shape).min().getAsLong();
+    }
+
+    /**
+     * Generates the candidate work-groups, alternating between work-group sizes so
+     * the first candidates cover both large and small work-groups. Within each
+     * size, the most balanced shapes come first.
+     */
+    private List<long[]> generateCandidates(long[] globalWork) {
+        long[][] sizes = new long[globalWork.length][];
+        for (int i = 0; i < globalWork.length; i++) {
+            sizes[i] = dimensionSizes(globalWork[i], Math.min(maxWorkItemSizes[i], maxWorkGroupSize));
+        }
+
+        TreeMap<Long, List<long[]>> shapes = new TreeMap<>(Comparator.reverseOrder());
+        addShapes(sizes, new long[globalWork.length], 0, 1, shapes);
+        if (shapes.isEmpty()) {
+            return List.of();
+        }
+        long minWorkGroupSize = Math.min(MIN_WORK_GROUP_SIZE, shapes.firstKey());
+        List<List<long[]>> groups = new ArrayList<>(shapes.headMap(minWorkGroupSize, true).values());
+        for (List<long[]> group : groups) {
+            group.sort(Comparator.comparingLong(WorkGroupAutotuner::imbalance));
+        }
+
+        List<long[]> candidates = new ArrayList<>();
+        for (int round = 0; candidates.size() < MAX_CANDIDATES; round++) {
+            boolean added = false;
+            for (List<long[]> group : groups) {
+                if (round < group.size()) {
+                    candidates.add(group.get(round));
+                    added = true;
+                }
+            }
+            if (!added) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Candidate local work sizes of a kernel for one global work size, and the
+     * kernel times measured for each of them.
+     */
+    public static final class Tuning {
+
+        private static final int REJECTED = -1;
+
+        private final String configuration;
+        private final long[] globalWork;
+        private final long[][] candidates;
+        private final long[] kernelTimes;
+        private final int[] samples;
+        private int next;
+        private volatile int best;
+
+        private Tuning(String configuration, long[] globalWork, List<long[]> candidates, int best) {
+            this.configuration = configuration;
+            this.globalWork = globalWork;
+            this.candidates = candidates.toArray(new long[0][]);
+            this.kernelTimes = new long[this.candidates.length];
+            this.samples = new int[this.candidates.length];
+            this.best = best;
+            Arrays.fill(kernelTimes, Long.MAX_VALUE);
+        }
+
+        private boolean matches(int dims, long[] globalWork) {
+            if (this.globalWork.length != dims) {
+                return false;
+            }
+            for (int i = 0; i < dims; i++) {
+                if (this.globalWork[i] != globalWork[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return {@code true} while the candidates are being measured.
+         */
+        public boolean isSweeping() {
+            return best < 0;
+        }
+
+        /**
+         * @return the index of the candidate for the next launch: the candidate
+         *     being measured during the sweep, or the fastest candidate after it.
+         */
+        public int select() {
+            int tuned = best;
+            if (tuned >= 0) {
+                return tuned;
+            }
+            synchronized (this) {
+                return (best >= 0) ? best : next;
+            }
+        }
+
+        /**
+         * @return the number of candidates, including the local work size of the
+         *     scheduler.
+         */
+        public int getNumCandidates() {
+            return candidates.length;
+        }
+
+        /**
+         * @return the local work size of a candidate, or {@code null} if the
+         *     driver selects the local work size. The index 0 is the local work
+         *     size of the scheduler.
+         */
+        public long[] getLocalWork(int candidate) {
+            return candidates[candidate];
+        }
+
+        /**
+         * Records the kernel time of a launch with a candidate.
+         *
+         * @param candidate
+         *     Index of the candidate.
+         * @param kernelTime
+         *     Kernel time, in nanoseconds.
+         */
+        public synchronized void record(int candidate, long kernelTime) {
+            if (best >= 0 || samples[candidate] == REJECTED) {
+                return;
+            }
+            kernelTimes[candidate] = Math.min(kernelTimes[candidate], kernelTime);
+            if (candidate == next && ++samples[candidate] >= TornadoOptions.AUTOTUNE_SAMPLES) {
+                advance();
+            }
+        }
+
+        /**
+         * Discards a candidate that the device failed to launch. Launches after a
+         * sweep fall back to the local work size of the scheduler.
+         */
+        public synchronized void reject(int candidate) {
+            if (best >= 0) {
+                if (candidate == best) {
+                    best = 0;
+                }
+                return;
+            }
+            samples[candidate] = REJECTED;
+            kernelTimes[candidate] = Long.MAX_VALUE;
+            if (candidate == next) {
+                advance();
+            }
+        }
+
+        private void advance() {
+            next++;
+            if (next < candidates.length) {
+                return;
+            }
+            int winner = 0;
+            for (int i = 1; i < candidates.length; i++) {
+                if (kernelTimes[i] < kernelTimes[winner]) {
+                    winner = i;
+                }
+            }
+            if (kernelTimes[winner] != Long.MAX_VALUE) {
+                WorkGroupTuningDatabase.getInstance().record(configuration, new WorkGroupTuningDatabase.Entry(candidates[winner], kernelTimes[winner]));
+            }
+            if (TornadoOptions.DEBUG) {
+                logger.info("[Autotuner] %s: local work %s (%d ns), default %s (%d ns)", configuration.replace('\t', ' '), formatWork(candidates[winner]), kernelTimes[winner], formatWork(candidates[0]),
+                        kernelTimes[0]);
+            }
+            best = winner;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Tuning database of the {@link WorkGroupAutotuner}. For each kernel, device
+ * and global work size, it keeps the local work size with the lowest kernel
+ * time measured by the autotuner.
+ *
+ * <p>
+ * The database is stored in {@link TornadoOptions#AUTOTUNE_FILE}. It is loaded
+ * from that file on first use and written back after each sweep, so the tuned
+ * configurations are shared by all processes that use the same file.
+ * </p>
+ */
+final class WorkGroupTuningDatabase {
+
+    /**
+     * Local work size stored for the configurations in which the driver selects
+     * the local work size.
+     */
+    private static final String DRIVER_LOCAL_WORK = "driver";
+
+    private static final String FILE_HEADER = "# kernel\tdevice\tglobalWork\tlocalWork\tkernelTime(ns)";
+
+    private static final TornadoLogger logger = new TornadoLogger(WorkGroupTuningDatabase.class);
+    private static volatile WorkGroupTuningDatabase instance;
+
+    private final Path file;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private WorkGroupTuningDatabase(Path file) {
+        this.file = file;
+    }
+
+    static WorkGroupTuningDatabase getInstance() {
+        if (instance == null) {
+            synchronized (WorkGroupTuningDatabase.class) {
+                if (instance == null) {
+                    WorkGroupTuningDatabase database = new WorkGroupTuningDatabase(Paths.get(TornadoOptions.AUTOTUNE_FILE));
+                    database.merge();
+                    instance = database;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return the tuned configuration, or {@code null} if the configuration has
+     *     not been tuned yet.
+     */
+    synchronized Entry lookup(String configuration) {
+        return entries.get(configuration);
+    }
+
+    /**
+     * Records the result of a sweep and writes the database to its file.
+     */
+    synchronized void record(String configuration, Entry entry) {
+        entries.put(configuration, entry);
+        save();
+    }
+
+    private static String formatLocalWork(long[] localWork) {
+        if (localWork == null) {
+            return DRIVER_LOCAL_WORK;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < localWork.length; i++) {
+            sb.append((i == 0) ? "" : ",").append(localWork[i]);
+        }
+        return sb.toString();
+    }
+
+    private static long[] parseLocalWork(String value) {
+        if (value.equals(DRIVER_LOCAL_WORK)) {
+            return null;
+        }
+        String[] values = value.split(",");
+        long[] localWork = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            localWork[i] = Long.parseLong(values[i]);
+        }
+        return localWork;
+    }
+
+    /**
+     * Adds the entries stored in the file that are not in memory. Entries in
+     * memory are newer, so they are kept.
+     */
+    private void merge() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String[] fields = line.split("\t");
+                if (line.startsWith("#") || fields.length != 5) {
+                    continue;
+                }
+                try {
+                    Entry entry = new Entry(parseLocalWork(fields[3]), Long.parseLong(fields[4]));
+                    entries.putIfAbsent(fields[0] + "\t" + fields[1] + "\t" + fields[2], entry);
+                } catch (NumberFormatException e) {
+                    logger.warn("[Autotuner] Ignoring malformed entry in %s: %s", file, line);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("[Autotuner] Unable to read %s: %s", file, e.getMessage());
+        }
+    }
+
+    private void save() {
+        // Keep the entries recorded by other processes since the file was read
+        merge();
+        Path temporaryFile = null;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Write to a temporary file first, so other processes never read a partial database
+            temporaryFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile)) {
+                writer.write(FILE_HEADER);
+                writer.newLine();
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writer.write(entry.getKey() + "\t" + formatLocalWork(entry.getValue().localWork()) + "\t" + entry.getValue().kernelTime());
+                    writer.newLine();
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("[Autotuner] Unable to write %s: %s", file, e.getMessage());
+            if (temporaryFile != null) {
+                deleteQuietly(temporaryFile);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("[Autotuner] Unable to delete %s: %s", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Tuned configuration.
+     *
+     * @param localWork
+     *     Local work size with the lowest kernel time, or {@code null} if the
+     *     driver selects the local work size.
+     * @param kernelTime
+     *     Kernel time of the local work size, in nanoseconds.
+     */
+    record Entry(long[] localWork, long kernelTime) {
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.common.mm;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+
+/**
+ * Pool of device buffers grouped by memory flags and size class. Sizes are
+ * rounded up to a quarter of the next power of two, which bounds the internal
+ * fragmentation to 25%. Released buffers are kept in the pool and handed out
+ * again to any execution plan running on the same device, as long as the total
+ * number of retained bytes stays below the high-water mark.
+ *
+ * <p>
+ * The high-water mark is the maximum number of retained bytes of the pool,
+ * lowered by the limits of the execution plans that are running with a memory
+ * limit. Each limit only applies between {@link #addLimit(long)} and
+ * {@link #removeLimit(long)}, so a memory-limited plan does not shrink the pool
+ * for the other plans of the device once it has finished.
+ * </p>
+ *
+ * @param <T>
+ *     The type of the buffers returned by the backend.
+ */
+public class DeviceBufferPool<T> {
+
+    private static final long MIN_SIZE_CLASS = 256;
+    private static final int SUB_CLASSES_LOG2 = 2;
+
+    /**
+     * Allocates and releases the buffers of a backend.
+     *
+     * @param <T>
+     *     The type of the buffers returned by the backend.
+     */
+    public interface BufferAllocator<T> {
+
+        /**
+         * @return the new buffer, or null if the device cannot allocate it.
+         */
+        T allocate(long flags, long size);
+
+        void release(T buffer);
+
+        /**
+         * @return the backend identifier of the buffer.
+         */
+        long getId(T buffer);
+    }
+
+    private final BufferAllocator<T> allocator;
+    private final long maxAllocationSize;
+    private final long maxRetainedBytes;
+    private final Map<Long, PooledBuffer<T>> liveBuffers;
+    private final Map<Long, TreeMap<Long, ArrayDeque<T>>> freeBuffers;
+    private final TreeMap<Long, Integer> activeLimits;
+    private final TornadoLogger logger = new TornadoLogger(this.getClass());
+
+    private long highWaterMark;
+    private long retainedBytes;
+    private long liveRequestedBytes;
+    private long liveAllocatedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param allocator
+     *     Allocator of the backend.
+     * @param maxAllocationSize
+     *     Maximum size of a single buffer on the device. Requests that do not fit
+     *     in their size class are allocated with their exact size.
+     * @param maxRetainedBytes
+     *     Maximum number of bytes kept in released buffers.
+     */
+    public DeviceBufferPool(BufferAllocator<T> allocator, long maxAllocationSize, long maxRetainedBytes) {
+        this.allocator = allocator;
+        this.maxAllocationSize = maxAllocationSize;
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.liveBuffers = new HashMap<>();
+        this.freeBuffers = new HashMap<>();
+        this.activeLimits = new TreeMap<>();
+        this.highWaterMark = maxRetainedBytes;
+    }
+
+    /**
+     * Returns the size in bytes that the pool allocates for a request of the
+     * given size.
+     */
+    public static long sizeClassOf(long size) {
+        if (size <= MIN_SIZE_CLASS) {
+            return MIN_SIZE_CLASS;
+        }
+        long step = Long.highestOneBit(size - 1) >> SUB_CLASSES_LOG2;
+        return (size + step - 1) & -step;
+    }
+
+    public synchronized T allocate(long size, long flags) {
+        long sizeClass = sizeClassOf(size);
+        if (sizeClass > maxAllocationSize) {
+            sizeClass = size;
+        }
+
+        T buffer = takeFreeBuffer(flags, sizeClass);
+        if (buffer != null) {
+            hits++;
+        } else {
+            misses++;
+            buffer = allocator.allocate(flags, sizeClass);
+            if (buffer == null && retainedBytes > 0) {
+                // The device might be out of memory because of the buffers kept by the pool.
+                logger.debug("Allocation of %d bytes failed, releasing %d bytes kept by the buffer pool", sizeClass, retainedBytes);
+                releaseFreeBuffers(0);
+                buffer = allocator.allocate(flags, sizeClass);
+            }
+            if (buffer == null) {
+                return null;
+            }
+        }
+
+        liveBuffers.put(allocator.getId(buffer), new PooledBuffer<>(buffer, size, sizeClass, flags));
+        liveRequestedBytes += size;
+        liveAllocatedBytes += sizeClass;
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers that were not allocated through the
+     * pool are not owned by it, so they must be released by the caller.
+     *
+     * @return false if the buffer was not allocated through the pool.
+     */
+    public synchronized boolean release(long bufferId) {
+        PooledBuffer<T> pooledBuffer = liveBuffers.remove(bufferId);
+        if (pooledBuffer == null) {
+            return false;
+        }
+        liveRequestedBytes -= pooledBuffer.requestedSize;
+        liveAllocatedBytes -= pooledBuffer.sizeClass;
+
+        if (pooledBuffer.sizeClass > highWaterMark) {
+            evictions++;
+            allocator.release(pooledBuffer.buffer);
+            return true;
+        }
+        releaseFreeBuffers(highWaterMark - pooledBuffer.sizeClass);
+        freeBuffers.computeIfAbsent(pooledBuffer.flags, k -> new TreeMap<>()) //
+                .computeIfAbsent(pooledBuffer.sizeClass, k -> new ArrayDeque<>()) //
+                .push(pooledBuffer.buffer);
+        retainedBytes += pooledBuffer.sizeClass;
+        return true;
+    }
+
+    /**
+     * Lowers the high-water mark to the given limit until it is removed with
+     * {@link #removeLimit(long)}. When several limits are active, the lowest one
+     * applies.
+     */
+    public synchronized void addLimit(long limitInBytes) {
+        activeLimits.merge(limitInBytes, 1, Integer::sum);
+        updateHighWaterMark();
+    }
+
+    /**
+     * Removes a limit added with {@link #addLimit(long)}.
+     */
+    public synchronized void removeLimit(long limitInBytes) {
+        activeLimits.computeIfPresent(limitInBytes, (limit, count) -> count == 1 ? null : count - 1);
+        updateHighWaterMark();
+    }
+
+    private void updateHighWaterMark() {
+        highWaterMark = activeLimits.isEmpty() ? maxRetainedBytes : Math.min(activeLimits.firstKey(), maxRetainedBytes);
+        releaseFreeBuffers(highWaterMark);
+    }
+
+    /**
+     * Releases all buffers kept by the pool on the device. Buffers in use are
+     * not affected.
+     */
+    public synchronized void drain() {
+        releaseFreeBuffers(0);
+    }
+
+    private T takeFreeBuffer(long flags, long sizeClass) {
+        TreeMap<Long, ArrayDeque<T>> buffersForFlags = freeBuffers.get(flags);
+        if (buffersForFlags == null) {
+            return null;
+        }
+        ArrayDeque<T> buffers = buffersForFlags.get(sizeClass);
+        if (buffers == null || buffers.isEmpty()) {
+            return null;
+        }
+        retainedBytes -= sizeClass;
+        return buffers.pop();
+    }
+
+    /**
+     * Releases free buffers, largest size class first, until the pool retains at
+     * most the given number of bytes.
+     */
+    private void releaseFreeBuffers(long targetRetainedBytes) {
+        for (TreeMap<Long, ArrayDeque<T>> buffersForFlags : freeBuffers.values()) {
+            Iterator<Map.Entry<Long, ArrayDeque<T>>> iterator = buffersForFlags.descendingMap().entrySet().iterator();
+            while (retainedBytes > targetRetainedBytes && iterator.hasNext()) {
+                Map.Entry<Long, ArrayDeque<T>> entry = iterator.next();
+                ArrayDeque<T> buffers = entry.getValue();
+                while (retainedBytes > targetRetainedBytes && !buffers.isEmpty()) {
+                    allocator.release(buffers.pop());
+                    retainedBytes -= entry.getKey();
+                    evictions++;
+                }
+                if (buffers.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    public synchronized long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Fraction of the bytes allocated for live buffers that is lost to size-class
+     * rounding.
+     */
+    public synchronized double getFragmentation() {
+        return liveAllocatedBytes == 0 ? 0.0 : (double) (liveAllocatedBytes - liveRequestedBytes) / liveAllocatedBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s[hits=%d, misses=%d, evictions=%d, retained=%d, highWaterMark=%d, fragmentation=%.2f]", getClass().getSimpleName(), hits, misses, evictions, retainedBytes,
+                highWaterMark, getFragmentation());
+    }
+
+    private record PooledBuffer<T>(T buffer, long requestedSize, long sizeClass, long flags) {
+    }
+}
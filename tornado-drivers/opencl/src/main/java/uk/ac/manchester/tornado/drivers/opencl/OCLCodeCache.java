@@ -631,6 +631,34 @@ public class OCLCodeCache {
         return code;
     }
 
+    /**
+     * Installs a kernel restored from the persistent kernel cache. The device
+     * binary is loaded when available; if the driver rejects it, the kernel is
+     * built again from the cached source.
+     */
+    public OCLInstalledCode installCachedBinary(TaskDataContext meta, String id, String entryPoint, byte[] binary, byte[] source) {
+        if (binary != null && binary.length > 0) {
+            logger.info("Installing cached binary for %s into code cache", entryPoint);
+            final OCLProgram program = deviceContext.createProgramWithBinary(binary, new long[] { binary.length });
+            if (program != null) {
+                program.build(meta.getCompilerFlags(TornadoVMBackendType.OPENCL));
+                if (program.getStatus(deviceContext.getDeviceId()) == CL_BUILD_SUCCESS) {
+                    if (meta.isPrintKernelEnabled()) {
+                        RuntimeUtilities.dumpKernel(source);
+                    }
+                    final OCLKernel kernel = program.clCreateKernel(entryPoint);
+                    kernelAvailable = true;
+                    final OCLInstalledCode code = new OCLInstalledCode(entryPoint, source, (OCLDeviceContext) deviceContext, program, kernel, isInputSourceSPIRVBinary(source));
+                    cache.put(id + "-" + entryPoint, code);
+                    return code;
+                }
+                program.cleanup();
+            }
+            logger.debug("\tunable to load the cached binary for %s, building it from source", entryPoint);
+        }
+        return installSource(meta, id, entryPoint, source);
+    }
+
     private OCLInstalledCode installBinary(String id, String entryPoint, byte[] binary) throws OCLException {
         logger.info("Installing binary for %s into code cache", entryPoint);
 
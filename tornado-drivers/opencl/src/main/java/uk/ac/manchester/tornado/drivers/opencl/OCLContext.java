@@ -175,6 +175,10 @@ public class OCLContext implements OCLContextInterface {
             }
         }
 
+        for (OCLDeviceContext deviceContext : deviceContexts) {
+            deviceContext.destroyCommandQueues();
+        }
+
         try {
             long t1 = System.nanoTime();
             clReleaseContext(contextID);
@@ -37,11 +37,14 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
+import uk.ac.manchester.tornado.drivers.common.CommandQueuePool;
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
 import uk.ac.manchester.tornado.drivers.common.power.PowerMetric;
 import uk.ac.manchester.tornado.drivers.common.utils.EventDescriptor;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
+import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLInstalledCode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompilationResult;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLMemoryManager;
@@ -57,9 +60,10 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
     private final OCLTargetDevice device;
 
     /**
-     * Table to represent {@link uk.ac.manchester.tornado.api.TornadoExecutionPlan} -> {@link OCLCommandQueueTable}
+     * Command queues of the device, shared by all
+     * {@link uk.ac.manchester.tornado.api.TornadoExecutionPlan}s.
      */
-    private final Map<Long, OCLCommandQueueTable> commandQueueTable;
+    private final CommandQueuePool<OCLCommandQueue> commandQueuePool;
     private final OCLContext context;
     private final PowerMetric powerMetricHandler;
     private final OCLMemoryManager memoryManager;
@@ -80,7 +84,7 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
         this.memoryManager = new OCLMemoryManager(this);
         this.oclEventPool = new ConcurrentHashMap<>();
         this.bufferProvider = new OCLBufferProvider(this);
-        this.commandQueueTable = new ConcurrentHashMap<>();
+        this.commandQueuePool = new CommandQueuePool<>(TornadoOptions.COMMAND_QUEUE_POOL_SIZE, this::createCommandQueue);
         this.device.setDeviceContext(this);
         this.executionIDs = Collections.synchronizedSet(new HashSet<>());
         if (isDeviceContextOfNvidia()) {
@@ -264,15 +268,46 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
                 : null), EventDescriptor.DESC_WRITE_DOUBLE, commandQueue);
     }
 
+    private OCLCommandQueue createCommandQueue() {
+        OCLTargetDevice targetDevice = context.devices().get(getDeviceIndex());
+        long commandProperties = context.getProperties();
+        long commandQueuePtr;
+        try {
+            commandQueuePtr = context.clCreateCommandQueue(context.getContextId(), targetDevice.getDevicePointer(), commandProperties);
+        } catch (OCLException e) {
+            throw new TornadoRuntimeException(e);
+        }
+        return new OCLCommandQueue(commandQueuePtr, commandProperties, targetDevice.deviceVersion());
+    }
+
     private OCLCommandQueue getCommandQueue(long executionPlanId) {
         executionIDs.add(executionPlanId);
-        if (!commandQueueTable.containsKey(executionPlanId)) {
-            OCLTargetDevice device = context.devices().get(getDeviceIndex());
-            OCLCommandQueueTable oclCommandQueueTable = new OCLCommandQueueTable();
-            oclCommandQueueTable.get(device, context);
-            commandQueueTable.put(executionPlanId, oclCommandQueueTable);
-        }
-        return commandQueueTable.get(executionPlanId).get(context.devices().get(getDeviceIndex()), context);
+        return commandQueuePool.get(executionPlanId);
+    }
+
+    /**
+     * @return the pool of command queues of the device.
+     */
+    public CommandQueuePool<OCLCommandQueue> getCommandQueuePool() {
+        return commandQueuePool;
+    }
+
+    /**
+     * Releases the command queues of the pool. It is called before the OpenCL
+     * context is released.
+     */
+    public void destroyCommandQueues() {
+        commandQueuePool.destroy(OCLCommandQueue::cleanup);
+    }
+
+    @Override
+    public void acquireCommandQueues(long executionPlanId, long transferQueueId) {
+        commandQueuePool.acquire(executionPlanId, transferQueueId);
+    }
+
+    @Override
+    public void releaseCommandQueues(long executionPlanId, long transferQueueId) {
+        commandQueuePool.release(executionPlanId, transferQueueId);
     }
 
     private OCLEventPool getOCLEventPool(long executionPlanId) {
@@ -516,15 +551,12 @@ public class OCLDeviceContext implements OCLDeviceContextInterface {
         OCLEventPool eventPool = getOCLEventPool(executionPlanId);
         eventPool.reset();
         oclEventPool.remove(executionPlanId);
-        OCLCommandQueueTable table = commandQueueTable.get(executionPlanId);
-        if (table != null) {
-            table.cleanup(device);
-            if (table.size() == 0) {
-                commandQueueTable.remove(executionPlanId);
-            }
+        if (commandQueuePool.getIfBound(executionPlanId) != null) {
+            commandQueuePool.unbind(executionPlanId);
             executionIDs.remove(executionPlanId);
         }
         getMemoryManager().releaseKernelStackFrame(executionPlanId);
+        getMemoryManager().drainBufferPool();
         OCLCodeCache oclCodeCache = getOCLCodeCache(executionPlanId);
         oclCodeCache.reset();
         codeCache.remove(executionPlanId);
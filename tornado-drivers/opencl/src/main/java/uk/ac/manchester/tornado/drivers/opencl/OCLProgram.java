@@ -166,7 +166,27 @@ public class OCLProgram {
         return result;
     }
 
+    /**
+     * Returns the binary built by the driver for the device of this context.
+     */
+    public byte[] getBinary() {
+        final ByteBuffer binary = getBinaryBuffer();
+        final byte[] result = new byte[binary.remaining()];
+        binary.get(result);
+        return result;
+    }
+
     public void dumpBinaries(String filenamePrefix) {
+        final ByteBuffer binary = getBinaryBuffer();
+        logger.info("dumping binary %s", filenamePrefix);
+        try (FileOutputStream fis = new FileOutputStream(filenamePrefix); FileChannel vChannel = fis.getChannel();) {
+            vChannel.write(binary);
+        } catch (IOException e) {
+            logger.error("unable to dump binary: %s", e.getMessage());
+        }
+    }
+
+    private ByteBuffer getBinaryBuffer() {
 
         final long[] devices = getDevices();
         final int numDevices = getNumDevices();
@@ -189,21 +209,13 @@ public class OCLProgram {
         final ByteBuffer binary = ByteBuffer.allocateDirect(totalSize);
         try {
             getBinaries(programPointer, numDevices, binary);
-
-            logger.info("dumping binary %s", filenamePrefix);
-            try (FileOutputStream fis = new FileOutputStream(filenamePrefix); FileChannel vChannel = fis.getChannel();) {
-                binary.position(offset);
-                binary.limit(offset + (int) sizes[index]);
-                vChannel.write(binary);
-            } catch (IOException e) {
-                logger.error("unable to dump binary: %s", e.getMessage());
-            }
-
+            binary.position(offset);
+            binary.limit(offset + (int) sizes[index]);
+            return binary;
         } catch (OCLException e) {
             logger.error("unable to retrieve binary from OpenCL driver: %s", e.getMessage());
             throw new TornadoBailoutRuntimeException(e.getMessage());
         }
-
     }
 
     @Override
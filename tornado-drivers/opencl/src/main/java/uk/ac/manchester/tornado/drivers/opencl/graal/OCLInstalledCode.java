@@ -35,10 +35,13 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.drivers.common.WorkGroupAutotuner;
 import uk.ac.manchester.tornado.drivers.common.mm.PrimitiveSerialiser;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.drivers.opencl.OCLKernel;
 import uk.ac.manchester.tornado.drivers.opencl.OCLProgram;
+import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDevice;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLByteBuffer;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLKernelStackFrame;
 import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLTornadoDevice;
@@ -55,6 +58,11 @@ import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
 public class OCLInstalledCode extends InstalledCode implements TornadoInstalledCode {
 
     private static final int CL_MEM_SIZE = 8;
+    /**
+     * Kernels that use local memory or the work-group built-ins may depend on the
+     * local work size, so the autotuner does not change it.
+     */
+    private static final String[] WORK_GROUP_BUILTINS = { OCLAssemblerConstants.LOCAL_MEM_MODIFIER, "get_local_id", "get_local_size", "get_group_id", "get_num_groups" };
     private final OCLKernelScheduler DEFAULT_SCHEDULER;
     private final ByteBuffer buffer = ByteBuffer.allocate(CL_MEM_SIZE);
     private final byte[] code;
@@ -67,6 +75,7 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
     private final long[] singleThreadLocalWorkSize = new long[] { 1 };
     private final boolean isSPIRVBinary;
     private boolean valid;
+    private WorkGroupAutotuner autotuner;
     TornadoLogger logger = new TornadoLogger(this.getClass());
 
     public OCLInstalledCode(final String entryPoint, final byte[] code, final OCLDeviceContext deviceContext, final OCLProgram program, final OCLKernel kernel, boolean isSPIRVBinary) {
@@ -117,6 +126,34 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
         return new String(code);
     }
 
+    private boolean isTunable() {
+        if (!TornadoOptions.ENABLE_OPENCL_PROFILING || isSPIRVBinary || deviceContext.isPlatformFPGA()) {
+            return false;
+        }
+        String sourceCode = getGeneratedSourceCode();
+        for (String builtin : WORK_GROUP_BUILTINS) {
+            if (sourceCode.contains(builtin)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the work-group autotuner of the kernel, or {@code null} if it is
+     *     not enabled for the task.
+     */
+    private WorkGroupAutotuner getAutotuner(final TaskDataContext meta) {
+        if (!meta.isAutotuneEnabled()) {
+            return null;
+        }
+        if (autotuner == null) {
+            OCLTargetDevice device = deviceContext.getDevice();
+            autotuner = new WorkGroupAutotuner(code, device.getDeviceName(), device.getDeviceMaxWorkGroupSize()[0], device.getDeviceMaxWorkItemSizes(), true, isTunable());
+        }
+        return autotuner;
+    }
+
     /**
      * Set arguments into the OpenCL device Kernel.
      *
@@ -230,7 +267,7 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
             task = deviceContext.enqueueNDRangeKernel(executionPlanId, kernel, 1, null, singleThreadGlobalWorkSize, singleThreadLocalWorkSize, waitEvents);
         } else {
             if (meta.isParallel()) {
-                task = scheduler.submit(executionPlanId, kernel, meta, waitEvents, batchThreads);
+                task = scheduler.submit(executionPlanId, kernel, meta, waitEvents, batchThreads, getAutotuner(meta));
             } else {
                 if (meta.isDebug()) {
                     printDebugLaunchInfo(meta);
@@ -280,7 +317,7 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
     }
 
     private int submitParallel(long executionPlanId, final TaskDataContext meta, long batchThreads) {
-        return scheduler.submit(executionPlanId, kernel, meta, batchThreads);
+        return scheduler.submit(executionPlanId, kernel, meta, null, batchThreads, getAutotuner(meta));
     }
 
     private void launchKernel(long executionPlanId, final OCLKernelStackFrame callWrapper, final TaskDataContext meta, long batchThreads) {
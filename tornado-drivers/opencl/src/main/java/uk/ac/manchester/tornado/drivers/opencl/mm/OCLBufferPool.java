@@ -0,0 +1,60 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.drivers.opencl.mm;
+
+import uk.ac.manchester.tornado.drivers.common.mm.DeviceBufferPool;
+import uk.ac.manchester.tornado.drivers.opencl.OCLContext;
+import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Pool of OpenCL device buffers. The buffers are created and released with
+ * the OpenCL context of the device, and at most
+ * {@link TornadoOptions#OPENCL_BUFFER_POOL_LIMIT} bytes are kept in released
+ * buffers.
+ */
+public class OCLBufferPool extends DeviceBufferPool<OCLContext.OCLBufferResult> {
+
+    public OCLBufferPool(OCLDeviceContext deviceContext) {
+        super(new OCLBufferAllocator(deviceContext), deviceContext.getDevice().getDeviceMaxAllocationSize(), TornadoOptions.OPENCL_BUFFER_POOL_LIMIT);
+    }
+
+    private record OCLBufferAllocator(OCLDeviceContext deviceContext) implements BufferAllocator<OCLContext.OCLBufferResult> {
+
+        @Override
+        public OCLContext.OCLBufferResult allocate(long flags, long size) {
+            return deviceContext.getPlatformContext().createBuffer(flags, size);
+        }
+
+        @Override
+        public void release(OCLContext.OCLBufferResult buffer) {
+            deviceContext.getPlatformContext().releaseBuffer(buffer.getBuffer());
+        }
+
+        @Override
+        public long getId(OCLContext.OCLBufferResult buffer) {
+            return buffer.getBuffer();
+        }
+    }
+}
@@ -27,7 +27,6 @@ import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 public class OCLKernelStackFrame extends OCLByteBuffer implements KernelStackFrame {
@@ -37,18 +36,28 @@ public class OCLKernelStackFrame extends OCLByteBuffer implements KernelStackFra
 
     private final ArrayList<CallArgument> callArguments;
 
+    // Arguments are kept between launches and updated in place
+    private final ArrayList<CallArgument> argumentSlots;
+
     private boolean isValid;
 
     OCLKernelStackFrame(long bufferId, int numArgs, OCLDeviceContext device) {
         super(device, bufferId, 0, RESERVED_SLOTS << 3);
         this.callArguments = new ArrayList<>(numArgs);
+        this.argumentSlots = new ArrayList<>(numArgs);
         buffer.clear();
         this.isValid = true;
     }
 
     @Override
     public void addCallArgument(Object value, boolean isReferenceType) {
-        callArguments.add(new CallArgument(value, isReferenceType));
+        final int index = callArguments.size();
+        if (index == argumentSlots.size()) {
+            argumentSlots.add(new CallArgument(value, isReferenceType));
+        }
+        CallArgument argument = argumentSlots.get(index);
+        argument.update(value, isReferenceType);
+        callArguments.add(argument);
     }
 
     @Override
@@ -73,14 +82,10 @@ public class OCLKernelStackFrame extends OCLByteBuffer implements KernelStackFra
     }
 
     @Override
-    public void setKernelContext(HashMap<Integer, Integer> map) {
+    public void setKernelContext(long[] threadDeploy) {
         buffer.clear();
         for (int i = 0; i < RESERVED_SLOTS; i++) {
-            if (map.containsKey(i)) {
-                buffer.putLong(map.get(i));
-            } else {
-                buffer.putLong(0);
-            }
+            buffer.putLong(i < threadDeploy.length ? threadDeploy[i] : 0);
         }
     }
 }
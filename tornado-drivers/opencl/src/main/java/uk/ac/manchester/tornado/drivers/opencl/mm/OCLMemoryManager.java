@@ -25,6 +25,7 @@ package uk.ac.manchester.tornado.drivers.opencl.mm;
 
 import static uk.ac.manchester.tornado.drivers.opencl.mm.OCLKernelStackFrame.RESERVED_SLOTS;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.DEVICE_AVAILABLE_MEMORY;
+import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.OPENCL_BUFFER_POOL;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -45,9 +46,11 @@ public class OCLMemoryManager implements TornadoMemoryProvider {
     private long constantMemoryPointer;
     private long NON_EXISTING_ADDRESS = -1;
     private long atomicsRegionPointer = -1;
+    private final OCLBufferPool bufferPool;
 
     public OCLMemoryManager(final OCLDeviceContext deviceContext) {
         this.deviceContext = deviceContext;
+        this.bufferPool = OPENCL_BUFFER_POOL ? new OCLBufferPool(deviceContext) : null;
     }
 
     @Override
@@ -55,6 +58,45 @@ public class OCLMemoryManager implements TornadoMemoryProvider {
         return DEVICE_AVAILABLE_MEMORY;
     }
 
+    @Override
+    public void addBufferPoolLimit(long limitInBytes) {
+        if (bufferPool != null) {
+            bufferPool.addLimit(limitInBytes);
+        }
+    }
+
+    @Override
+    public void removeBufferPoolLimit(long limitInBytes) {
+        if (bufferPool != null) {
+            bufferPool.removeLimit(limitInBytes);
+        }
+    }
+
+    @Override
+    public void drainBufferPool() {
+        if (bufferPool != null) {
+            bufferPool.drain();
+        }
+    }
+
+    @Override
+    public int getKernelStackFrameReservedSlots() {
+        return RESERVED_SLOTS;
+    }
+
+    @Override
+    public long getAtomicsRegionSize() {
+        return atomicRegionSize();
+    }
+
+    /**
+     * @return the pool of device buffers, or null if the pool is not enabled with
+     *     {@code -Dtornado.opencl.bufferpool.enable=true}.
+     */
+    public OCLBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
     public OCLKernelStackFrame createKernelStackFrame(long executionPlanId, final int numberOfArguments) {
         if (!oclKernelStackFrame.containsKey(executionPlanId)) {
             // Create one stack frame per execution plan ID 
@@ -84,11 +126,16 @@ public class OCLMemoryManager implements TornadoMemoryProvider {
     }
 
     public OCLContext.OCLBufferResult createBuffer(long size, long flags) {
+        if (bufferPool != null) {
+            return bufferPool.allocate(size, flags);
+        }
         return deviceContext.getPlatformContext().createBuffer(flags, size);
     }
 
     public void releaseBuffer(long bufferId) {
-        deviceContext.getPlatformContext().releaseBuffer(bufferId);
+        if (bufferPool == null || !bufferPool.release(bufferId)) {
+            deviceContext.getPlatformContext().releaseBuffer(bufferId);
+        }
     }
 
     long toConstantAddress() {
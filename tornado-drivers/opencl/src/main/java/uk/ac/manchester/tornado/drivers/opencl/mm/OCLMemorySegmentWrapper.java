@@ -97,6 +97,8 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
 
     private MemorySegment getSegmentWithHeader(final Object reference) {
         return switch (reference) {
+            case TornadoNativeArray tornadoNativeArray when tornadoNativeArray.isClosed() -> throw new TornadoMemoryException("The native array has been closed and its memory returned to the pool");
+            case TornadoNativeArray tornadoNativeArray when tornadoNativeArray.isClosed() -> throw new TornadoMemoryException("The native array has been closed and its memory returned to the pool");
             case TornadoNativeArray tornadoNativeArray -> tornadoNativeArray.getSegmentWithHeader();
             case TornadoCollectionInterface<?> tornadoCollectionInterface -> tornadoCollectionInterface.getSegmentWithHeader();
             case TornadoImagesInterface<?> imagesInterface -> imagesInterface.getSegmentWithHeader();
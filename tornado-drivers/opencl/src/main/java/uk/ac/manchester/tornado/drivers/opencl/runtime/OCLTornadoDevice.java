@@ -90,6 +90,7 @@ import uk.ac.manchester.tornado.drivers.opencl.mm.OCLShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.PersistentKernelCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
@@ -97,6 +98,9 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.DriverInstallEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.GraalCompilationEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.TornadoFlightEvent;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
@@ -262,10 +266,21 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         final Access[] taskAccess = taskMeta.getArgumentsAccess();
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
+        final PersistentKernelCache kernelCache = OCLBackend.isDeviceAnFPGAAccelerator(deviceContext) ? null : PersistentKernelCache.getInstance();
+        String kernelCacheKey = null;
+        if (kernelCache != null) {
+            kernelCacheKey = kernelCache.computeKey(TornadoVMBackendType.OPENCL, getDeviceIdentity(), executable, resolvedMethod);
+            TornadoInstalledCode cachedCode = installFromKernelCache(executionPlanId, executable, resolvedMethod, kernelCache, kernelCacheKey);
+            if (cachedCode != null) {
+                return cachedCode;
+            }
+        }
+
         try {
             OCLProviders providers = (OCLProviders) getBackend().getProviders();
             TornadoProfiler profiler = task.getProfiler();
             profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+            final GraalCompilationEvent compilationEvent = GraalCompilationEvent.begin(taskMeta.getId(), getDeviceName(), resolvedMethod.getName());
             final OCLCompilationResult result = OCLCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
 
             // Update atomics buffer for inner methods that are not inlined
@@ -283,10 +298,12 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
                 }
             }
 
+            TornadoFlightEvent.commitIfRecording(compilationEvent);
             profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_GRAAL_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
 
             profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+            final DriverInstallEvent installEvent = DriverInstallEvent.begin(taskMeta.getId(), getDeviceName(), resolvedMethod.getName(), false);
             // Compile the code
             OCLInstalledCode installedCode;
             if (OCLBackend.isDeviceAnFPGAAccelerator(deviceContext)) {
@@ -296,9 +313,15 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
                 // B) for CPU multi-core or GPU
                 installedCode = deviceContext.installCode(executionPlanId, result);
             }
+            TornadoFlightEvent.commitIfRecording(installEvent);
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
 
+            if (kernelCacheKey != null && installedCode.isValid() && isKernelCacheable(result, resolvedMethod)) {
+                kernelCache.store(kernelCacheKey, new PersistentKernelCache.CachedKernel(result.getName(), taskMeta.getDomain(), result.getTargetCode(), installedCode.getProgram().getBinary()), result
+                        .getMethods());
+            }
+
             return installedCode;
         } catch (Exception e) {
             logger.fatal("Unable to compile %s for device %s\n", task.getId(), getDeviceName());
@@ -311,6 +334,37 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    private TornadoInstalledCode installFromKernelCache(long executionPlanId, CompilableTask task, ResolvedJavaMethod resolvedMethod, PersistentKernelCache kernelCache, String key) {
+        PersistentKernelCache.CachedKernel cachedKernel = kernelCache.load(key, task.getMethod().getDeclaringClass().getClassLoader());
+        if (cachedKernel == null) {
+            return null;
+        }
+        final TaskDataContext taskMeta = task.meta();
+        cachedKernel.restoreTaskMetaData(taskMeta, resolvedMethod);
+        TornadoProfiler profiler = task.getProfiler();
+        profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+        final DriverInstallEvent installEvent = DriverInstallEvent.begin(taskMeta.getId(), getDeviceName(), resolvedMethod.getName(), true);
+        OCLInstalledCode installedCode = getDeviceContext().getCodeCache(executionPlanId).installCachedBinary(taskMeta, task.getId(), cachedKernel.entryPoint(), cachedKernel.binary(), cachedKernel
+                .code());
+        TornadoFlightEvent.commitIfRecording(installEvent);
+        profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+        profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+        return installedCode;
+    }
+
+    /**
+     * Kernels with atomics or non-inlined methods need metadata that is only
+     * built during compilation, so they are not stored in the kernel cache.
+     */
+    private static boolean isKernelCacheable(OCLCompilationResult result, ResolvedJavaMethod resolvedMethod) {
+        return result.getNonInlinedMethods().isEmpty() && !TornadoAtomicIntegerNode.globalAtomics.containsKey(resolvedMethod) && !TornadoAtomicIntegerNode.globalAtomicsParameters.containsKey(
+                resolvedMethod);
+    }
+
+    private String getDeviceIdentity() {
+        return getPlatformName() + "|" + device.getDeviceName() + "|" + device.getVersion() + "|" + device.getDriverVersion();
+    }
+
     private TornadoInstalledCode compilePreBuiltTask(long executionPlanId, SchedulableTask task) {
         final OCLDeviceContextInterface deviceContext = getDeviceContext();
         final PrebuiltTask executable = (PrebuiltTask) task;
@@ -598,7 +652,8 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
     }
 
     private boolean reuseBatchBuffer(long batchSize, Access access, TornadoBufferProvider bufferProvider, HashMap<Access, Integer> distinctAccesses, DeviceBufferState state) {
-        if (batchSize != 0) {
+        // A buffer can only be reused if the state already holds one from a previous batch
+        if (batchSize != 0 && state.hasObjectBuffer()) {
             int numberOfBuffersForAccessType = distinctAccesses.get(access);
             // if there is a buffer available in the used-list with the same access type, reuse it
             if (bufferProvider.reuseBufferForBatchProcessing(batchSize, access, numberOfBuffersForAccessType)) {
@@ -55,6 +55,11 @@ public class OCLAMDScheduler extends OCLKernelScheduler {
         }
     }
 
+    @Override
+    protected long[] getLaunchLocalWork(final TaskDataContext meta) {
+        return null;
+    }
+
     @Override
     public void calculateGlobalWork(final TaskDataContext meta, long batchThreads) {
         final long[] globalWork = meta.getGlobalWork();
@@ -26,8 +26,10 @@ import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.WorkerGrid;
 import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.runtime.common.UpsMeterReader;
+import uk.ac.manchester.tornado.drivers.common.WorkGroupAutotuner;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.drivers.opencl.OCLGridInfo;
 import uk.ac.manchester.tornado.drivers.opencl.OCLKernel;
@@ -61,6 +63,15 @@ public abstract class OCLKernelScheduler {
         return null;
     }
 
+    /**
+     * Local work size used by {@link #launch} for tasks without a worker grid.
+     *
+     * @return the local work size, or {@code null} if the driver selects it.
+     */
+    protected long[] getLaunchLocalWork(final TaskDataContext meta) {
+        return meta.getLocalWork();
+    }
+
     public int submit(long executionPlanId, final OCLKernel kernel, final TaskDataContext meta, long batchThreads) {
         return submit(executionPlanId, kernel, meta, null, batchThreads);
     }
@@ -134,6 +145,66 @@ public abstract class OCLKernelScheduler {
     }
 
     public int submit(long executionPlanId, final OCLKernel kernel, final TaskDataContext meta, final int[] waitEvents, long batchThreads) {
+        return submit(executionPlanId, kernel, meta, waitEvents, batchThreads, null);
+    }
+
+    /**
+     * Returns the tuning of the task for its current global work size, or
+     * {@code null} if the local work size of the task is not tuned.
+     */
+    private WorkGroupAutotuner.Tuning getTuning(final WorkGroupAutotuner autotuner, final TaskDataContext meta) {
+        if (meta.isWorkerGridAvailable()) {
+            WorkerGrid grid = meta.getWorkerGrid(meta.getId());
+            // A local work size set by the user is kept, since the kernel may depend on it
+            return (grid.getLocalWork() == null) ? autotuner.getTuning(grid.dimension(), grid.getGlobalWork(), (long[]) null) : null;
+        }
+        if (meta.isLocalWorkDefined() || meta.shouldUseOpenCLDriverScheduling()) {
+            return null;
+        }
+        return autotuner.getTuning(meta.getDims(), meta.getGlobalWork(), getLaunchLocalWork(meta));
+    }
+
+    private int launch(long executionPlanId, final OCLKernel kernel, final TaskDataContext meta, final int[] waitEvents, final long[] localWork) {
+        if (meta.isWorkerGridAvailable()) {
+            WorkerGrid grid = meta.getWorkerGrid(meta.getId());
+            return deviceContext.enqueueNDRangeKernel(executionPlanId, kernel, grid.dimension(), grid.getGlobalOffset(), grid.getGlobalWork(), localWork, waitEvents);
+        } else {
+            return deviceContext.enqueueNDRangeKernel(executionPlanId, kernel, meta.getDims(), meta.getGlobalOffset(), meta.getGlobalWork(), localWork, waitEvents);
+        }
+    }
+
+    /**
+     * Launches the kernel with the local work size selected by the autotuner. While
+     * the candidates are swept, it waits for the kernel to record its time.
+     */
+    private int launchTuned(long executionPlanId, final OCLKernel kernel, final TaskDataContext meta, final int[] waitEvents, final WorkGroupAutotuner.Tuning tuning) {
+        final int candidate = tuning.select();
+        final boolean sweeping = tuning.isSweeping();
+        final int taskEvent;
+        try {
+            taskEvent = launch(executionPlanId, kernel, meta, waitEvents, tuning.getLocalWork(candidate));
+        } catch (TornadoBailoutRuntimeException e) {
+            if (candidate == 0) {
+                throw e;
+            }
+            // The kernel cannot run with this work-group on the device: use the local work size of the scheduler
+            tuning.reject(candidate);
+            return launch(executionPlanId, kernel, meta, waitEvents, tuning.getLocalWork(0));
+        }
+        if (sweeping) {
+            Event kernelEvent = deviceContext.resolveEvent(executionPlanId, taskEvent);
+            kernelEvent.waitForEvents(executionPlanId);
+            tuning.record(candidate, kernelEvent.getElapsedTime());
+        }
+        return taskEvent;
+    }
+
+    /**
+     * Submits the kernel. When an autotuner is given, and the user did not set
+     * the local work size of the task, the local work size is selected by the
+     * autotuner.
+     */
+    public int submit(long executionPlanId, final OCLKernel kernel, final TaskDataContext meta, final int[] waitEvents, long batchThreads, final WorkGroupAutotuner autotuner) {
         if (!meta.isWorkerGridAvailable()) {
             if (!meta.isGlobalWorkDefined()) {
                 calculateGlobalWork(meta, batchThreads);
@@ -149,7 +220,8 @@ public abstract class OCLKernelScheduler {
         if (meta.isThreadInfoEnabled()) {
             meta.printThreadDims();
         }
-        final int taskEvent = launch(executionPlanId, kernel, meta, waitEvents, batchThreads);
+        final WorkGroupAutotuner.Tuning tuning = (autotuner != null) ? getTuning(autotuner, meta) : null;
+        final int taskEvent = (tuning != null) ? launchTuned(executionPlanId, kernel, meta, waitEvents, tuning) : launch(executionPlanId, kernel, meta, waitEvents, batchThreads);
         updateProfiler(executionPlanId, taskEvent, meta);
         return taskEvent;
     }
@@ -63,7 +63,7 @@ public class PTXContext {
             IntStream.range(1, numPlans).forEach(deviceContext::dumpEvents);
         }
 
-        IntStream.range(1, (numPlans)).forEach(deviceContext::destroyStream);
+        deviceContext.destroyStreams();
         cuCtxDestroy(ptxContext);
     }
 
@@ -44,9 +44,12 @@ import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
 import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.drivers.common.CommandQueuePool;
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
+import uk.ac.manchester.tornado.drivers.common.WorkGroupAutotuner;
 import uk.ac.manchester.tornado.drivers.common.power.PowerMetric;
 import uk.ac.manchester.tornado.drivers.ptx.graal.PTXCodeUtil;
+import uk.ac.manchester.tornado.drivers.ptx.graal.asm.PTXAssemblerConstants;
 import uk.ac.manchester.tornado.drivers.ptx.graal.compiler.PTXCompilationResult;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXKernelStackFrame;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXMemoryManager;
@@ -66,7 +69,7 @@ public class PTXDeviceContext implements TornadoDeviceContext {
     private final PTXScheduler scheduler;
     private final TornadoBufferProvider bufferProvider;
     private final PowerMetric powerMetricHandler;
-    private final Map<Long, PTXStreamTable> streamTable;
+    private final CommandQueuePool<PTXStream> streamPool;
     private boolean wasReset;
     private final Set<Long> executionIDs;
 
@@ -78,7 +81,7 @@ public class PTXDeviceContext implements TornadoDeviceContext {
 
     public PTXDeviceContext(PTXDevice device) {
         this.device = device;
-        streamTable = new ConcurrentHashMap<>();
+        streamPool = new CommandQueuePool<>(TornadoOptions.COMMAND_QUEUE_POOL_SIZE, PTXStream::new, PTXStream::reset);
         this.scheduler = new PTXScheduler(device);
         this.powerMetricHandler = new PTXNvidiaPowerMetricHandler(this);
         codeCache = new ConcurrentHashMap<>();
@@ -250,12 +253,8 @@ public class PTXDeviceContext implements TornadoDeviceContext {
 
     @Override
     public synchronized void reset(long executionPlanId) {
-        PTXStreamTable table = streamTable.get(executionPlanId);
-        if (table != null) {
-            table.cleanup(device);
-            if (table.size() == 0) {
-                streamTable.remove(executionPlanId);
-            }
+        if (streamPool.getIfBound(executionPlanId) != null) {
+            streamPool.unbind(executionPlanId);
             executionIDs.remove(executionPlanId);
         }
         getMemoryManager().releaseKernelStackFrame(executionPlanId);
@@ -264,9 +263,30 @@ public class PTXDeviceContext implements TornadoDeviceContext {
         wasReset = true;
     }
 
+    /**
+     * Returns the tuning of a parallel task for its current global work size, or
+     * {@code null} if the block dimensions of the task are not tuned. Kernels with
+     * shared memory are not tuned, since they may depend on the block dimensions.
+     */
+    private WorkGroupAutotuner.Tuning getTuning(PTXModule module, TaskDataContext taskMeta, int[] blockDimension) {
+        if (!taskMeta.isAutotuneEnabled() || taskMeta.isLocalWorkDefined()) {
+            return null;
+        }
+        WorkGroupAutotuner autotuner = module.getAutotuner();
+        if (autotuner == null) {
+            boolean tunable = !new String(module.getSource()).contains("." + PTXAssemblerConstants.SHARED_MEM_MODIFIER);
+            autotuner = new WorkGroupAutotuner(module.getSource(), device.getDeviceName(), module.getPotentialBlockSizeMaxOccupancy(), device.getDeviceMaxWorkItemSizes(), false, tunable);
+            module.setAutotuner(autotuner);
+        }
+        return autotuner.getTuning(taskMeta.getDims(), taskMeta.getGlobalWork(), blockDimension);
+    }
+
     public int enqueueKernelLaunch(long executionPlanId, PTXModule module, KernelStackFrame kernelArgs, TaskDataContext taskMeta, long batchThreads) {
         int[] blockDimension = { 1, 1, 1 };
         int[] gridDimension = { 1, 1, 1 };
+        WorkGroupAutotuner.Tuning tuning = null;
+        int candidate = 0;
+        boolean sweeping = false;
         if (taskMeta.isWorkerGridAvailable()) {
             WorkerGrid grid = taskMeta.getWorkerGrid(taskMeta.getId());
             int[] global = Arrays.stream(grid.getGlobalWork()).mapToInt(l -> (int) l).toArray();
@@ -287,12 +307,26 @@ public class PTXDeviceContext implements TornadoDeviceContext {
         } else if (taskMeta.isParallel()) {
             scheduler.calculateGlobalWork(taskMeta, batchThreads);
             blockDimension = scheduler.calculateBlockDimension(module, taskMeta);
+            tuning = getTuning(module, taskMeta, blockDimension);
+            if (tuning != null) {
+                candidate = tuning.select();
+                sweeping = tuning.isSweeping();
+                long[] localWork = tuning.getLocalWork(candidate);
+                for (int i = 0; i < localWork.length; i++) {
+                    blockDimension[i] = (int) localWork[i];
+                }
+            }
             gridDimension = scheduler.calculateGridDimension(module, taskMeta, blockDimension);
         }
 
         PTXStream stream = getStream(executionPlanId);
         int kernelLaunchEvent = stream.enqueueKernelLaunch(executionPlanId, module, taskMeta, writePTXKernelContextOnDevice(executionPlanId, (PTXKernelStackFrame) kernelArgs, taskMeta), gridDimension,
                 blockDimension);
+        if (sweeping) {
+            Event kernelEvent = resolveEvent(executionPlanId, kernelLaunchEvent);
+            kernelEvent.waitForEvents(executionPlanId);
+            tuning.record(candidate, kernelEvent.getElapsedTime());
+        }
         updateProfiler(executionPlanId, kernelLaunchEvent, taskMeta);
         return kernelLaunchEvent;
     }
@@ -380,11 +414,16 @@ public class PTXDeviceContext implements TornadoDeviceContext {
         return ptxCodeCache.isCached(PTXCodeUtil.buildKernelName(methodName, task));
     }
 
-    public void destroyStream(long executionPlanId) {
-        PTXStream stream = getStream(executionPlanId);
-        if (stream != null && !stream.isDestroy()) {
-            stream.cuDestroyStream();
-        }
+    /**
+     * Destroys the streams of the pool, including the streams that are not bound
+     * to any execution plan. It is called before the CUDA context is destroyed.
+     */
+    public void destroyStreams() {
+        streamPool.destroy(stream -> {
+            if (!stream.isDestroy()) {
+                stream.cuDestroyStream();
+            }
+        });
     }
 
     /*
@@ -578,13 +617,28 @@ public class PTXDeviceContext implements TornadoDeviceContext {
     }
 
     private PTXStream getStream(long executionPlanId) {
-        executionIDs.add(executionPlanId);
-        if (!streamTable.containsKey(executionPlanId)) {
-            PTXStreamTable ptxStreamTable = new PTXStreamTable();
-            ptxStreamTable.get(device);
-            streamTable.put(executionPlanId, ptxStreamTable);
+        if (Thread.currentThread().threadId() == PTX.SHUTDOW_THREAD_ID_HOOK) {
+            return null;
         }
-        return streamTable.get(executionPlanId).get(device);
+        executionIDs.add(executionPlanId);
+        return streamPool.get(executionPlanId);
+    }
+
+    /**
+     * @return the pool of CUDA streams of the device.
+     */
+    public CommandQueuePool<PTXStream> getStreamPool() {
+        return streamPool;
+    }
+
+    @Override
+    public void acquireCommandQueues(long executionPlanId, long transferQueueId) {
+        streamPool.acquire(executionPlanId, transferQueueId);
+    }
+
+    @Override
+    public void releaseCommandQueues(long executionPlanId, long transferQueueId) {
+        streamPool.release(executionPlanId, transferQueueId);
     }
 
     private PTXCodeCache getPTXCodeCache(long executionPlanId) {
@@ -595,10 +649,10 @@ public class PTXDeviceContext implements TornadoDeviceContext {
     }
 
     private PTXStream getStreamIfNeeded(long executionPlanId) {
-        if (!streamTable.containsKey(executionPlanId)) {
+        if (Thread.currentThread().threadId() == PTX.SHUTDOW_THREAD_ID_HOOK) {
             return null;
         }
-        return streamTable.get(executionPlanId).get(device);
+        return streamPool.getIfBound(executionPlanId);
     }
 
     public long mapOnDeviceMemoryRegion(long executionPlanId, long destDevicePtr, long srcDevicePtr, long offset, int sizeOfType) {
@@ -23,12 +23,15 @@
  */
 package uk.ac.manchester.tornado.drivers.ptx;
 
+import uk.ac.manchester.tornado.drivers.common.WorkGroupAutotuner;
+
 public class PTXModule {
     public final byte[] moduleWrapper;
     public final String kernelFunctionName;
     private int maxBlockSize;
     public final String javaName;
     private final byte[] source;
+    private WorkGroupAutotuner autotuner;
 
     public PTXModule(String name, byte[] source, String kernelFunctionName) {
         moduleWrapper = cuModuleLoadData(source);
@@ -55,6 +58,14 @@ public class PTXModule {
         return source;
     }
 
+    public WorkGroupAutotuner getAutotuner() {
+        return autotuner;
+    }
+
+    public void setAutotuner(WorkGroupAutotuner autotuner) {
+        this.autotuner = autotuner;
+    }
+
     public boolean isPTXJITSuccess() {
         return moduleWrapper.length != 0;
     }
@@ -24,7 +24,6 @@
 package uk.ac.manchester.tornado.drivers.ptx.mm;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 import uk.ac.manchester.tornado.drivers.ptx.PTXDeviceContext;
@@ -35,11 +34,15 @@ public class PTXKernelStackFrame extends PTXByteBuffer implements KernelStackFra
     public static final int RESERVED_SLOTS = 3;
     private final ArrayList<CallArgument> callArguments;
 
+    // Arguments are kept between launches and updated in place
+    private final ArrayList<CallArgument> argumentSlots;
+
     private boolean isValid;
 
     public PTXKernelStackFrame(long address, int numArgs, PTXDeviceContext deviceContext) {
         super(address, RESERVED_SLOTS << 3, 0, deviceContext);
         this.callArguments = new ArrayList<>(numArgs);
+        this.argumentSlots = new ArrayList<>(numArgs);
 
         buffer.clear();
         this.isValid = true;
@@ -47,7 +50,13 @@ public class PTXKernelStackFrame extends PTXByteBuffer implements KernelStackFra
 
     @Override
     public void addCallArgument(Object value, boolean isReferenceType) {
-        callArguments.add(new CallArgument(value, isReferenceType));
+        final int index = callArguments.size();
+        if (index == argumentSlots.size()) {
+            argumentSlots.add(new CallArgument(value, isReferenceType));
+        }
+        CallArgument argument = argumentSlots.get(index);
+        argument.update(value, isReferenceType);
+        callArguments.add(argument);
     }
 
     @Override
@@ -76,14 +85,10 @@ public class PTXKernelStackFrame extends PTXByteBuffer implements KernelStackFra
     }
 
     @Override
-    public void setKernelContext(HashMap<Integer, Integer> map) {
+    public void setKernelContext(long[] threadDeploy) {
         buffer.clear();
         for (int i = 0; i < RESERVED_SLOTS; i++) {
-            if (map.containsKey(i)) {
-                buffer.putLong(map.get(i));
-            } else {
-                buffer.putLong(0);
-            }
+            buffer.putLong(i < threadDeploy.length ? threadDeploy[i] : 0);
         }
     }
 
@@ -46,6 +46,11 @@ public class PTXMemoryManager implements TornadoMemoryProvider {
         return DEVICE_AVAILABLE_MEMORY;
     }
 
+    @Override
+    public int getKernelStackFrameReservedSlots() {
+        return RESERVED_SLOTS;
+    }
+
     public PTXKernelStackFrame createCallWrapper(final long threadId, final int maxArgs) {
         if (!ptxKernelStackFrame.containsKey(threadId)) {
             long kernelCallBuffer = deviceContext.getDevice().getPTXContext().allocateMemory(RESERVED_SLOTS * Long.BYTES);
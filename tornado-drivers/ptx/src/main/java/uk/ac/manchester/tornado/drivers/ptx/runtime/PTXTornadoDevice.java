@@ -81,6 +81,7 @@ import uk.ac.manchester.tornado.drivers.ptx.mm.PTXShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.PersistentKernelCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
@@ -88,6 +89,9 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.DriverInstallEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.GraalCompilationEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.TornadoFlightEvent;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
@@ -175,12 +179,32 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
         final Access[] taskAccess = taskMeta.getArgumentsAccess();
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
+        final PersistentKernelCache kernelCache = PersistentKernelCache.getInstance();
+        String kernelCacheKey = null;
+        if (kernelCache != null && !deviceContext.isCached(executionPlanId, resolvedMethod.getName(), executable)) {
+            kernelCacheKey = kernelCache.computeKey(TornadoVMBackendType.PTX, getDeviceIdentity(), executable, resolvedMethod);
+            PersistentKernelCache.CachedKernel cachedKernel = kernelCache.load(kernelCacheKey, executable.getMethod().getDeclaringClass().getClassLoader());
+            if (cachedKernel != null) {
+                cachedKernel.restoreTaskMetaData(taskMeta, resolvedMethod);
+                profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                final DriverInstallEvent installEvent = DriverInstallEvent.begin(taskMeta.getId(), getDeviceName(), resolvedMethod.getName(), true);
+                TornadoInstalledCode installedCode = deviceContext.installCode(executionPlanId, cachedKernel.entryPoint(), cachedKernel.code(), resolvedMethod.getName(), taskMeta
+                        .isPrintKernelEnabled());
+                TornadoFlightEvent.commitIfRecording(installEvent);
+                profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+                return installedCode;
+            }
+        }
+
         try {
             PTXCompilationResult result;
             if (!deviceContext.isCached(executionPlanId, resolvedMethod.getName(), executable)) {
                 PTXProviders providers = (PTXProviders) getBackend().getProviders();
                 profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+                final GraalCompilationEvent compilationEvent = GraalCompilationEvent.begin(taskMeta.getId(), getDeviceName(), resolvedMethod.getName());
                 result = PTXCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
+                TornadoFlightEvent.commitIfRecording(compilationEvent);
                 profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
                 profiler.sum(ProfilerType.TOTAL_GRAAL_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
             } else {
@@ -188,9 +212,16 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
             }
 
             profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+            final DriverInstallEvent installEvent = DriverInstallEvent.begin(taskMeta.getId(), getDeviceName(), resolvedMethod.getName(), false);
             TornadoInstalledCode installedCode = deviceContext.installCode(executionPlanId, result, resolvedMethod.getName());
+            TornadoFlightEvent.commitIfRecording(installEvent);
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+
+            // The CUDA driver keeps its own cache of the binaries JIT-compiled from PTX
+            if (kernelCacheKey != null && installedCode.isValid() && isKernelCacheable(result, executable)) {
+                kernelCache.store(kernelCacheKey, new PersistentKernelCache.CachedKernel(result.getName(), taskMeta.getDomain(), result.getTargetCode(), null), result.getMethods());
+            }
             return installedCode;
         } catch (Exception e) {
             if (TornadoOptions.DEBUG) {
@@ -202,6 +233,18 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    /**
+     * Kernels with atomics or non-inlined methods need metadata that is only
+     * built during compilation, so they are not stored in the kernel cache.
+     */
+    private boolean isKernelCacheable(PTXCompilationResult result, SchedulableTask task) {
+        return result.getTargetCode() != null && result.getNonInlinedMethods().isEmpty() && checkAtomicsForTask(task) == null && !checkAtomicsParametersForTask(task);
+    }
+
+    private String getDeviceIdentity() {
+        return device.getDeviceName() + "|" + device.getTargetArchitecture() + "|" + device.getTargetPTXVersion();
+    }
+
     private TornadoInstalledCode compilePreBuiltTask(long executionPlanId, SchedulableTask task) {
         final PTXDeviceContext deviceContext = getDeviceContext();
         final PrebuiltTask executable = (PrebuiltTask) task;
@@ -311,7 +354,7 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
         }
         long allocatedSpace = 0;
         for (int i = 0; i < objects.length; i++) {
-            if (!reuseBatchBuffer(batchSize, accesses[i], bufferProvider, distinctAccesses)) {
+            if (!reuseBatchBuffer(batchSize, accesses[i], bufferProvider, distinctAccesses, states[i])) {
                 logger.debug("Allocate object %s with access: %s", objects[i], accesses[i]);
                 allocatedSpace += allocate(objects[i], batchSize, states[i], accesses[i]);
             }
@@ -320,8 +363,9 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
         return allocatedSpace;
     }
 
-    private boolean reuseBatchBuffer(long batchSize, Access access, TornadoBufferProvider bufferProvider, HashMap<Access, Integer> distinctAccesses) {
-        if (batchSize != 0) {
+    private boolean reuseBatchBuffer(long batchSize, Access access, TornadoBufferProvider bufferProvider, HashMap<Access, Integer> distinctAccesses, DeviceBufferState state) {
+        // A buffer can only be reused if the state already holds one from a previous batch
+        if (batchSize != 0 && state.hasObjectBuffer()) {
             int numberOfBuffersForAccessType = distinctAccesses.get(access);
             // if there is a buffer available in the used-list with the same access type, reuse it
             if (bufferProvider.reuseBufferForBatchProcessing(batchSize, access, numberOfBuffersForAccessType)) {
@@ -27,6 +27,7 @@ import java.util.List;
 
 import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.drivers.common.CommandQueue;
+import uk.ac.manchester.tornado.drivers.common.CommandQueuePool;
 import uk.ac.manchester.tornado.drivers.opencl.OCLContextInterface;
 import uk.ac.manchester.tornado.drivers.opencl.OCLEventPool;
 
@@ -44,6 +45,13 @@ public abstract class SPIRVContext {
 
     public abstract CommandQueue getCommandQueueForDevice(long executionPlanId, int deviceIndex);
 
+    public abstract CommandQueuePool<? extends CommandQueue> getCommandQueuePool(int deviceIndex);
+
+    /**
+     * Destroys the command queues of all devices of the context.
+     */
+    public abstract void cleanup();
+
     public abstract OCLContextInterface getOpenCLLayer();
 
     public abstract OCLEventPool getOCLEventPool(long executionPlanId);
@@ -174,6 +174,16 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
         return tornadoDevice;
     }
 
+    @Override
+    public void acquireCommandQueues(long executionPlanId, long transferQueueId) {
+        spirvContext.getCommandQueuePool(getDeviceIndex()).acquire(executionPlanId, transferQueueId);
+    }
+
+    @Override
+    public void releaseCommandQueues(long executionPlanId, long transferQueueId) {
+        spirvContext.getCommandQueuePool(getDeviceIndex()).release(executionPlanId, transferQueueId);
+    }
+
     @Override
     public void reset(long executionPlanId) {
         spirvContext.reset(executionPlanId, getDeviceIndex());
@@ -31,6 +31,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.drivers.common.CommandQueuePool;
 import uk.ac.manchester.tornado.drivers.opencl.OCLContextInterface;
 import uk.ac.manchester.tornado.drivers.opencl.OCLEventPool;
 import uk.ac.manchester.tornado.drivers.opencl.natives.NativeCommandQueue;
@@ -39,6 +40,15 @@ import uk.ac.manchester.tornado.drivers.spirv.levelzero.LevelZeroCommandList;
 import uk.ac.manchester.tornado.drivers.spirv.levelzero.LevelZeroCommandQueue;
 import uk.ac.manchester.tornado.drivers.spirv.levelzero.LevelZeroContext;
 import uk.ac.manchester.tornado.drivers.spirv.levelzero.LevelZeroDevice;
+import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeCommandListDescriptor;
+import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeCommandListFlag;
+import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeCommandListHandle;
+import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeCommandQueueDescriptor;
+import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeCommandQueueGroupProperties;
+import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeCommandQueueGroupPropertyFlags;
+import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeCommandQueueHandle;
+import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeCommandQueueMode;
+import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeCommandQueuePriority;
 import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeDeviceMemAllocDescriptor;
 import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeDeviceMemAllocFlags;
 import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeHostMemAllocDescriptor;
@@ -60,7 +70,8 @@ public class SPIRVLevelZeroContext extends SPIRVContext {
     // Maps buffer ID -> LevelZeroByteBuffer
     private final Map<Long, LevelZeroByteBuffer> deviceBufferMap;
 
-    private final Map<Long, SPIRVLevelZeroCommandQueueTable> commmandQueueTable;
+    // One pool of command queues per device, shared by all execution plans
+    private final List<CommandQueuePool<SPIRVLevelZeroCommandQueue>> commandQueuePools;
 
     public SPIRVLevelZeroContext(SPIRVPlatform platform, List<SPIRVDevice> devices, LevelZeroContext levelZeroContext) {
         super(platform, devices);
@@ -68,7 +79,10 @@ public class SPIRVLevelZeroContext extends SPIRVContext {
 
         spirvDeviceContext = new ArrayList<>();
         deviceBufferMap = new ConcurrentHashMap<>();
-        commmandQueueTable = new ConcurrentHashMap<>();
+        commandQueuePools = new ArrayList<>();
+        for (SPIRVDevice device : devices) {
+            commandQueuePools.add(new CommandQueuePool<>(TornadoOptions.COMMAND_QUEUE_POOL_SIZE, () -> createSPIRVCommandQueue(device)));
+        }
 
         // Create LevelZeroDeviceContext per level-zero device
         for (SPIRVDevice device : devices) {
@@ -99,13 +113,86 @@ public class SPIRVLevelZeroContext extends SPIRVContext {
 
     @Override
     public SPIRVLevelZeroCommandQueue getCommandQueueForDevice(long executionPlanId, int deviceIndex) {
-        if (!commmandQueueTable.containsKey(executionPlanId)) {
-            SPIRVDevice device = devices.get(deviceIndex);
-            SPIRVLevelZeroCommandQueueTable spirvCommandQueueTable = new SPIRVLevelZeroCommandQueueTable();
-            spirvCommandQueueTable.get(device, levelZeroContext);
-            commmandQueueTable.put(executionPlanId, spirvCommandQueueTable);
+        return commandQueuePools.get(deviceIndex).get(executionPlanId);
+    }
+
+    @Override
+    public CommandQueuePool<SPIRVLevelZeroCommandQueue> getCommandQueuePool(int deviceIndex) {
+        return commandQueuePools.get(deviceIndex);
+    }
+
+    @Override
+    public void cleanup() {
+        commandQueuePools.forEach(pool -> pool.destroy(this::destroySPIRVCommandQueue));
+    }
+
+    private void destroySPIRVCommandQueue(SPIRVLevelZeroCommandQueue spirvCommandQueue) {
+        LevelZeroCommandList commandList = spirvCommandQueue.getCommandList();
+        int result = commandList.zeCommandListDestroy(commandList.getCommandListHandler());
+        LevelZeroUtils.errorLog("zeCommandListDestroy", result);
+        LevelZeroCommandQueue commandQueue = spirvCommandQueue.getCommandQueue();
+        result = commandQueue.zeCommandQueueDestroy(commandQueue.getCommandQueueHandle());
+        LevelZeroUtils.errorLog("zeCommandQueueDestroy", result);
+    }
+
+    private SPIRVLevelZeroCommandQueue createSPIRVCommandQueue(SPIRVDevice device) {
+        // Create Command Queue and Command List
+        LevelZeroCommandQueue commandQueue = createCommandQueue(levelZeroContext, device);
+        LevelZeroCommandList commandList = createCommandList(levelZeroContext, device);
+        return new SPIRVLevelZeroCommandQueue(commandQueue, commandList, (LevelZeroDevice) device.getDeviceRuntime());
+    }
+
+    private LevelZeroCommandQueue createCommandQueue(LevelZeroContext context, SPIRVDevice spirvDevice) {
+        LevelZeroDevice device = (LevelZeroDevice) spirvDevice.getDeviceRuntime();
+        // Create Command Queue
+        ZeCommandQueueDescriptor cmdDescriptor = new ZeCommandQueueDescriptor();
+        cmdDescriptor.setFlags(0);
+        cmdDescriptor.setMode(ZeCommandQueueMode.ZE_COMMAND_QUEUE_MODE_DEFAULT);
+        cmdDescriptor.setPriority(ZeCommandQueuePriority.ZE_COMMAND_QUEUE_PRIORITY_NORMAL);
+        cmdDescriptor.setOrdinal(getCommandQueueOrdinal(device));
+        cmdDescriptor.setIndex(0);
+
+        ZeCommandQueueHandle zeCommandQueueHandle = new ZeCommandQueueHandle();
+        int result = context.zeCommandQueueCreate(context.getContextHandle().getContextPtr()[0], device.getDeviceHandlerPtr(), cmdDescriptor, zeCommandQueueHandle);
+        LevelZeroUtils.errorLog("zeCommandQueueCreate", result);
+        return new LevelZeroCommandQueue(context, zeCommandQueueHandle);
+    }
+
+    private LevelZeroCommandList createCommandList(LevelZeroContext context, SPIRVDevice spirvDevice) {
+        LevelZeroDevice device = (LevelZeroDevice) spirvDevice.getDeviceRuntime();
+        ZeCommandListDescriptor cmdListDescriptor = new ZeCommandListDescriptor();
+        cmdListDescriptor.setFlags(ZeCommandListFlag.ZE_COMMAND_LIST_FLAG_RELAXED_ORDERING);
+        cmdListDescriptor.setCommandQueueGroupOrdinal(getCommandQueueOrdinal(device));
+        ZeCommandListHandle commandListHandler = new ZeCommandListHandle();
+        int result = context.zeCommandListCreate(context.getContextHandle().getContextPtr()[0], device.getDeviceHandlerPtr(), cmdListDescriptor, commandListHandler);
+        LevelZeroUtils.errorLog("zeCommandListCreate", result);
+        return new LevelZeroCommandList(context, commandListHandler);
+    }
+
+    private int getCommandQueueOrdinal(LevelZeroDevice device) {
+        int[] numQueueGroups = new int[1];
+        int result = device.zeDeviceGetCommandQueueGroupProperties(device.getDeviceHandlerPtr(), numQueueGroups, null);
+        LevelZeroUtils.errorLog("zeDeviceGetCommandQueueGroupProperties", result);
+
+        if (numQueueGroups[0] == 0) {
+            throw new RuntimeException("Number of Queue Groups is 0 for device: " + device.getDeviceProperties().getName());
         }
-        return commmandQueueTable.get(executionPlanId).get(devices.get(deviceIndex), levelZeroContext);
+        int ordinal = numQueueGroups[0];
+
+        if (device.getCommandQueueGroupProperties() == null) {
+            ZeCommandQueueGroupProperties[] commandQueueGroupProperties = new ZeCommandQueueGroupProperties[numQueueGroups[0]];
+            result = device.zeDeviceGetCommandQueueGroupProperties(device.getDeviceHandlerPtr(), numQueueGroups, commandQueueGroupProperties);
+            LevelZeroUtils.errorLog("zeDeviceGetCommandQueueGroupProperties", result);
+        }
+
+        for (int i = 0; i < numQueueGroups[0]; i++) {
+            if ((device.getCommandQueueGroupProperties(i).getFlags() & ZeCommandQueueGroupPropertyFlags.ZE_COMMAND_QUEUE_GROUP_PROPERTY_FLAG_COMPUTE) //
+                    == ZeCommandQueueGroupPropertyFlags.ZE_COMMAND_QUEUE_GROUP_PROPERTY_FLAG_COMPUTE) {
+                ordinal = i;
+                break;
+            }
+        }
+        return ordinal;
     }
 
     private ZeDeviceMemAllocDescriptor createDeviceDescription() {
@@ -583,14 +670,7 @@ public class SPIRVLevelZeroContext extends SPIRVContext {
 
     @Override
     public void reset(long executionPlanId, int deviceIndex) {
-        SPIRVLevelZeroCommandQueueTable table = commmandQueueTable.get(executionPlanId);
-        if (table != null) {
-            SPIRVDevice device = devices.get(deviceIndex);
-            table.cleanup(device, levelZeroContext);
-            if (table.size() == 0) {
-                commmandQueueTable.remove(executionPlanId);
-            }
-        }
+        commandQueuePools.get(deviceIndex).unbind(executionPlanId);
     }
 
     @Override
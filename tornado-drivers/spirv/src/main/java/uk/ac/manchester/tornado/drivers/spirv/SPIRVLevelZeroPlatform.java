@@ -104,4 +104,11 @@ public class SPIRVLevelZeroPlatform implements SPIRVPlatform {
     public SPIRVRuntimeType getRuntime() {
         return SPIRVRuntimeType.LEVEL_ZERO;
     }
+
+    @Override
+    public void cleanup() {
+        if (spirvContext != null) {
+            spirvContext.cleanup();
+        }
+    }
 }
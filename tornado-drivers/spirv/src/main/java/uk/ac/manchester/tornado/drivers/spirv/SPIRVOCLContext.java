@@ -23,6 +23,7 @@
  */
 package uk.ac.manchester.tornado.drivers.spirv;
 
+import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.COMMAND_QUEUE_POOL_SIZE;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.EVENT_WINDOW;
 
 import java.util.ArrayList;
@@ -34,7 +35,9 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.drivers.common.CommandQueue;
+import uk.ac.manchester.tornado.drivers.common.CommandQueuePool;
 import uk.ac.manchester.tornado.drivers.common.utils.EventDescriptor;
 import uk.ac.manchester.tornado.drivers.opencl.OCLCommandQueue;
 import uk.ac.manchester.tornado.drivers.opencl.OCLContext;
@@ -42,13 +45,15 @@ import uk.ac.manchester.tornado.drivers.opencl.OCLContextInterface;
 import uk.ac.manchester.tornado.drivers.opencl.OCLEventPool;
 import uk.ac.manchester.tornado.drivers.opencl.OpenCLBlocking;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLMemFlags;
+import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
 
 public class SPIRVOCLContext extends SPIRVContext {
 
     private OCLContextInterface oclContext;
     private List<SPIRVOCLDeviceContext> spirvoclDeviceContext;
 
-    private final Map<Long, SPIRVOCLCommandQueueTable> commmandQueueTable;
+    // One pool of command queues per device, shared by all execution plans
+    private final List<CommandQueuePool<OCLCommandQueue>> commandQueuePools;
     private final Map<Long, OCLEventPool> oclEventPool;
     private Set<Long> executionIDs;
 
@@ -56,7 +61,10 @@ public class SPIRVOCLContext extends SPIRVContext {
         super(platform, devices);
         this.oclContext = context;
 
-        commmandQueueTable = new ConcurrentHashMap<>();
+        commandQueuePools = new ArrayList<>();
+        for (SPIRVDevice device : devices) {
+            commandQueuePools.add(new CommandQueuePool<>(COMMAND_QUEUE_POOL_SIZE, () -> createCommandQueue((SPIRVOCLDevice) device)));
+        }
         oclEventPool = new ConcurrentHashMap<>();
         executionIDs = Collections.synchronizedSet(new HashSet<>());
 
@@ -89,13 +97,30 @@ public class SPIRVOCLContext extends SPIRVContext {
     }
 
     public OCLCommandQueue getCommandQueue(long executionPlanId, int deviceIndex) {
-        if (!commmandQueueTable.containsKey(executionPlanId)) {
-            SPIRVDevice device = devices.get(deviceIndex);
-            SPIRVOCLCommandQueueTable oclCommandQueueTable = new SPIRVOCLCommandQueueTable();
-            oclCommandQueueTable.get((SPIRVOCLDevice) device, (OCLContext) oclContext);
-            commmandQueueTable.put(executionPlanId, oclCommandQueueTable);
+        return commandQueuePools.get(deviceIndex).get(executionPlanId);
+    }
+
+    @Override
+    public CommandQueuePool<OCLCommandQueue> getCommandQueuePool(int deviceIndex) {
+        return commandQueuePools.get(deviceIndex);
+    }
+
+    @Override
+    public void cleanup() {
+        commandQueuePools.forEach(pool -> pool.destroy(OCLCommandQueue::cleanup));
+    }
+
+    private OCLCommandQueue createCommandQueue(SPIRVOCLDevice device) {
+        OCLContext context = (OCLContext) oclContext;
+        final int deviceVersion = device.deviceVersion();
+        long commandProperties = context.getProperties();
+        long commandQueuePtr;
+        try {
+            commandQueuePtr = context.clCreateCommandQueue(context.getContextId(), device.getId(), commandProperties);
+        } catch (OCLException e) {
+            throw new TornadoRuntimeException(e);
         }
-        return commmandQueueTable.get(executionPlanId).get((SPIRVOCLDevice) devices.get(deviceIndex), (OCLContext) oclContext);
+        return new OCLCommandQueue(commandQueuePtr, commandProperties, deviceVersion);
     }
 
     public OCLEventPool getOCLEventPool(long executionPlanId) {
@@ -303,15 +328,8 @@ public class SPIRVOCLContext extends SPIRVContext {
         OCLEventPool eventPool = getOCLEventPool(executionPlanId);
         eventPool.reset();
         oclEventPool.remove(executionPlanId);
-        SPIRVOCLCommandQueueTable table = commmandQueueTable.get(executionPlanId);
-        if (table != null) {
-            SPIRVDevice device = devices.get(deviceIndex);
-            table.cleanup((SPIRVOCLDevice) device);
-            if (table.size() == 0) {
-                commmandQueueTable.remove(executionPlanId);
-            }
-            executionIDs.remove(executionPlanId);
-        }
+        commandQueuePools.get(deviceIndex).unbind(executionPlanId);
+        executionIDs.remove(executionPlanId);
     }
 
     @Override
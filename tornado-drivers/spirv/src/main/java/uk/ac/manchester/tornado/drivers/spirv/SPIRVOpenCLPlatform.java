@@ -34,12 +34,14 @@ public class SPIRVOpenCLPlatform implements SPIRVPlatform {
     private final TornadoPlatformInterface oclPlatform;
     private OCLContextInterface context;
     private final List<SPIRVDevice> spirvDevices;
+    private final List<SPIRVOCLContext> spirvContexts;
 
     public SPIRVOpenCLPlatform(int platformIndex, TornadoPlatformInterface oclPlatform) {
         this.oclPlatform = oclPlatform;
         context = this.oclPlatform.createContext();
 
         spirvDevices = new ArrayList<>();
+        spirvContexts = new ArrayList<>();
 
         for (int i = 0; i < context.getNumDevices(); i++) {
             SPIRVDevice spirvDevice = new SPIRVOCLDevice(platformIndex, i, context.devices().get(i));
@@ -67,7 +69,9 @@ public class SPIRVOpenCLPlatform implements SPIRVPlatform {
         if (context == null) {
             context = oclPlatform.createContext();
         }
-        return new SPIRVOCLContext(this, spirvDevices, context);
+        SPIRVOCLContext spirvContext = new SPIRVOCLContext(this, spirvDevices, context);
+        spirvContexts.add(spirvContext);
+        return spirvContext;
     }
 
     @Override
@@ -80,4 +84,9 @@ public class SPIRVOpenCLPlatform implements SPIRVPlatform {
         return SPIRVRuntimeType.OPENCL;
     }
 
+    @Override
+    public void cleanup() {
+        spirvContexts.forEach(SPIRVContext::cleanup);
+    }
+
 }
@@ -34,4 +34,9 @@ public interface SPIRVPlatform {
     SPIRVDevice[] getDevices();
 
     SPIRVRuntimeType getRuntime();
+
+    /**
+     * Releases the command queues of the contexts created by the platform.
+     */
+    void cleanup();
 }
@@ -82,6 +82,12 @@ public class SPIRVRuntimeImpl {
             for (SPIRVDispatcher dispatcher : dispatchers) {
                 IntStream.range(0, dispatcher.getNumPlatforms()).forEach(platformIndex -> platforms.add(dispatcher.getPlatform(platformIndex)));
             }
+
+            // add a shutdown hook to release the command queues of the SPIR-V contexts on VM exit
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                Thread.currentThread().setName("SPIRV-Cleanup-Thread");
+                platforms.forEach(SPIRVPlatform::cleanup);
+            }));
         }
     }
 
@@ -24,7 +24,6 @@
 package uk.ac.manchester.tornado.drivers.spirv.mm;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 import uk.ac.manchester.tornado.drivers.spirv.SPIRVDeviceContext;
@@ -36,18 +35,28 @@ public class SPIRVKernelStackFrame extends SPIRVByteBuffer implements KernelStac
 
     private final ArrayList<CallArgument> callArguments;
 
+    // Arguments are kept between launches and updated in place
+    private final ArrayList<CallArgument> argumentSlots;
+
     private boolean isValid;
 
     public SPIRVKernelStackFrame(long bufferId, int numArgs, SPIRVDeviceContext device) {
         super(device, bufferId, 0, RESERVED_SLOTS << 3);
         this.callArguments = new ArrayList<>(numArgs);
+        this.argumentSlots = new ArrayList<>(numArgs);
         buffer.clear();
         this.isValid = true;
     }
 
     @Override
     public void addCallArgument(Object value, boolean isReferenceType) {
-        callArguments.add(new CallArgument(value, isReferenceType));
+        final int index = callArguments.size();
+        if (index == argumentSlots.size()) {
+            argumentSlots.add(new CallArgument(value, isReferenceType));
+        }
+        CallArgument argument = argumentSlots.get(index);
+        argument.update(value, isReferenceType);
+        callArguments.add(argument);
     }
 
     @Override
@@ -87,14 +96,10 @@ public class SPIRVKernelStackFrame extends SPIRVByteBuffer implements KernelStac
     }
 
     @Override
-    public void setKernelContext(HashMap<Integer, Integer> map) {
+    public void setKernelContext(long[] threadDeploy) {
         buffer.clear();
         for (int i = 0; i < RESERVED_SLOTS; i++) {
-            if (map.containsKey(i)) {
-                buffer.putLong(map.get(i));
-            } else {
-                buffer.putLong(0);
-            }
+            buffer.putLong(i < threadDeploy.length ? threadDeploy[i] : 0);
         }
     }
 }
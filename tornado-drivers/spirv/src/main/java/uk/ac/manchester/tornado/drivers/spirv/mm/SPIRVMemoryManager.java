@@ -49,6 +49,11 @@ public class SPIRVMemoryManager implements TornadoMemoryProvider {
         return DEVICE_AVAILABLE_MEMORY;
     }
 
+    @Override
+    public int getKernelStackFrameReservedSlots() {
+        return RESERVED_SLOTS;
+    }
+
     public SPIRVKernelStackFrame createKernelStackFrame(long threadId, final int maxArgs, Access access) {
         if (!spirvKernelStackFrame.containsKey(threadId)) {
             long kernelCallBuffer = deviceContext.getSpirvContext().allocateMemory(deviceContext.getDevice().getDeviceIndex(), RESERVED_SLOTS * Long.BYTES, access);
@@ -72,6 +72,7 @@ import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
+import uk.ac.manchester.tornado.runtime.common.PersistentKernelCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
@@ -79,6 +80,9 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.DriverInstallEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.GraalCompilationEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.TornadoFlightEvent;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
@@ -168,19 +172,44 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
 
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
+        final PersistentKernelCache kernelCache = PersistentKernelCache.getInstance();
+        String kernelCacheKey = null;
+        if (kernelCache != null) {
+            kernelCacheKey = kernelCache.computeKey(TornadoVMBackendType.SPIRV, getDeviceIdentity(), task, resolvedMethod);
+            PersistentKernelCache.CachedKernel cachedKernel = kernelCache.load(kernelCacheKey, task.getMethod().getDeclaringClass().getClassLoader());
+            if (cachedKernel != null) {
+                cachedKernel.restoreTaskMetaData(taskMeta, resolvedMethod);
+                profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                final DriverInstallEvent installEvent = DriverInstallEvent.begin(taskMeta.getId(), getDeviceName(), resolvedMethod.getName(), true);
+                TornadoInstalledCode installedCode = deviceContext.installBinary(executionPlanId, taskMeta, task.getId(), cachedKernel.entryPoint(), cachedKernel.code());
+                TornadoFlightEvent.commitIfRecording(installEvent);
+                profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+                profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+                return installedCode;
+            }
+        }
+
         try {
             SPIRVCompilationResult result;
             // Compile the code and insert the SPIR-V binary into the code cache
             SPIRVProviders providers = (SPIRVProviders) getBackend().getProviders();
             profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
+            final GraalCompilationEvent compilationEvent = GraalCompilationEvent.begin(taskMeta.getId(), getDeviceName(), resolvedMethod.getName());
             result = SPIRVCompiler.compileSketchForDevice(sketch, task, providers, getBackend(), task.getProfiler());
+            TornadoFlightEvent.commitIfRecording(compilationEvent);
             profiler.stop(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_GRAAL_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId()));
 
             profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+            final DriverInstallEvent installEvent = DriverInstallEvent.begin(taskMeta.getId(), getDeviceName(), resolvedMethod.getName(), false);
             TornadoInstalledCode installedCode = deviceContext.installBinary(executionPlanId, result);
+            TornadoFlightEvent.commitIfRecording(installEvent);
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+
+            if (kernelCacheKey != null && (result.getNonInlinedMethods() == null || result.getNonInlinedMethods().isEmpty())) {
+                kernelCache.store(kernelCacheKey, new PersistentKernelCache.CachedKernel(result.getName(), taskMeta.getDomain(), result.getSPIRVBinary(), null), result.getMethods());
+            }
             return installedCode;
         } catch (Exception e) {
             TornadoLogger logger = new TornadoLogger(this.getClass());
@@ -194,6 +223,10 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    private String getDeviceIdentity() {
+        return device.getPlatformName() + "|" + device.getName() + "|" + device.getDeviceOpenCLCVersion();
+    }
+
     @Override
     public boolean isFullJITMode(long executionPlanId, SchedulableTask task) {
         return false;
@@ -335,7 +368,7 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
         }
         long allocatedSpace = 0;
         for (int i = 0; i < objects.length; i++) {
-            if (!reuseBatchBuffer(batchSize, accesses[i], bufferProvider, distinctAccesses)) {
+            if (!reuseBatchBuffer(batchSize, accesses[i], bufferProvider, distinctAccesses, states[i])) {
                 logger.debug("Allocate object %s with access: %s", objects[i], accesses[i]);
                 allocatedSpace += allocate(objects[i], batchSize, states[i], accesses[i]);
             }
@@ -344,8 +377,9 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
         return allocatedSpace;
     }
 
-    private boolean reuseBatchBuffer(long batchSize, Access access, TornadoBufferProvider bufferProvider, HashMap<Access, Integer> distinctAccesses) {
-        if (batchSize != 0) {
+    private boolean reuseBatchBuffer(long batchSize, Access access, TornadoBufferProvider bufferProvider, HashMap<Access, Integer> distinctAccesses, DeviceBufferState state) {
+        // A buffer can only be reused if the state already holds one from a previous batch
+        if (batchSize != 0 && state.hasObjectBuffer()) {
             int numberOfBuffersForAccessType = distinctAccesses.get(access);
             // if there is a buffer available in the used-list with the same access type, reuse it
             if (bufferProvider.reuseBufferForBatchProcessing(batchSize, access, numberOfBuffersForAccessType)) {
@@ -21,12 +21,15 @@ import static java.lang.Math.abs;
 import static uk.ac.manchester.tornado.api.types.matrix.Matrix2DFloat.scale;
 import static uk.ac.manchester.tornado.api.types.matrix.Matrix2DFloat.transpose;
 
+import java.lang.foreign.MemorySegment;
+
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.collections.VectorFloat;
 import uk.ac.manchester.tornado.api.types.matrix.Matrix2DDouble;
 import uk.ac.manchester.tornado.api.types.matrix.Matrix2DFloat;
 import uk.ac.manchester.tornado.api.types.matrix.Matrix4x4Float;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
 
 public final class MatrixMath {
 
@@ -227,30 +230,50 @@ public final class MatrixMath {
         }
     }
 
+    /**
+     * Element-wise product of two vectors.
+     *
+     * @param a
+     *     vector
+     * @param b
+     *     vector of the same size
+     * @return a new vector with the products
+     */
     public static FloatArray mult(FloatArray a, FloatArray b) {
-        final FloatArray result = new FloatArray(6);
-        for (int i = 0; i < a.getSize(); i++) {
-            result.set(i, a.get(i) * b.get(i));
-        }
+        final FloatArray result = new FloatArray(a.getSize());
+        SegmentOps.mult(a.getSegment(), b.getSegment(), result.getSegment());
         return result;
     }
 
+    /**
+     * Dot product of two vectors.
+     *
+     * @param a
+     *     vector
+     * @param b
+     *     vector of the same size
+     * @return dot product
+     */
     public static float dot(FloatArray a, FloatArray b) {
-        float result = 0f;
-        final FloatArray m = mult(a, b);
-        for (int i = 0; i < a.getSize(); i++) {
-            result += m.get(i);
-        }
-        return result;
+        return SegmentOps.dotFloat(a.getSegment(), b.getSegment());
     }
 
+    /**
+     * Matrix-vector multiplication. Each row of the matrix is read directly from
+     * its storage.
+     *
+     * @param y
+     *     result
+     * @param m
+     *     matrix
+     * @param x
+     *     vector
+     */
     public static void multiply(FloatArray y, Matrix2DFloat m, FloatArray x) {
-        final FloatArray row = new FloatArray(6);
-        for (int i = 0; i < row.getSize(); i++) {
-            for (int j = 0; j < row.getSize(); j++) {
-                row.set(j, m.get(i, j));
-            }
-            y.set(i, dot(row, x));
+        final MemorySegment matrix = m.getSegment();
+        final long rowBytes = (long) m.getNumColumns() * Float.BYTES;
+        for (int i = 0; i < m.getNumRows(); i++) {
+            y.set(i, SegmentOps.dotFloat(matrix.asSlice(i * rowBytes, rowBytes), x.getSegment()));
         }
     }
 }
@@ -2,6 +2,9 @@ import uk.ac.manchester.tornado.runtime.TornadoBackendProvider;
 
 open module tornado.runtime {
     requires java.logging;
+    requires java.management;
+    requires jdk.jfr;
+    requires jdk.management;
     requires jdk.unsupported;
     requires org.graalvm.collections;
 
@@ -28,6 +31,7 @@ open module tornado.runtime {
     exports uk.ac.manchester.tornado.runtime.graph;
     exports uk.ac.manchester.tornado.runtime.graph.nodes;
     exports uk.ac.manchester.tornado.runtime.profiler;
+    exports uk.ac.manchester.tornado.runtime.profiler.jfr;
     exports uk.ac.manchester.tornado.runtime.sketcher;
     exports uk.ac.manchester.tornado.runtime.tasks;
     exports uk.ac.manchester.tornado.runtime.tasks.meta;
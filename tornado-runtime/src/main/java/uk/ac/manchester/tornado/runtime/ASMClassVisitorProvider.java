@@ -23,9 +23,38 @@
  */
 package uk.ac.manchester.tornado.runtime;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.runtime.common.ParallelAnnotationProvider;
 
 public interface ASMClassVisitorProvider {
     ParallelAnnotationProvider[] getParallelAnnotations(ResolvedJavaMethod method);
+
+    /**
+     * Builds a host (JVM) version of the given task method in which the outermost loop annotated with
+     * {@link uk.ac.manchester.tornado.api.annotations.Parallel} is split across workers. The returned handle
+     * takes the original arguments followed by two extra {@code int} parameters: the worker index and the
+     * total number of workers.
+     *
+     * @param method
+     *     Static method that implements the task.
+     * @return {@link MethodHandle} to the split method, or {@code null} if the method cannot be split safely.
+     */
+    MethodHandle getHostParallelKernel(Method method);
+
+    /**
+     * Builds a method that calls the given task methods one after the other, so that they can be compiled into a
+     * single kernel. The parameters of the new method are the union of the arguments of the tasks.
+     *
+     * @param tasks
+     *     Static methods that implement the tasks, in execution order.
+     * @param argumentMapping
+     *     For each task, the index of the parameter of the new method that is passed as each of its arguments.
+     * @param parameterTypes
+     *     Types of the parameters of the new method.
+     * @return {@link Method} that calls the tasks, or {@code null} if the tasks cannot be fused.
+     */
+    Method getFusedKernel(Method[] tasks, int[][] argumentMapping, Class<?>[] parameterTypes);
 }
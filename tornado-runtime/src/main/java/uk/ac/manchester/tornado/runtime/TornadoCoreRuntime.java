@@ -32,6 +32,7 @@ import java.util.ServiceLoader;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.StreamSupport;
@@ -74,7 +75,18 @@ public final class TornadoCoreRuntime implements TornadoRuntime {
             return thread;
         }
     };
+    private static final ThreadFactory compilerThreadFactory = new ThreadFactory() {
+        private final AtomicInteger threadId = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, String.format("TornadoCompilerThread - %d", threadId.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        }
+    };
     private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(TornadoOptions.TORNADO_SKETCHER_THREADS, executorThreadFactory);
+    private static final ExecutorService COMPILER_EXECUTOR = Executors.newFixedThreadPool(TornadoOptions.TORNADO_COMPILER_THREADS, compilerThreadFactory);
     private static final TornadoCoreRuntime runtime = new TornadoCoreRuntime();
     private static final JVMMapping JVM = new JVMMapping();
     private static final int DEFAULT_DRIVER = 0;
@@ -121,6 +133,10 @@ public final class TornadoCoreRuntime implements TornadoRuntime {
         return EXECUTOR;
     }
 
+    public static ExecutorService getTornadoCompilerExecutor() {
+        return COMPILER_EXECUTOR;
+    }
+
     public static JVMCIBackend getVMBackend() {
         return runtime.vmBackend;
     }
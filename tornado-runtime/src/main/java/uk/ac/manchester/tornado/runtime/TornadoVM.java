@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -39,6 +40,7 @@ import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoDeviceFP64NotSupported;
 import uk.ac.manchester.tornado.api.exceptions.TornadoFailureException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
@@ -108,6 +110,8 @@ public class TornadoVM {
         this.timeProfiler = profiler;
         Arrays.stream(tornadoVMInterpreters).forEach(tornadoVMInterpreter -> tornadoVMInterpreter.setTimeProfiler(timeProfiler));
 
+        compileTasksInParallel();
+
         if (shouldInterpreterRunInParallel(isParallel)) {
             return executeInterpreterThreadManager(isParallel);
         } else {
@@ -173,6 +177,58 @@ public class TornadoVM {
         return new EmptyEvent();
     }
 
+    /**
+     * Compiles every task that has no installed code yet, for all the devices of the
+     * execution plan, on the bounded compiler pool. Each result is installed in the
+     * code cache of its device as soon as it is ready. The interpreters then find the
+     * code already installed when they reach the LAUNCH bytecodes. The elapsed time of
+     * the whole step and the CPU time summed over all jobs are recorded in the
+     * profiler, so the overlap between compilations can be observed.
+     */
+    private void compileTasksInParallel() {
+        if (!TornadoOptions.PARALLEL_COMPILATION) {
+            return;
+        }
+        List<Callable<Long>> compilationJobs = new ArrayList<>();
+        for (TornadoVMInterpreter tornadoVMInterpreter : tornadoVMInterpreters) {
+            compilationJobs.addAll(tornadoVMInterpreter.prepareParallelCompilation());
+        }
+        if (compilationJobs.isEmpty()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        long cpuTime = 0;
+        try {
+            if (compilationJobs.size() == 1) {
+                cpuTime = compilationJobs.getFirst().call();
+            } else {
+                List<Future<Long>> futures = TornadoCoreRuntime.getTornadoCompilerExecutor().invokeAll(compilationJobs);
+                for (Future<Long> future : futures) {
+                    cpuTime += future.get();
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new TornadoRuntimeException("[ERROR] Parallel compilation failed: " + cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TornadoRuntimeException("[ERROR] Parallel compilation was interrupted");
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new TornadoRuntimeException("[ERROR] Parallel compilation failed: " + e);
+        } finally {
+            timeProfiler.setTimer(ProfilerType.TOTAL_COMPILE_WALL_TIME, System.nanoTime() - start);
+            timeProfiler.setTimer(ProfilerType.TOTAL_COMPILE_CPU_TIME, cpuTime);
+        }
+    }
+
     private boolean shouldRunConcurrently(boolean isTaskGraphConcurrent) {
         return (isTaskGraphConcurrent || TornadoOptions.CONCURRENT_INTERPRETERS) && (executionContext.getValidContextSize() > 1);
     }
@@ -202,6 +258,7 @@ public class TornadoVM {
     }
 
     public void warmup() {
+        compileTasksInParallel();
         executeActionOnInterpreters(TornadoVMInterpreter::warmup);
     }
 
@@ -74,7 +74,18 @@ public class CodeAnalysis {
      *     input method in the Graal-IR format,
      */
     public static StructuredGraph buildHighLevelGraalGraph(Object taskInputCode) {
-        Method methodToCompile = TaskUtils.resolveMethodHandle(taskInputCode);
+        return buildHighLevelGraalGraph(TaskUtils.resolveMethodHandle(taskInputCode));
+    }
+
+    /**
+     * Build Graal-IR for a Java method.
+     *
+     * @param methodToCompile
+     *     Java method to be compiled by Graal
+     * @return {@link StructuredGraph} Control Flow and DataFlow Graphs for the
+     *     method in the Graal-IR format,
+     */
+    public static StructuredGraph buildHighLevelGraalGraph(Method methodToCompile) {
         GraalJVMCICompiler graalCompiler = (GraalJVMCICompiler) JVMCI.getRuntime().getCompiler();
         RuntimeProvider capability = graalCompiler.getGraalRuntime().getCapability(RuntimeProvider.class);
         Backend backend = capability.getHostBackend();
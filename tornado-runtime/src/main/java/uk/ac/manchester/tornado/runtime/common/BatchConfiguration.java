@@ -26,8 +26,12 @@ package uk.ac.manchester.tornado.runtime.common;
 import java.lang.reflect.Array;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.exceptions.TornadoMemoryException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.memory.TornadoMemoryProvider;
 import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
 import uk.ac.manchester.tornado.api.types.arrays.CharArray;
 import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
@@ -38,6 +42,7 @@ import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.runtime.common.enums.DataTypeSize;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
+import uk.ac.manchester.tornado.runtime.tasks.LocalObjectState;
 
 /**
  * It presents the configuration for processing data in batches. This class
@@ -55,6 +60,11 @@ import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
  */
 public class BatchConfiguration {
 
+    /**
+     * Number of elements that automatic batch sizes are aligned to.
+     */
+    private static final int BATCH_ALIGNMENT_ELEMENTS = 1024;
+
     private final int totalChunks;
     private final int remainingChunkSize;
     private final short numBytesType;
@@ -76,6 +86,124 @@ public class BatchConfiguration {
     }
 
     public static BatchConfiguration computeChunkSizes(TornadoExecutionContext context, long batchSize) {
+        BatchInputs inputs = analyzeInputs(context);
+        long totalSize = inputs.totalSize();
+
+        int totalChunks = (int) (totalSize / batchSize);
+        int remainingChunkSize = (int) (totalSize % batchSize);
+
+        if (TornadoOptions.DEBUG) {
+            System.out.println("Batch Size: " + batchSize);
+            System.out.println("Total chunks: " + totalChunks);
+            System.out.println("remainingChunkSize: " + remainingChunkSize);
+        }
+        return new BatchConfiguration(totalChunks, remainingChunkSize, inputs.elementSize());
+    }
+
+    /**
+     * Selects the largest batch size for which all batched objects of the
+     * execution context fit in the device memory that is still available. The
+     * memory available is the minimum between the device heap and the memory
+     * limit of the execution plan, minus the memory in use by the execution plan
+     * other than its own batch buffers, the kernel stack frames and the atomics
+     * region, and minus the headroom set
+     * with {@link TornadoOptions#AUTOMATIC_BATCH_HEADROOM}. Each buffer is also
+     * limited by the maximum allocation size of the device.
+     *
+     * @param context
+     *     Execution context with the objects to process in batches.
+     * @param device
+     *     Device that runs the tasks of the execution context.
+     * @return batch size in bytes per batched object.
+     */
+    public static long computeAutomaticBatchSize(TornadoExecutionContext context, TornadoXPUDevice device) {
+        BatchInputs inputs = analyzeInputs(context);
+
+        // Objects persisted on the device by other task-graphs are not allocated per batch
+        int batchedObjects = 0;
+        long persistedBytes = 0;
+        long batchBufferBytes = 0;
+        List<Object> objects = context.getObjects();
+        for (int i = 0; i < objects.size(); i++) {
+            if (isPersistedObject(context, objects.get(i))) {
+                persistedBytes += inputs.totalSize();
+            } else {
+                batchedObjects++;
+                batchBufferBytes += getDeviceBufferSize(context.getObjectStates().get(i), device);
+            }
+        }
+        if (batchedObjects == 0) {
+            return inputs.totalSize();
+        }
+
+        TornadoMemoryProvider memoryManager = device.getDeviceContext().getMemoryManager();
+        long available = Math.min(device.getMaxGlobalMemory(), memoryManager.getHeapSize());
+        if (context.isMemoryLimited()) {
+            available = Math.min(available, context.getExecutionPlanMemoryLimit());
+        }
+        // The batch buffers allocated by earlier executions of the plan are reused or
+        // replaced, so they are not subtracted from the memory available
+        available -= Math.max(context.getCurrentDeviceMemoryUsage() - batchBufferBytes, persistedBytes);
+        available -= getKernelHeadroom(context, memoryManager);
+        available -= (available / 100) * TornadoOptions.AUTOMATIC_BATCH_HEADROOM;
+
+        long batchSize = available / ((long) batchedObjects * context.getBatchBufferSlots());
+        // Buffers must be smaller than the maximum allocation size of the device
+        batchSize = Math.min(batchSize, device.getMaxAllocMemory() - 1);
+        batchSize = Math.min(batchSize, inputs.totalSize());
+
+        // Round down to a multiple of the alignment, so all batches but the last one have the same number of threads
+        long alignment = (long) inputs.elementSize() * BATCH_ALIGNMENT_ELEMENTS;
+        if (batchSize < alignment) {
+            alignment = inputs.elementSize();
+        }
+        batchSize -= batchSize % alignment;
+
+        if (batchSize <= 0) {
+            throw new TornadoMemoryException("[ERROR] Not enough device memory to process the task-graph " + context.getId() + " in batches. Available: " + Math.max(0, available) + " bytes");
+        }
+
+        if (TornadoOptions.DEBUG) {
+            System.out.println("Automatic Batch Size: " + batchSize + " (available memory: " + available + " bytes, batched objects: " + batchedObjects + ")");
+        }
+        return batchSize;
+    }
+
+    /**
+     * @return size in bytes of each object of the execution context that is
+     *     processed in batches.
+     */
+    public static long getBatchedObjectSize(TornadoExecutionContext context) {
+        return analyzeInputs(context).totalSize();
+    }
+
+    private static long getDeviceBufferSize(LocalObjectState localState, TornadoXPUDevice device) {
+        XPUDeviceBufferState state = localState.getDataObjectState().getDeviceBufferState(device);
+        return state.hasObjectBuffer() ? state.getXPUBuffer().size() : 0;
+    }
+
+    private static boolean isPersistedObject(TornadoExecutionContext context, Object object) {
+        for (List<Object> taskObjects : context.getPersistedTaskToObjectsMap().values()) {
+            if (taskObjects != null && taskObjects.contains(object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Device memory used by the kernel stack frames of all tasks and by the
+     * atomics region, as reported by the memory manager of the backend.
+     */
+    private static long getKernelHeadroom(TornadoExecutionContext context, TornadoMemoryProvider memoryManager) {
+        long headroom = memoryManager.getAtomicsRegionSize();
+        for (SchedulableTask task : context.getTasks()) {
+            headroom += (long) (memoryManager.getKernelStackFrameReservedSlots() + task.getArguments().length) * Long.BYTES;
+        }
+        return headroom;
+    }
+
+    private static BatchInputs analyzeInputs(TornadoExecutionContext context) {
         // Get the size of the batch
         long totalSize = 0;
 
@@ -121,15 +249,7 @@ public class BatchConfiguration {
             throw new TornadoRuntimeException("[UNSUPPORTED] Input objects with different element sizes not currently supported");
         }
 
-        int totalChunks = (int) (totalSize / batchSize);
-        int remainingChunkSize = (int) (totalSize % batchSize);
-
-        if (TornadoOptions.DEBUG) {
-            System.out.println("Batch Size: " + batchSize);
-            System.out.println("Total chunks: " + totalChunks);
-            System.out.println("remainingChunkSize: " + remainingChunkSize);
-        }
-        return new BatchConfiguration(totalChunks, remainingChunkSize, elementSizes.getFirst());
+        return new BatchInputs(totalSize, elementSizes.getFirst());
     }
 
     public int getTotalChunks() {
@@ -144,4 +264,7 @@ public class BatchConfiguration {
         return numBytesType;
     }
 
+    private record BatchInputs(long totalSize, short elementSize) {
+    }
+
 }
@@ -33,8 +33,8 @@ public interface KernelStackFrame {
     }
 
     class CallArgument {
-        private final Object value;
-        private final boolean isReferenceType;
+        private Object value;
+        private boolean isReferenceType;
 
         public CallArgument(Object value, boolean isReferenceType) {
             this.value = value;
@@ -48,6 +48,15 @@ public interface KernelStackFrame {
         public boolean isReferenceType() {
             return isReferenceType;
         }
+
+        /**
+         * Updates the argument in place. Stack frames keep their arguments between
+         * launches, so a frame that is reused does not allocate new arguments.
+         */
+        public void update(Object value, boolean isReferenceType) {
+            this.value = value;
+            this.isReferenceType = isReferenceType;
+        }
     }
 
     void reset();
@@ -56,7 +65,24 @@ public interface KernelStackFrame {
 
     void addCallArgument(Object value, boolean isReferenceType);
 
-    void setKernelContext(HashMap<Integer, Integer> map);
+    /**
+     * Writes the number of threads to deploy per dimension in the reserved slots
+     * of the frame. Dimensions that are not present are set to 0.
+     *
+     * @param threadDeploy
+     *     Number of threads per dimension.
+     */
+    void setKernelContext(long[] threadDeploy);
+
+    default void setKernelContext(HashMap<Integer, Integer> map) {
+        int dimensions = 0;
+        for (int dimension : map.keySet()) {
+            dimensions = Math.max(dimensions, dimension + 1);
+        }
+        long[] threadDeploy = new long[dimensions];
+        map.forEach((dimension, threads) -> threadDeploy[dimension] = threads);
+        setKernelContext(threadDeploy);
+    }
 
     boolean isValid();
 
@@ -0,0 +1,556 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.common;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.graalvm.compiler.phases.util.Providers;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
+
+/**
+ * On-disk cache of generated kernels shared by all backends and across JVM
+ * runs. Each entry holds the generated code (OpenCL C, PTX or SPIR-V), the
+ * device binary when the driver exposes one, and the parallel domain computed
+ * during compilation.
+ *
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the bytecode of the task method, the
+ * values the compiler specialises from the task arguments, the device
+ * identity, the compiler flags, the TornadoVM options in use and the builds of
+ * TornadoVM, Graal and the JDK, so upgrading any of them never reuses kernels
+ * generated by the previous compiler. Each entry
+ * also records the bytecode hash of every inlined method, so changes in callees
+ * are detected when the entry is loaded.
+ * </p>
+ *
+ * <p>
+ * Writers store each entry in a temporary file that is atomically renamed,
+ * so concurrent JVMs sharing the same directory never observe partial entries.
+ * The least recently used entries are evicted once the directory grows beyond
+ * {@link TornadoOptions#PERSISTENT_KERNEL_CACHE_SIZE}.
+ * </p>
+ */
+public final class PersistentKernelCache {
+
+    private static final int FORMAT_MAGIC = 0x544B4331;
+    private static final int FORMAT_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".tkc";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String CACHE_OPTIONS_PREFIX = "tornado.kernel.cache.";
+    private static final int MAX_SPECIALISATION_DEPTH = 4;
+    private static final long STALE_TEMP_FILE_MILLIS = 10 * 60 * 1000;
+    private static final String BUILD_VERSIONS = String.join(";", Runtime.version().toString(), System.getProperty("java.vm.version"), buildOf(PersistentKernelCache.class), buildOf(Providers.class));
+
+    private static PersistentKernelCache instance;
+
+    private final Path directory;
+    private final long maxSizeInBytes;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final TornadoLogger logger = new TornadoLogger(PersistentKernelCache.class);
+
+    private PersistentKernelCache(Path directory, long maxSizeInBytes) {
+        this.directory = directory;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * @return the kernel cache, or null if it is not enabled with
+     *     {@code -Dtornado.kernel.cache.enable=True}.
+     */
+    public static synchronized PersistentKernelCache getInstance() {
+        if (!TornadoOptions.PERSISTENT_KERNEL_CACHE) {
+            return null;
+        }
+        if (instance == null) {
+            instance = new PersistentKernelCache(Paths.get(TornadoOptions.PERSISTENT_KERNEL_CACHE_DIR), TornadoOptions.PERSISTENT_KERNEL_CACHE_SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * Computes the key of the kernel generated for a task on a given device.
+     *
+     * @param backendType
+     *     Backend that compiles the task.
+     * @param deviceIdentity
+     *     String that identifies the device and its driver version.
+     * @param task
+     *     Task to compile.
+     * @param method
+     *     Resolved method of the task.
+     * @return Hexadecimal SHA-256 key.
+     */
+    public String computeKey(TornadoVMBackendType backendType, String deviceIdentity, CompilableTask task, ResolvedJavaMethod method) {
+        MessageDigest digest = newDigest();
+        TaskDataContext meta = task.meta();
+        update(digest, Integer.toString(FORMAT_VERSION));
+        update(digest, BUILD_VERSIONS);
+        update(digest, backendType.name());
+        update(digest, deviceIdentity);
+        update(digest, meta.getCompilerFlags(backendType));
+        update(digest, describe(method));
+        update(digest, bytecodeHash(method));
+
+        // Values specialised by the compiler
+        Object[] arguments = task.getArguments();
+        IdentityHashMap<Object, Boolean> visited = new IdentityHashMap<>();
+        for (Object argument : arguments) {
+            updateSpecialisedValue(digest, argument, 0, visited);
+        }
+        update(digest, Long.toString(meta.getNumThreads()));
+        update(digest, Long.toString(task.getBatchThreads()));
+        update(digest, Integer.toString(task.getBatchNumber()));
+        update(digest, Long.toString(task.getBatchSize()));
+        update(digest, Boolean.toString(meta.isGridSchedulerEnabled()));
+        update(digest, Boolean.toString(meta.isWorkerGridAvailable()));
+
+        // Options that change the code generation
+        TreeMap<String, String> options = new TreeMap<>();
+        String taskPrefix = meta.getId() + ".";
+        for (String property : System.getProperties().stringPropertyNames()) {
+            if ((property.startsWith("tornado.") && !property.startsWith(CACHE_OPTIONS_PREFIX)) || property.startsWith(taskPrefix)) {
+                options.put(property, System.getProperty(property));
+            }
+        }
+        options.forEach((property, value) -> {
+            update(digest, property);
+            update(digest, value);
+        });
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Looks up a kernel in the cache. The entry is discarded if the bytecode of
+     * any of the methods inlined into the kernel has changed since it was
+     * stored.
+     *
+     * @param key
+     *     Key computed with {@link #computeKey}.
+     * @param classLoader
+     *     Class loader used to resolve the inlined methods.
+     * @return the cached kernel, or null if there is no valid entry.
+     */
+    public CachedKernel load(String key, ClassLoader classLoader) {
+        Path entry = directory.resolve(key + ENTRY_SUFFIX);
+        if (!Files.exists(entry)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != FORMAT_MAGIC || in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                throw new IOException("unexpected header");
+            }
+            String entryPoint = in.readUTF();
+            DomainTree domain = readDomain(in);
+            int numDependencies = in.readInt();
+            for (int i = 0; i < numDependencies; i++) {
+                String className = in.readUTF();
+                String methodName = in.readUTF();
+                String descriptor = in.readUTF();
+                String codeHash = in.readUTF();
+                if (!isDependencyUnchanged(className, methodName, descriptor, codeHash, classLoader)) {
+                    logger.debug("Kernel cache entry %s is stale: %s.%s%s has changed", key, className, methodName, descriptor);
+                    misses.incrementAndGet();
+                    return null;
+                }
+            }
+            byte[] code = readBytes(in);
+            byte[] binary = readBytes(in);
+
+            // Refresh the access time used by the LRU eviction
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            logger.debug("Kernel cache hit for %s (%s)", entryPoint, key);
+            return new CachedKernel(entryPoint, domain, code, binary);
+        } catch (NoSuchFileException e) {
+            // Evicted by another process
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Discarding corrupted kernel cache entry %s: %s", entry, e.getMessage());
+            deleteQuietly(entry);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Stores a kernel in the cache.
+     *
+     * @param key
+     *     Key computed with {@link #computeKey}.
+     * @param kernel
+     *     Generated code, device binary and parallel domain of the kernel.
+     * @param methods
+     *     Methods that were compiled into the kernel, including the inlined ones.
+     */
+    public void store(String key, CachedKernel kernel, ResolvedJavaMethod[] methods) {
+        if (kernel.domain() != null && !isSerializable(kernel.domain())) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            Set<ResolvedJavaMethod> dependencies = new LinkedHashSet<>();
+            if (methods != null) {
+                dependencies.addAll(Arrays.asList(methods));
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FORMAT_MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                out.writeUTF(kernel.entryPoint());
+                writeDomain(out, kernel.domain());
+                out.writeInt(dependencies.size());
+                for (ResolvedJavaMethod method : dependencies) {
+                    out.writeUTF(method.getDeclaringClass().toJavaName());
+                    out.writeUTF(method.getName());
+                    out.writeUTF(method.getSignature().toMethodDescriptor());
+                    out.writeUTF(bytecodeHash(method));
+                }
+                writeBytes(out, kernel.code());
+                writeBytes(out, kernel.binary());
+            }
+            Path entry = directory.resolve(key + ENTRY_SUFFIX);
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            logger.debug("Kernel %s stored in the kernel cache (%s)", kernel.entryPoint(), key);
+            evictLeastRecentlyUsed();
+        } catch (IOException e) {
+            logger.warn("Unable to store kernel %s in the kernel cache: %s", kernel.entryPoint(), e.getMessage());
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void evictLeastRecentlyUsed() throws IOException {
+        record CacheFile(Path path, long size, long lastModified) {
+        }
+        List<CacheFile> entries = new ArrayList<>();
+        long totalSize = 0;
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                long lastModified = attributes.lastModifiedTime().toMillis();
+                if (fileName.endsWith(ENTRY_SUFFIX)) {
+                    entries.add(new CacheFile(path, attributes.size(), lastModified));
+                    totalSize += attributes.size();
+                } else if (fileName.endsWith(TEMP_SUFFIX) && now - lastModified > STALE_TEMP_FILE_MILLIS) {
+                    // Left behind by a writer that did not complete
+                    deleteQuietly(path);
+                }
+            }
+        }
+        if (totalSize <= maxSizeInBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparingLong(CacheFile::lastModified));
+        for (CacheFile entry : entries) {
+            if (totalSize <= maxSizeInBytes) {
+                break;
+            }
+            deleteQuietly(entry.path());
+            totalSize -= entry.size();
+            logger.debug("Evicted %s from the kernel cache", entry.path().getFileName());
+        }
+    }
+
+    private boolean isDependencyUnchanged(String className, String methodName, String descriptor, String codeHash, ClassLoader classLoader) {
+        Class<?> klass;
+        try {
+            klass = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+        ResolvedJavaType type = TornadoCoreRuntime.getTornadoRuntime().getMetaAccess().lookupJavaType(klass);
+        List<ResolvedJavaMethod> candidates = new ArrayList<>(Arrays.asList(type.getDeclaredMethods()));
+        candidates.addAll(Arrays.asList(type.getDeclaredConstructors()));
+        for (ResolvedJavaMethod candidate : candidates) {
+            if (candidate.getName().equals(methodName) && candidate.getSignature().toMethodDescriptor().equals(descriptor)) {
+                return bytecodeHash(candidate).equals(codeHash);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds to the key the values that the compiler reads from a task argument:
+     * scalar values, array lengths and the primitive and final fields of
+     * objects.
+     */
+    private static void updateSpecialisedValue(MessageDigest digest, Object value, int depth, IdentityHashMap<Object, Boolean> visited) {
+        if (value == null) {
+            update(digest, "null");
+            return;
+        }
+        Class<?> klass = value.getClass();
+        update(digest, klass.getName());
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof String || value instanceof Enum<?>) {
+            update(digest, value.toString());
+        } else if (klass.isArray()) {
+            update(digest, Integer.toString(Array.getLength(value)));
+        } else if (depth < MAX_SPECIALISATION_DEPTH && !isPlatformClass(klass) && visited.put(value, Boolean.TRUE) == null) {
+            for (Class<?> current = klass; current != null && !isPlatformClass(current); current = current.getSuperclass()) {
+                Field[] fields = current.getDeclaredFields();
+                Arrays.sort(fields, Comparator.comparing(Field::getName));
+                for (Field field : fields) {
+                    if (Modifier.isStatic(field.getModifiers()) || !(field.getType().isPrimitive() || Modifier.isFinal(field.getModifiers()))) {
+                        continue;
+                    }
+                    update(digest, field.getName());
+                    try {
+                        field.setAccessible(true);
+                        updateSpecialisedValue(digest, field.get(value), depth + 1, visited);
+                    } catch (IllegalAccessException | RuntimeException e) {
+                        update(digest, "?");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Identifies the build that provides a class: the version of its module or
+     * jar, and the location and timestamp of the jar, which change when
+     * TornadoVM or Graal are rebuilt from the same version.
+     */
+    private static String buildOf(Class<?> klass) {
+        StringBuilder build = new StringBuilder(klass.getName());
+        if (klass.getModule().getDescriptor() != null) {
+            klass.getModule().getDescriptor().rawVersion().ifPresent(version -> build.append('@').append(version));
+        }
+        Package classPackage = klass.getPackage();
+        if (classPackage != null && classPackage.getImplementationVersion() != null) {
+            build.append('@').append(classPackage.getImplementationVersion());
+        }
+        CodeSource codeSource = klass.getProtectionDomain().getCodeSource();
+        URL location = codeSource == null ? null : codeSource.getLocation();
+        if (location != null) {
+            build.append('@').append(location);
+            try {
+                Path path = Paths.get(location.toURI());
+                if (Files.isRegularFile(path)) {
+                    build.append('@').append(Files.getLastModifiedTime(path).toMillis());
+                }
+            } catch (URISyntaxException | IOException | RuntimeException e) {
+                // Not a local file: the version and location identify the build
+            }
+        }
+        return build.toString();
+    }
+
+    private static boolean isPlatformClass(Class<?> klass) {
+        String name = klass.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+    }
+
+    private static boolean isSerializable(DomainTree domain) {
+        for (int i = 0; i < domain.getDepth(); i++) {
+            if (!(domain.get(i) instanceof IntDomain)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeDomain(DataOutputStream out, DomainTree domain) throws IOException {
+        if (domain == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(domain.getDepth());
+        for (int i = 0; i < domain.getDepth(); i++) {
+            IntDomain intDomain = (IntDomain) domain.get(i);
+            out.writeInt(intDomain.getOffset());
+            out.writeInt(intDomain.getStep());
+            out.writeInt(intDomain.getLength());
+        }
+    }
+
+    private static DomainTree readDomain(DataInputStream in) throws IOException {
+        int depth = in.readInt();
+        if (depth < 0) {
+            return null;
+        }
+        DomainTree domain = new DomainTree(depth);
+        for (int i = 0; i < depth; i++) {
+            domain.set(i, new IntDomain(in.readInt(), in.readInt(), in.readInt()));
+        }
+        return domain;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static String describe(ResolvedJavaMethod method) {
+        return method.getDeclaringClass().toJavaName() + "." + method.getName() + method.getSignature().toMethodDescriptor();
+    }
+
+    private static String bytecodeHash(ResolvedJavaMethod method) {
+        byte[] code = method.getCode();
+        MessageDigest digest = newDigest();
+        if (code != null) {
+            digest.update(code);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new TornadoRuntimeException("SHA-256 is not available: " + e.getMessage());
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Another process may hold or remove the file
+        }
+    }
+
+    /**
+     * Kernel restored from the cache.
+     *
+     * @param entryPoint
+     *     Name of the kernel function.
+     * @param domain
+     *     Parallel domain computed during compilation, or null.
+     * @param code
+     *     Generated OpenCL C, PTX or SPIR-V code.
+     * @param binary
+     *     Device binary built by the driver, or null if the backend does not
+     *     expose it.
+     */
+    public record CachedKernel(String entryPoint, DomainTree domain, byte[] code, byte[] binary) {
+
+        /**
+         * Restores on the task the information that the compiler would have set.
+         */
+        public void restoreTaskMetaData(TaskDataContext meta, ResolvedJavaMethod method) {
+            meta.setCompiledGraph(method);
+            if (domain != null && meta.getDomain() == null) {
+                meta.setDomain(domain);
+            }
+        }
+    }
+}
@@ -33,6 +33,8 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -302,6 +304,33 @@ public final class RuntimeUtilities {
         System.out.println();
     }
 
+    /**
+     * Returns the CPU time consumed by the current thread in nanoseconds. It falls
+     * back to the elapsed wall time if the JVM does not support thread CPU time.
+     *
+     * @return CPU time in nanoseconds.
+     */
+    public static long getCurrentThreadCpuTime() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+            return threadMXBean.getCurrentThreadCpuTime();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Returns the number of bytes allocated on the heap by the current thread. It
+     * returns 0 if the JVM does not support allocated memory measurement.
+     *
+     * @return Allocated bytes.
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean && threadMXBean.isThreadAllocatedMemorySupported()) {
+            return threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
     public static double elapsedTimeInSeconds(long start, long end) {
         return elapsedTimeInSeconds((end - start));
     }
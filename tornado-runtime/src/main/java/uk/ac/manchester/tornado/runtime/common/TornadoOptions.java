@@ -25,6 +25,8 @@ package uk.ac.manchester.tornado.runtime.common;
 
 import static uk.ac.manchester.tornado.runtime.common.Tornado.getProperty;
 
+import java.nio.file.Paths;
+
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 
 public class TornadoOptions {
@@ -102,6 +104,11 @@ public class TornadoOptions {
      * Option to set the device maximum memory usage. It is set to 1GB by default.
      */
     public static final long DEVICE_AVAILABLE_MEMORY = RuntimeUtilities.parseSize(System.getProperty("tornado.device.memory", "1GB"));
+    /**
+     * Percentage of the available device memory that is left unused when the
+     * batch size is selected automatically. It is set to 10% by default.
+     */
+    public static final int AUTOMATIC_BATCH_HEADROOM = getIntValue("tornado.batch.auto.headroom", "10");
     /**
      * Option to enable exceptions for the OpenCL generated code. This is
      * experimental.
@@ -184,6 +191,14 @@ public class TornadoOptions {
      * Option to redirect profiler output.
      */
     public static final String PROFILER_DIRECTORY = getProperty("tornado.profiler.dump.dir", "");
+    /**
+     * Use the lock-free profiler, which stores the metrics of each task in
+     * arrays indexed by {@link uk.ac.manchester.tornado.api.profiler.ProfilerType}
+     * and creates the JSON report only when it is requested. When it is False,
+     * the synchronized {@link uk.ac.manchester.tornado.runtime.profiler.TimeProfiler}
+     * is used. This option is True by default.
+     */
+    public static final boolean LOCK_FREE_PROFILER = getBooleanValue("tornado.profiler.lockfree", TRUE);
     /**
      * Dump the Control-Flow-Graph with IGV for the compiled-graph after the last
      * phase in the Low-Tier.
@@ -196,6 +211,50 @@ public class TornadoOptions {
      * code. This option is True by default.
      */
     public static final boolean RECOVER_BAILOUT = getBooleanValue("tornado.recover.bailout", TRUE);
+    /**
+     * When recovering from a bailout, split the outermost loop annotated with
+     * {@link uk.ac.manchester.tornado.api.annotations.Parallel} across host
+     * threads instead of running each task single-threaded. This option is True
+     * by default.
+     */
+    public static final boolean HOST_PARALLEL_FALLBACK = getBooleanValue("tornado.recover.bailout.parallel", TRUE);
+    /**
+     * Number of host threads used by the parallel bailout. Default is the number
+     * of available processors.
+     */
+    public static final int HOST_PARALLEL_FALLBACK_THREADS = getIntValue("tornado.recover.bailout.threads", Integer.toString(Runtime.getRuntime().availableProcessors()));
+    /**
+     * Number of consecutive loop iterations that a host thread executes before
+     * moving to its next block. It is rounded down to a power of 2. Default is
+     * 32.
+     */
+    public static final int HOST_PARALLEL_FALLBACK_CHUNK = getIntValue("tornado.recover.bailout.chunk", "32");
+    /**
+     * File with the cost model of the dynamic reconfiguration. When it is set,
+     * the device is selected from the execution times recorded in this file
+     * instead of running the task-graph on all devices. It is not set by default.
+     */
+    public static final String DR_MODEL_FILE = getProperty("tornado.dr.model.file", "");
+    /**
+     * Minimum difference, in percentage, between the predicted costs of the best
+     * and the second best device to select a device from the dynamic
+     * reconfiguration model. Default is 10.
+     */
+    public static final int DR_MODEL_MARGIN = getIntValue("tornado.dr.model.margin", "10");
+    /**
+     * File of the work-group autotuner, with the fastest local work size measured
+     * for each kernel, device and global work size. The autotuner is enabled with
+     * {@code -Dtornado.autotune=true}, or per task with
+     * {@code -Ds0.t0.autotune=true}. It is set to
+     * {@code <java.io.tmpdir>/<user.name>/tornadovm-autotune.tsv} by default.
+     */
+    public static final String AUTOTUNE_FILE = getProperty("tornado.autotune.file", Paths.get(System.getProperty("java.io.tmpdir"), System.getProperty("user.name"), "tornadovm-autotune.tsv")
+            .toString());
+    /**
+     * Number of executions measured for each local work size swept by the
+     * work-group autotuner. The fastest execution is kept. Default is 3.
+     */
+    public static final int AUTOTUNE_SAMPLES = getIntValue("tornado.autotune.samples", "3");
     /**
      * Option to log the IP of the current machine on the profiler logs.
      */
@@ -209,11 +268,30 @@ public class TornadoOptions {
      * Sets the number of threads for the Tornado Sketcher. Default is 4.
      */
     public static final int TORNADO_SKETCHER_THREADS = Integer.parseInt(getProperty("tornado.sketcher.threads", "4"));
+    /**
+     * Option to compile all tasks of an execution plan, on all its devices, concurrently
+     * before the first execution. Default is True.
+     */
+    public static final boolean PARALLEL_COMPILATION = getBooleanValue("tornado.compiler.parallel", TRUE);
+    /**
+     * Sets the number of threads used to compile tasks in parallel. Default is 4.
+     */
+    public static final int TORNADO_COMPILER_THREADS = Integer.parseInt(getProperty("tornado.compiler.threads", "4"));
     /**
      * It enables automatic discovery and parallelization of loops. Please note that
      * this option is experimental and may cause issues if enabled.
      */
     public static final boolean AUTO_PARALLELISATION = getBooleanValue("tornado.parallelise.auto", FALSE);
+    /**
+     * It fuses consecutive tasks that consume the output of the previous task and
+     * have the same parallel iteration space into a single kernel. Default is False.
+     */
+    public static final boolean TASK_FUSION = getBooleanValue("tornado.fusion", FALSE);
+    /**
+     * It shares a single device buffer between the intermediate arrays of a
+     * task-graph whose lifetimes do not overlap. Default is False.
+     */
+    public static final boolean BUFFER_LIVENESS = getBooleanValue("tornado.buffers.liveness", FALSE);
     /**
      * Full Inlining Policy with the TornadoVM JIT compiler. Default is False.
      */
@@ -242,6 +320,17 @@ public class TornadoOptions {
      * Check I/O parameters for every task within a task-graph.
      */
     public static final boolean FORCE_CHECK_PARAMETERS = getBooleanValue("tornado.check.parameters", TRUE);
+    /**
+     * Default execution mode of the TornadoVM bytecodes for all execution plans. If
+     * enabled, the bytecodes are decoded once and executed as a pre-linked sequence
+     * of actions. Plans can override it with withPrelinkedBytecodes().
+     */
+    public static final boolean PRELINKED_BYTECODES = getBooleanValue("tornado.interpreter.prelinked", FALSE);
+    /**
+     * Fails an execution if the bytecode interpreter allocates on the Java heap once
+     * the execution plan has run once. Used to detect regressions in the steady-state path.
+     */
+    public static final boolean CHECK_INTERPRETER_ALLOCATIONS = getBooleanValue("tornado.interpreter.allocation.check", FALSE);
     /**
      * Select Shared Memory allocator for SPIRV-Level Zero implementation.
      */
@@ -441,11 +530,46 @@ public class TornadoOptions {
      */
     public static final boolean ENABLE_OPENCL_PROFILING = getBooleanValue("tornado.opencl.profiling.enable", TRUE);
 
+    /**
+     * Keep released OpenCL device buffers in a size-class pool and reuse them for later allocations. The pool is
+     * drained when an execution plan frees its device memory. Disabled by default.
+     */
+    public static final boolean OPENCL_BUFFER_POOL = getBooleanValue("tornado.opencl.bufferpool.enable", FALSE);
+
+    /**
+     * Maximum number of bytes kept in released OpenCL buffers by the buffer pool. It is set to 256MB by default.
+     * An execution plan configured with {@code withMemoryLimit} lowers this value for its device while it runs.
+     */
+    public static final long OPENCL_BUFFER_POOL_LIMIT = RuntimeUtilities.parseSize(System.getProperty("tornado.opencl.bufferpool.limit", "256MB"));
+
+    /**
+     * Maximum number of command queues (OpenCL command queues, CUDA streams or Level Zero command queues) that each
+     * device creates. Execution plans share these queues, and executions that use the same queue run one after the
+     * other. It is set to 4 by default.
+     */
+    public static final int COMMAND_QUEUE_POOL_SIZE = getIntValue("tornado.device.queues", "4");
+
     /**
      * Enable to dump the generated methods to a file for debugging purposes. Disabled by default.
      */
     public static final boolean DUMP_COMPILED_METHODS = getBooleanValue("tornado.compiled.dump", FALSE);
 
+    /**
+     * Store the generated kernels and device binaries on disk and reuse them across JVM runs. Disabled by default.
+     */
+    public static final boolean PERSISTENT_KERNEL_CACHE = getBooleanValue("tornado.kernel.cache.enable", FALSE);
+
+    /**
+     * Directory of the persistent kernel cache. It is set to {@code <java.io.tmpdir>/<user.name>/tornadovm-kernel-cache} by default.
+     */
+    public static final String PERSISTENT_KERNEL_CACHE_DIR = getProperty("tornado.kernel.cache.dir", Paths.get(System.getProperty("java.io.tmpdir"), System.getProperty("user.name"),
+            "tornadovm-kernel-cache").toString());
+
+    /**
+     * Maximum size of the persistent kernel cache. The least recently used kernels are evicted above this size. It is set to 512MB by default.
+     */
+    public static final long PERSISTENT_KERNEL_CACHE_SIZE = RuntimeUtilities.parseSize(getProperty("tornado.kernel.cache.size", "512MB"));
+
     /**
      * Enable out-of-order execution. False by default.
      */
@@ -54,6 +54,14 @@ public class IntDomain implements Domain {
         return offset;
     }
 
+    public int getStep() {
+        return step;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
     public void setOffset(int offset) {
         this.offset = offset;
     }
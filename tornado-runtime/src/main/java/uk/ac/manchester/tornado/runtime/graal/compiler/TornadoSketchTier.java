@@ -44,6 +44,7 @@ import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoBatchFuncti
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoDataflowAnalysis;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoFullInliningPolicy;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoKernelContextReplacement;
+import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoLoopFusion;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoNativeTypeElimination;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoNumericPromotionPhase;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoPanamaPrivateMemory;
@@ -79,6 +80,7 @@ public class TornadoSketchTier extends PhaseSuite<TornadoSketchTierContext> {
         appendPhase(new TornadoHalfFloatFixedGuardElimination());
         appendPhase(new TornadoNativeTypeElimination());
         appendPhase(new TornadoReduceReplacement());
+        appendPhase(new TornadoLoopFusion());
         appendPhase(new TornadoApiReplacement());
         appendPhase(new TornadoKernelContextReplacement());
         appendPhase(new TornadoAutoParalleliser());
@@ -0,0 +1,944 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graal.phases.sketcher;
+
+import static uk.ac.manchester.tornado.runtime.graal.phases.sketcher.SketchNodes.strip;
+import static uk.ac.manchester.tornado.runtime.graal.phases.sketcher.SketchNodes.writesMemory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeBitMap;
+import org.graalvm.compiler.graph.NodeSourcePosition;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.ProxyNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.LeftShiftNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.NegateNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.calc.ZeroExtendNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.extended.JavaWriteNode;
+import org.graalvm.compiler.nodes.java.AbstractNewObjectNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreFieldNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.nodes.loop.BasicInductionVariable;
+import org.graalvm.compiler.nodes.loop.InductionVariable;
+import org.graalvm.compiler.nodes.loop.LoopEx;
+import org.graalvm.compiler.nodes.loop.LoopsData;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaField;
+
+/**
+ * Memory dependence analysis of the loops of a sketch graph, used by the
+ * {@link TornadoAutoParalleliser} to decide which loops can run in parallel.
+ *
+ * <p>
+ * The subscripts of the accesses to Java arrays and to the segments of the
+ * TornadoVM native arrays are decomposed into affine expressions of the
+ * induction variables and of loop-invariant values. Every pair of accesses to
+ * the same array where one of them is a write is then tested, in both
+ * directions of the loop, with the GCD test and the Banerjee inequalities. The
+ * subscripts of flattened arrays, such as {@code i * n + j}, are split into one
+ * subscript per dimension when the range of {@code j} is bounded by {@code n}.
+ * </p>
+ *
+ * <p>
+ * As with {@code @Parallel} loops, the arguments of a task are assumed not to
+ * alias each other, the rows of Java multi-dimensional arrays are assumed to be
+ * distinct, and the index arithmetic is assumed not to overflow.
+ * </p>
+ */
+final class LoopDependenceAnalysis {
+
+    /**
+     * A dependence from an iteration to a later iteration of the loop.
+     */
+    private static final int LESS_THAN = 1;
+
+    /**
+     * A dependence from an iteration to an earlier iteration of the loop.
+     */
+    private static final int GREATER_THAN = 2;
+
+    private static final int ANY_DIRECTION = LESS_THAN | GREATER_THAN;
+
+    private static final int MAX_TERMS = 16;
+    private static final int MAX_FACTORS = 3;
+    private static final int MAX_DEPTH = 32;
+
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private final StructuredGraph graph;
+    private final LoopsData data;
+    private final Map<LoopBeginNode, LoopInfo> loops = new HashMap<>();
+    private final Map<ValuePhiNode, LoopInfo> inductionVariables = new HashMap<>();
+    private final Map<Object, Integer> symbolIds = new HashMap<>();
+    private final List<Object> symbols = new ArrayList<>();
+
+    LoopDependenceAnalysis(LoopsData data) {
+        this.data = data;
+        this.graph = data.getCFG().graph;
+        for (LoopEx loop : data.loops()) {
+            LoopInfo info = new LoopInfo(loop);
+            loops.put(loop.loopBegin(), info);
+            if (info.hasConstantProgression()) {
+                inductionVariables.put(info.phi, info);
+            }
+        }
+    }
+
+    static String describe(Node node) {
+        NodeSourcePosition position = node.getNodeSourcePosition();
+        if (position != null && position.getMethod() != null) {
+            return node + " (" + position.getMethod().asStackTraceElement(position.getBCI()) + ")";
+        }
+        return node.toString();
+    }
+
+    private static long gcd(long a, long b) {
+        long x = Math.abs(a);
+        long y = Math.abs(b);
+        while (y != 0) {
+            long t = x % y;
+            x = y;
+            y = t;
+        }
+        return x;
+    }
+
+    private int id(Object symbol) {
+        return symbolIds.computeIfAbsent(symbol, key -> {
+            symbols.add(key);
+            return symbols.size() - 1;
+        });
+    }
+
+    /**
+     * Returns a key that identifies the value of a loop-invariant node, so that
+     * two loads of the same field or array length are the same symbol.
+     */
+    private Object symbolKey(ValueNode node) {
+        ValueNode value = strip(node);
+        if (value instanceof LoadFieldNode load && !load.field().isVolatile()) {
+            return new FieldKey(load.field(), load.isStatic() ? null : symbolKey(load.object()));
+        } else if (value instanceof ArrayLengthNode length) {
+            return new LengthKey(symbolKey(length.array()));
+        } else if (value.isJavaConstant()) {
+            return value.asJavaConstant();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the key of the array or segment accessed through a base object, or
+     * {@code null} when the object cannot be identified.
+     */
+    private Object rootKey(ValueNode base) {
+        if (base instanceof ParameterNode || base instanceof LoadFieldNode || base instanceof AbstractNewObjectNode || base.isJavaConstant()) {
+            return symbolKey(base);
+        }
+        return null;
+    }
+
+    private boolean isPrivate(ValueNode object, LoopInfo info) {
+        return strip(object) instanceof AbstractNewObjectNode allocation && info.nodes.isMarked(allocation);
+    }
+
+    /**
+     * Checks if a value does not change during the execution of a loop.
+     */
+    private boolean isInvariant(ValueNode node, LoopInfo info, int depth) {
+        Boolean invariant = info.invariants.get(node);
+        if (invariant != null) {
+            return invariant;
+        }
+        if (depth > MAX_DEPTH) {
+            return false;
+        }
+        boolean result;
+        if (node.isJavaConstant() || node instanceof ParameterNode) {
+            result = true;
+        } else if (node instanceof PhiNode phi) {
+            result = !info.nodes.isMarked(phi.merge());
+        } else if (node instanceof PiNode pi) {
+            result = isInvariant(pi.object(), info, depth + 1);
+        } else if (node instanceof ArrayLengthNode length) {
+            result = isInvariant(length.array(), info, depth + 1);
+        } else if (node instanceof LoadFieldNode load && !load.field().isVolatile()) {
+            // The fields of the objects shared by the iterations are never written in a parallel loop
+            result = load.isStatic() || isInvariant(load.object(), info, depth + 1);
+        } else if (node instanceof FixedNode) {
+            result = !info.nodes.isMarked(node);
+        } else {
+            result = true;
+            for (Node input : node.inputs()) {
+                if (!(input instanceof ValueNode value) || !isInvariant(value, info, depth + 1)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        info.invariants.put(node, result);
+        return result;
+    }
+
+    /**
+     * Returns the loop of an induction variable when it changes during the
+     * execution of the given loop, or {@code null} when it is invariant.
+     */
+    private LoopInfo variableLoop(int id, LoopInfo info) {
+        if (symbols.get(id) instanceof ValuePhiNode phi) {
+            LoopInfo owner = inductionVariables.get(phi);
+            if (owner != null && info.nodes.isMarked(owner.loop.loopBegin())) {
+                return owner;
+            }
+        }
+        return null;
+    }
+
+    private AffineExpression affine(ValueNode node, LoopInfo info) {
+        try {
+            return parse(node, info, 0);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private AffineExpression parse(ValueNode node, LoopInfo info, int depth) {
+        if (depth > MAX_DEPTH) {
+            return null;
+        }
+        if (node.isJavaConstant()) {
+            JavaConstant constant = node.asJavaConstant();
+            return constant.getJavaKind().isNumericInteger() ? AffineExpression.constant(constant.asLong()) : null;
+        }
+        if (node instanceof AddNode add) {
+            return AffineExpression.sum(parse(add.getX(), info, depth + 1), parse(add.getY(), info, depth + 1), 1);
+        } else if (node instanceof SubNode sub) {
+            return AffineExpression.sum(parse(sub.getX(), info, depth + 1), parse(sub.getY(), info, depth + 1), -1);
+        } else if (node instanceof MulNode mul) {
+            return AffineExpression.product(parse(mul.getX(), info, depth + 1), parse(mul.getY(), info, depth + 1));
+        } else if (node instanceof NegateNode negate) {
+            return AffineExpression.sum(AffineExpression.constant(0), parse(negate.getValue(), info, depth + 1), -1);
+        } else if (node instanceof LeftShiftNode shift) {
+            if (shift.getY().isJavaConstant() && shift.getY().asJavaConstant().asLong() >= 0 && shift.getY().asJavaConstant().asLong() < Integer.SIZE) {
+                return AffineExpression.product(parse(shift.getX(), info, depth + 1), AffineExpression.constant(1L << shift.getY().asJavaConstant().asLong()));
+            }
+            return null;
+        } else if (node instanceof SignExtendNode extend) {
+            return parse(extend.getValue(), info, depth + 1);
+        } else if (node instanceof ZeroExtendNode extend) {
+            return parse(extend.getValue(), info, depth + 1);
+        } else if (node instanceof PiNode pi) {
+            return parse(pi.object(), info, depth + 1);
+        } else if (node instanceof ValuePhiNode phi && inductionVariables.containsKey(phi)) {
+            return AffineExpression.symbol(id(phi));
+        } else if (isInvariant(node, info, 0)) {
+            return AffineExpression.symbol(id(symbolKey(node)));
+        }
+        return null;
+    }
+
+    /**
+     * Checks the loop nest rooted at a loop: the method must not write memory
+     * outside of it, since that code would run in every thread.
+     */
+    String checkLoopNest(LoopEx nest) {
+        LoopInfo info = loops.get(nest.loopBegin());
+        for (FixedNode node : graph.getNodes().filter(FixedNode.class)) {
+            if (info.nodes.isMarked(node)) {
+                continue;
+            }
+            if (node instanceof StoreIndexedNode store && strip(store.array()) instanceof AbstractNewObjectNode) {
+                continue;
+            }
+            if (node instanceof StoreFieldNode store && !store.isStatic() && strip(store.object()) instanceof AbstractNewObjectNode) {
+                continue;
+            }
+            if (writesMemory(node)) {
+                return "the method writes memory outside the loop nest at " + describe(node);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the iterations of a loop are independent.
+     *
+     * @param loop
+     *     the loop to check.
+     * @param nest
+     *     the outermost loop of the nest that contains the loop.
+     * @return {@code null} if the loop can run in parallel, or the reason why it
+     *     cannot.
+     */
+    String checkParallel(LoopEx loop, LoopEx nest) {
+        LoopInfo info = loops.get(loop.loopBegin());
+        if (info.rejection != null) {
+            return info.rejection;
+        }
+        if (!isInvariant(info.limit(), loops.get(nest.loopBegin()), 0)) {
+            return "the number of iterations changes inside the loop nest";
+        }
+        for (LoopExitNode exit : loop.loopBegin().loopExits()) {
+            for (ProxyNode proxy : exit.proxies()) {
+                for (Node usage : proxy.usages()) {
+                    if (!(usage instanceof FrameState)) {
+                        return "the value " + describe(proxy.value()) + " is used after the loop";
+                    }
+                }
+            }
+        }
+
+        List<Access> accesses = new ArrayList<>();
+        String reason = collectAccesses(info, accesses);
+        if (reason != null) {
+            return reason;
+        }
+        for (int i = 0; i < accesses.size(); i++) {
+            Access a = accesses.get(i);
+            for (int j = i; j < accesses.size(); j++) {
+                Access b = accesses.get(j);
+                if ((a.write() || b.write()) && mayDepend(info, a, b)) {
+                    return "the " + a.description() + " and the " + b.description() + " may access the same element in different iterations";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if an inner loop can also run in parallel with the outer loop: it
+     * must run once in every iteration of the outer loop, and the rest of the
+     * outer loop must not write memory.
+     */
+    String checkPerfectNest(LoopEx outer, LoopEx inner) {
+        LoopInfo outerInfo = loops.get(outer.loopBegin());
+        LoopInfo innerInfo = loops.get(inner.loopBegin());
+        FixedNode node = outerInfo.limitTest.trueSuccessor();
+        while (node instanceof FixedWithNextNode fixed) {
+            node = fixed.next();
+        }
+        if (!(node instanceof EndNode end) || end.merge() != inner.loopBegin()) {
+            return "the inner loop does not run in every iteration of the outer loop";
+        }
+        for (FixedNode fixed : outerInfo.nodes.filter(FixedNode.class)) {
+            if (!innerInfo.nodes.isMarked(fixed) && writesMemory(fixed) && !(fixed instanceof StoreIndexedNode store && isPrivate(store.array(), outerInfo))) {
+                return "the outer loop writes memory outside the inner loop at " + describe(fixed);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the single loop nested in a loop, or {@code null} if the loop
+     * contains no loop or several loops.
+     */
+    LoopEx innerLoop(LoopEx loop) {
+        LoopEx inner = null;
+        for (LoopEx child : data.loops()) {
+            if (child.parent() == loop) {
+                if (inner != null) {
+                    return null;
+                }
+                inner = child;
+            }
+        }
+        return inner;
+    }
+
+    InductionVariable getInductionVariable(LoopEx loop) {
+        return loops.get(loop.loopBegin()).inductionVariable;
+    }
+
+    IntegerLessThanNode getCondition(LoopEx loop) {
+        return loops.get(loop.loopBegin()).condition;
+    }
+
+    private String collectAccesses(LoopInfo info, List<Access> accesses) {
+        for (FixedNode node : info.nodes.filter(FixedNode.class)) {
+            if (node instanceof LoadIndexedNode load) {
+                addArrayAccess(info, accesses, load, load.array(), load.index(), load.elementKind(), false);
+            } else if (node instanceof StoreIndexedNode store) {
+                if (store.elementKind() == JavaKind.Object && !isPrivate(store.array(), info)) {
+                    return "the loop stores object references at " + describe(store);
+                }
+                addArrayAccess(info, accesses, store, store.array(), store.index(), store.elementKind(), true);
+            } else if (node instanceof JavaReadNode read) {
+                addMemoryAccess(info, accesses, read, read.getAddress(), read.getReadKind(), false);
+            } else if (node instanceof JavaWriteNode write) {
+                addMemoryAccess(info, accesses, write, write.getAddress(), write.getWriteKind(), true);
+            } else if (node instanceof StoreFieldNode store) {
+                if (store.isStatic() || !isPrivate(store.object(), info)) {
+                    return "the loop writes the field " + store.field().format("%H.%n") + " at " + describe(store);
+                }
+            } else if (node instanceof Invoke invoke) {
+                return "the loop calls " + invoke.callTarget().targetMethod().format("%H.%n(%p)");
+            } else if (writesMemory(node)) {
+                return "the loop contains the memory operation " + describe(node);
+            }
+        }
+        return null;
+    }
+
+    private void addArrayAccess(LoopInfo info, List<Access> accesses, FixedNode node, ValueNode array, ValueNode index, JavaKind kind, boolean write) {
+        List<ValueNode> subscripts = new ArrayList<>();
+        subscripts.add(index);
+        ValueNode base = strip(array);
+        // Rows of Java multi-dimensional arrays
+        while (base instanceof LoadIndexedNode row) {
+            subscripts.addFirst(row.index());
+            base = strip(row.array());
+        }
+        if (!isPrivate(base, info)) {
+            accesses.add(new Access(node, rootKey(base), subscripts.toArray(new ValueNode[0]), kind, write));
+        }
+    }
+
+    private void addMemoryAccess(LoopInfo info, List<Access> accesses, FixedNode node, AddressNode address, JavaKind kind, boolean write) {
+        if (address instanceof OffsetAddressNode offsetAddress) {
+            ValueNode base = strip(offsetAddress.getBase());
+            if (!isPrivate(base, info)) {
+                accesses.add(new Access(node, rootKey(base), new ValueNode[] { offsetAddress.getOffset() }, kind, write));
+            }
+        } else {
+            accesses.add(new Access(node, null, new ValueNode[0], kind, write));
+        }
+    }
+
+    private boolean mayDepend(LoopInfo info, Access a, Access b) {
+        if (a.root() == null || b.root() == null) {
+            return true;
+        }
+        if (!a.root().equals(b.root()) || a.subscripts().length != b.subscripts().length) {
+            return false;
+        }
+        if (a.kind() != b.kind()) {
+            return true;
+        }
+        int directions = ANY_DIRECTION;
+        for (int i = 0; i < a.subscripts().length && directions != 0; i++) {
+            AffineExpression f = affine(a.subscripts()[i], info);
+            AffineExpression g = affine(b.subscripts()[i], info);
+            if (f != null && g != null) {
+                try {
+                    directions &= directions(info, f, g, Set.of());
+                } catch (ArithmeticException e) {
+                    // Keep the dependence
+                }
+            }
+        }
+        return directions != 0;
+    }
+
+    /**
+     * Returns the directions of the loop in which two subscripts can be equal in
+     * different iterations.
+     */
+    private int directions(LoopInfo info, AffineExpression f, AffineExpression g, Set<Integer> unified) {
+        Set<List<Integer>> monomials = new LinkedHashSet<>(f.monomials());
+        monomials.addAll(g.monomials());
+        for (List<Integer> monomial : monomials) {
+            int variables = 0;
+            for (int factor : monomial) {
+                if (variableLoop(factor, info) != null) {
+                    variables++;
+                }
+            }
+            if (variables > 1) {
+                return ANY_DIRECTION;
+            } else if (variables == 1 && monomial.size() > 1) {
+                return delinearize(info, f, g, monomial, unified);
+            }
+        }
+        int directions = 0;
+        if (mayDependForward(info, f, g, unified)) {
+            directions |= LESS_THAN;
+        }
+        if (mayDependForward(info, g, f, unified)) {
+            directions |= GREATER_THAN;
+        }
+        return directions;
+    }
+
+    /**
+     * Splits the subscripts {@code k * n * x + r} of a flattened array into the
+     * subscripts {@code x} and {@code r}, when the range of {@code r} is smaller
+     * than {@code k * n}.
+     */
+    private int delinearize(LoopInfo info, AffineExpression f, AffineExpression g, List<Integer> monomial, Set<Integer> unified) {
+        if (monomial.size() != 2) {
+            return ANY_DIRECTION;
+        }
+        int variable = variableLoop(monomial.get(0), info) != null ? monomial.get(0) : monomial.get(1);
+        int symbol = variable == monomial.get(0) ? monomial.get(1) : monomial.get(0);
+        long coefficient = f.coefficient(monomial);
+        if (coefficient == 0 || coefficient != g.coefficient(monomial) || !isPositive(symbol, f, g)) {
+            return ANY_DIRECTION;
+        }
+
+        AffineExpression restF = f.without(monomial);
+        AffineExpression restG = g.without(monomial);
+        for (List<Integer> term : new ArrayList<>(restF.monomials())) {
+            if (term.contains(symbol) && (term.size() > 1 || restF.coefficient(term) != restG.coefficient(term))) {
+                return ANY_DIRECTION;
+            }
+        }
+        for (List<Integer> term : new ArrayList<>(restG.monomials())) {
+            if (term.contains(symbol) && (term.size() > 1 || restF.coefficient(term) != restG.coefficient(term))) {
+                return ANY_DIRECTION;
+            }
+        }
+
+        // Range of restF - restG as linear functions of the symbol: {constant, factor}
+        long[] lower = { 0, 0 };
+        long[] upper = { 0, 0 };
+        Set<List<Integer>> terms = new LinkedHashSet<>(restF.monomials());
+        terms.addAll(restG.monomials());
+        for (List<Integer> term : terms) {
+            long cf = restF.coefficient(term);
+            long cg = restG.coefficient(term);
+            if (term.isEmpty()) {
+                addRange(lower, upper, new long[] { Math.subtractExact(cf, cg), 0 }, new long[] { Math.subtractExact(cf, cg), 0 });
+                continue;
+            }
+            LoopInfo loop = term.size() == 1 ? variableLoop(term.getFirst(), info) : null;
+            if (loop == null) {
+                // Loop-invariant terms must be the same in both subscripts
+                if (cf != cg || term.stream().anyMatch(factor -> variableLoop(factor, info) != null)) {
+                    return ANY_DIRECTION;
+                }
+                continue;
+            }
+            long[] low = { loop.init(), 0 };
+            long[] high;
+            if (loop.limit() == null) {
+                return ANY_DIRECTION;
+            } else if (loop.limit().isJavaConstant()) {
+                high = new long[] { Math.subtractExact(loop.limit().asJavaConstant().asLong(), 1), 0 };
+            } else if (id(symbolKey(loop.limit())) == symbol) {
+                high = new long[] { -1, 1 };
+            } else {
+                return ANY_DIRECTION;
+            }
+            if (unified.contains(term.getFirst())) {
+                addScaledRange(lower, upper, Math.subtractExact(cf, cg), low, high);
+            } else {
+                addScaledRange(lower, upper, cf, low, high);
+                addScaledRange(lower, upper, Math.negateExact(cg), low, high);
+            }
+        }
+
+        // |restF - restG| < |k| * n for every n >= 1
+        long k = Math.abs(coefficient);
+        boolean bounded = upper[1] - k <= 0 && upper[0] + upper[1] - k < 0 && lower[1] + k >= 0 && lower[0] + lower[1] + k > 0;
+        if (!bounded) {
+            return ANY_DIRECTION;
+        } else if (variableLoop(variable, info) == info) {
+            // Both subscripts use the same iteration of the loop
+            return 0;
+        }
+        Set<Integer> unifiedVariables = new HashSet<>(unified);
+        unifiedVariables.add(variable);
+        return directions(info, restF, restG, unifiedVariables);
+    }
+
+    /**
+     * Checks that a symbol is the limit of a loop, starting at zero or more, that
+     * encloses the accesses. The symbol is then at least 1 when they run.
+     */
+    private boolean isPositive(int symbol, AffineExpression f, AffineExpression g) {
+        Set<List<Integer>> monomials = new LinkedHashSet<>(f.monomials());
+        monomials.addAll(g.monomials());
+        for (List<Integer> monomial : monomials) {
+            for (int factor : monomial) {
+                if (symbols.get(factor) instanceof ValuePhiNode phi) {
+                    LoopInfo loop = inductionVariables.get(phi);
+                    if (loop != null && loop.init() >= 0 && loop.limit() != null && !loop.limit().isJavaConstant() && id(symbolKey(loop.limit())) == symbol) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void addScaledRange(long[] lower, long[] upper, long scale, long[] low, long[] high) {
+        long[] a = { Math.multiplyExact(scale, low[0]), Math.multiplyExact(scale, low[1]) };
+        long[] b = { Math.multiplyExact(scale, high[0]), Math.multiplyExact(scale, high[1]) };
+        if (scale >= 0) {
+            addRange(lower, upper, a, b);
+        } else {
+            addRange(lower, upper, b, a);
+        }
+    }
+
+    private static void addRange(long[] lower, long[] upper, long[] low, long[] high) {
+        lower[0] = Math.addExact(lower[0], low[0]);
+        lower[1] = Math.addExact(lower[1], low[1]);
+        upper[0] = Math.addExact(upper[0], high[0]);
+        upper[1] = Math.addExact(upper[1], high[1]);
+    }
+
+    /**
+     * Checks if {@code f(i1) = g(i2)} has a solution with {@code i1 < i2}, with the
+     * GCD test and the Banerjee inequalities.
+     */
+    private boolean mayDependForward(LoopInfo info, AffineExpression f, AffineExpression g, Set<Integer> unified) {
+        long trips = info.tripCount();
+        if (trips == 0 || trips == 1) {
+            return false;
+        }
+        Equation equation = new Equation();
+        equation.constant = Math.subtractExact(f.coefficient(AffineExpression.CONSTANT), g.coefficient(AffineExpression.CONSTANT));
+
+        // i1 = init + stride * n and i2 = i1 + stride * u, with n >= 0 and u >= 1
+        List<Integer> index = List.of(id(info.phi));
+        long fi = f.coefficient(index);
+        long gi = g.coefficient(index);
+        equation.constant = Math.addExact(equation.constant, Math.multiplyExact(Math.subtractExact(fi, gi), info.init()));
+        equation.add(Math.multiplyExact(Math.subtractExact(fi, gi), info.stride()), 0, trips < 0 ? UNBOUNDED : trips - 2);
+        equation.add(Math.multiplyExact(Math.negateExact(gi), info.stride()), 1, trips < 0 ? UNBOUNDED : trips - 1);
+
+        Set<List<Integer>> monomials = new LinkedHashSet<>(f.monomials());
+        monomials.addAll(g.monomials());
+        for (List<Integer> monomial : monomials) {
+            if (monomial.isEmpty() || monomial.equals(index)) {
+                continue;
+            }
+            long cf = f.coefficient(monomial);
+            long cg = g.coefficient(monomial);
+            LoopInfo inner = monomial.size() == 1 ? variableLoop(monomial.getFirst(), info) : null;
+            if (inner == null) {
+                // Loop-invariant values take any value
+                equation.add(Math.subtractExact(cf, cg), -UNBOUNDED, UNBOUNDED);
+                continue;
+            }
+            long innerTrips = inner.tripCount();
+            long high = innerTrips < 0 ? UNBOUNDED : innerTrips - 1;
+            equation.constant = Math.addExact(equation.constant, Math.multiplyExact(Math.subtractExact(cf, cg), inner.init()));
+            if (unified.contains(monomial.getFirst())) {
+                equation.add(Math.multiplyExact(Math.subtractExact(cf, cg), inner.stride()), 0, high);
+            } else {
+                equation.add(Math.multiplyExact(cf, inner.stride()), 0, high);
+                equation.add(Math.multiplyExact(Math.negateExact(cg), inner.stride()), 0, high);
+            }
+        }
+        return equation.hasSolution();
+    }
+
+    /**
+     * A linear equation {@code sum(coefficient * variable) + constant = 0} over
+     * bounded integer variables.
+     */
+    private static final class Equation {
+        private final List<long[]> variables = new ArrayList<>();
+        private long constant;
+        private boolean empty;
+
+        void add(long coefficient, long low, long high) {
+            if (low > high) {
+                empty = true;
+            }
+            variables.add(new long[] { coefficient, low, high });
+        }
+
+        boolean hasSolution() {
+            if (empty) {
+                return false;
+            }
+            // GCD test
+            long divisor = 0;
+            for (long[] variable : variables) {
+                divisor = gcd(divisor, variable[0]);
+            }
+            if (divisor == 0) {
+                return constant == 0;
+            } else if (constant % divisor != 0) {
+                return false;
+            }
+            // Banerjee inequalities
+            long target = Math.negateExact(constant);
+            return lowerBound() <= target && target <= upperBound();
+        }
+
+        private long lowerBound() {
+            long bound = 0;
+            for (long[] variable : variables) {
+                long limit = variable[0] >= 0 ? variable[1] : variable[2];
+                if (variable[0] == 0) {
+                    continue;
+                } else if (Math.abs(limit) == UNBOUNDED) {
+                    return -UNBOUNDED;
+                }
+                try {
+                    bound = Math.addExact(bound, Math.multiplyExact(variable[0], limit));
+                } catch (ArithmeticException e) {
+                    return -UNBOUNDED;
+                }
+            }
+            return bound;
+        }
+
+        private long upperBound() {
+            long bound = 0;
+            for (long[] variable : variables) {
+                long limit = variable[0] >= 0 ? variable[2] : variable[1];
+                if (variable[0] == 0) {
+                    continue;
+                } else if (Math.abs(limit) == UNBOUNDED) {
+                    return UNBOUNDED;
+                }
+                try {
+                    bound = Math.addExact(bound, Math.multiplyExact(variable[0], limit));
+                } catch (ArithmeticException e) {
+                    return UNBOUNDED;
+                }
+            }
+            return bound;
+        }
+    }
+
+    /**
+     * A polynomial over the induction variables and the loop-invariant values,
+     * with each monomial a sorted list of symbol ids.
+     */
+    private static final class AffineExpression {
+        static final List<Integer> CONSTANT = List.of();
+
+        private final Map<List<Integer>, Long> terms = new HashMap<>();
+
+        static AffineExpression constant(long value) {
+            AffineExpression expression = new AffineExpression();
+            expression.add(CONSTANT, value);
+            return expression;
+        }
+
+        static AffineExpression symbol(int id) {
+            AffineExpression expression = new AffineExpression();
+            expression.add(List.of(id), 1);
+            return expression;
+        }
+
+        static AffineExpression sum(AffineExpression a, AffineExpression b, long scale) {
+            if (a == null || b == null) {
+                return null;
+            }
+            AffineExpression expression = new AffineExpression();
+            a.terms.forEach(expression::add);
+            b.terms.forEach((monomial, coefficient) -> expression.add(monomial, Math.multiplyExact(coefficient, scale)));
+            return expression.terms.size() > MAX_TERMS ? null : expression;
+        }
+
+        static AffineExpression product(AffineExpression a, AffineExpression b) {
+            if (a == null || b == null) {
+                return null;
+            }
+            AffineExpression expression = new AffineExpression();
+            for (Map.Entry<List<Integer>, Long> x : a.terms.entrySet()) {
+                for (Map.Entry<List<Integer>, Long> y : b.terms.entrySet()) {
+                    if (x.getKey().size() + y.getKey().size() > MAX_FACTORS) {
+                        return null;
+                    }
+                    List<Integer> monomial = new ArrayList<>(x.getKey());
+                    monomial.addAll(y.getKey());
+                    monomial.sort(null);
+                    expression.add(List.copyOf(monomial), Math.multiplyExact(x.getValue(), y.getValue()));
+                }
+            }
+            return expression.terms.size() > MAX_TERMS ? null : expression;
+        }
+
+        private void add(List<Integer> monomial, long coefficient) {
+            long sum = Math.addExact(coefficient(monomial), coefficient);
+            if (sum == 0) {
+                terms.remove(monomial);
+            } else {
+                terms.put(monomial, sum);
+            }
+        }
+
+        long coefficient(List<Integer> monomial) {
+            return terms.getOrDefault(monomial, 0L);
+        }
+
+        Set<List<Integer>> monomials() {
+            return terms.keySet();
+        }
+
+        AffineExpression without(List<Integer> monomial) {
+            AffineExpression expression = new AffineExpression();
+            expression.terms.putAll(terms);
+            expression.terms.remove(monomial);
+            return expression;
+        }
+    }
+
+    private record FieldKey(ResolvedJavaField field, Object object) {
+    }
+
+    private record LengthKey(Object array) {
+    }
+
+    private record Access(FixedNode node, Object root, ValueNode[] subscripts, JavaKind kind, boolean write) {
+        String description() {
+            return (write ? "write " : "read ") + describe(node);
+        }
+    }
+
+    /**
+     * The induction variable and the exit condition of a loop.
+     */
+    private final class LoopInfo {
+        private final LoopEx loop;
+        private final NodeBitMap nodes;
+        private final Map<Node, Boolean> invariants = new HashMap<>();
+        private InductionVariable inductionVariable;
+        private ValuePhiNode phi;
+        private IfNode limitTest;
+        private IntegerLessThanNode condition;
+        private final String rejection;
+
+        LoopInfo(LoopEx loop) {
+            this.loop = loop;
+            this.nodes = loop.whole().nodes();
+            this.rejection = analyseHeader();
+        }
+
+        private String analyseHeader() {
+            LoopBeginNode loopBegin = loop.loopBegin();
+            List<InductionVariable> basicInductionVariables = new ArrayList<>();
+            for (InductionVariable iv : loop.getInductionVariables().getValues()) {
+                if (iv instanceof BasicInductionVariable && iv.valueNode() instanceof ValuePhiNode valuePhi && valuePhi.merge() == loopBegin) {
+                    basicInductionVariables.add(iv);
+                }
+            }
+            if (basicInductionVariables.size() != 1) {
+                return basicInductionVariables.isEmpty() ? "the loop has no induction variable" : "the loop has more than one induction variable";
+            }
+            inductionVariable = basicInductionVariables.getFirst();
+            phi = (ValuePhiNode) inductionVariable.valueNode();
+            if (!inductionVariable.isConstantInit() || !inductionVariable.isConstantStride() || inductionVariable.constantStride() <= 0) {
+                phi = null;
+                return "the induction variable does not start at a constant or does not grow by a constant";
+            }
+            findLimitTest(loopBegin);
+
+            for (PhiNode other : loopBegin.phis()) {
+                if (other != phi && other instanceof ValuePhiNode) {
+                    return "the value " + describe(other) + " is carried between iterations";
+                }
+            }
+            if (condition == null) {
+                return "the exit condition is not i < n at the start of the loop";
+            } else if (loopBegin.loopExits().count() != 1) {
+                return "the loop has more than one exit";
+            }
+            return null;
+        }
+
+        private void findLimitTest(LoopBeginNode loopBegin) {
+            for (Node usage : phi.usages()) {
+                if (usage instanceof IntegerLessThanNode lessThan && lessThan.getX() == phi) {
+                    for (Node ifUsage : lessThan.usages()) {
+                        if (ifUsage instanceof IfNode ifNode && ifNode.falseSuccessor() instanceof LoopExitNode exit && exit.loopBegin() == loopBegin && isLoopHeader(ifNode, loopBegin)) {
+                            limitTest = ifNode;
+                            condition = lessThan;
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Checks that a test runs at the start of every iteration.
+         */
+        private boolean isLoopHeader(IfNode ifNode, LoopBeginNode loopBegin) {
+            FixedNode node = loopBegin;
+            while (node instanceof FixedWithNextNode fixed) {
+                node = fixed.next();
+            }
+            return node == ifNode;
+        }
+
+        boolean hasConstantProgression() {
+            return phi != null;
+        }
+
+        long init() {
+            return inductionVariable.constantInit();
+        }
+
+        long stride() {
+            return inductionVariable.constantStride();
+        }
+
+        ValueNode limit() {
+            return condition != null ? condition.getY() : null;
+        }
+
+        /**
+         * Returns the number of iterations, or -1 if it is not a constant.
+         */
+        long tripCount() {
+            ValueNode limit = limit();
+            if (limit == null || !limit.isJavaConstant()) {
+                return -1;
+            }
+            long end = limit.asJavaConstant().asLong();
+            return end <= init() ? 0 : (end - init() + stride() - 1) / stride();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graal.phases.sketcher;
+
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.memory.MemoryKill;
+
+import uk.ac.manchester.tornado.runtime.graal.nodes.StoreAtomicIndexedNode;
+import uk.ac.manchester.tornado.runtime.graal.nodes.WriteAtomicNode;
+
+/**
+ * Queries on the nodes of a sketch shared by the loop analyses of the sketcher.
+ */
+final class SketchNodes {
+
+    private SketchNodes() {
+    }
+
+    /**
+     * Returns the value behind a chain of {@link PiNode}s.
+     */
+    static ValueNode strip(ValueNode node) {
+        ValueNode value = node;
+        while (value instanceof PiNode pi) {
+            value = pi.object();
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether a fixed node may write memory. Calls and atomic updates are
+     * treated as writes.
+     */
+    static boolean writesMemory(FixedNode node) {
+        if (node instanceof AbstractBeginNode || node instanceof JavaReadNode || node instanceof LoadFieldNode) {
+            return false;
+        }
+        return node instanceof Invoke || node instanceof StoreAtomicIndexedNode || node instanceof WriteAtomicNode || MemoryKill.isMemoryKill(node);
+    }
+}
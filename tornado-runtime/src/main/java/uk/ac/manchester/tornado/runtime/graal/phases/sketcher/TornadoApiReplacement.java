@@ -91,14 +91,14 @@ public class TornadoApiReplacement extends BasePhase<TornadoSketchTierContext> {
     }
 
     private void replaceLocalAnnotations(StructuredGraph graph, TornadoSketchTierContext context) throws TornadoCompilationException {
-        Map<Node, ParallelAnnotationProvider> parallelNodes = getAnnotatedNodes(graph, context);
+        Map<Node, ParallelAnnotationProvider> parallelNodes = getAnnotatedNodes(graph, context.getMethod());
         addParallelProcessingNodes(graph, parallelNodes, context.getDevice());
     }
 
-    private Map<Node, ParallelAnnotationProvider> getAnnotatedNodes(StructuredGraph graph, TornadoSketchTierContext context) {
+    static Map<Node, ParallelAnnotationProvider> getAnnotatedNodes(StructuredGraph graph, ResolvedJavaMethod method) {
         Map<ResolvedJavaMethod, ParallelAnnotationProvider[]> methodToAnnotations = new HashMap<>();
 
-        methodToAnnotations.put(context.getMethod(), asmClassVisitorProvider.getParallelAnnotations(context.getMethod()));
+        methodToAnnotations.put(method, asmClassVisitorProvider.getParallelAnnotations(method));
 
         for (ResolvedJavaMethod resolvedJavaMethod : graph.getMethods()) {
             ParallelAnnotationProvider[] inlineParallelAnnotations = asmClassVisitorProvider.getParallelAnnotations(resolvedJavaMethod);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, 2024 APT Group, Department of Computer Science,
+ * Copyright (c) 2020, 2024, 2025 APT Group, Department of Computer Science,
  * School of Engineering, The University of Manchester. All rights reserved.
  * Copyright (c) 2018, 2020, APT Group, Department of Computer Science,
  * The University of Manchester. All rights reserved.
@@ -23,18 +23,14 @@
  */
 package uk.ac.manchester.tornado.runtime.graal.phases.sketcher;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
-import org.graalvm.collections.EconomicMap;
-import org.graalvm.compiler.graph.Node;
 import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.GraphState;
-import org.graalvm.compiler.nodes.LoopBeginNode;
-import org.graalvm.compiler.nodes.PhiNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.ValuePhiNode;
@@ -44,8 +40,11 @@ import org.graalvm.compiler.nodes.loop.LoopEx;
 import org.graalvm.compiler.nodes.loop.LoopsData;
 import org.graalvm.compiler.phases.BasePhase;
 
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoCompilationException;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.analyzer.CodeAnalysis;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelOffsetNode;
@@ -53,9 +52,21 @@ import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelStrideNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.TornadoLoopsData;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoSketchTierContext;
-
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+
+/**
+ * Parallelises the loops of a task without {@code @Parallel} annotations
+ * ({@code -Dtornado.parallelise.auto=true}). Starting from the outermost loop
+ * of the single loop nest of the method, up to three nested loops are turned
+ * into parallel loops while {@link LoopDependenceAnalysis} proves that their
+ * iterations are independent. The loops that stay sequential are reported with
+ * the reason in the debug output.
+ */
 public class TornadoAutoParalleliser extends BasePhase<TornadoSketchTierContext> {
 
+    private static final int MAX_PARALLEL_DIMENSIONS = 3;
+
     private TornadoLogger logger = new TornadoLogger(this.getClass());
 
     @Override
@@ -69,82 +80,122 @@ public class TornadoAutoParalleliser extends BasePhase<TornadoSketchTierContext>
             logger.info("auto parallelisation disabled");
             return;
         }
-        autoParallelise(graph);
+        autoParallelise(graph, context);
     }
 
-    private void autoParallelise(StructuredGraph graph) {
-        if (graph.hasLoops()) {
-            final LoopsData data = new TornadoLoopsData(graph);
-            data.detectCountedLoops();
-
-            final List<LoopEx> loops = data.outerFirst();
+    private void reportSequential(StructuredGraph graph, LoopEx loop, String reason) {
+        logger.warn("[AutoParalleliser] %s: loop %s is not parallelised: %s", graph.method().format("%H.%n"), LoopDependenceAnalysis.describe(loop.loopBegin()), reason);
+    }
 
-            // is single loop nest?
-            for (int i = loops.size() - 1; i > 1; i--) {
-                if (loops.get(i).parent() != loops.get(i - 1)) {
-                    logger.info("method %s does not have a single loop-nest", graph.method().getName());
-                    return;
-                }
-            }
+    /**
+     * Returns the number of nested loops of a method that the dependence analysis
+     * proves parallel, starting from the outermost loop. The method is parsed
+     * without inlining and is not changed, so the analysis can be checked without
+     * a device.
+     *
+     * @param method
+     *     Method with a single loop nest.
+     * @return the number of parallel loops, or 0 if the method cannot be parsed
+     *     or its outermost loop must stay sequential.
+     */
+    public static int getParallelDepth(Method method) {
+        final StructuredGraph graph = CodeAnalysis.buildHighLevelGraalGraph(method);
+        if (graph == null || !graph.hasLoops()) {
+            return 0;
+        }
+        final LoopsData data = new TornadoLoopsData(graph);
+        data.detectCountedLoops();
+        return new TornadoAutoParalleliser().findParallelLoops(graph, data, new LoopDependenceAnalysis(data)).size();
+    }
 
-            int parallelDepth = 0;
-            for (int i = 0; i < loops.size() && parallelDepth < 3; i++) {
-                final LoopEx current = loops.get(0);
-                final LoopBeginNode loopBegin = current.loopBegin();
-                final EconomicMap<Node, InductionVariable> ivMap = current.getInductionVariables();
-
-                logger.info("%s loop info:\n", loopBegin);
-                final Set<Node> phis = new HashSet<>();
-                for (PhiNode phi : loopBegin.phis()) {
-                    logger.info("\tphi: %s\n", phi);
-                    phis.add(phi);
-                }
+    /**
+     * Returns the number of parallel dimensions of the sketch of a method that was
+     * compiled as a task on a device. Unlike {@link #getParallelDepth(Method)},
+     * the sketch is built with the graph builder plugins of the backend, so the
+     * accesses to {@link uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray}
+     * objects are analysed as memory reads and writes.
+     *
+     * @param method
+     *     Method of a task that has been compiled.
+     * @param backendIndex
+     *     Index of the backend of the task.
+     * @param deviceIndex
+     *     Index of the device of the task within its backend.
+     * @return the number of parallel loops of the sketch.
+     */
+    public static int getParallelDepth(Method method, int backendIndex, int deviceIndex) {
+        final Sketch sketch = TornadoSketcher.lookup(TornadoCoreRuntime.getTornadoRuntime().resolveMethod(method), backendIndex, deviceIndex);
+        return (int) sketch.getGraph().getNodes().filter(ParallelRangeNode.class).snapshot().stream().mapToInt(ParallelRangeNode::index).distinct().count();
+    }
 
-                List<InductionVariable> ivs = new ArrayList<>();
-                for (Node n : ivMap.getKeys()) {
-                    logger.info("\tiv: node=%s iv=%s\n", n, ivMap.get(n));
-                    phis.remove(n);
-                    ivs.add(ivMap.get(n));
-                }
+    /**
+     * Returns the loops that can run in parallel, outermost first. The loops that
+     * stay sequential are reported.
+     */
+    private List<LoopEx> findParallelLoops(StructuredGraph graph, LoopsData data, LoopDependenceAnalysis analysis) {
+        final List<LoopEx> loopNests = data.outerFirst().stream().filter(loop -> loop.parent() == null).toList();
+        if (loopNests.size() > 1) {
+            reportSequential(graph, loopNests.getFirst(), "the method has " + loopNests.size() + " loop nests");
+            return List.of();
+        }
 
-                if (!phis.isEmpty()) {
-                    logger.info("unable to parallelise because of loop-dependencies:\n");
-                    for (Node n : phis) {
-                        PhiNode phi = (PhiNode) n;
-                        StringBuilder sb = new StringBuilder();
-                        for (ValueNode value : phi.values()) {
-                            if (value.getNodeSourcePosition() != null) {
-                                sb.append(value.getNodeSourcePosition().toString());
-                            }
-                            sb.append("\n");
-                        }
-                        logger.info("\tnode %s updated:\n", n);
-                        logger.info(sb.toString().trim());
-                    }
-                    throw new TornadoBailoutRuntimeException("unable to parallelise because of loop-dependencies.");
-                }
+        final LoopEx loopNest = loopNests.getFirst();
+        String reason = analysis.checkLoopNest(loopNest);
+        if (reason != null) {
+            reportSequential(graph, loopNest, reason);
+            return List.of();
+        }
 
-                if (ivs.size() > 1) {
-                    logger.debug("Too many ivs");
-                    return;
+        final List<LoopEx> parallelLoops = new ArrayList<>();
+        LoopEx loop = loopNest;
+        while (loop != null && parallelLoops.size() < MAX_PARALLEL_DIMENSIONS) {
+            reason = analysis.checkParallel(loop, loopNest);
+            if (reason != null) {
+                reportSequential(graph, loop, reason);
+                break;
+            }
+            parallelLoops.add(loop);
+
+            final LoopEx inner = analysis.innerLoop(loop);
+            if (inner != null && parallelLoops.size() < MAX_PARALLEL_DIMENSIONS) {
+                reason = analysis.checkPerfectNest(loop, inner);
+                if (reason != null) {
+                    reportSequential(graph, inner, reason);
+                    break;
                 }
+            }
+            loop = inner;
+        }
+        return parallelLoops;
+    }
 
-                final InductionVariable iv = ivs.getFirst();
-                ValueNode maxIterations;
+    private void autoParallelise(StructuredGraph graph, TornadoSketchTierContext context) {
+        if (graph.hasLoops()) {
+            final LoopsData data = new TornadoLoopsData(graph);
+            data.detectCountedLoops();
 
-                List<IntegerLessThanNode> conditions = iv.valueNode().usages().filter(IntegerLessThanNode.class).snapshot();
-                final IntegerLessThanNode lessThan = conditions.getFirst();
-                maxIterations = lessThan.getY();
+            final LoopDependenceAnalysis analysis = new LoopDependenceAnalysis(data);
+            final List<LoopEx> parallelLoops = new ArrayList<>(findParallelLoops(graph, data, analysis));
 
-                parallelizationReplacement(graph, iv, parallelDepth, maxIterations, conditions);
+            // Parallel loops are processed in the reversed order, as in the TornadoApiReplacement, to map the innermost loop to the first dimension
+            if (context.getDevice().getDeviceType() != TornadoDeviceType.CPU && TornadoOptions.TORNADO_LOOP_INTERCHANGE) {
+                Collections.reverse(parallelLoops);
+            }
 
+            int parallelDepth = 0;
+            for (LoopEx parallelLoop : parallelLoops) {
+                logger.info("%s loop info: iv=%s\n", parallelLoop.loopBegin(), analysis.getInductionVariable(parallelLoop));
+                final IntegerLessThanNode condition = analysis.getCondition(parallelLoop);
+                parallelizationReplacement(graph, analysis.getInductionVariable(parallelLoop), parallelDepth, condition.getY(), condition);
                 parallelDepth++;
             }
-            logger.info("automatically parallelised %s (%dD kernel)\n", graph.method().getName(), parallelDepth);
+            if (parallelDepth > 0) {
+                logger.info("automatically parallelised %s (%dD kernel)\n", graph.method().getName(), parallelDepth);
+            }
         }
     }
 
-    private void parallelizationReplacement(StructuredGraph graph, InductionVariable iv, int parallelDepth, ValueNode maxIterations, List<IntegerLessThanNode> conditions)
+    private void parallelizationReplacement(StructuredGraph graph, InductionVariable iv, int parallelDepth, ValueNode maxIterations, IntegerLessThanNode condition)
             throws TornadoCompilationException {
         if (iv.isConstantInit() && iv.isConstantStride()) {
             final ConstantNode newInit = graph.addWithoutUnique(ConstantNode.forInt((int) iv.constantInit()));
@@ -170,7 +221,7 @@ public class TornadoAutoParalleliser extends BasePhase<TornadoSketchTierContext>
             iv.strideNode().replaceAtMatchingUsages(stride, node -> node.equals(oldStride));
 
             // only replace this node in the loop condition
-            maxIterations.replaceAtMatchingUsages(range, node -> node.equals(conditions.get(0)));
+            maxIterations.replaceAtMatchingUsages(range, node -> node.equals(condition));
 
         } else {
             throw new TornadoBailoutRuntimeException("Failed to parallelize because of non-constant loop strides. \nSequential code will run on the device.");
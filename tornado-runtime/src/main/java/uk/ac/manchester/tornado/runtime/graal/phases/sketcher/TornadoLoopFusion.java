@@ -0,0 +1,904 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graal.phases.sketcher;
+
+import static uk.ac.manchester.tornado.runtime.graal.phases.sketcher.SketchNodes.strip;
+import static uk.ac.manchester.tornado.runtime.graal.phases.sketcher.SketchNodes.writesMemory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeBitMap;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.BeginNode;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedGuardNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GraphState;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.ProxyNode;
+import org.graalvm.compiler.nodes.ReturnNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.ValueProxyNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.LeftShiftNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.NegateNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.calc.ZeroExtendNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.extended.JavaWriteNode;
+import org.graalvm.compiler.nodes.java.AbstractNewObjectNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreFieldNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.nodes.loop.LoopEx;
+import org.graalvm.compiler.nodes.loop.LoopsData;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaField;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.graal.nodes.TornadoLoopsData;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoSketchTierContext;
+
+/**
+ * Merges the parallel loops of the tasks inlined into a fused kernel.
+ *
+ * <p>
+ * A fused kernel is a generated method that calls a producer task and its
+ * consumers one after the other (see {@code TornadoTaskFusion}). Once the
+ * calls are inlined, the graph contains one nest of {@code @Parallel} loops per
+ * task. When the nests have the same iteration space, and every array that is
+ * written by one task and accessed by another is accessed by all of them at the
+ * same element of the iteration space, the bodies of the nests are merged into
+ * the loops of the first task. The work of each thread is then the work of the
+ * same thread in every task, in order, so the merged kernel is equivalent to
+ * launching the tasks one after the other.
+ * </p>
+ *
+ * <p>
+ * After the merge, the reads of an element that is stored earlier in the same
+ * iteration take the stored value, and the stores to the parameters that are
+ * not needed after the kernel are removed, so that the runtime does not have
+ * to allocate a device buffer for them.
+ * </p>
+ */
+public class TornadoLoopFusion extends BasePhase<TornadoSketchTierContext> {
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+    private static final int MAX_DEPTH = 32;
+
+    private static final Map<ResolvedJavaMethod, FusedKernel> fusedKernels = new ConcurrentHashMap<>();
+
+    private final TornadoLogger logger = new TornadoLogger(this.getClass());
+
+    /**
+     * Registers a fused kernel before it is sketched.
+     *
+     * @param method
+     *     the generated method that calls the tasks.
+     * @param parameterValues
+     *     for each parameter, the value of a primitive, the number of elements
+     *     of an array, or {@link Long#MIN_VALUE} when it is not known.
+     * @param deadParameters
+     *     the parameters whose contents are not needed after the kernel.
+     * @return the kernel, which holds the result of the fusion once the method
+     *     is sketched.
+     */
+    public static FusedKernel registerFusedKernel(ResolvedJavaMethod method, long[] parameterValues, BitSet deadParameters) {
+        FusedKernel kernel = new FusedKernel(parameterValues, deadParameters);
+        fusedKernels.put(method, kernel);
+        return kernel;
+    }
+
+    public static void unregisterFusedKernel(ResolvedJavaMethod method) {
+        fusedKernels.remove(method);
+    }
+
+    @Override
+    public Optional<NotApplicable> notApplicableTo(GraphState graphState) {
+        return ALWAYS_APPLICABLE;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, TornadoSketchTierContext context) {
+        FusedKernel kernel = fusedKernels.get(context.getMethod());
+        if (kernel == null) {
+            return;
+        }
+        Set<Node> parallelNodes = TornadoApiReplacement.getAnnotatedNodes(graph, context.getMethod()).keySet();
+        String rejection = new LoopMerger(graph, parallelNodes, kernel).merge();
+        if (rejection != null) {
+            logger.info("[TaskFusion] %s is not fused: %s", graph.method().getName(), rejection);
+            kernel.setResult(rejection, new BitSet());
+            return;
+        }
+        CanonicalizerPhase.create().apply(graph, context);
+
+        BitSet unusedParameters = new BitSet();
+        for (int index = kernel.deadParameters.nextSetBit(0); index >= 0; index = kernel.deadParameters.nextSetBit(index + 1)) {
+            ParameterNode parameter = graph.getParameter(index);
+            if (parameter == null || parameter.usages().filter(usage -> !(usage instanceof FrameState)).isEmpty()) {
+                unusedParameters.set(index);
+            }
+        }
+        logger.info("[TaskFusion] fused the loops of %s, unused parameters: %s", graph.method().getName(), unusedParameters);
+        kernel.setResult(null, unusedParameters);
+    }
+
+    /**
+     * The result of the fusion of a kernel.
+     */
+    public static final class FusedKernel {
+        private final long[] parameterValues;
+        private final BitSet deadParameters;
+        private volatile String rejection = "the kernel has not been sketched";
+        private volatile BitSet unusedParameters = new BitSet();
+
+        private FusedKernel(long[] parameterValues, BitSet deadParameters) {
+            this.parameterValues = parameterValues.clone();
+            this.deadParameters = (BitSet) deadParameters.clone();
+        }
+
+        private void setResult(String rejection, BitSet unusedParameters) {
+            this.unusedParameters = unusedParameters;
+            this.rejection = rejection;
+        }
+
+        /**
+         * Returns why the loops of the tasks were not merged, or {@code null} if
+         * they were.
+         */
+        public String getRejection() {
+            return rejection;
+        }
+
+        /**
+         * Returns the parameters that are no longer accessed by the kernel.
+         */
+        public BitSet getUnusedParameters() {
+            return (BitSet) unusedParameters.clone();
+        }
+    }
+
+    private static void moveBefore(FixedWithNextNode node, FixedNode anchor) {
+        FixedNode next = node.next();
+        node.setNext(null);
+        node.replaceAtPredecessor(next);
+        anchor.replaceAtPredecessor(node);
+        node.setNext(anchor);
+    }
+
+    /**
+     * A loop of the form {@code for (i = c; i < n; i += s)}, where the test is
+     * the first control-flow node of the loop.
+     */
+    private static final class Loop {
+        private final LoopBeginNode begin;
+        private final ValuePhiNode phi;
+        private final List<FixedWithNextNode> header;
+        private final IfNode test;
+        private final LoopExitNode exit;
+        private final LoopEndNode end;
+        private final long init;
+        private final long stride;
+
+        private Loop(LoopBeginNode begin, ValuePhiNode phi, List<FixedWithNextNode> header, IfNode test, LoopExitNode exit, long init, long stride) {
+            this.begin = begin;
+            this.phi = phi;
+            this.header = header;
+            this.test = test;
+            this.exit = exit;
+            this.end = begin.loopEnds().first();
+            this.init = init;
+            this.stride = stride;
+        }
+
+        private ValueNode limit() {
+            return ((IntegerLessThanNode) test.condition()).getY();
+        }
+
+        private FixedNode body() {
+            return test.trueSuccessor();
+        }
+
+        static Loop analyse(LoopBeginNode begin) {
+            if (begin.forwardEndCount() != 1 || begin.loopEnds().count() != 1 || begin.loopExits().count() != 1 || begin.phis().count() != 1) {
+                return null;
+            }
+            if (!(begin.phis().first() instanceof ValuePhiNode phi) || !phi.getStackKind().isNumericInteger()) {
+                return null;
+            }
+            List<FixedWithNextNode> header = new ArrayList<>();
+            FixedNode node = begin.next();
+            while (node instanceof LoadFieldNode || node instanceof ArrayLengthNode) {
+                if (node instanceof LoadFieldNode load && load.field().isVolatile()) {
+                    return null;
+                }
+                header.add((FixedWithNextNode) node);
+                node = ((FixedWithNextNode) node).next();
+            }
+            if (!(node instanceof IfNode test) || !(test.condition() instanceof IntegerLessThanNode condition) || condition.getX() != phi) {
+                return null;
+            }
+            if (!(test.falseSuccessor() instanceof LoopExitNode exit) || exit.loopBegin() != begin) {
+                return null;
+            }
+            for (ProxyNode proxy : exit.proxies()) {
+                if (!(proxy instanceof ValueProxyNode)) {
+                    return null;
+                }
+            }
+            ValueNode init = phi.valueAt(begin.forwardEnd());
+            ValueNode backValue = phi.valueAt(begin.loopEnds().first());
+            if (!init.isJavaConstant() || !(backValue instanceof AddNode add)) {
+                return null;
+            }
+            ValueNode increment = add.getX() == phi ? add.getY() : add.getY() == phi ? add.getX() : null;
+            if (increment == null || !increment.isJavaConstant() || increment.asJavaConstant().asLong() <= 0) {
+                return null;
+            }
+            return new Loop(begin, phi, header, test, exit, init.asJavaConstant().asLong(), increment.asJavaConstant().asLong());
+        }
+    }
+
+    private record Access(int nest, FixedNode node, int root, List<ResolvedJavaField> path, ValueNode subscript, JavaKind kind, boolean write, ValueNode value) {
+    }
+
+    /**
+     * Merges the loop nests of a graph.
+     */
+    private static final class LoopMerger {
+        private final StructuredGraph graph;
+        private final Set<Node> parallelNodes;
+        private final long[] parameterValues;
+        private final BitSet deadParameters;
+        private final List<List<Loop>> nests = new ArrayList<>();
+        private final List<NodeBitMap> nestNodes = new ArrayList<>();
+        private final Map<ValuePhiNode, Integer> dimensions = new HashMap<>();
+        private final List<Access> accesses = new ArrayList<>();
+        private final Map<FixedNode, Access> accessOf = new HashMap<>();
+        private final Set<Integer> sharedRoots = new HashSet<>();
+        private final List<List<List<FixedWithNextNode>>> segments = new ArrayList<>();
+        private LoopsData data;
+        private int depth;
+        private long[] strides;
+        private long[] trips;
+
+        LoopMerger(StructuredGraph graph, Set<Node> parallelNodes, FusedKernel kernel) {
+            this.graph = graph;
+            this.parallelNodes = parallelNodes;
+            this.parameterValues = kernel.parameterValues;
+            this.deadParameters = kernel.deadParameters;
+        }
+
+        /**
+         * Merges the loops, or returns why they cannot be merged.
+         */
+        String merge() {
+            if (graph.getInvokes().iterator().hasNext()) {
+                return "not all the tasks have been inlined";
+            }
+            data = new TornadoLoopsData(graph);
+            String rejection = collectNests();
+            if (rejection == null) {
+                rejection = checkIterationSpaces();
+            }
+            if (rejection == null) {
+                rejection = checkAccesses();
+            }
+            if (rejection == null) {
+                rejection = collectSegments();
+            }
+            if (rejection != null) {
+                return rejection;
+            }
+            for (int nest = 1; nest < nests.size(); nest++) {
+                for (int level = 0; level < depth; level++) {
+                    Loop first = nests.getFirst().get(level);
+                    for (FixedWithNextNode node : segments.get(nest).get(level)) {
+                        moveBefore(node, first.begin.forwardEnd());
+                    }
+                    mergeLoops(first, nests.get(nest).get(level));
+                }
+            }
+            forwardStores();
+            removeDeadParameters();
+            return null;
+        }
+
+        private String collectNests() {
+            FixedNode node = graph.start();
+            while (!(node instanceof ReturnNode)) {
+                if (node instanceof EndNode end && end.merge() instanceof LoopBeginNode loopBegin) {
+                    Loop loop = Loop.analyse(loopBegin);
+                    if (loop == null) {
+                        return "the loop " + LoopDependenceAnalysis.describe(loopBegin) + " is not of the form for (i = c; i < n; i += s)";
+                    } else if (!parallelNodes.contains(loop.phi)) {
+                        return "the loop " + LoopDependenceAnalysis.describe(loopBegin) + " is not a parallel loop";
+                    }
+                    String rejection = collectNest(loop);
+                    if (rejection != null) {
+                        return rejection;
+                    }
+                    node = loop.exit.next();
+                } else if (node instanceof FixedWithNextNode fixed) {
+                    node = fixed.next();
+                } else {
+                    return "the control flow between the loops of the tasks is not straight-line code at " + LoopDependenceAnalysis.describe(node);
+                }
+            }
+            if (nests.size() < 2) {
+                return "the tasks do not have one parallel loop nest each";
+            }
+            depth = nests.getFirst().size();
+            for (List<Loop> nest : nests) {
+                if (nest.size() != depth) {
+                    return "the tasks do not have the same number of parallel dimensions";
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Collects the perfectly nested parallel loops of a nest, outermost first.
+         */
+        private String collectNest(Loop outer) {
+            List<Loop> nest = new ArrayList<>();
+            nest.add(outer);
+            Loop current = outer;
+            while (true) {
+                FixedNode node = current.body();
+                while (node instanceof FixedWithNextNode fixed) {
+                    node = fixed.next();
+                }
+                if (!(node instanceof EndNode end) || !(end.merge() instanceof LoopBeginNode innerBegin)) {
+                    break;
+                }
+                Loop inner = Loop.analyse(innerBegin);
+                if (inner == null || !parallelNodes.contains(inner.phi)) {
+                    break;
+                }
+                FixedNode after = inner.exit.next();
+                while (after instanceof FixedWithNextNode fixed) {
+                    after = fixed.next();
+                }
+                if (after != current.end) {
+                    break;
+                }
+                nest.add(inner);
+                current = inner;
+            }
+
+            NodeBitMap nodes = data.loop(outer.begin).whole().nodes();
+            for (LoopEx loop : data.loops()) {
+                boolean parallel = loop.loopBegin().phis().filter(parallelNodes::contains).isNotEmpty();
+                if (parallel && nodes.isMarked(loop.loopBegin()) && nest.stream().noneMatch(candidate -> candidate.begin == loop.loopBegin())) {
+                    return "the parallel loops of a task are not perfectly nested at " + LoopDependenceAnalysis.describe(loop.loopBegin());
+                }
+            }
+            for (int level = 0; level < nest.size(); level++) {
+                dimensions.put(nest.get(level).phi, level);
+            }
+            nests.add(nest);
+            nestNodes.add(nodes);
+            return null;
+        }
+
+        private String checkIterationSpaces() {
+            strides = new long[depth];
+            trips = new long[depth];
+            for (int level = 0; level < depth; level++) {
+                Loop first = nests.getFirst().get(level);
+                long limit = evaluate(first.limit(), 0);
+                if (limit == UNKNOWN) {
+                    return "the number of iterations of the loop " + LoopDependenceAnalysis.describe(first.begin) + " is not known";
+                }
+                for (List<Loop> nest : nests) {
+                    Loop loop = nest.get(level);
+                    if (loop.init != first.init || loop.stride != first.stride || evaluate(loop.limit(), 0) != limit) {
+                        return "the loops " + LoopDependenceAnalysis.describe(first.begin) + " and " + LoopDependenceAnalysis.describe(loop.begin) + " do not have the same iteration space";
+                    }
+                }
+                strides[level] = first.stride;
+                trips[level] = limit <= first.init ? 0 : (limit - first.init + first.stride - 1) / first.stride;
+            }
+            return null;
+        }
+
+        private int nestOf(Node node) {
+            for (int nest = 0; nest < nestNodes.size(); nest++) {
+                if (nestNodes.get(nest).isMarked(node)) {
+                    return nest;
+                }
+            }
+            return -1;
+        }
+
+        private String checkAccesses() {
+            for (FixedNode node : graph.getNodes().filter(FixedNode.class)) {
+                int nest = nestOf(node);
+                if (nest < 0) {
+                    if (writesMemory(node)) {
+                        return "a task writes memory outside its parallel loops at " + LoopDependenceAnalysis.describe(node);
+                    }
+                    continue;
+                }
+                String rejection = null;
+                if (node instanceof LoadIndexedNode load) {
+                    rejection = addAccess(nest, load, load.array(), load.index(), load.elementKind(), false, null);
+                } else if (node instanceof StoreIndexedNode store) {
+                    rejection = addAccess(nest, store, store.array(), store.index(), store.elementKind(), true, store.value());
+                } else if (node instanceof JavaReadNode read) {
+                    rejection = addMemoryAccess(nest, read, read.getAddress(), read.getReadKind(), false, null);
+                } else if (node instanceof JavaWriteNode write) {
+                    rejection = addMemoryAccess(nest, write, write.getAddress(), write.getWriteKind(), true, write.value());
+                } else if (node instanceof StoreFieldNode store) {
+                    if (store.isStatic() || !isPrivate(nest, store.object())) {
+                        rejection = "a task writes the field " + store.field().format("%H.%n");
+                    }
+                } else if (writesMemory(node)) {
+                    rejection = "a task contains the memory operation " + LoopDependenceAnalysis.describe(node);
+                }
+                if (rejection != null) {
+                    return rejection;
+                }
+            }
+
+            Map<Integer, List<Access>> accessesByRoot = new HashMap<>();
+            for (Access access : accesses) {
+                accessesByRoot.computeIfAbsent(access.root(), root -> new ArrayList<>()).add(access);
+            }
+            for (Map.Entry<Integer, List<Access>> entry : accessesByRoot.entrySet()) {
+                List<Access> rootAccesses = entry.getValue();
+                boolean written = rootAccesses.stream().anyMatch(Access::write);
+                boolean shared = rootAccesses.stream().mapToInt(Access::nest).distinct().count() > 1;
+                if (!written || !shared) {
+                    continue;
+                }
+                Access first = rootAccesses.getFirst();
+                long[] reference = linear(first.subscript(), 0);
+                if (reference == null || !isInjective(reference)) {
+                    return "the element of parameter " + entry.getKey() + " accessed at " + LoopDependenceAnalysis.describe(first.node()) + " is not a distinct element per thread";
+                }
+                for (Access access : rootAccesses) {
+                    if (!access.path().equals(first.path()) || access.kind() != first.kind() || !Arrays.equals(linear(access.subscript(), 0), reference)) {
+                        return "the tasks access parameter " + entry.getKey() + " at different elements: " + LoopDependenceAnalysis.describe(first.node()) + " and "
+                                + LoopDependenceAnalysis.describe(access.node());
+                    }
+                }
+                sharedRoots.add(entry.getKey());
+            }
+            return null;
+        }
+
+        private boolean isPrivate(int nest, ValueNode object) {
+            return strip(object) instanceof AbstractNewObjectNode allocation && nestNodes.get(nest).isMarked(allocation);
+        }
+
+        private String addAccess(int nest, FixedNode node, ValueNode array, ValueNode index, JavaKind kind, boolean write, ValueNode value) {
+            if (isPrivate(nest, array)) {
+                return null;
+            }
+            List<ResolvedJavaField> path = new ArrayList<>();
+            ValueNode base = strip(array);
+            while (base instanceof LoadFieldNode load && !load.isStatic() && !load.field().isVolatile()) {
+                path.addFirst(load.field());
+                base = strip(load.object());
+            }
+            if (!(base instanceof ParameterNode parameter)) {
+                return "a task accesses memory that is not reachable from its parameters at " + LoopDependenceAnalysis.describe(node);
+            }
+            Access access = new Access(nest, node, parameter.index(), path, index, kind, write, value);
+            accesses.add(access);
+            accessOf.put(node, access);
+            return null;
+        }
+
+        private String addMemoryAccess(int nest, FixedNode node, AddressNode address, JavaKind kind, boolean write, ValueNode value) {
+            if (!(address instanceof OffsetAddressNode offsetAddress)) {
+                return "a task accesses memory through the address " + LoopDependenceAnalysis.describe(address);
+            }
+            return addAccess(nest, node, offsetAddress.getBase(), offsetAddress.getOffset(), kind, write, value);
+        }
+
+        /**
+         * Checks that different threads of the merged loops access different
+         * elements through a linear subscript.
+         */
+        private boolean isInjective(long[] subscript) {
+            List<long[]> steps = new ArrayList<>();
+            try {
+                for (int level = 0; level < depth; level++) {
+                    long step = Math.abs(Math.multiplyExact(subscript[level + 1], strides[level]));
+                    if (trips[level] > 1) {
+                        if (step == 0) {
+                            return false;
+                        }
+                        steps.add(new long[] { step, trips[level] });
+                    }
+                }
+                steps.sort(Comparator.comparingLong(step -> step[0]));
+                long span = 0;
+                for (long[] step : steps) {
+                    if (step[0] <= span) {
+                        return false;
+                    }
+                    span = Math.addExact(span, Math.multiplyExact(step[0], step[1] - 1));
+                }
+            } catch (ArithmeticException e) {
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Decomposes a value into a constant (element 0) plus a multiple of the
+         * index of each parallel dimension, or returns {@code null}.
+         */
+        private long[] linear(ValueNode value, int level) {
+            if (level > MAX_DEPTH) {
+                return null;
+            }
+            ValueNode node = strip(value);
+            try {
+                if (node instanceof ValuePhiNode phi && dimensions.containsKey(phi)) {
+                    long[] result = new long[depth + 1];
+                    result[dimensions.get(phi) + 1] = 1;
+                    return result;
+                } else if (node instanceof AddNode add) {
+                    return combine(linear(add.getX(), level + 1), linear(add.getY(), level + 1), 1);
+                } else if (node instanceof SubNode sub) {
+                    return combine(linear(sub.getX(), level + 1), linear(sub.getY(), level + 1), -1);
+                } else if (node instanceof NegateNode negate) {
+                    return scale(linear(negate.getValue(), level + 1), -1);
+                } else if (node instanceof MulNode mul) {
+                    long[] x = linear(mul.getX(), level + 1);
+                    long[] y = linear(mul.getY(), level + 1);
+                    if (x == null || y == null) {
+                        return null;
+                    }
+                    return isConstant(x) ? scale(y, x[0]) : isConstant(y) ? scale(x, y[0]) : null;
+                } else if (node instanceof LeftShiftNode shift) {
+                    long[] distance = linear(shift.getY(), level + 1);
+                    if (distance == null || !isConstant(distance) || distance[0] < 0 || distance[0] >= 31) {
+                        return null;
+                    }
+                    return scale(linear(shift.getX(), level + 1), 1L << distance[0]);
+                } else if (node instanceof SignExtendNode extend) {
+                    return linear(extend.getValue(), level + 1);
+                } else if (node instanceof ZeroExtendNode extend) {
+                    return linear(extend.getValue(), level + 1);
+                }
+            } catch (ArithmeticException e) {
+                return null;
+            }
+            long constant = evaluate(node, level + 1);
+            if (constant == UNKNOWN) {
+                return null;
+            }
+            long[] result = new long[depth + 1];
+            result[0] = constant;
+            return result;
+        }
+
+        private static boolean isConstant(long[] form) {
+            for (int i = 1; i < form.length; i++) {
+                if (form[i] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long[] combine(long[] x, long[] y, long factor) {
+            if (x == null || y == null) {
+                return null;
+            }
+            long[] result = new long[x.length];
+            for (int i = 0; i < x.length; i++) {
+                result[i] = Math.addExact(x[i], Math.multiplyExact(factor, y[i]));
+            }
+            return result;
+        }
+
+        private static long[] scale(long[] x, long factor) {
+            if (x == null) {
+                return null;
+            }
+            long[] result = new long[x.length];
+            for (int i = 0; i < x.length; i++) {
+                result[i] = Math.multiplyExact(x[i], factor);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the value of a node with the values of the parameters of this
+         * launch, or {@link #UNKNOWN}.
+         */
+        private long evaluate(ValueNode value, int level) {
+            ValueNode node = strip(value);
+            if (node.isJavaConstant()) {
+                JavaConstant constant = node.asJavaConstant();
+                return constant.getJavaKind().isNumericInteger() ? constant.asLong() : UNKNOWN;
+            } else if (node instanceof ParameterNode parameter) {
+                return parameter.getStackKind().isNumericInteger() ? parameterValues[parameter.index()] : UNKNOWN;
+            } else if (node instanceof LoadFieldNode load && !load.isStatic() && load.field().getName().equals("numberOfElements") && strip(load.object()) instanceof ParameterNode parameter) {
+                return parameterValues[parameter.index()];
+            } else if (node instanceof ArrayLengthNode length && strip(length.array()) instanceof ParameterNode parameter) {
+                return parameterValues[parameter.index()];
+            } else if (node instanceof PhiNode || level > MAX_DEPTH) {
+                return UNKNOWN;
+            }
+            long[] form = linear(node, level);
+            return form != null && isConstant(form) ? form[0] : UNKNOWN;
+        }
+
+        /**
+         * Collects the code between the loops of consecutive nests, which is moved
+         * before the loops of the first nest.
+         */
+        private String collectSegments() {
+            segments.add(List.of());
+            for (int nest = 1; nest < nests.size(); nest++) {
+                List<List<FixedWithNextNode>> nestSegments = new ArrayList<>();
+                for (int level = 0; level < depth; level++) {
+                    Loop previous = nests.get(nest - 1).get(level);
+                    Loop loop = nests.get(nest).get(level);
+                    List<FixedWithNextNode> segment = new ArrayList<>();
+                    if (level == 0) {
+                        collectStraightLine(previous.exit.next(), loop.begin.forwardEnd(), segment);
+                    } else {
+                        collectStraightLine(previous.exit.next(), nests.get(nest - 1).get(level - 1).end, segment);
+                        collectStraightLine(nests.get(nest).get(level - 1).body(), loop.begin.forwardEnd(), segment);
+                    }
+                    segment.addAll(loop.header);
+
+                    NodeBitMap forbidden = data.loop(previous.begin).whole().nodes();
+                    NodeBitMap loopNodes = data.loop(loop.begin).whole().nodes();
+                    for (FixedWithNextNode node : segment) {
+                        boolean movable = node.getClass() == BeginNode.class || node instanceof ArrayLengthNode || node instanceof FixedGuardNode
+                                || (node instanceof LoadFieldNode load && !load.field().isVolatile());
+                        if (!movable || !isHoistable(node, segment, forbidden, loopNodes)) {
+                            return "the code " + LoopDependenceAnalysis.describe(node) + " between the loops of the tasks cannot be moved";
+                        }
+                    }
+                    nestSegments.add(segment);
+                }
+                segments.add(nestSegments);
+            }
+            return null;
+        }
+
+        private static void collectStraightLine(FixedNode start, FixedNode stop, List<FixedWithNextNode> segment) {
+            FixedNode node = start;
+            while (node != stop) {
+                FixedWithNextNode fixed = (FixedWithNextNode) node;
+                segment.add(fixed);
+                node = fixed.next();
+            }
+        }
+
+        /**
+         * Checks that the inputs of a node do not depend on the loops between
+         * which it is moved.
+         */
+        private boolean isHoistable(Node node, List<FixedWithNextNode> segment, NodeBitMap previousLoop, NodeBitMap loop) {
+            List<Node> worklist = new ArrayList<>();
+            Set<Node> visited = new HashSet<>();
+            node.inputs().forEach(worklist::add);
+            while (!worklist.isEmpty()) {
+                Node input = worklist.removeLast();
+                if (!visited.add(input) || segment.contains(input) || input instanceof FrameState) {
+                    continue;
+                }
+                if (input instanceof ProxyNode || previousLoop.isMarked(input) || loop.isMarked(input)) {
+                    return false;
+                }
+                if (!(input instanceof FixedNode) && !(input instanceof PhiNode)) {
+                    input.inputs().forEach(worklist::add);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Moves the body of the second loop to the end of the body of the first
+         * one, and removes the second loop.
+         */
+        private void mergeLoops(Loop first, Loop second) {
+            assert first.exit.next() == second.begin.forwardEnd() : "the code between the loops has not been moved";
+            second.phi.replaceAtUsages(first.phi);
+
+            FixedNode body = second.body();
+            second.test.setTrueSuccessor(null);
+            FixedWithNextNode firstTail = (FixedWithNextNode) first.end.predecessor();
+            FixedWithNextNode secondTail = (FixedWithNextNode) second.end.predecessor();
+            firstTail.setNext(body);
+            secondTail.setNext(first.end);
+
+            FixedNode continuation = second.exit.next();
+            second.exit.setNext(null);
+            first.exit.setNext(continuation);
+            for (ProxyNode proxy : second.exit.proxies().snapshot()) {
+                ValueProxyNode valueProxy = (ValueProxyNode) proxy;
+                ValueProxyNode newProxy = graph.addOrUnique(new ValueProxyNode(valueProxy.value(), first.exit));
+                valueProxy.replaceAtUsagesAndDelete(newProxy);
+            }
+            FrameState state = second.exit.stateAfter();
+            FrameState oldState = first.exit.stateAfter();
+            second.exit.setStateAfter(null);
+            first.exit.setStateAfter(state);
+            GraphUtil.tryKillUnused(oldState);
+            second.exit.replaceAtUsages(first.exit);
+
+            ValueNode backValue = second.phi.valueAt(second.end);
+            second.phi.safeDelete();
+            GraphUtil.tryKillUnused(backValue);
+            second.end.safeDelete();
+            EndNode forwardEnd = second.begin.forwardEnd();
+            second.begin.removeEnd(forwardEnd);
+            forwardEnd.safeDelete();
+
+            ValueNode condition = second.test.condition();
+            second.begin.setNext(null);
+            second.test.clearSuccessors();
+            second.test.safeDelete();
+            GraphUtil.tryKillUnused(condition);
+            second.exit.safeDelete();
+            FrameState loopState = second.begin.stateAfter();
+            second.begin.setStateAfter(null);
+            second.begin.safeDelete();
+            GraphUtil.tryKillUnused(loopState);
+        }
+
+        /**
+         * Replaces the reads of an element that is stored earlier in the same
+         * iteration with the stored value.
+         */
+        private void forwardStores() {
+            for (Access read : accesses) {
+                if (read.write() || !sharedRoots.contains(read.root()) || read.node().isDeleted() || !isForwardable(read.kind())) {
+                    continue;
+                }
+                Access write = findStore(read);
+                if (write != null && write.value().getStackKind() == read.node().getStackKind()) {
+                    read.node().replaceAtUsages(write.value());
+                    graph.removeFixed((FixedWithNextNode) read.node());
+                }
+            }
+        }
+
+        private static boolean isForwardable(JavaKind kind) {
+            return kind == JavaKind.Int || kind == JavaKind.Long || kind == JavaKind.Float || kind == JavaKind.Double;
+        }
+
+        private Access findStore(Access read) {
+            Node node = read.node().predecessor();
+            while (node instanceof FixedWithNextNode fixed) {
+                if (fixed instanceof LoopBeginNode || fixed instanceof LoopExitNode || (fixed instanceof AbstractBeginNode && !(fixed.predecessor() instanceof FixedWithNextNode))) {
+                    return null;
+                }
+                Access access = accessOf.get(fixed);
+                if (access != null && access.write()) {
+                    if (access.root() == read.root()) {
+                        return access.path().equals(read.path()) && access.kind() == read.kind() ? access : null;
+                    }
+                } else if (access == null && writesMemory(fixed)) {
+                    return null;
+                }
+                node = fixed.predecessor();
+            }
+            return null;
+        }
+
+        /**
+         * Removes the stores to the parameters whose contents are not needed after
+         * the kernel, when the kernel no longer reads them.
+         */
+        private void removeDeadParameters() {
+            for (int index = deadParameters.nextSetBit(0); index >= 0; index = deadParameters.nextSetBit(index + 1)) {
+                int root = index;
+                ParameterNode parameter = graph.getParameter(index);
+                if (parameter == null || accesses.stream().anyMatch(access -> access.root() == root && !access.write() && !access.node().isDeleted())) {
+                    continue;
+                }
+                for (Access access : accesses) {
+                    if (access.root() == root && access.write() && !access.node().isDeleted()) {
+                        GraphUtil.removeFixedWithUnusedInputs((FixedWithNextNode) access.node());
+                    }
+                }
+                removeUnusedLoads(parameter, parameterValues[index]);
+            }
+        }
+
+        /**
+         * Replaces the sizes of a parameter with their value and removes the loads
+         * from the parameter that are no longer used.
+         */
+        private void removeUnusedLoads(ParameterNode parameter, long size) {
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                List<Node> worklist = new ArrayList<>(parameter.usages().snapshot());
+                while (!worklist.isEmpty()) {
+                    Node node = worklist.removeLast();
+                    if (node.isDeleted()) {
+                        continue;
+                    }
+                    if (node instanceof PiNode pi) {
+                        worklist.addAll(pi.usages().snapshot());
+                    } else if (node instanceof LoadFieldNode load && !load.field().isVolatile()) {
+                        boolean isSize = load.field().getName().equals("numberOfElements") && strip(load.object()) == parameter;
+                        if (isSize && size != UNKNOWN && load.getStackKind() == JavaKind.Int && load.hasUsages()) {
+                            load.replaceAtUsages(ConstantNode.forInt((int) size, graph));
+                        }
+                        if (load.hasNoUsages()) {
+                            GraphUtil.removeFixedWithUnusedInputs(load);
+                            changed = true;
+                        } else {
+                            worklist.addAll(load.usages().snapshot());
+                        }
+                    } else if (node instanceof ArrayLengthNode length && length.hasNoUsages()) {
+                        GraphUtil.removeFixedWithUnusedInputs(length);
+                        changed = true;
+                    }
+                }
+            }
+        }
+    }
+}
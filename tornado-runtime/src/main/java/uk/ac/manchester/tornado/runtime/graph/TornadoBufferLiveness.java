@@ -0,0 +1,236 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.graph.nodes.AbstractNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.AllocateNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.BlockingCopyOutNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.CopyInNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.CopyOutNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.DependentReadNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.OnDeviceObjectNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.PersistedObjectNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.StreamInNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.TaskNode;
+import uk.ac.manchester.tornado.runtime.tasks.LocalObjectState;
+
+/**
+ * Liveness analysis of the device buffers of a {@link TornadoGraph}.
+ *
+ * <p>
+ * An intermediate object is an array that is only passed between the tasks of
+ * the task-graph: it is neither copied to nor from the host, it is not
+ * persisted on the device, and the first task that uses it writes it without
+ * reading it. An intermediate object is live from its first to its last task.
+ * Intermediate objects of the same type, size and access whose live ranges do
+ * not overlap are assigned to the same device buffer. The first object of each
+ * buffer owns it, and the TornadoVM interpreter binds the other objects to the
+ * buffer of their owner when the buffers are allocated.
+ * </p>
+ *
+ * <p>
+ * The tasks run in the order of the bytecodes, so the analysis is only applied
+ * to task-graphs that run on a single device, without batches, and without
+ * out-of-order execution. The buffers of the intermediate objects are kept
+ * between executions, so it also requires the reuse of device buffers.
+ * </p>
+ */
+public final class TornadoBufferLiveness {
+
+    private static final TornadoLogger logger = new TornadoLogger(TornadoBufferLiveness.class);
+
+    private TornadoBufferLiveness() {
+    }
+
+    /**
+     * A device buffer shared by intermediate objects with non-overlapping live
+     * ranges.
+     */
+    private static final class SharedBuffer {
+        private final int owner;
+        private final Class<?> type;
+        private final long size;
+        private final Access access;
+        private int lastTask;
+
+        SharedBuffer(int owner, Class<?> type, long size, Access access, int lastTask) {
+            this.owner = owner;
+            this.type = type;
+            this.size = size;
+            this.access = access;
+            this.lastTask = lastTask;
+        }
+
+        boolean canHold(Class<?> otherType, long otherSize, Access otherAccess, int firstTask) {
+            return type == otherType && size == otherSize && access == otherAccess && lastTask < firstTask;
+        }
+    }
+
+    private static boolean isEnabled(TornadoExecutionContext executionContext) {
+        return TornadoOptions.BUFFER_LIVENESS //
+                && TornadoOptions.isReusedBuffersEnabled() //
+                && !TornadoOptions.VM_USE_DEPS //
+                && executionContext.getBatchSize() == TornadoExecutionContext.INIT_VALUE //
+                && executionContext.getValidContextSize() == 1;
+    }
+
+    /**
+     * Assigns the intermediate objects of a task-graph to shared device buffers.
+     *
+     * @param graph
+     *     The {@link TornadoGraph} of the task-graph.
+     * @param executionContext
+     *     The {@link TornadoExecutionContext} of the task-graph.
+     * @return For each object, the index of the object that owns its device
+     *     buffer, or -1 if the object has its own buffer. The array is empty if
+     *     no buffer is shared.
+     */
+    public static int[] assignBuffers(TornadoGraph graph, TornadoExecutionContext executionContext) {
+        if (!isEnabled(executionContext)) {
+            return new int[0];
+        }
+
+        final List<Object> objects = executionContext.getObjects();
+        final List<LocalObjectState> states = executionContext.getObjectStates();
+        final int numObjects = objects.size();
+
+        final BitSet candidates = new BitSet(numObjects);
+        for (int i = 0; i < numObjects; i++) {
+            final LocalObjectState state = states.get(i);
+            final boolean transferred = state.isStreamIn() || state.isStreamOut() || state.isOnDevice() || state.isUnderDemand() || state.isForcedStreamIn();
+            if (objects.get(i) instanceof TornadoNativeArray && !transferred && !executionContext.getPersistedObjects().contains(objects.get(i))) {
+                candidates.set(i);
+            }
+        }
+
+        final int[] firstTask = new int[numObjects];
+        final int[] lastTask = new int[numObjects];
+        Arrays.fill(firstTask, -1);
+
+        final BitSet nodes = graph.getValid();
+        int taskOrder = 0;
+        for (int i = nodes.nextSetBit(0); i != -1; i = nodes.nextSetBit(i + 1)) {
+            final AbstractNode node = graph.getNode(i);
+            if (node instanceof TaskNode taskNode) {
+                for (int j = 0; j < taskNode.getNumArgs(); j++) {
+                    final AbstractNode arg = taskNode.getArg(j);
+                    final int objectIndex = getObjectIndex(arg);
+                    if (objectIndex == -1) {
+                        continue;
+                    }
+                    if (firstTask[objectIndex] == -1) {
+                        firstTask[objectIndex] = taskOrder;
+                        if (!(arg instanceof AllocateNode)) {
+                            // The first task reads the contents of the object
+                            candidates.clear(objectIndex);
+                        }
+                    }
+                    lastTask[objectIndex] = taskOrder;
+                }
+                taskOrder++;
+            } else if (isTransfer(node)) {
+                candidates.clear(getObjectIndex(node));
+            }
+        }
+
+        final List<Integer> intermediates = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i != -1; i = candidates.nextSetBit(i + 1)) {
+            if (firstTask[i] != -1) {
+                intermediates.add(i);
+            }
+        }
+        intermediates.sort(Comparator.comparingInt(index -> firstTask[index]));
+
+        final int[] owners = new int[numObjects];
+        Arrays.fill(owners, -1);
+        final List<SharedBuffer> buffers = new ArrayList<>();
+        long bytesBefore = 0;
+        long bytesAfter = 0;
+        for (int index : intermediates) {
+            final TornadoNativeArray array = (TornadoNativeArray) objects.get(index);
+            final long size = array.getNumBytesOfSegmentWithHeader();
+            final Access access = executionContext.getObjectsAccesses().get(array);
+            bytesBefore += size;
+
+            SharedBuffer sharedBuffer = null;
+            for (SharedBuffer buffer : buffers) {
+                if (buffer.canHold(array.getClass(), size, access, firstTask[index])) {
+                    sharedBuffer = buffer;
+                    break;
+                }
+            }
+            if (sharedBuffer == null) {
+                buffers.add(new SharedBuffer(index, array.getClass(), size, access, lastTask[index]));
+                bytesAfter += size;
+            } else {
+                owners[index] = sharedBuffer.owner;
+                sharedBuffer.lastTask = lastTask[index];
+            }
+        }
+
+        if (bytesAfter == bytesBefore) {
+            return new int[0];
+        }
+        logger.info("[BufferLiveness] %s: %d intermediate objects use %d device buffers, from %s to %s", executionContext.getId(), intermediates.size(), buffers.size(), RuntimeUtilities
+                .humanReadableByteCount(bytesBefore, true), RuntimeUtilities.humanReadableByteCount(bytesAfter, true));
+        return owners;
+    }
+
+    private static boolean isTransfer(AbstractNode node) {
+        return node instanceof CopyInNode || node instanceof StreamInNode || node instanceof OnDeviceObjectNode || node instanceof CopyOutNode || node instanceof BlockingCopyOutNode
+                || node instanceof PersistedObjectNode;
+    }
+
+    private static int getObjectIndex(AbstractNode node) {
+        if (node instanceof AllocateNode allocateNode) {
+            return allocateNode.getValue().getIndex();
+        } else if (node instanceof CopyInNode copyInNode) {
+            return copyInNode.getValue().getIndex();
+        } else if (node instanceof StreamInNode streamInNode) {
+            return streamInNode.getValue().getIndex();
+        } else if (node instanceof OnDeviceObjectNode onDeviceObjectNode) {
+            return onDeviceObjectNode.getValue().getIndex();
+        } else if (node instanceof DependentReadNode dependentReadNode) {
+            return dependentReadNode.getValue().getIndex();
+        } else if (node instanceof CopyOutNode copyOutNode) {
+            return copyOutNode.getValue().getValue().getIndex();
+        } else if (node instanceof BlockingCopyOutNode blockingCopyOutNode) {
+            return blockingCopyOutNode.getValue().getValue().getIndex();
+        } else if (node instanceof PersistedObjectNode persistedObjectNode) {
+            return persistedObjectNode.getValue().getIndex();
+        }
+        return -1;
+    }
+}
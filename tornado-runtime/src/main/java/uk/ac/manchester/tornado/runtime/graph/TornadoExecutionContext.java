@@ -27,6 +27,7 @@ import java.lang.reflect.Array;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -73,18 +74,24 @@ public class TornadoExecutionContext {
     private ScheduleContext meta;
     private KernelStackFrame[] kernelStackFrame;
     private List<SchedulableTask> tasks;
+    private BitSet fusedTasks;
+    private int[] bufferOwners;
+    private long bufferSharingSavedBytes;
     private List<Object> constants;
     private Map<Integer, Integer> objectMap;
     private HashMap<Object, Access> objectsAccesses;
     private List<Object> objects;
     private List<Object> persistedObjects;
     private Map<String, List<Object>> persistedTaskToObjectsMap;
+    private int persistedObjectsVersion;
 
     private List<LocalObjectState> objectState;
     private List<TornadoXPUDevice> devices;
     private TornadoXPUDevice[] taskToDeviceMapTable;
     private int nextTask;
     private long batchSize;
+    private int batchBufferSlots;
+    private boolean automaticBatch;
     private long executionPlanMemoryLimit;
     private Set<TornadoXPUDevice> lastDevices;
     private boolean redeployOnDevice;
@@ -92,6 +99,7 @@ public class TornadoExecutionContext {
     private boolean isDataDependencyDetected;
     private TornadoProfiler profiler;
     private boolean isPrintKernel;
+    private boolean prelinkedBytecodes;
 
     private long executionPlanId;  // This is set at runtime. Thus, no need to clone this value.
     private long currentDeviceMemoryUsage;
@@ -100,6 +108,8 @@ public class TornadoExecutionContext {
         name = id;
         meta = new ScheduleContext(name);
         tasks = new ArrayList<>();
+        fusedTasks = new BitSet();
+        bufferOwners = new int[0];
         constants = new ArrayList<>();
         objectMap = new HashMap<>();
         objects = new ArrayList<>();
@@ -113,7 +123,9 @@ public class TornadoExecutionContext {
         Arrays.fill(taskToDeviceMapTable, null);
         nextTask = 0;
         batchSize = INIT_VALUE;
+        batchBufferSlots = 1;
         executionPlanMemoryLimit = INIT_VALUE;
+        prelinkedBytecodes = TornadoOptions.PRELINKED_BYTECODES;
         lastDevices = new HashSet<>();
         currentDeviceMemoryUsage = 0;
         this.profiler = null;
@@ -156,6 +168,47 @@ public class TornadoExecutionContext {
         this.batchSize = size;
     }
 
+    /**
+     * @return number of device buffers per batched object. Batches are pipelined
+     *     when it is greater than 1.
+     */
+    public int getBatchBufferSlots() {
+        return batchBufferSlots;
+    }
+
+    public void setBatchBufferSlots(int batchBufferSlots) {
+        this.batchBufferSlots = batchBufferSlots;
+    }
+
+    /**
+     * @return true if the batch size is selected by the runtime before each
+     *     execution.
+     */
+    public boolean isAutomaticBatch() {
+        return automaticBatch;
+    }
+
+    public void setAutomaticBatch(boolean automaticBatch) {
+        this.automaticBatch = automaticBatch;
+    }
+
+    public boolean isBatchPipelineEnabled() {
+        return batchSize != INIT_VALUE && batchBufferSlots > 1;
+    }
+
+    /**
+     * Pipelined batches copy data on a second command queue of the device. The
+     * backends create command queues per execution plan identifier, so the
+     * transfer queue uses a derived identifier that does not clash with the
+     * identifiers of other execution plans.
+     *
+     * @return identifier of the command queue used for the data transfers of
+     *     pipelined batches.
+     */
+    public long getTransferQueueId() {
+        return ~executionPlanId;
+    }
+
     public long getExecutionPlanMemoryLimit() {
         return executionPlanMemoryLimit;
     }
@@ -164,6 +217,18 @@ public class TornadoExecutionContext {
         this.executionPlanMemoryLimit = memoryLimitSize;
     }
 
+    /**
+     * @return true if the interpreters of this context run the bytecodes as a
+     *     pre-linked sequence of actions.
+     */
+    public boolean isPrelinkedBytecodes() {
+        return prelinkedBytecodes;
+    }
+
+    public void setPrelinkedBytecodes(boolean prelinkedBytecodes) {
+        this.prelinkedBytecodes = prelinkedBytecodes;
+    }
+
     public boolean isMemoryLimited() {
         return getExecutionPlanMemoryLimit() != INIT_VALUE;
     }
@@ -180,9 +245,9 @@ public class TornadoExecutionContext {
                     throw new TornadoRuntimeException("[UNSUPPORTED] Data type not supported for processing in batches");
                 }
                 long size = Array.getLength(parameter);
-                totalSize += (size * dataTypeSize.getSize());
+                totalSize += getDeviceBytesPerExecution(size * dataTypeSize.getSize());
             } else if (parameter instanceof TornadoNativeArray tornadoNativeArray) {
-                totalSize += tornadoNativeArray.getNumBytesOfSegment();
+                totalSize += getDeviceBytesPerExecution(tornadoNativeArray.getNumBytesOfSegment());
             } else if (parameter instanceof TornadoVectorsInterface<?> tornadoVector) {
                 totalSize += tornadoVector.getNumBytes();
             } else if (parameter instanceof TornadoCollectionInterface<?> collection) {
@@ -212,6 +277,17 @@ public class TornadoExecutionContext {
         return totalSize > getExecutionPlanMemoryLimit();
     }
 
+    /**
+     * With batches enabled, arrays only hold one batch per buffer slot on the
+     * device.
+     */
+    private long getDeviceBytesPerExecution(long arraySize) {
+        if (batchSize == INIT_VALUE) {
+            return arraySize;
+        }
+        return Math.min(arraySize, batchSize * batchBufferSlots);
+    }
+
     public int replaceVariable(Object oldObj, Object newObj) {
         /*
          * Use the same index the oldObj was assigned. The argument indices are
@@ -265,6 +341,82 @@ public class TornadoExecutionContext {
         return index;
     }
 
+    /**
+     * It adds a task that runs a group of fused tasks. The new task is mapped to
+     * the device of the first task of the group.
+     *
+     * @param task
+     *     The {@link SchedulableTask} that runs the fused tasks.
+     * @param producerIndex
+     *     The index of the first task of the group.
+     * @return The index of the new task, or -1 if the task table is full.
+     */
+    public int addFusedTask(SchedulableTask task, int producerIndex) {
+        if (!tasks.contains(task) && tasks.size() >= MAX_TASKS) {
+            return -1;
+        }
+        int index = addTask(task);
+        taskToDeviceMapTable[index] = taskToDeviceMapTable[producerIndex];
+        return index;
+    }
+
+    /**
+     * It removes the tasks added with {@link #addFusedTask}, so that the next
+     * compilation adds the fused tasks of its arguments in the same slots, and
+     * marks all the tasks of the task-graph as launched.
+     */
+    public void removeFusedTasks() {
+        for (int index = tasks.size() - 1; index >= nextTask; index--) {
+            tasks.remove(index);
+            taskToDeviceMapTable[index] = null;
+            kernelStackFrame[index] = null;
+        }
+        fusedTasks.clear();
+    }
+
+    /**
+     * It sets the tasks that are not launched by the current bytecodes, because
+     * they have been fused into another task.
+     *
+     * @param fusedTasks
+     *     The indexes of the tasks.
+     */
+    public void setFusedTasks(BitSet fusedTasks) {
+        this.fusedTasks = (BitSet) fusedTasks.clone();
+    }
+
+    /**
+     * It sets the objects that use the device buffer of another object, as
+     * computed by {@link TornadoBufferLiveness}.
+     *
+     * @param bufferOwners
+     *     For each object, the index of the object that owns its device buffer,
+     *     or -1 if the object has its own buffer.
+     */
+    public void setBufferOwners(int[] bufferOwners) {
+        this.bufferOwners = bufferOwners.clone();
+        bufferSharingSavedBytes = 0;
+        for (int i = 0; i < bufferOwners.length; i++) {
+            if (bufferOwners[i] != -1) {
+                bufferSharingSavedBytes += ((TornadoNativeArray) objects.get(i)).getNumBytesOfSegmentWithHeader();
+            }
+        }
+    }
+
+    /**
+     * It returns the number of bytes of device memory that are not allocated
+     * because the objects share the device buffer of another object.
+     *
+     * @return Number of bytes saved by the buffer liveness analysis.
+     */
+    public long getBufferSharingSavedBytes() {
+        return bufferSharingSavedBytes;
+    }
+
+    public int getBufferOwner(int index) {
+        return index < bufferOwners.length ? bufferOwners[index] : -1;
+    }
+
     public void addPersistedObject(Object object) {
         if (object != null) {
             persistedObjects.add(object);
@@ -503,7 +655,11 @@ public class TornadoExecutionContext {
      */
     public List<SchedulableTask> getTasksForDevice(TornadoDeviceContext deviceContext) {
         List<SchedulableTask> tasksForDevice = new ArrayList<>();
-        for (SchedulableTask task : tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            SchedulableTask task = tasks.get(i);
+            if (fusedTasks.get(i)) {
+                continue;
+            }
             task.getDevice().getBackendIndex();
             if (task.getDevice().getDeviceContext() == deviceContext) {
                 tasksForDevice.add(task);
@@ -638,6 +794,9 @@ public class TornadoExecutionContext {
         TornadoExecutionContext newExecutionContext = new TornadoExecutionContext(this.getId());
 
         newExecutionContext.tasks = new ArrayList<>(tasks);
+        newExecutionContext.fusedTasks = (BitSet) fusedTasks.clone();
+        newExecutionContext.bufferOwners = bufferOwners.clone();
+        newExecutionContext.bufferSharingSavedBytes = bufferSharingSavedBytes;
 
         newExecutionContext.kernelStackFrame = this.kernelStackFrame.clone();
 
@@ -652,6 +811,7 @@ public class TornadoExecutionContext {
         newExecutionContext.persistedObjects = new ArrayList<>(persistedObjects);
 
         newExecutionContext.persistedTaskToObjectsMap = new HashMap<>(persistedTaskToObjectsMap);
+        newExecutionContext.persistedObjectsVersion = persistedObjectsVersion;
 
         List<LocalObjectState> objectStateCopy = new ArrayList<>();
         for (LocalObjectState localObjectState : objectState) {
@@ -670,6 +830,9 @@ public class TornadoExecutionContext {
         newExecutionContext.profiler = this.profiler;
         newExecutionContext.nextTask = this.nextTask;
         newExecutionContext.executionPlanMemoryLimit = this.executionPlanMemoryLimit;
+        newExecutionContext.prelinkedBytecodes = this.prelinkedBytecodes;
+        newExecutionContext.batchBufferSlots = this.batchBufferSlots;
+        newExecutionContext.automaticBatch = this.automaticBatch;
 
         return newExecutionContext;
     }
@@ -693,10 +856,21 @@ public class TornadoExecutionContext {
 
     public void addPersistedObject(String taskgraphUniqueName, Object value) {
         persistedTaskToObjectsMap.computeIfAbsent(taskgraphUniqueName, k -> new ArrayList<>()).add(value);
+        persistedObjectsVersion++;
     }
 
     public Map<String, List<Object>> getPersistedTaskToObjectsMap() {
         return persistedTaskToObjectsMap;
     }
 
+    /**
+     * Returns a counter that changes every time an object is added to the persisted
+     * task objects map. It lets the interpreter cache which objects are persisted.
+     *
+     * @return version of the persisted task objects map.
+     */
+    public int getPersistedObjectsVersion() {
+        return persistedObjectsVersion;
+    }
+
 }
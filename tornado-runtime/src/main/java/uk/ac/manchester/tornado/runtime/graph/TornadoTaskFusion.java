@@ -0,0 +1,625 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graph;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.graalvm.compiler.phases.util.Providers;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.ASMClassVisitorProvider;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSuitesProvider;
+import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoLoopFusion;
+import uk.ac.manchester.tornado.runtime.graph.nodes.AbstractNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.DependentReadNode;
+import uk.ac.manchester.tornado.runtime.graph.nodes.TaskNode;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.SketchRequest;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.LocalObjectState;
+import uk.ac.manchester.tornado.runtime.tasks.TornadoGraphBitcodes;
+
+/**
+ * Fuses consecutive tasks of a task-graph into a single kernel.
+ *
+ * <p>
+ * A group of consecutive tasks is fused when every task after the first one
+ * consumes an object written by a previous task of the group, all the tasks run
+ * on the same device, and the {@link TornadoLoopFusion} phase can merge the
+ * {@code @Parallel} loops of the tasks. The tasks of the group are replaced in
+ * the high-level bytecodes by a task that calls them in order. When an object
+ * written by the group is not used by any other task and is not copied back to
+ * the host, the fused kernel does not store it, and it is replaced by a
+ * one-element placeholder so that its device buffer is not allocated.
+ * </p>
+ *
+ * <p>
+ * The fused tasks are added to the {@link TornadoExecutionContext}, and the
+ * tasks that they replace are marked as fused so that they are not compiled.
+ * The high-level bytecodes of the task-graph are not modified, so the pass runs
+ * again, with the values of the current arguments, every time the task-graph is
+ * compiled. The fused tasks of the previous compilation are removed first, so
+ * the new ones take their slots. Each task-graph keeps the fused tasks of its
+ * last 8 groups of arguments.
+ * </p>
+ *
+ * <p>
+ * The generated kernels are shared by all the task-graphs: a kernel is built
+ * and sketched once for each combination of tasks, argument mapping,
+ * specialised values and device, so the number of generated classes does not
+ * grow with the number of task-graphs that fuse the same tasks. The kernels are
+ * specialised for the sizes of the arguments, so at most 16 kernels are
+ * generated for the same tasks. Other sizes run the tasks without fusion.
+ * </p>
+ */
+public class TornadoTaskFusion {
+
+    private static final int MAX_FUSED_TASKS = 8;
+    private static final int MAX_CACHED_FUSED_TASKS = 8;
+    private static final int MAX_KERNELS_PER_TASKS = 16;
+    private static final TornadoLogger logger = new TornadoLogger(TornadoTaskFusion.class);
+    private static final ASMClassVisitorProvider asmClassVisitorProvider = loadProvider();
+
+    private static final Map<KernelKey, Optional<GeneratedKernel>> generatedKernels = new ConcurrentHashMap<>();
+    private static final Map<List<Method>, AtomicInteger> generatedKernelsPerTasks = new ConcurrentHashMap<>();
+
+    /**
+     * Fused tasks of the last groups of arguments, in access order. The least
+     * recently used one is dropped, so old arguments are not kept alive.
+     */
+    private final Map<FusionKey, Optional<CompilableTask>> fusedTasks = new LinkedHashMap<>(MAX_CACHED_FUSED_TASKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<FusionKey, Optional<CompilableTask>> eldest) {
+            return size() > MAX_CACHED_FUSED_TASKS;
+        }
+    };
+    private final Map<Class<?>, Optional<Object>> placeholders = new HashMap<>();
+
+    private static ASMClassVisitorProvider loadProvider() {
+        String tornadoAnnotationImplementation = System.getProperty("tornado.load.annotation.implementation");
+        if (tornadoAnnotationImplementation == null) {
+            return null;
+        }
+        try {
+            Class<?> klass = Class.forName(tornadoAnnotationImplementation);
+            Constructor<?> constructor = klass.getConstructor();
+            return (ASMClassVisitorProvider) constructor.newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            logger.debug("[TaskFusion] Annotation implementation not available: %s", e);
+            return null;
+        }
+    }
+
+    /**
+     * A task in the high-level bytecodes: CONTEXT, ARG_LIST, one LOAD_REF or
+     * LOAD_PRIM per argument, and LAUNCH.
+     */
+    private record TaskBlock(int globalTaskId, int taskIndex, byte[] loads, int[] variables) {
+    }
+
+    /**
+     * A generated kernel, with the accesses of its parameters and the parameters
+     * that it does not use once its loops are fused.
+     */
+    private record GeneratedKernel(Method method, Access[] accesses, BitSet unusedParameters) {
+    }
+
+    /**
+     * Identifies a generated kernel by the methods of its tasks, the parameter
+     * passed as each of their arguments, the types and values of its parameters,
+     * and the device it was sketched for.
+     */
+    private static final class KernelKey {
+        private final List<Method> methods;
+        private final int[][] argumentMapping;
+        private final List<Class<?>> parameterTypes;
+        private final long[] values;
+        private final BitSet deadParameters;
+        private final int backendIndex;
+        private final int deviceIndex;
+
+        private KernelKey(Method[] methods, int[][] argumentMapping, List<Class<?>> parameterTypes, long[] values, BitSet deadParameters, int backendIndex, int deviceIndex) {
+            this.methods = List.of(methods);
+            this.argumentMapping = new int[argumentMapping.length][];
+            for (int t = 0; t < argumentMapping.length; t++) {
+                this.argumentMapping[t] = argumentMapping[t].clone();
+            }
+            this.parameterTypes = List.copyOf(parameterTypes);
+            this.values = values.clone();
+            this.deadParameters = (BitSet) deadParameters.clone();
+            this.backendIndex = backendIndex;
+            this.deviceIndex = deviceIndex;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof KernelKey key && methods.equals(key.methods) && Arrays.deepEquals(argumentMapping, key.argumentMapping) && parameterTypes.equals(key.parameterTypes)
+                    && Arrays.equals(values, key.values) && deadParameters.equals(key.deadParameters) && backendIndex == key.backendIndex && deviceIndex == key.deviceIndex;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = methods.hashCode();
+            hash = 31 * hash + Arrays.deepHashCode(argumentMapping);
+            hash = 31 * hash + Arrays.hashCode(values);
+            return 31 * hash + deadParameters.hashCode();
+        }
+    }
+
+    /**
+     * Identifies a fused kernel by the identity of its tasks and arguments, the
+     * values it was specialised for, and the device it was sketched for.
+     */
+    private static final class FusionKey {
+        private final Object[] identities;
+        private final long[] values;
+        private final BitSet deadParameters;
+        private final int backendIndex;
+        private final int deviceIndex;
+
+        private FusionKey(Object[] identities, long[] values, BitSet deadParameters, int backendIndex, int deviceIndex) {
+            this.identities = identities;
+            this.values = values;
+            this.deadParameters = deadParameters;
+            this.backendIndex = backendIndex;
+            this.deviceIndex = deviceIndex;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof FusionKey key) || key.identities.length != identities.length) {
+                return false;
+            }
+            for (int i = 0; i < identities.length; i++) {
+                if (identities[i] != key.identities[i]) {
+                    return false;
+                }
+            }
+            return Arrays.equals(values, key.values) && deadParameters.equals(key.deadParameters) && backendIndex == key.backendIndex && deviceIndex == key.deviceIndex;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Arrays.hashCode(values);
+            for (Object identity : identities) {
+                hash = 31 * hash + System.identityHashCode(identity);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Removes the fused tasks of previous compilations, so that the original
+     * tasks run.
+     *
+     * @param executionContext
+     *     The {@link TornadoExecutionContext} of the task-graph.
+     * @return an empty set of replaced tasks.
+     */
+    public static BitSet restoreTasks(TornadoExecutionContext executionContext) {
+        executionContext.removeFusedTasks();
+        return new BitSet();
+    }
+
+    private static List<TaskBlock> parse(ByteBuffer buffer) {
+        final ByteBuffer input = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        input.rewind();
+        List<TaskBlock> blocks = new ArrayList<>();
+        while (input.hasRemaining()) {
+            if (input.get() != TornadoGraphBitcodes.CONTEXT.index()) {
+                return null;
+            }
+            int globalTaskId = input.getInt();
+            int taskIndex = input.getInt();
+            if (input.get() != TornadoGraphBitcodes.ARG_LIST.index()) {
+                return null;
+            }
+            int numArgs = input.getInt();
+            byte[] loads = new byte[numArgs];
+            int[] variables = new int[numArgs];
+            for (int i = 0; i < numArgs; i++) {
+                loads[i] = input.get();
+                variables[i] = input.getInt();
+                if (loads[i] != TornadoGraphBitcodes.LOAD_REF.index() && loads[i] != TornadoGraphBitcodes.LOAD_PRIM.index()) {
+                    return null;
+                }
+            }
+            if (input.get() != TornadoGraphBitcodes.LAUNCH.index()) {
+                return null;
+            }
+            blocks.add(new TaskBlock(globalTaskId, taskIndex, loads, variables));
+        }
+        return blocks;
+    }
+
+    private static Map<Integer, Set<Integer>> getProducers(TornadoGraph graph) {
+        Map<Integer, Set<Integer>> producers = new HashMap<>();
+        BitSet taskNodes = graph.filter(TaskNode.class);
+        for (int i = taskNodes.nextSetBit(0); i >= 0; i = taskNodes.nextSetBit(i + 1)) {
+            TaskNode taskNode = (TaskNode) graph.getNode(i);
+            Set<Integer> taskProducers = producers.computeIfAbsent(taskNode.getTaskIndex(), index -> new HashSet<>());
+            for (int arg = 0; arg < taskNode.getNumArgs(); arg++) {
+                AbstractNode node = taskNode.getArg(arg);
+                if (node instanceof DependentReadNode dependentRead && dependentRead.getDependent() != taskNode) {
+                    taskProducers.add(dependentRead.getDependent().getTaskIndex());
+                }
+            }
+        }
+        return producers;
+    }
+
+    private static boolean isFusable(SchedulableTask task) {
+        if (!(task instanceof CompilableTask compilableTask)) {
+            return false;
+        }
+        Method method = compilableTask.getMethod();
+        return Modifier.isStatic(method.getModifiers()) && method.getReturnType() == void.class && !compilableTask.meta().isLocalWorkDefined() && !compilableTask.meta()
+                .isGlobalWorkDefined();
+    }
+
+    private static Sketch sketch(ResolvedJavaMethod resolvedMethod, CompilableTask task, String taskId) {
+        int backendIndex = task.meta().getBackendIndex();
+        int deviceIndex = task.meta().getDeviceIndex();
+        TornadoSuitesProvider suites = TornadoCoreRuntime.getTornadoRuntime().getBackend(backendIndex).getSuitesProvider();
+        Providers providers = TornadoCoreRuntime.getTornadoRuntime().getBackend(backendIndex).getProviders();
+        new SketchRequest(resolvedMethod, providers, suites.getGraphBuilderSuite(), suites.getSketchTier(), backendIndex, deviceIndex, taskId).run();
+        return TornadoSketcher.lookup(resolvedMethod, backendIndex, deviceIndex);
+    }
+
+    private static boolean isPrimitive(Object arg) {
+        return arg.getClass().isPrimitive() || RuntimeUtilities.isBoxedPrimitiveClass(arg.getClass());
+    }
+
+    private static long getValue(Object arg) {
+        if (arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte) {
+            return ((Number) arg).longValue();
+        } else if (arg instanceof Character character) {
+            return character;
+        } else if (arg instanceof TornadoNativeArray nativeArray) {
+            return nativeArray.getSize();
+        } else if (arg.getClass().isArray()) {
+            return Array.getLength(arg);
+        }
+        return Long.MIN_VALUE;
+    }
+
+    private static boolean isWrite(Access access) {
+        return access == Access.WRITE_ONLY || access == Access.READ_WRITE;
+    }
+
+    private static boolean containsIdentity(Object[] objects, Object object) {
+        for (Object candidate : objects) {
+            if (candidate == object) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an object of the same type that holds a single element, to be
+     * passed instead of an argument that the kernel does not access.
+     */
+    private Object getPlaceholder(Object arg) {
+        return placeholders.computeIfAbsent(arg.getClass(), klass -> {
+            try {
+                if (klass.isArray()) {
+                    return Optional.of(Array.newInstance(klass.getComponentType(), 1));
+                } else if (TornadoNativeArray.class.isAssignableFrom(klass)) {
+                    return Optional.of(klass.getConstructor(int.class).newInstance(1));
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.debug("[TaskFusion] no placeholder for %s: %s", klass.getName(), e);
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * Fuses the tasks of a task-graph.
+     *
+     * @param executionContext
+     *     The {@link TornadoExecutionContext} of the task-graph.
+     * @param graph
+     *     The {@link TornadoGraph} built from the high-level bytecodes.
+     * @param buffer
+     *     The high-level bytecodes.
+     * @return the high-level bytecodes with the fused tasks, or {@code null} if no
+     *     task was fused.
+     */
+    public synchronized ByteBuffer fuse(TornadoExecutionContext executionContext, TornadoGraph graph, ByteBuffer buffer) {
+        BitSet replacedTasks = restoreTasks(executionContext);
+
+        List<TaskBlock> blocks = asmClassVisitorProvider != null ? parse(buffer) : null;
+        if (blocks == null || blocks.size() < 2) {
+            return null;
+        }
+        Map<Integer, Set<Integer>> producers = getProducers(graph);
+
+        final ByteBuffer output = ByteBuffer.allocate(buffer.limit() * 2 + 64).order(ByteOrder.LITTLE_ENDIAN);
+        boolean fused = false;
+        int first = 0;
+        while (first < blocks.size()) {
+            CompilableTask fusedTask = null;
+            int end = first + 1;
+            while (end < blocks.size() && end - first < MAX_FUSED_TASKS && canJoin(executionContext, blocks, first, end, producers)) {
+                CompilableTask candidate = getFusedTask(executionContext, blocks, first, end + 1);
+                if (candidate == null) {
+                    break;
+                }
+                fusedTask = candidate;
+                end++;
+            }
+            if (fusedTask == null) {
+                writeBlock(output, blocks.get(first));
+                first++;
+                continue;
+            }
+            int fusedIndex = executionContext.addFusedTask(fusedTask, blocks.get(first).taskIndex());
+            if (fusedIndex < 0) {
+                for (int i = first; i < end; i++) {
+                    writeBlock(output, blocks.get(i));
+                }
+            } else {
+                writeFusedBlock(executionContext, output, blocks.get(first).globalTaskId(), fusedIndex, fusedTask);
+                for (int i = first; i < end; i++) {
+                    replacedTasks.set(blocks.get(i).taskIndex());
+                }
+                replacedTasks.clear(fusedIndex);
+                fused = true;
+                logger.info("[TaskFusion] %d tasks fused into %s", end - first, fusedTask.getId());
+            }
+            first = end;
+        }
+        executionContext.setFusedTasks(replacedTasks);
+        if (!fused) {
+            return null;
+        }
+        output.flip();
+        return output;
+    }
+
+    private static boolean canJoin(TornadoExecutionContext executionContext, List<TaskBlock> blocks, int first, int next, Map<Integer, Set<Integer>> producers) {
+        TaskBlock candidate = blocks.get(next);
+        SchedulableTask task = executionContext.getTask(candidate.taskIndex());
+        if (!isFusable(task) || !isFusable(executionContext.getTask(blocks.get(first).taskIndex()))) {
+            return false;
+        }
+        if (executionContext.getDeviceForTask(candidate.taskIndex()) != executionContext.getDeviceForTask(blocks.get(first).taskIndex())) {
+            return false;
+        }
+        Set<Integer> taskProducers = producers.getOrDefault(candidate.taskIndex(), Set.of());
+        for (int i = first; i < next; i++) {
+            if (taskProducers.contains(blocks.get(i).taskIndex())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the task that fuses the tasks of the blocks in the given range, or
+     * returns {@code null} if the tasks cannot be fused.
+     */
+    private CompilableTask getFusedTask(TornadoExecutionContext executionContext, List<TaskBlock> blocks, int first, int end) {
+        final int numTasks = end - first;
+        final CompilableTask[] tasks = new CompilableTask[numTasks];
+        final Method[] methods = new Method[numTasks];
+        final int[][] argumentMapping = new int[numTasks][];
+        final List<Object> args = new ArrayList<>();
+        final List<Class<?>> parameterTypes = new ArrayList<>();
+        final List<Integer> variables = new ArrayList<>();
+        final BitSet written = new BitSet();
+
+        try {
+            for (int t = 0; t < numTasks; t++) {
+                TaskBlock block = blocks.get(first + t);
+                tasks[t] = (CompilableTask) executionContext.getTask(block.taskIndex());
+                methods[t] = tasks[t].getMethod();
+                Object[] taskArgs = tasks[t].getArguments();
+                Access[] accesses = sketch(TornadoCoreRuntime.getTornadoRuntime().resolveMethod(methods[t]), tasks[t], tasks[t].getId()).getArgumentsAccess();
+                argumentMapping[t] = new int[taskArgs.length];
+                for (int i = 0; i < taskArgs.length; i++) {
+                    int parameter = -1;
+                    if (!isPrimitive(taskArgs[i])) {
+                        for (int p = 0; p < args.size(); p++) {
+                            if (args.get(p) == taskArgs[i]) {
+                                parameter = p;
+                            }
+                        }
+                    }
+                    if (parameter < 0) {
+                        parameter = args.size();
+                        args.add(taskArgs[i]);
+                        parameterTypes.add(methods[t].getParameterTypes()[i]);
+                        variables.add(block.variables()[i]);
+                    }
+                    argumentMapping[t][i] = parameter;
+                    if (isWrite(accesses[i])) {
+                        written.set(parameter);
+                    }
+                }
+            }
+        } catch (TornadoBailoutRuntimeException | TornadoRuntimeException e) {
+            return null;
+        }
+
+        final long[] values = new long[args.size()];
+        final BitSet deadParameters = new BitSet();
+        final List<Object> persistedObjects = executionContext.getPersistedObjects();
+        for (int p = 0; p < args.size(); p++) {
+            Object arg = args.get(p);
+            values[p] = getValue(arg);
+            if (written.get(p) && !isPrimitive(arg) && !isUsedOutside(executionContext, blocks, first, end, arg) && persistedObjects.stream().noneMatch(object -> object == arg)) {
+                LocalObjectState state = executionContext.getObjectStates().get(variables.get(p));
+                if (!state.isStreamOut() && !state.isUnderDemand() && !state.isStreamIn() && !state.isForcedStreamIn() && !state.isOnDevice()) {
+                    deadParameters.set(p);
+                }
+            }
+        }
+
+        Object[] identities = new Object[numTasks + args.size()];
+        System.arraycopy(tasks, 0, identities, 0, numTasks);
+        for (int p = 0; p < args.size(); p++) {
+            identities[numTasks + p] = isPrimitive(args.get(p)) ? null : args.get(p);
+        }
+        FusionKey key = new FusionKey(identities, values, deadParameters, tasks[0].meta().getBackendIndex(), tasks[0].meta().getDeviceIndex());
+        Optional<CompilableTask> fusedTask = fusedTasks.get(key);
+        if (fusedTask == null) {
+            fusedTask = Optional.ofNullable(buildFusedTask(executionContext, tasks, argumentMapping, args, parameterTypes, values, deadParameters));
+            fusedTasks.put(key, fusedTask);
+        }
+        fusedTask.ifPresent(task -> task.setDevice(tasks[0].getDevice()));
+        return fusedTask.orElse(null);
+    }
+
+    private static boolean isUsedOutside(TornadoExecutionContext executionContext, List<TaskBlock> blocks, int first, int end, Object arg) {
+        for (int i = 0; i < blocks.size(); i++) {
+            if ((i < first || i >= end) && containsIdentity(executionContext.getTask(blocks.get(i).taskIndex()).getArguments(), arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompilableTask buildFusedTask(TornadoExecutionContext executionContext, CompilableTask[] tasks, int[][] argumentMapping, List<Object> args, List<Class<?>> parameterTypes,
+            long[] values, BitSet deadParameters) {
+        Method[] methods = new Method[tasks.length];
+        StringBuilder name = new StringBuilder();
+        for (int t = 0; t < tasks.length; t++) {
+            methods[t] = tasks[t].getMethod();
+            String taskName = tasks[t].getTaskName();
+            name.append(t == 0 ? "" : "_").append(taskName.substring(taskName.lastIndexOf('.') + 1));
+        }
+        KernelKey key = new KernelKey(methods, argumentMapping, parameterTypes, values, deadParameters, tasks[0].meta().getBackendIndex(), tasks[0].meta().getDeviceIndex());
+        Optional<GeneratedKernel> kernel = generatedKernels.get(key);
+        if (kernel == null) {
+            // Each kernel defines a new class, so the number of kernels for the same tasks is bounded
+            AtomicInteger numKernels = generatedKernelsPerTasks.computeIfAbsent(key.methods, k -> new AtomicInteger());
+            if (numKernels.get() >= MAX_KERNELS_PER_TASKS) {
+                logger.info("[TaskFusion] %s is not fused: %d kernels already generated for these tasks", name, MAX_KERNELS_PER_TASKS);
+                return null;
+            }
+            kernel = generatedKernels.computeIfAbsent(key, k -> {
+                numKernels.incrementAndGet();
+                return Optional.ofNullable(generateKernel(executionContext.getId() + "." + name, tasks[0], methods, argumentMapping, parameterTypes, values, deadParameters));
+            });
+        }
+        if (kernel.isEmpty()) {
+            return null;
+        }
+
+        Object[] fusedArgs = args.toArray();
+        Access[] accesses = kernel.get().accesses();
+        BitSet unusedParameters = kernel.get().unusedParameters();
+        for (int p = unusedParameters.nextSetBit(0); p >= 0; p = unusedParameters.nextSetBit(p + 1)) {
+            Object placeholder = accesses[p] == Access.NONE ? getPlaceholder(fusedArgs[p]) : null;
+            if (placeholder != null) {
+                fusedArgs[p] = placeholder;
+            }
+        }
+        CompilableTask fusedTask = new CompilableTask(executionContext.meta(), name.toString(), kernel.get().method(), fusedArgs);
+        fusedTask.setDevice(tasks[0].getDevice());
+        return fusedTask;
+    }
+
+    private static GeneratedKernel generateKernel(String taskId, CompilableTask firstTask, Method[] methods, int[][] argumentMapping, List<Class<?>> parameterTypes, long[] values,
+            BitSet deadParameters) {
+        Method method = asmClassVisitorProvider.getFusedKernel(methods, argumentMapping, parameterTypes.toArray(new Class<?>[0]));
+        if (method == null) {
+            return null;
+        }
+        ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(method);
+        TornadoLoopFusion.FusedKernel kernel = TornadoLoopFusion.registerFusedKernel(resolvedMethod, values, deadParameters);
+        Access[] accesses;
+        try {
+            accesses = sketch(resolvedMethod, firstTask, taskId).getArgumentsAccess();
+        } catch (TornadoBailoutRuntimeException | TornadoRuntimeException e) {
+            logger.info("[TaskFusion] %s is not fused: %s", taskId, e.getMessage());
+            return null;
+        } finally {
+            TornadoLoopFusion.unregisterFusedKernel(resolvedMethod);
+        }
+        if (kernel.getRejection() != null) {
+            return null;
+        }
+        return new GeneratedKernel(method, accesses, kernel.getUnusedParameters());
+    }
+
+    private static void writeBlock(ByteBuffer output, TaskBlock block) {
+        output.put(TornadoGraphBitcodes.CONTEXT.index());
+        output.putInt(block.globalTaskId());
+        output.putInt(block.taskIndex());
+        output.put(TornadoGraphBitcodes.ARG_LIST.index());
+        output.putInt(block.loads().length);
+        for (int i = 0; i < block.loads().length; i++) {
+            output.put(block.loads()[i]);
+            output.putInt(block.variables()[i]);
+        }
+        output.put(TornadoGraphBitcodes.LAUNCH.index());
+    }
+
+    private static void writeFusedBlock(TornadoExecutionContext executionContext, ByteBuffer output, int globalTaskId, int fusedIndex, CompilableTask fusedTask) {
+        Access[] accesses = TornadoSketcher.lookup(TornadoCoreRuntime.getTornadoRuntime().resolveMethod(fusedTask.getMethod()), fusedTask.meta().getBackendIndex(), fusedTask.meta()
+                .getDeviceIndex()).getArgumentsAccess();
+        Object[] args = fusedTask.getArguments();
+        output.put(TornadoGraphBitcodes.CONTEXT.index());
+        output.putInt(globalTaskId);
+        output.putInt(fusedIndex);
+        output.put(TornadoGraphBitcodes.ARG_LIST.index());
+        output.putInt(args.length);
+        for (int i = 0; i < args.length; i++) {
+            int index = executionContext.insertVariable(args[i], accesses[i]);
+            output.put(isPrimitive(args[i]) ? TornadoGraphBitcodes.LOAD_PRIM.index() : TornadoGraphBitcodes.LOAD_REF.index());
+            output.putInt(index);
+        }
+        output.put(TornadoGraphBitcodes.LAUNCH.index());
+    }
+}
@@ -127,6 +127,25 @@ public class TornadoVMBytecodeResult {
         return buffer.hasRemaining();
     }
 
+    /**
+     * Returns the current position in the bytecode buffer.
+     *
+     * @return the current position
+     */
+    public int position() {
+        return buffer.position();
+    }
+
+    /**
+     * Moves the bytecode buffer to the given position.
+     *
+     * @param newPosition
+     *            the new position in the bytecode buffer
+     */
+    public void position(int newPosition) {
+        buffer.position(newPosition);
+    }
+
     /**
      * Resets the position of the bytecode buffer to the previously marked position.
      */
@@ -61,6 +61,8 @@ public class TornadoVMGraphCompiler {
 
         intermediateTornadoGraph.analyzeDependencies();
 
+        executionContext.setBufferOwners(TornadoBufferLiveness.assignBuffers(graph, executionContext));
+
         new TornadoLogger().debug("Compiling bytecodes...");
 
         for (int i = 0; i < tornadoVMBytecodeResults.length; i++) {
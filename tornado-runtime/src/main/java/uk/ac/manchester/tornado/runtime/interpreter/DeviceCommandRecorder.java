@@ -0,0 +1,86 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.DeviceCommandEvent;
+
+/**
+ * Keeps the flight recorder events of the commands enqueued by the interpreter
+ * until the execution of the task-graph finishes. Waiting for each command to
+ * read its device time would serialise the transfers and the kernels, so the
+ * device times are read from the events of the driver in {@link #commit}, when
+ * all the commands have been enqueued.
+ */
+final class DeviceCommandRecorder {
+
+    private final List<PendingCommand> pendingCommands = new ArrayList<>();
+
+    private record PendingCommand(DeviceCommandEvent event, long queueId, int[] driverEvents) {
+    }
+
+    /**
+     * Ends the host part of a command. The event is committed by {@link #commit}.
+     *
+     * @param event
+     *     Flight recorder event of the command.
+     * @param queueId
+     *     Identifier of the command queue used for the command.
+     * @param driverEvents
+     *     Events of the driver for the command. The device time is the sum of
+     *     their elapsed times.
+     */
+    void add(DeviceCommandEvent event, long queueId, List<Integer> driverEvents) {
+        event.end();
+        int[] ids = driverEvents == null ? new int[0] : driverEvents.stream().mapToInt(Integer::intValue).toArray();
+        pendingCommands.add(new PendingCommand(event, queueId, ids));
+    }
+
+    void add(DeviceCommandEvent event, long queueId, int driverEvent) {
+        event.end();
+        pendingCommands.add(new PendingCommand(event, queueId, driverEvent == -1 ? new int[0] : new int[] { driverEvent }));
+    }
+
+    boolean isEmpty() {
+        return pendingCommands.isEmpty();
+    }
+
+    void commit(TornadoXPUDevice device) {
+        for (PendingCommand command : pendingCommands) {
+            long deviceTime = 0;
+            for (int id : command.driverEvents()) {
+                Event driverEvent = device.resolveEvent(command.queueId(), id);
+                driverEvent.waitForEvents(command.queueId());
+                deviceTime += driverEvent.getElapsedTime();
+            }
+            command.event().deviceTime = deviceTime;
+            command.event().commit();
+        }
+        pendingCommands.clear();
+    }
+}
@@ -27,15 +27,19 @@ import static uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus.COMPLETE
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.VIRTUAL_DEVICE_ENABLED;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.VM_USE_DEPS;
 
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TornadoDeviceContext;
 import uk.ac.manchester.tornado.api.WorkerGrid;
 import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.Event;
@@ -65,6 +69,11 @@ import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.BufferAllocationEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.BufferDeallocationEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.DataTransferEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.KernelDispatchEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.TornadoFlightEvent;
 import uk.ac.manchester.tornado.runtime.tasks.DataObjectState;
 import uk.ac.manchester.tornado.runtime.tasks.PrebuiltTask;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
@@ -78,6 +87,8 @@ import uk.ac.manchester.tornado.runtime.tasks.meta.TaskDataContext;
  */
 public class TornadoVMInterpreter {
     private static final Event EMPTY_EVENT = new EmptyEvent();
+    private static final KernelStackFrame.KernelContextArgument KERNEL_CONTEXT_ARGUMENT = new KernelStackFrame.KernelContextArgument();
+    private static final int THREAD_DEPLOY_DIMENSIONS = 3;
 
     private static final int MAX_EVENTS = TornadoOptions.MAX_EVENTS;
     private final boolean useDependencies;
@@ -104,8 +115,31 @@ public class TornadoVMInterpreter {
 
     private GridScheduler gridScheduler;
 
-    private HashMap<Object, Integer> currentBatchNumberPerObject = new HashMap<>();
-    private HashMap<Object, Integer> totalEvenBatchesPerObject = new HashMap<>();
+    // Batch number per object slot. It is null when the execution plan does not use batches.
+    private int[] currentBatchNumberPerObject;
+    private int totalEvenBatches;
+
+    // State reused across calls, so that the interpreter does not allocate once it is warmed up
+    private final List<AllocationSite> allocationSites = new ArrayList<>();
+    private int allocationSiteIndex;
+    private final long[] threadDeploy = new long[THREAD_DEPLOY_DIMENSIONS];
+    private final XPUExecutionFrame executionFrame = new XPUExecutionFrame();
+    private final long[] bufferAddresses;
+    private final Object[] boxedBufferAddresses;
+
+    // Bytecodes decoded into actions when the execution plan runs with pre-linked bytecodes
+    private BytecodeAction[] linkedBytecodes;
+    private byte[] linkedOpcodes;
+
+    // Pipelined batches: device buffer states of each slot, indexed by [slot][object]. Slot 0 uses the
+    // state of the object itself, so its entry is null.
+    private XPUDeviceBufferState[][] batchBufferSlots;
+    private BatchPipeline batchPipeline;
+    private int activeBatchSlot;
+    private boolean transferQueueActive;
+
+    // Flight recorder events of the transfers and kernels waiting for their device times
+    private final DeviceCommandRecorder deviceCommands = new DeviceCommandRecorder();
 
     private TornadoLogger logger = new TornadoLogger(this.getClass());
 
@@ -156,6 +190,8 @@ public class TornadoVMInterpreter {
         objects = graphExecutionContext.getObjects();
         initBatchDataStructures(graphExecutionContext);
         dataObjectStates = new DataObjectState[objects.size()];
+        bufferAddresses = new long[objects.size()];
+        boxedBufferAddresses = new Object[objects.size()];
         fetchGlobalStates();
 
         rewindBufferToBegin();
@@ -172,10 +208,16 @@ public class TornadoVMInterpreter {
         long batchSize = context.getBatchSize();
         if (batchSize != -1) {
             BatchConfiguration batchConfiguration = BatchConfiguration.computeChunkSizes(context, batchSize);
-            int totalChunks = batchConfiguration.getTotalChunks();
-            for (Object object : objects) {
-                totalEvenBatchesPerObject.put(object, totalChunks);
-                currentBatchNumberPerObject.put(object, 0);
+            totalEvenBatches = batchConfiguration.getTotalChunks();
+            currentBatchNumberPerObject = new int[objects.size()];
+            if (context.isBatchPipelineEnabled()) {
+                batchBufferSlots = new XPUDeviceBufferState[context.getBatchBufferSlots()][];
+                for (int slot = 1; slot < batchBufferSlots.length; slot++) {
+                    batchBufferSlots[slot] = new XPUDeviceBufferState[objects.size()];
+                    for (int i = 0; i < objects.size(); i++) {
+                        batchBufferSlots[slot][i] = new XPUDeviceBufferState();
+                    }
+                }
             }
         }
     }
@@ -263,15 +305,39 @@ public class TornadoVMInterpreter {
     }
 
     private Event execute(boolean isWarmup) {
+        final long executionPlanId = graphExecutionContext.getExecutionPlanId();
+        final long transferQueueId = batchBufferSlots != null ? graphExecutionContext.getTransferQueueId() : executionPlanId;
+        final TornadoDeviceContext deviceContext = interpreterDevice.getDeviceContext();
+        // Released buffers kept by the backend count towards the limit of the execution plan while it runs
+        final long bufferPoolLimit = isMemoryLimitEnabled() ? graphExecutionContext.getExecutionPlanMemoryLimit() : -1;
+        deviceContext.acquireCommandQueues(executionPlanId, transferQueueId);
+        if (bufferPoolLimit != -1) {
+            interpreterDevice.getMemoryProvider().addBufferPoolLimit(bufferPoolLimit);
+        }
+        try {
+            return executeBytecodes(isWarmup);
+        } finally {
+            if (bufferPoolLimit != -1) {
+                interpreterDevice.getMemoryProvider().removeBufferPoolLimit(bufferPoolLimit);
+            }
+            deviceContext.releaseCommandQueues(executionPlanId, transferQueueId);
+        }
+    }
+
+    private Event executeBytecodes(boolean isWarmup) {
         isWarmup = isWarmup || VIRTUAL_DEVICE_ENABLED;
         interpreterDevice.enableThreadSharing();
 
-        if (isMemoryLimitEnabled() && graphExecutionContext.doesExceedExecutionPlanLimit()) {
-            throw new TornadoMemoryException("OutofMemoryException due to executionPlan.withMemoryLimit of " + graphExecutionContext.getExecutionPlanMemoryLimit());
+        if (isMemoryLimitEnabled()) {
+            if (graphExecutionContext.doesExceedExecutionPlanLimit()) {
+                throw new TornadoMemoryException("OutofMemoryException due to executionPlan.withMemoryLimit of " + graphExecutionContext.getExecutionPlanMemoryLimit());
+            }
         }
 
         final long t0 = System.nanoTime();
+        final long allocatedBytesStart = checkAllocations(isWarmup) ? RuntimeUtilities.getCurrentThreadAllocatedBytes() : 0;
         int lastEvent = -1;
+        allocationSiteIndex = 0;
         initWaitEventList();
 
         StringBuilder logBuilder = null;
@@ -281,19 +347,32 @@ public class TornadoVMInterpreter {
                     " Running in thread: ")).append(Thread.currentThread().getName()).append("\n");
         }
 
-        while (bytecodeResult.hasRemaining()) {
+        boolean linkedExecution = false;
+        if (!isWarmup && batchBufferSlots != null && !useDependencies) {
+            if (batchPipeline == null) {
+                batchPipeline = buildBatchPipeline();
+            }
+            lastEvent = executeBatchPipeline(logBuilder);
+            linkedExecution = true;
+        } else if (!isWarmup && invocations > 0 && graphExecutionContext.isPrelinkedBytecodes()) {
+            if (linkedBytecodes == null) {
+                linkBytecodes();
+            }
+            for (BytecodeAction action : linkedBytecodes) {
+                lastEvent = action.execute(logBuilder, lastEvent);
+            }
+            linkedExecution = true;
+        }
+
+        while (!linkedExecution && bytecodeResult.hasRemaining()) {
             final byte op = bytecodeResult.get();
             if (op == TornadoVMBytecodes.ALLOC.value()) {
                 final long sizeBatch = bytecodeResult.getLong();
-                final int argSize = bytecodeResult.getInt();
-                final int[] args = new int[argSize];
-                for (int i = 0; i < argSize; i++) {
-                    args[i] = bytecodeResult.getInt();
-                }
+                final AllocationSite allocationSite = readAllocationSite();
                 if (isWarmup) {
                     continue;
                 }
-                lastEvent = executeAlloc(logBuilder, args, sizeBatch);
+                lastEvent = executeAlloc(logBuilder, allocationSite, sizeBatch);
             } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
                 final int objectIndex = bytecodeResult.getInt();
                 if (isWarmup) {
@@ -400,6 +479,10 @@ public class TornadoVMInterpreter {
             if (TornadoOptions.USE_VM_FLUSH) {
                 interpreterDevice.flush(graphExecutionContext.getExecutionPlanId());
             }
+
+            if (!deviceCommands.isEmpty()) {
+                deviceCommands.commit(interpreterDevice);
+            }
         }
 
         final long t1 = System.nanoTime();
@@ -409,6 +492,10 @@ public class TornadoVMInterpreter {
             invocations++;
         }
 
+        if (checkAllocations(isWarmup)) {
+            verifyNoAllocations(RuntimeUtilities.getCurrentThreadAllocatedBytes() - allocatedBytesStart);
+        }
+
         if (graphExecutionContext.meta().isDebug()) {
             logger.debug("bc: complete elapsed=%.9f s (%d iterations, %.9f s mean)", elapsed, invocations, (totalTime / invocations));
         }
@@ -444,61 +531,397 @@ public class TornadoVMInterpreter {
         if (graphExecutionContext == null || object == null) {
             return false;
         }
-        return graphExecutionContext.getPersistedTaskToObjectsMap().values().stream().filter(Objects::nonNull).anyMatch(taskObjects -> taskObjects.contains(object));
+        for (List<Object> taskObjects : graphExecutionContext.getPersistedTaskToObjectsMap().values()) {
+            if (taskObjects != null && taskObjects.contains(object)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Counts and classifies objects in the args array by determining which objects are persistent
-     * and which need to be allocated.
+     * Decodes the bytecodes once into a sequence of actions with all operands
+     * resolved. Executing the actions in order has the same effect as interpreting
+     * the bytecodes, without decoding the operands on every execution. The
+     * arguments of a LAUNCH stay in the bytecode buffer, and the action moves the
+     * buffer to them before launching the kernel. The kernel stack frame of each
+     * LAUNCH is resolved here and reused on every dispatch, unless it becomes stale.
      *
-     * @param args
-     *     Array of object indices to process from the object store
-     * @return Information about objects to allocate including counts of persistent and non-persistent objects
+     * The opcode of each action is kept in {@link #linkedOpcodes}.
+     */
+    private void linkBytecodes() {
+        final List<BytecodeAction> actions = new ArrayList<>();
+        final ByteArrayOutputStream opcodes = new ByteArrayOutputStream();
+        allocationSiteIndex = 0;
+        boolean endFound = false;
+        while (!endFound && bytecodeResult.hasRemaining()) {
+            final byte op = bytecodeResult.get();
+            opcodes.write(op);
+            if (op == TornadoVMBytecodes.ALLOC.value()) {
+                final long sizeBatch = bytecodeResult.getLong();
+                final AllocationSite allocationSite = readAllocationSite();
+                actions.add((logBuilder, lastEvent) -> executeAlloc(logBuilder, allocationSite, sizeBatch));
+            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
+                final int objectIndex = bytecodeResult.getInt();
+                actions.add((logBuilder, lastEvent) -> executeDeAlloc(logBuilder, objectIndex));
+            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value()) {
+                final int objectIndex = bytecodeResult.getInt();
+                final int eventId = bytecodeResult.getInt();
+                final long offset = bytecodeResult.getLong();
+                final long sizeBatch = bytecodeResult.getLong();
+                final int[] waitList = (useDependencies && eventId != -1) ? events[eventId] : null;
+                actions.add((logBuilder, lastEvent) -> {
+                    transferHostToDeviceOnce(logBuilder, objectIndex, offset, eventId, sizeBatch, waitList);
+                    return lastEvent;
+                });
+            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value()) {
+                final int objectIndex = bytecodeResult.getInt();
+                final int eventId = bytecodeResult.getInt();
+                final long offset = bytecodeResult.getLong();
+                final long sizeBatch = bytecodeResult.getLong();
+                final int[] waitList = (useDependencies && eventId != -1) ? events[eventId] : null;
+                actions.add((logBuilder, lastEvent) -> {
+                    transferHostToDeviceAlways(logBuilder, objectIndex, offset, eventId, sizeBatch, waitList);
+                    return lastEvent;
+                });
+            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()) {
+                final int objectIndex = bytecodeResult.getInt();
+                final int eventId = bytecodeResult.getInt();
+                final long offset = bytecodeResult.getLong();
+                final long sizeBatch = bytecodeResult.getLong();
+                final int[] waitList = (useDependencies) ? events[eventId] : null;
+                actions.add((logBuilder, lastEvent) -> transferDeviceToHost(logBuilder, objectIndex, offset, eventId, sizeBatch, waitList));
+            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value()) {
+                final int objectIndex = bytecodeResult.getInt();
+                final int eventId = bytecodeResult.getInt();
+                final long offset = bytecodeResult.getLong();
+                final long sizeBatch = bytecodeResult.getLong();
+                final int[] waitList = (useDependencies) ? events[eventId] : null;
+                actions.add((logBuilder, lastEvent) -> {
+                    transferDeviceToHostBlocking(logBuilder, objectIndex, offset, eventId, sizeBatch, waitList);
+                    return lastEvent;
+                });
+            } else if (op == TornadoVMBytecodes.LAUNCH.value()) {
+                final int callWrapperIndex = bytecodeResult.getInt();
+                final int taskIndex = bytecodeResult.getInt();
+                final int numArgs = bytecodeResult.getInt();
+                final int eventId = bytecodeResult.getInt();
+                final long offset = bytecodeResult.getLong();
+                final long batchThreads = bytecodeResult.getLong();
+                final int argumentsPosition = bytecodeResult.position();
+                popArgumentsFromCall(numArgs);
+                final int localTaskIndex = globalToLocalTaskIndex(taskIndex);
+                final XPUExecutionFrame launchFrame = new XPUExecutionFrame();
+                launchFrame.stackFrame = kernelStackFrame[callWrapperIndex];
+                launchFrame.waitList = (useDependencies && eventId != -1) ? events[eventId] : null;
+                actions.add((logBuilder, lastEvent) -> {
+                    if (isLinkedLaunchStale(launchFrame, localTaskIndex, batchThreads)) {
+                        XPUExecutionFrame executionFrame = compileTaskFromBytecodeToBinary(callWrapperIndex, numArgs, eventId, taskIndex, batchThreads);
+                        launchFrame.stackFrame = executionFrame.stackFrame;
+                        launchFrame.waitList = executionFrame.waitList;
+                    } else {
+                        prepareTaskForCompilation(taskExecutionContexts.get(taskIndex));
+                    }
+                    bytecodeResult.position(argumentsPosition);
+                    return executeLaunch(logBuilder, numArgs, eventId, taskIndex, batchThreads, offset, launchFrame);
+                });
+            } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
+                final int eventList = bytecodeResult.getInt();
+                actions.add((logBuilder, lastEvent) -> {
+                    executeDependency(logBuilder, lastEvent, eventList);
+                    return lastEvent;
+                });
+            } else if (op == TornadoVMBytecodes.ON_DEVICE.value()) {
+                final int objectIndex = bytecodeResult.getInt();
+                final int eventId = bytecodeResult.getInt();
+                actions.add((logBuilder, lastEvent) -> executeOnDevice(logBuilder, objectIndex, eventId));
+            } else if (op == TornadoVMBytecodes.PERSIST.value()) {
+                final int objectIndex = bytecodeResult.getInt();
+                final int eventId = bytecodeResult.getInt();
+                actions.add((logBuilder, lastEvent) -> executePersist(logBuilder, objectIndex, eventId));
+            } else if (op == TornadoVMBytecodes.BARRIER.value()) {
+                final int eventId = bytecodeResult.getInt();
+                final int[] waitList = (useDependencies && eventId != -1) ? events[eventId] : null;
+                actions.add((logBuilder, lastEvent) -> executeBarrier(logBuilder, eventId, waitList));
+            } else if (op == TornadoVMBytecodes.END.value()) {
+                actions.add((logBuilder, lastEvent) -> {
+                    if (TornadoOptions.LOG_BYTECODES()) {
+                        logBuilder.append("bc: ").append(InterpreterUtilities.debugHighLightBC("END\n")).append("\n");
+                    }
+                    return lastEvent;
+                });
+                endFound = true;
+            } else {
+                throwErrorInterpreter(op);
+            }
+        }
+        bytecodeResult.reset();
+        linkedBytecodes = actions.toArray(new BytecodeAction[0]);
+        linkedOpcodes = opcodes.toByteArray();
+    }
+
+    /**
+     * Splits the linked bytecodes of a batched execution plan into the stages of
+     * each batch. A new batch starts at each ALLOC bytecode.
      */
-    private ObjectAllocationInfo countAndClassifyObjects(int[] args) {
-        // Count only persistent objects that are actually in the current args array
-        int persistentObjectsInArgs = 0;
-        for (int arg : args) {
-            Object dataObject = this.objects.get(arg);
-            if (isPersistentObject(dataObject)) {
-                persistentObjectsInArgs++;
+    private BatchPipeline buildBatchPipeline() {
+        if (linkedBytecodes == null) {
+            linkBytecodes();
+        }
+        final List<BytecodeAction> prologue = new ArrayList<>();
+        final List<BytecodeAction> epilogue = new ArrayList<>();
+        final List<List<BytecodeAction>> uploads = new ArrayList<>();
+        final List<List<BytecodeAction>> computes = new ArrayList<>();
+        final List<List<BytecodeAction>> downloads = new ArrayList<>();
+        final List<List<BytecodeAction>> releases = new ArrayList<>();
+
+        for (int i = 0; i < linkedBytecodes.length; i++) {
+            final byte op = linkedOpcodes[i];
+            final BytecodeAction action = linkedBytecodes[i];
+            if (op == TornadoVMBytecodes.ALLOC.value()) {
+                uploads.add(new ArrayList<>());
+                computes.add(new ArrayList<>());
+                downloads.add(new ArrayList<>());
+                releases.add(new ArrayList<>());
+            }
+            final int batch = uploads.size() - 1;
+            if (op == TornadoVMBytecodes.BARRIER.value() || op == TornadoVMBytecodes.END.value()) {
+                epilogue.add(action);
+            } else if (batch < 0) {
+                prologue.add(action);
+            } else if (op == TornadoVMBytecodes.ALLOC.value() || op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value() || op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS
+                    .value()) {
+                uploads.get(batch).add(action);
+            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value() || op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value()) {
+                downloads.get(batch).add(action);
+            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
+                releases.get(batch).add(action);
+            } else {
+                computes.get(batch).add(action);
             }
         }
+        return new BatchPipeline(toActions(prologue), toStages(uploads), toStages(computes), toStages(downloads), toStages(releases), toActions(epilogue));
+    }
 
-        // Calculate allocation based on non-persistent objects in args
-        int objectsToAlloc = args.length - persistentObjectsInArgs;
+    private static BytecodeAction[] toActions(List<BytecodeAction> actions) {
+        return actions.toArray(new BytecodeAction[0]);
+    }
 
-        return new ObjectAllocationInfo(persistentObjectsInArgs, objectsToAlloc);
+    private static BytecodeAction[][] toStages(List<List<BytecodeAction>> stages) {
+        BytecodeAction[][] result = new BytecodeAction[stages.size()][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = toActions(stages.get(i));
+        }
+        return result;
     }
 
-    private int executeAlloc(StringBuilder logBuilder, int[] args, long sizeBatch) {
-        // Extract the counting and classification of objects into a separate method
-        ObjectAllocationInfo allocationInfo = countAndClassifyObjects(args);
+    /**
+     * Runs the batches as a software pipeline. Each batch uses the device buffers of
+     * slot {@code batch % slots}. The copies to the device are issued on the transfer
+     * queue up to {@code slots - 1} batches ahead of the kernels, and the copies back
+     * to the host of batch N run while the kernels of batch N + 1 execute:
+     *
+     * <pre>
+     * transfer queue: upload(N+1) | download(N)   | upload(N+2) | download(N+1)
+     * compute queue : kernels(N)                  | kernels(N+1)
+     * </pre>
+     *
+     * The host synchronises both queues once per batch, which also guarantees that a
+     * slot is no longer in use before it is written again.
+     *
+     * @return the last event.
+     */
+    private int executeBatchPipeline(StringBuilder logBuilder) {
+        final BatchPipeline pipeline = batchPipeline;
+        final long executionPlanId = graphExecutionContext.getExecutionPlanId();
+        final long transferQueueId = graphExecutionContext.getTransferQueueId();
+        final int numBatches = pipeline.uploads.length;
+        final int lookAhead = batchBufferSlots.length - 1;
+
+        long transferTime = 0L;
+        long computeTime = 0L;
+        final long pipelineStart = System.nanoTime();
+
+        int lastEvent = runPipelineStage(logBuilder, pipeline.prologue, 0, false, -1);
+
+        long transferStart = System.nanoTime();
+        for (int batch = 0; batch < Math.min(lookAhead, numBatches); batch++) {
+            lastEvent = runPipelineStage(logBuilder, pipeline.uploads[batch], batch, true, lastEvent);
+        }
+        interpreterDevice.sync(transferQueueId);
+        transferTime += System.nanoTime() - transferStart;
 
-        Object[] objects = new Object[allocationInfo.objectsToAlloc];
-        Access[] accesses = new Access[allocationInfo.objectsToAlloc];
-        XPUDeviceBufferState[] objectStates = new XPUDeviceBufferState[allocationInfo.objectsToAlloc];
+        long computeStart = System.nanoTime();
+        if (numBatches > 0) {
+            lastEvent = runPipelineStage(logBuilder, pipeline.computes[0], 0, false, lastEvent);
+        }
+
+        for (int batch = 0; batch < numBatches; batch++) {
+            transferStart = System.nanoTime();
+            if (batch + lookAhead < numBatches) {
+                lastEvent = runPipelineStage(logBuilder, pipeline.uploads[batch + lookAhead], batch + lookAhead, true, lastEvent);
+            }
+            interpreterDevice.sync(executionPlanId);
+            final long computeEnd = System.nanoTime();
+            computeTime += computeEnd - computeStart;
+            interpreterDevice.sync(transferQueueId);
+            transferTime += System.nanoTime() - transferStart;
+
+            computeStart = System.nanoTime();
+            if (batch + 1 < numBatches) {
+                lastEvent = runPipelineStage(logBuilder, pipeline.computes[batch + 1], batch + 1, false, lastEvent);
+            }
+
+            transferStart = System.nanoTime();
+            lastEvent = runPipelineStage(logBuilder, pipeline.downloads[batch], batch, true, lastEvent);
+            transferTime += System.nanoTime() - transferStart;
+        }
+        interpreterDevice.sync(transferQueueId);
+
+        // Release the buffers once all batches are complete. Each slot is released once.
+        for (int batch = Math.max(0, numBatches - batchBufferSlots.length); batch < numBatches; batch++) {
+            lastEvent = runPipelineStage(logBuilder, pipeline.releases[batch], batch, false, lastEvent);
+        }
+        final long pipelineTime = System.nanoTime() - pipelineStart;
+
+        lastEvent = runPipelineStage(logBuilder, pipeline.epilogue, 0, false, lastEvent);
+
+        if (TornadoOptions.isProfilerEnabled()) {
+            timeProfiler.setTimer(ProfilerType.BATCH_PIPELINE_TIME, pipelineTime);
+            timeProfiler.setTimer(ProfilerType.BATCH_OVERLAP_TIME, Math.max(0L, transferTime + computeTime - pipelineTime));
+        }
+        return lastEvent;
+    }
+
+    private int runPipelineStage(StringBuilder logBuilder, BytecodeAction[] actions, int batch, boolean onTransferQueue, int lastEvent) {
+        activeBatchSlot = batch % batchBufferSlots.length;
+        transferQueueActive = onTransferQueue;
+        try {
+            for (BytecodeAction action : actions) {
+                lastEvent = action.execute(logBuilder, lastEvent);
+            }
+        } finally {
+            activeBatchSlot = 0;
+            transferQueueActive = false;
+        }
+        return lastEvent;
+    }
+
+    private long transferQueueId() {
+        return transferQueueActive ? graphExecutionContext.getTransferQueueId() : graphExecutionContext.getExecutionPlanId();
+    }
+
+    /**
+     * Reads the arguments of an ALLOC bytecode into the {@link AllocationSite} that
+     * belongs to it. The bytecodes of an interpreter do not change, so the n-th ALLOC
+     * of a run always maps to the n-th site.
+     */
+    private AllocationSite readAllocationSite() {
+        final int argSize = bytecodeResult.getInt();
+        final AllocationSite allocationSite;
+        if (allocationSiteIndex < allocationSites.size()) {
+            allocationSite = allocationSites.get(allocationSiteIndex);
+        } else {
+            allocationSite = new AllocationSite(argSize);
+            allocationSites.add(allocationSite);
+        }
+        allocationSiteIndex++;
+        for (int i = 0; i < argSize; i++) {
+            allocationSite.args[i] = bytecodeResult.getInt();
+        }
+        return allocationSite;
+    }
+
+    /**
+     * Counts and classifies objects of an allocation site by determining which objects are
+     * persistent, which share the device buffer of another object, and which need to be
+     * allocated. The result is cached in the site until the set of persisted objects of
+     * the execution context changes.
+     *
+     * @param allocationSite
+     *     Site with the object indices to process from the object store
+     */
+    private void classifyObjects(AllocationSite allocationSite) {
+        final int persistedObjectsVersion = graphExecutionContext.getPersistedObjectsVersion();
+        if (allocationSite.persistedObjectsVersion == persistedObjectsVersion) {
+            return;
+        }
+
+        final int[] args = allocationSite.args;
+        int objectsToAlloc = 0;
+        for (int i = 0; i < args.length; i++) {
+            allocationSite.isPersistent[i] = isPersistentObject(this.objects.get(args[i]));
+            allocationSite.bufferOwners[i] = graphExecutionContext.getBufferOwner(args[i]);
+            if (!allocationSite.isPersistent[i] && allocationSite.bufferOwners[i] == -1) {
+                objectsToAlloc++;
+            }
+        }
+
+        allocationSite.objects = new Object[objectsToAlloc];
+        allocationSite.accesses = new Access[objectsToAlloc];
+        allocationSite.objectStates = new XPUDeviceBufferState[objectsToAlloc];
+        int allocCounter = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (!allocationSite.isPersistent[i] && allocationSite.bufferOwners[i] == -1) {
+                allocationSite.objects[allocCounter] = this.objects.get(args[i]);
+                allocationSite.accesses[allocCounter] = this.objectAccesses.get(allocationSite.objects[allocCounter]);
+                allocCounter++;
+            }
+        }
+        allocationSite.persistedObjectsVersion = persistedObjectsVersion;
+    }
+
+    private int executeAlloc(StringBuilder logBuilder, AllocationSite allocationSite, long sizeBatch) {
+        classifyObjects(allocationSite);
+
+        final Object[] objects = allocationSite.objects;
+        final Access[] accesses = allocationSite.accesses;
+        final XPUDeviceBufferState[] objectStates = allocationSite.objectStates;
 
         int allocCounter = 0;
         long preAllocatedSizes = 0L;
+        boolean allBuffersLocked = true;
 
-        for (int arg : args) {
-            Object dataObject = this.objects.get(arg);
-            if (!isPersistentObject(dataObject)) {
-                objects[allocCounter] = this.objects.get(arg);
-                objectStates[allocCounter] = resolveObjectState(arg);
-                accesses[allocCounter] = this.objectAccesses.get(objects[allocCounter]);
-                allocCounter++;
+        final int[] args = allocationSite.args;
+        for (int i = 0; i < args.length; i++) {
+            if (allocationSite.bufferOwners[i] != -1) {
+                continue;
+            }
+            XPUDeviceBufferState state = resolveObjectState(args[i]);
+            if (!allocationSite.isPersistent[i]) {
+                objectStates[allocCounter++] = state;
+                allBuffersLocked &= state.hasObjectBuffer() && state.isLockedBuffer();
             } else {
-                XPUDeviceBufferState state = resolveObjectState(arg);
                 preAllocatedSizes += state.getXPUBuffer().size();
             }
         }
 
         // total size of objects pre-allocated and current allocation
-        long allocationSize = interpreterDevice.allocateObjects(objects, sizeBatch, objectStates, accesses);
+        final BufferAllocationEvent allocationEvent = BufferAllocationEvent.begin(graphExecutionContext.getId(), interpreterDevice.getDeviceName());
+        long allocationSize;
+        if (sizeBatch == 0 && allBuffersLocked) {
+            // All buffers are pinned and already allocated from a previous run, so the device
+            // would only return their sizes.
+            allocationSize = 0L;
+            for (XPUDeviceBufferState state : objectStates) {
+                allocationSize += state.getXPUBuffer().size();
+            }
+        } else {
+            allocationSize = interpreterDevice.allocateObjects(objects, sizeBatch, objectStates, accesses);
+        }
         long allocationsTotalSize = allocationSize + preAllocatedSizes;
         increaseBatchNumber(sizeBatch);
+        bindSharedBuffers(allocationSite);
+
+        if (allocationEvent != null && !allBuffersLocked) {
+            for (XPUDeviceBufferState state : objectStates) {
+                if (!state.isBufferReused()) {
+                    allocationEvent.buffers++;
+                    allocationEvent.bytes += state.getXPUBuffer().size();
+                }
+            }
+            TornadoFlightEvent.commitIfRecording(allocationEvent);
+        }
 
         // Dump printing after object allocation, so the XPU-Buffer is created,
         // and we can query the size without having to use Java type analysis
@@ -525,11 +948,25 @@ public class TornadoVMInterpreter {
         return -1;
     }
 
+    /**
+     * Binds the objects that share a device buffer, as computed by the buffer liveness
+     * analysis, to the buffer of the object that owns it. The owner is always part of
+     * the same allocation site.
+     */
+    private void bindSharedBuffers(AllocationSite allocationSite) {
+        final int[] args = allocationSite.args;
+        for (int i = 0; i < args.length; i++) {
+            final int owner = allocationSite.bufferOwners[i];
+            if (owner != -1) {
+                resolveObjectState(args[i]).setXPUBuffer(resolveObjectState(owner).getXPUBuffer());
+            }
+        }
+    }
+
     private void increaseBatchNumber(long sizeBatch) {
-        if (sizeBatch != 0) {
-            for (Object object : objects) {
-                int previousBatch = currentBatchNumberPerObject.get(object);
-                currentBatchNumberPerObject.replace(object, previousBatch, ++previousBatch);
+        if (sizeBatch != 0 && currentBatchNumberPerObject != null) {
+            for (int i = 0; i < currentBatchNumberPerObject.length; i++) {
+                currentBatchNumberPerObject[i]++;
             }
         }
     }
@@ -537,17 +974,22 @@ public class TornadoVMInterpreter {
     private int executeDeAlloc(StringBuilder tornadoVMBytecodeList, final int objectIndex) {
         Object object = objects.get(objectIndex);
 
-        if (!currentBatchNumberPerObject.isEmpty() && !currentBatchNumberPerObject.isEmpty()) {
-            int currentBatchNumber = currentBatchNumberPerObject.get(object);
-            int totalNumberOfBatches = totalEvenBatchesPerObject.get(object);
-
-            if (currentBatchNumber < totalNumberOfBatches) {
-                return -1;
-            }
+        if (currentBatchNumberPerObject != null && currentBatchNumberPerObject[objectIndex] < totalEvenBatches) {
+            return -1;
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+        if (graphExecutionContext.getBufferOwner(objectIndex) != -1) {
+            // The buffer belongs to another object, so it is only unbound
+            objectState.setXPUBuffer(null);
+            return -1;
+        }
+        final BufferDeallocationEvent deallocationEvent = BufferDeallocationEvent.begin(graphExecutionContext.getId(), interpreterDevice.getDeviceName());
         long spaceDeallocated = interpreterDevice.deallocate(objectState);
+        if (deallocationEvent != null && spaceDeallocated != 0) {
+            deallocationEvent.bytes = spaceDeallocated;
+            TornadoFlightEvent.commitIfRecording(deallocationEvent);
+        }
         // Update current device area use
         if (TornadoOptions.LOG_BYTECODES() && isNotObjectAtomic(object)) {
             boolean materializeDealloc = spaceDeallocated != 0;
@@ -585,13 +1027,18 @@ public class TornadoVMInterpreter {
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
 
         // We need to stream-in when using batches, because the whole data is not copied
+        final DataTransferEvent transferEvent = DataTransferEvent.begin(graphExecutionContext.getId(), interpreterDevice.getDeviceName(), DataTransferEvent.HOST_TO_DEVICE, object);
         List<Integer> allEvents;
         if (sizeBatch > 0) {
-            allEvents = interpreterDevice.streamIn(graphExecutionContext.getExecutionPlanId(), object, sizeBatch, offset, objectState, eventWaitList);
+            allEvents = interpreterDevice.streamIn(transferQueueId(), object, sizeBatch, offset, objectState, eventWaitList);
         } else {
-            allEvents = interpreterDevice.ensurePresent(graphExecutionContext.getExecutionPlanId(), object, objectState, eventWaitList, sizeBatch, offset);
+            allEvents = interpreterDevice.ensurePresent(transferQueueId(), object, objectState, eventWaitList, sizeBatch, offset);
         }
         resetEventIndexes(eventId);
+        // The object is only copied the first time it is found on the device
+        if (transferEvent != null && allEvents != null && !allEvents.isEmpty()) {
+            recordTransfer(transferEvent, objectState, sizeBatch, allEvents);
+        }
 
         if (TornadoOptions.LOG_BYTECODES() && isNotObjectAtomic(object)) {
             long sizeObject = objectState.getXPUBuffer().size();
@@ -600,8 +1047,8 @@ public class TornadoVMInterpreter {
 
         if (TornadoOptions.isProfilerEnabled() && allEvents != null) {
             for (Integer e : allEvents) {
-                Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
-                event.waitForEvents(graphExecutionContext.getExecutionPlanId());
+                Event event = interpreterDevice.resolveEvent(transferQueueId(), e);
+                event.waitForEvents(transferQueueId());
                 long copyInTimer = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
                 copyInTimer += event.getElapsedTime();
                 timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
@@ -621,9 +1068,13 @@ public class TornadoVMInterpreter {
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
-        List<Integer> allEvents = interpreterDevice.streamIn(graphExecutionContext.getExecutionPlanId(), object, sizeBatch, offset, objectState, eventWaitList);
+        final DataTransferEvent transferEvent = DataTransferEvent.begin(graphExecutionContext.getId(), interpreterDevice.getDeviceName(), DataTransferEvent.HOST_TO_DEVICE, object);
+        List<Integer> allEvents = interpreterDevice.streamIn(transferQueueId(), object, sizeBatch, offset, objectState, eventWaitList);
 
         resetEventIndexes(eventId);
+        if (transferEvent != null) {
+            recordTransfer(transferEvent, objectState, sizeBatch, allEvents);
+        }
 
         if (TornadoOptions.LOG_BYTECODES() && isNotObjectAtomic(object)) {
             long sizeObject = objectState.getXPUBuffer().size();
@@ -632,8 +1083,8 @@ public class TornadoVMInterpreter {
 
         if (TornadoOptions.isProfilerEnabled() && allEvents != null) {
             for (Integer e : allEvents) {
-                Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), e);
-                event.waitForEvents(graphExecutionContext.getExecutionPlanId());
+                Event event = interpreterDevice.resolveEvent(transferQueueId(), e);
+                event.waitForEvents(transferQueueId());
                 long copyInTimer = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
                 copyInTimer += event.getElapsedTime();
                 timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
@@ -660,13 +1111,17 @@ public class TornadoVMInterpreter {
             DebugInterpreter.logTransferToHostAlways(object, interpreterDevice, sizeObject, sizeBatch, offset, eventId, logBuilder);
         }
 
-        int readEvent = interpreterDevice.streamOutBlocking(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, eventWaitList);
+        final DataTransferEvent transferEvent = DataTransferEvent.begin(graphExecutionContext.getId(), interpreterDevice.getDeviceName(), DataTransferEvent.DEVICE_TO_HOST, object);
+        int readEvent = interpreterDevice.streamOutBlocking(transferQueueId(), object, offset, objectState, eventWaitList);
 
         resetEventIndexes(eventId);
+        if (transferEvent != null) {
+            recordTransfer(transferEvent, objectState, sizeBatch, readEvent);
+        }
 
         if (TornadoOptions.isProfilerEnabled() && readEvent != -1) {
-            Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), readEvent);
-            event.waitForEvents(graphExecutionContext.getExecutionPlanId());
+            Event event = interpreterDevice.resolveEvent(transferQueueId(), readEvent);
+            event.waitForEvents(transferQueueId());
             long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME);
             value += event.getElapsedTime();
             timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME, value);
@@ -693,11 +1148,15 @@ public class TornadoVMInterpreter {
             long sizeOfObject = objectState.getXPUBuffer().size();
             DebugInterpreter.logTransferToHostAlwaysBlocking(object, interpreterDevice, logBuilder, sizeOfObject, sizeBatch, offset, eventId);
         }
-        final int readEvent = interpreterDevice.streamOutBlocking(graphExecutionContext.getExecutionPlanId(), object, offset, objectState, eventWaitList);
+        final DataTransferEvent transferEvent = DataTransferEvent.begin(graphExecutionContext.getId(), interpreterDevice.getDeviceName(), DataTransferEvent.DEVICE_TO_HOST, object);
+        final int readEvent = interpreterDevice.streamOutBlocking(transferQueueId(), object, offset, objectState, eventWaitList);
+        if (transferEvent != null) {
+            recordTransfer(transferEvent, objectState, sizeBatch, readEvent);
+        }
 
         if (TornadoOptions.isProfilerEnabled() && readEvent != -1) {
-            Event event = interpreterDevice.resolveEvent(graphExecutionContext.getExecutionPlanId(), readEvent);
-            event.waitForEvents(graphExecutionContext.getExecutionPlanId());
+            Event event = interpreterDevice.resolveEvent(transferQueueId(), readEvent);
+            event.waitForEvents(transferQueueId());
             long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME);
             value += event.getElapsedTime();
             timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME, value);
@@ -711,6 +1170,16 @@ public class TornadoVMInterpreter {
         resetEventIndexes(eventId);
     }
 
+    private void recordTransfer(DataTransferEvent transferEvent, XPUDeviceBufferState objectState, long sizeBatch, List<Integer> driverEvents) {
+        transferEvent.bytes = sizeBatch > 0 ? sizeBatch : objectState.getXPUBuffer().size();
+        deviceCommands.add(transferEvent, transferQueueId(), driverEvents);
+    }
+
+    private void recordTransfer(DataTransferEvent transferEvent, XPUDeviceBufferState objectState, long sizeBatch, int driverEvent) {
+        transferEvent.bytes = sizeBatch > 0 ? sizeBatch : objectState.getXPUBuffer().size();
+        deviceCommands.add(transferEvent, transferQueueId(), driverEvent);
+    }
+
     private boolean isRecompilationNeededForLastBatch(int taskIndex, SchedulableTask task, long batchThreads) {
         return (!shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)]) && task.getBatchThreads() != 0 && task.getBatchThreads() != batchThreads);
     }
@@ -769,6 +1238,23 @@ public class TornadoVMInterpreter {
 
         updateBatchThreads(task, batchThreads, indexInWrite, currentBatch);
 
+        prepareTaskForCompilation(task);
+
+        if (shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)])) {
+            prepareTaskForInstall(task, taskIndex);
+            installedCodes[globalToLocalTaskIndex(taskIndex)] = installTaskCode(task);
+            // After the compilation has been completed, increment
+            // the batch number of the task and update it.
+            if (indexInWrite && batchThreads != 0) {
+                task.setBatchNumber(++currentBatch);
+            }
+        }
+        executionFrame.stackFrame = kernelStackFrame;
+        executionFrame.waitList = waitList;
+        return executionFrame;
+    }
+
+    private void prepareTaskForCompilation(SchedulableTask task) {
         task.enableDefaultThreadScheduler(graphExecutionContext.useDefaultThreadScheduler());
 
         if (gridScheduler != null && gridScheduler.get(task.getId()) != null) {
@@ -782,35 +1268,79 @@ public class TornadoVMInterpreter {
             timeProfiler.registerDeviceID(task.getId(), task.meta().getBackendIndex() + ":" + task.meta().getDeviceIndex());
             timeProfiler.registerDeviceName(task.getId(), task.getDevice().getPhysicalDevice().getDeviceName());
         }
+    }
 
-        if (shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)])) {
-            task.setDevice(interpreterDevice);
-            try {
-                task.attachProfiler(timeProfiler);
-                if (taskIndex == (taskExecutionContexts.size() - 1)) {
-                    // If it is the last task within the task-schedule or doUpdate is true -> we
-                    // force compilation. This is useful when compiling code for Xilinx/Altera
-                    // FPGAs, that has to be a single source.
-                    task.forceCompilation();
-                }
+    private void prepareTaskForInstall(SchedulableTask task, int taskIndex) {
+        task.setDevice(interpreterDevice);
+        task.attachProfiler(timeProfiler);
+        if (taskIndex == (taskExecutionContexts.size() - 1)) {
+            // If it is the last task within the task-schedule or doUpdate is true -> we
+            // force compilation. This is useful when compiling code for Xilinx/Altera
+            // FPGAs, that has to be a single source.
+            task.forceCompilation();
+        }
+    }
 
-                installedCodes[globalToLocalTaskIndex(taskIndex)] = interpreterDevice.installCode(graphExecutionContext.getExecutionPlanId(), task);
-                profilerUpdateForPreCompiledTask(task);
-                // After the compilation has been completed, increment
-                // the batch number of the task and update it.
-                if (indexInWrite && batchThreads != 0) {
-                    task.setBatchNumber(++currentBatch);
-                }
-            } catch (TornadoBailoutRuntimeException e) {
-                throw new TornadoBailoutRuntimeException("Unable to compile " + task.getFullName() + "\n" + "The internal error is: " + e.getMessage() + "\n" + "Stacktrace: " + Arrays.toString(e
-                        .getStackTrace()), e);
-            } catch (TornadoDeviceFP64NotSupported e) {
-                throw e;
-            } catch (InternalError e) {
-                throw new TornadoBailoutRuntimeException("[Internal Error] Unable to compile " + task.getFullName() + "\n" + Arrays.toString(e.getStackTrace()));
+    private TornadoInstalledCode installTaskCode(SchedulableTask task) {
+        try {
+            TornadoInstalledCode installedCode = interpreterDevice.installCode(graphExecutionContext.getExecutionPlanId(), task);
+            profilerUpdateForPreCompiledTask(task);
+            return installedCode;
+        } catch (TornadoBailoutRuntimeException e) {
+            throw new TornadoBailoutRuntimeException("Unable to compile " + task.getFullName() + "\n" + "The internal error is: " + e.getMessage() + "\n" + "Stacktrace: " + Arrays.toString(e
+                    .getStackTrace()), e);
+        } catch (TornadoDeviceFP64NotSupported e) {
+            throw e;
+        } catch (InternalError e) {
+            throw new TornadoBailoutRuntimeException("[Internal Error] Unable to compile " + task.getFullName() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+
+    /**
+     * Prepares the compilation of every task of this interpreter that has no valid
+     * installed code yet, so that all tasks of the execution plan can be compiled
+     * concurrently before the bytecodes run. The task metadata is set up in the
+     * calling thread, in the same way as the LAUNCH bytecode does it. Each returned
+     * job installs the code of one task and returns the CPU time it consumed in
+     * nanoseconds.
+     *
+     * <p>
+     * Batched execution plans recompile the kernels per batch, and FPGA kernels are
+     * built as a single program, so they keep compiling from the LAUNCH bytecode.
+     * </p>
+     *
+     * @return A list of compilation jobs. Empty if there is nothing to compile.
+     */
+    public List<Callable<Long>> prepareParallelCompilation() {
+        List<Callable<Long>> compilationJobs = new ArrayList<>();
+        if (VIRTUAL_DEVICE_ENABLED || graphExecutionContext.getBatchSize() != TornadoExecutionContext.INIT_VALUE || interpreterDevice.getDeviceContext().isPlatformFPGA()) {
+            return compilationJobs;
+        }
+        if (interpreterDevice.getDeviceContext().wasReset() && finishedWarmup) {
+            // The LAUNCH bytecode reports the error
+            return compilationJobs;
+        }
+
+        for (int localIndex = 0; localIndex < localTaskList.size(); localIndex++) {
+            if (!shouldCompile(installedCodes[localIndex])) {
+                continue;
             }
+            final SchedulableTask task = localTaskList.get(localIndex);
+            final int taskIndex = taskExecutionContexts.indexOf(task);
+            updateMeta(task.meta());
+            updateBatchThreads(task, 0, interpreterDevice.loopIndexInWrite(task), task.getBatchNumber());
+            prepareTaskForCompilation(task);
+            prepareTaskForInstall(task, taskIndex);
+
+            final int codeIndex = localIndex;
+            compilationJobs.add(() -> {
+                final long cpuStart = RuntimeUtilities.getCurrentThreadCpuTime();
+                interpreterDevice.enableThreadSharing();
+                installedCodes[codeIndex] = installTaskCode(task);
+                return RuntimeUtilities.getCurrentThreadCpuTime() - cpuStart;
+            });
         }
-        return new XPUExecutionFrame(kernelStackFrame, waitList);
+        return compilationJobs;
     }
 
     private void popArgumentsFromCall(int numArgs) {
@@ -842,13 +1372,12 @@ public class TornadoVMInterpreter {
 
         atomicsArray = (task instanceof PrebuiltTask prebuiltTask) ? prebuiltTask.getAtomics() : interpreterDevice.checkAtomicsForTask(task);
 
-        HashMap<Integer, Integer> threadDeploy = new HashMap<>();
+        Arrays.fill(threadDeploy, 0);
         if (gridScheduler != null && gridScheduler.get(task.getId()) != null) {
             WorkerGrid workerGrid = gridScheduler.get(task.getId());
             long[] global = workerGrid.getGlobalWork();
-            int i = 0;
-            for (long maxThread : global) {
-                threadDeploy.put(i++, (int) maxThread);
+            for (int i = 0; i < Math.min(global.length, threadDeploy.length); i++) {
+                threadDeploy[i] = (int) global[i];
             }
         }
         stackFrame.reset();
@@ -867,15 +1396,14 @@ public class TornadoVMInterpreter {
 
                 if (isObjectKernelContext(objects.get(argIndex))) {
                     // Mark a kernel context
-                    stackFrame.addCallArgument(new KernelStackFrame.KernelContextArgument(), false);
+                    stackFrame.addCallArgument(KERNEL_CONTEXT_ARGUMENT, false);
                     continue;
                 }
 
-                final DataObjectState globalState = resolveGlobalObjectState(argIndex);
-                final XPUDeviceBufferState objectState = globalState.getDeviceBufferState(interpreterDevice);
+                final XPUDeviceBufferState objectState = resolveObjectState(argIndex);
                 if (!isObjectInAtomicRegion(objectState, interpreterDevice, task)) {
                     // Add a reference (arrays, vector types, panama regions)
-                    stackFrame.addCallArgument(objectState.getXPUBuffer().toBuffer(), true);
+                    stackFrame.addCallArgument(boxedBufferAddress(argIndex, objectState.getXPUBuffer().toBuffer()), true);
                 } else {
                     // Add the atomic buffer
                     atomicsArray = interpreterDevice.updateAtomicRegionAndObjectState(task, atomicsArray, i, objects.get(argIndex), objectState);
@@ -914,10 +1442,14 @@ public class TornadoVMInterpreter {
             dataContext.setGridScheduler(gridScheduler);
             dataContext.setThreadInfoEnabled(graphExecutionContext.meta().isThreadInfoEnabled());
 
+            final KernelDispatchEvent dispatchEvent = KernelDispatchEvent.begin(task.getId(), interpreterDevice.getDeviceName(), task.getTaskName());
             try {
                 int lastEvent = useDependencies
                         ? installedCode.launchWithDependencies(graphExecutionContext.getExecutionPlanId(), stackFrame, bufferAtomics, dataContext, batchThreads, waitList)
                         : installedCode.launchWithoutDependencies(graphExecutionContext.getExecutionPlanId(), stackFrame, bufferAtomics, dataContext, batchThreads);
+                if (dispatchEvent != null) {
+                    deviceCommands.add(dispatchEvent, graphExecutionContext.getExecutionPlanId(), lastEvent);
+                }
 
                 resetEventIndexes(eventId);
                 return lastEvent;
@@ -962,7 +1494,34 @@ public class TornadoVMInterpreter {
         throw new TornadoRuntimeException("[ERROR] TornadoVM Bytecode not recognized");
     }
 
+    /**
+     * Returns the device address of the buffer of an object as an argument for the stack
+     * frame. The boxed value is reused as long as the buffer does not move.
+     */
+    private Object boxedBufferAddress(int objectIndex, long address) {
+        if (boxedBufferAddresses[objectIndex] == null || bufferAddresses[objectIndex] != address) {
+            bufferAddresses[objectIndex] = address;
+            boxedBufferAddresses[objectIndex] = address;
+        }
+        return boxedBufferAddresses[objectIndex];
+    }
+
+    private boolean checkAllocations(boolean isWarmup) {
+        // The flight recorder events are allocated when a recording is running
+        return TornadoOptions.CHECK_INTERPRETER_ALLOCATIONS && !isWarmup && invocations > 0 && !DataTransferEvent.isRecording() && !KernelDispatchEvent.isRecording()
+                && !BufferAllocationEvent.isRecording() && !BufferDeallocationEvent.isRecording();
+    }
+
+    private void verifyNoAllocations(long allocatedBytes) {
+        if (allocatedBytes > 0) {
+            throw new TornadoRuntimeException("[ERROR] The TornadoVM interpreter allocated " + allocatedBytes + " bytes in execution " + invocations + " on device " + interpreterDevice);
+        }
+    }
+
     private XPUDeviceBufferState resolveObjectState(int index) {
+        if (activeBatchSlot != 0) {
+            return batchBufferSlots[activeBatchSlot][index];
+        }
         return dataObjectStates[index].getDeviceBufferState(interpreterDevice);
     }
 
@@ -990,6 +1549,18 @@ public class TornadoVMInterpreter {
         return kernelStackFrame[index];
     }
 
+    /**
+     * Checks whether a linked LAUNCH has to go through the compilation path again
+     * instead of reusing the execution frame resolved when the bytecodes were
+     * linked. This is the case when the kernel stack frame or the installed code
+     * were invalidated, the device was reset or the task must be redeployed, and
+     * for batched launches, which may recompile the kernel for each batch.
+     */
+    private boolean isLinkedLaunchStale(XPUExecutionFrame launchFrame, int localTaskIndex, long batchThreads) {
+        return batchThreads != 0 || launchFrame.stackFrame == null || !launchFrame.stackFrame.isValid() || shouldCompile(installedCodes[localTaskIndex]) || graphExecutionContext
+                .redeployOnDevice() || interpreterDevice.getDeviceContext().wasReset();
+    }
+
     private boolean shouldCompile(TornadoInstalledCode installedCode) {
         return installedCode == null || !installedCode.isValid();
     }
@@ -1012,10 +1583,6 @@ public class TornadoVMInterpreter {
         }
     }
 
-    private DataObjectState resolveGlobalObjectState(int index) {
-        return dataObjectStates[index];
-    }
-
     private boolean isObjectInAtomicRegion(XPUDeviceBufferState objectState, TornadoXPUDevice device, SchedulableTask task) {
         return objectState.isAtomicRegionPresent() && device.checkAtomicsParametersForTask(task);
     }
@@ -1033,25 +1600,51 @@ public class TornadoVMInterpreter {
     }
 
     /**
-     * Container class that holds information about object allocation counts.
-     * Used to track the number of persistent objects and the number of objects
-     * that need to be allocated.
-     *
-     * @param persistentObjectCount
-     *     Number of persistent objects that don't need allocation
-     * @param objectsToAlloc
-     *     Number of objects that need to be allocated
+     * A TornadoVM bytecode with its operands already decoded.
      */
-    public record ObjectAllocationInfo(int persistentObjectCount, int objectsToAlloc) {
+    @FunctionalInterface
+    private interface BytecodeAction {
+        /**
+         * Executes the bytecode.
+         *
+         * @param logBuilder
+         *     Log of the executed bytecodes, or null if logging is disabled.
+         * @param lastEvent
+         *     Event of the last executed bytecode.
+         * @return the event of this bytecode, or lastEvent if it does not produce one.
+         */
+        int execute(StringBuilder logBuilder, int lastEvent);
+    }
+
+    /**
+     * Stages of each batch of a pipelined batch execution, indexed by batch.
+     */
+    private record BatchPipeline(BytecodeAction[] prologue, BytecodeAction[][] uploads, BytecodeAction[][] computes, BytecodeAction[][] downloads, BytecodeAction[][] releases,
+            BytecodeAction[] epilogue) {
     }
 
     private static class XPUExecutionFrame {
         private KernelStackFrame stackFrame;
         private int[] waitList;
+    }
 
-        XPUExecutionFrame(KernelStackFrame callWrapper, int[] waitList) {
-            this.stackFrame = callWrapper;
-            this.waitList = waitList;
+    /**
+     * Pre-resolved state of an ALLOC bytecode. The arrays passed to the device are
+     * built once and refilled on every call.
+     */
+    private static class AllocationSite {
+        private final int[] args;
+        private final boolean[] isPersistent;
+        private final int[] bufferOwners;
+        private Object[] objects;
+        private Access[] accesses;
+        private XPUDeviceBufferState[] objectStates;
+        private int persistedObjectsVersion = -1;
+
+        AllocationSite(int numArgs) {
+            this.args = new int[numArgs];
+            this.isPersistent = new boolean[numArgs];
+            this.bufferOwners = new int[numArgs];
         }
     }
 }
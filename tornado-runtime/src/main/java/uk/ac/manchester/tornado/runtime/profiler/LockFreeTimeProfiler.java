@@ -0,0 +1,438 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.profiler;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongBinaryOperator;
+
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
+import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Profiler that stores its metrics in arrays of {@code long} values indexed by
+ * the ordinal of the {@link ProfilerType}. Task slots are indexed by the task
+ * index in the task-graph and registered with {@link #registerTask(int, String)}
+ * before the execution. A task is found by comparing its ID with the IDs of the
+ * slots, which are the same string instances that the runtime passes, so no map
+ * is used. All updates are plain stores or CAS operations on the arrays of the
+ * slot, so threads that run tasks on different devices do not contend on a
+ * lock. The profiler is reused across executions with {@link #clean()}, and it
+ * does not allocate after the first one. The JSON report is only created when
+ * it is requested.
+ */
+public class LockFreeTimeProfiler implements TornadoProfiler {
+
+    private static final ProfilerType[] TYPES = ProfilerType.values();
+
+    /**
+     * Marks metrics that have not been set since the last {@link #clean()}.
+     */
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private static final LongBinaryOperator ADD = (current, value) -> (current == UNSET ? 0 : current) + value;
+
+    private final AtomicLongArray graphTimers;
+    private volatile TaskMetrics[] tasks;
+    private int numTasks;
+
+    public LockFreeTimeProfiler() {
+        this(4);
+    }
+
+    /**
+     * @param expectedTasks
+     *     Number of task slots allocated upfront.
+     */
+    public LockFreeTimeProfiler(int expectedTasks) {
+        graphTimers = newMetrics();
+        tasks = new TaskMetrics[Math.max(expectedTasks, 1)];
+    }
+
+    private static AtomicLongArray newMetrics() {
+        AtomicLongArray metrics = new AtomicLongArray(TYPES.length);
+        reset(metrics);
+        return metrics;
+    }
+
+    private static void reset(AtomicLongArray metrics) {
+        for (int i = 0; i < metrics.length(); i++) {
+            metrics.setRelease(i, UNSET);
+        }
+    }
+
+    private static long valueOrZero(long value) {
+        return value == UNSET ? 0 : value;
+    }
+
+    private static TaskMetrics find(TaskMetrics[] slots, String taskName) {
+        for (int i = 0; i < slots.length && slots[i] != null; i++) {
+            if (slots[i].name == taskName) {
+                return slots[i];
+            }
+        }
+        // Names built by the caller are not the registered instances
+        for (int i = 0; i < slots.length && slots[i] != null; i++) {
+            if (slots[i].name.equals(taskName)) {
+                return slots[i];
+            }
+        }
+        return null;
+    }
+
+    private TaskMetrics task(String taskName) {
+        TaskMetrics metrics = find(tasks, taskName);
+        return metrics != null ? metrics : addTask(taskName);
+    }
+
+    private synchronized TaskMetrics addTask(String taskName) {
+        TaskMetrics metrics = find(tasks, taskName);
+        return metrics != null ? metrics : setSlot(numTasks, new TaskMetrics(taskName));
+    }
+
+    private TaskMetrics setSlot(int index, TaskMetrics metrics) {
+        TaskMetrics[] slots = tasks;
+        if (index == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        slots[index] = metrics;
+        numTasks = Math.max(numTasks, index + 1);
+        // Publish the new array after the slot is set, so readers never see a task without metrics
+        tasks = slots;
+        return metrics;
+    }
+
+    /**
+     * Assigns the slot of a task. The runtime calls it for each task of the
+     * task-graph, in task order, before each execution, so the slot of a task is
+     * its index in the task-graph. It does nothing if the task already has that
+     * slot, which is the case after the first execution.
+     *
+     * @param taskIndex
+     *     Index of the task in the task-graph.
+     * @param taskName
+     *     ID of the task.
+     */
+    public synchronized void registerTask(int taskIndex, String taskName) {
+        TaskMetrics[] slots = tasks;
+        if (taskIndex < numTasks && slots[taskIndex].name.equals(taskName)) {
+            return;
+        }
+        // Copy on write, so readers never see a slot twice or a missing slot
+        TaskMetrics[] updated = Arrays.copyOf(slots, Math.max(slots.length, numTasks + 1));
+        int count = numTasks;
+        TaskMetrics metrics = find(slots, taskName);
+        if (metrics == null) {
+            metrics = new TaskMetrics(taskName);
+        } else {
+            int current = Arrays.asList(updated).indexOf(metrics);
+            System.arraycopy(updated, current + 1, updated, current, count - current - 1);
+            updated[--count] = null;
+        }
+        int index = Math.min(taskIndex, count);
+        System.arraycopy(updated, index, updated, index + 1, count - index);
+        updated[index] = metrics;
+        numTasks = count + 1;
+        tasks = updated;
+    }
+
+    @Override
+    public void addValueToMetric(ProfilerType type, String taskName, long value) {
+        task(taskName).sizes.accumulateAndGet(type.ordinal(), value, ADD);
+    }
+
+    @Override
+    public void start(ProfilerType type) {
+        graphTimers.setRelease(type.ordinal(), System.nanoTime());
+    }
+
+    @Override
+    public void start(ProfilerType type, String taskName) {
+        task(taskName).timers.setRelease(type.ordinal(), System.nanoTime());
+    }
+
+    @Override
+    public void registerMethodHandle(ProfilerType type, String taskName, String methodName) {
+        task(taskName).method = methodName;
+    }
+
+    @Override
+    public void registerDeviceName(String taskName, String deviceInfo) {
+        task(taskName).device = deviceInfo;
+    }
+
+    @Override
+    public void registerBackend(String taskName, String backend) {
+        task(taskName).backend = backend;
+    }
+
+    @Override
+    public void registerDeviceID(String taskName, String deviceID) {
+        task(taskName).deviceId = deviceID;
+    }
+
+    private static void stop(AtomicLongArray timers, int index) {
+        long end = System.nanoTime();
+        long start = timers.getAcquire(index);
+        if (start != UNSET) {
+            timers.setRelease(index, end - start);
+        }
+    }
+
+    @Override
+    public void stop(ProfilerType type) {
+        stop(graphTimers, type.ordinal());
+    }
+
+    @Override
+    public void stop(ProfilerType type, String taskName) {
+        stop(task(taskName).timers, type.ordinal());
+    }
+
+    @Override
+    public long getTimer(ProfilerType type) {
+        return valueOrZero(graphTimers.getAcquire(type.ordinal()));
+    }
+
+    @Override
+    public long getSize(ProfilerType type) {
+        TaskMetrics[] slots = tasks;
+        long size = 0;
+        for (int i = 0; i < slots.length && slots[i] != null; i++) {
+            size += valueOrZero(slots[i].sizes.getAcquire(type.ordinal()));
+        }
+        return size;
+    }
+
+    @Override
+    public long getTaskTimer(ProfilerType type, String taskName) {
+        TaskMetrics metrics = find(tasks, taskName);
+        return metrics == null ? 0 : valueOrZero(metrics.timers.getAcquire(type.ordinal()));
+    }
+
+    @Override
+    public void setTimer(ProfilerType type, long time) {
+        graphTimers.setRelease(type.ordinal(), time);
+    }
+
+    @Override
+    public void dump() {
+        for (ProfilerType p : TYPES) {
+            long value = graphTimers.getAcquire(p.ordinal());
+            if (value != UNSET) {
+                System.out.println("[PROFILER] " + p.getDescription() + ": " + value);
+            }
+        }
+        TaskMetrics[] slots = tasks;
+        for (int i = 0; i < slots.length && slots[i] != null; i++) {
+            if (slots[i].hasTimers()) {
+                System.out.println("[PROFILER-TASK] " + slots[i].name + ": " + slots[i].timersToString());
+            }
+        }
+    }
+
+    private static void appendEntry(StringBuilder json, String indent, Object key, Object value) {
+        json.append(indent).append('"').append(key).append("\": \"").append(value).append("\",\n");
+    }
+
+    private static void appendMetrics(StringBuilder json, String indent, AtomicLongArray metrics) {
+        for (ProfilerType p : TYPES) {
+            long value = metrics.getAcquire(p.ordinal());
+            if (value != UNSET) {
+                appendEntry(json, indent, p, value);
+            }
+        }
+    }
+
+    @Override
+    public String createJson(StringBuilder json, String sectionName) {
+        final String indent1 = "    ";
+        final String indent2 = indent1 + indent1;
+        final String indent3 = indent2 + indent1;
+        json.append("{\n");
+        json.append(indent1).append('"').append(sectionName).append("\": {\n");
+        appendMetrics(json, indent2, graphTimers);
+        TaskMetrics noTask = find(tasks, TimeProfiler.NO_TASK_NAME);
+        if (noTask != null) {
+            appendMetrics(json, indent2, noTask.sizes);
+        }
+
+        TaskMetrics[] slots = tasks;
+        int size = 0;
+        for (int i = 0; i < slots.length && slots[i] != null; i++) {
+            size += slots[i].hasTimers() ? 1 : 0;
+        }
+        int counter = 0;
+        for (int i = 0; i < slots.length && slots[i] != null; i++) {
+            TaskMetrics task = slots[i];
+            if (!task.hasTimers()) {
+                continue;
+            }
+            counter++;
+            json.append(indent2).append('"').append(task.name).append("\": {\n");
+            if (TornadoOptions.LOG_IP) {
+                appendEntry(json, indent3, "IP", RuntimeUtilities.getTornadoInstanceIP());
+            }
+            appendEntry(json, indent3, ProfilerType.BACKEND, task.backend);
+            appendEntry(json, indent3, ProfilerType.METHOD, task.method);
+            appendEntry(json, indent3, ProfilerType.DEVICE_ID, task.deviceId);
+            appendEntry(json, indent3, ProfilerType.DEVICE, task.device);
+            appendMetrics(json, indent3, task.sizes);
+            for (ProfilerType p : TYPES) {
+                String value = task.power.get(p.ordinal());
+                if (value != null) {
+                    appendEntry(json, indent3, p, value);
+                }
+            }
+            appendMetrics(json, indent3, task.timers);
+            json.delete(json.length() - 2, json.length() - 1); // remove last comma
+            json.append(indent2).append('}');
+            if (counter != size) {
+                json.append(", ");
+            }
+            json.append('\n');
+        }
+        json.append(indent1).append("}\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    @Override
+    public void dumpJson(StringBuilder json, String id) {
+        System.out.println(createJson(json, id));
+    }
+
+    @Override
+    public void clean() {
+        reset(graphTimers);
+        TaskMetrics[] slots = tasks;
+        for (int i = 0; i < slots.length && slots[i] != null; i++) {
+            reset(slots[i].timers);
+            reset(slots[i].sizes);
+        }
+    }
+
+    @Override
+    public void setTaskTimer(ProfilerType type, String taskID, long timer) {
+        task(taskID).timers.setRelease(type.ordinal(), timer);
+    }
+
+    private void setPowerMetric(ProfilerType type, String taskID, String value) {
+        task(taskID).power.set(type.ordinal(), value);
+    }
+
+    @Override
+    public void setTaskPowerUsage(ProfilerType type, String taskID, long power) {
+        setPowerMetric(type, taskID, power > 0 ? Long.toString(power) : "n/a");
+    }
+
+    @Override
+    public void setSystemPowerConsumption(ProfilerType systemPowerConsumptionType, String taskID, long powerConsumption) {
+        setPowerMetric(systemPowerConsumptionType, taskID, powerConsumption > 0 ? Long.toString(powerConsumption) : "n/a");
+    }
+
+    @Override
+    public void setSystemVoltage(ProfilerType systemPowerVoltageType, String taskID, long voltage) {
+        setPowerMetric(systemPowerVoltageType, taskID, voltage > 0 ? Float.toString(voltage) : "n/a");
+    }
+
+    @Override
+    public void sum(ProfilerType acc, long value) {
+        graphTimers.accumulateAndGet(acc.ordinal(), value, ADD);
+    }
+
+    /**
+     * Copies the current metrics into a new profiler. It is used to keep the
+     * metrics of each execution when the profiler logs are accumulated, so the
+     * JSON report can be created later.
+     *
+     * @return a copy of this profiler.
+     */
+    public LockFreeTimeProfiler snapshot() {
+        TaskMetrics[] slots = tasks;
+        LockFreeTimeProfiler copy = new LockFreeTimeProfiler(slots.length);
+        copyMetrics(graphTimers, copy.graphTimers);
+        for (int i = 0; i < slots.length && slots[i] != null; i++) {
+            TaskMetrics source = slots[i];
+            TaskMetrics target = copy.setSlot(i, new TaskMetrics(source.name));
+            copyMetrics(source.timers, target.timers);
+            copyMetrics(source.sizes, target.sizes);
+            for (int j = 0; j < TYPES.length; j++) {
+                target.power.set(j, source.power.get(j));
+            }
+            target.method = source.method;
+            target.device = source.device;
+            target.deviceId = source.deviceId;
+            target.backend = source.backend;
+        }
+        return copy;
+    }
+
+    private static void copyMetrics(AtomicLongArray source, AtomicLongArray target) {
+        for (int i = 0; i < source.length(); i++) {
+            target.setRelease(i, source.getAcquire(i));
+        }
+    }
+
+    private static final class TaskMetrics {
+        private final String name;
+        private final AtomicLongArray timers;
+        private final AtomicLongArray sizes;
+        private final AtomicReferenceArray<String> power;
+        private volatile String method;
+        private volatile String device;
+        private volatile String deviceId;
+        private volatile String backend;
+
+        private TaskMetrics(String name) {
+            this.name = name;
+            this.timers = newMetrics();
+            this.sizes = newMetrics();
+            this.power = new AtomicReferenceArray<>(TYPES.length);
+        }
+
+        private boolean hasTimers() {
+            for (int i = 0; i < timers.length(); i++) {
+                if (timers.getAcquire(i) != UNSET) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String timersToString() {
+            StringBuilder builder = new StringBuilder("{");
+            for (ProfilerType p : TYPES) {
+                long value = timers.getAcquire(p.ordinal());
+                if (value != UNSET) {
+                    builder.append(builder.length() > 1 ? ", " : "").append(p).append('=').append(value);
+                }
+            }
+            return builder.append('}').toString();
+        }
+    }
+}
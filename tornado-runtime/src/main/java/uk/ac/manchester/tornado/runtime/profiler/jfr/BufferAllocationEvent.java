@@ -0,0 +1,67 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.profiler.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Allocation of the device buffers of an {@code ALLOC} bytecode. Buffers that
+ * are reused from a previous execution are not counted.
+ */
+@Name("tornadovm.BufferAllocation")
+@Label("Buffer Allocation")
+@Description("Allocation of device buffers for the objects of a task-graph")
+public final class BufferAllocationEvent extends TornadoFlightEvent {
+
+    private static final EventType TYPE = EventType.getEventType(BufferAllocationEvent.class);
+
+    @Label("Buffers")
+    public int buffers;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    public static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+
+    /**
+     * @return a started event, or {@code null} if no recording is running.
+     */
+    public static BufferAllocationEvent begin(String taskGraphName, String deviceName) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        BufferAllocationEvent event = new BufferAllocationEvent();
+        event.taskGraph = taskGraphName;
+        event.device = deviceName;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.profiler.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Installation of the code of a task in the driver, which builds the binary for
+ * the device. The kernel can come from the persistent kernel cache, in which case
+ * the driver loads a binary that was built in a previous run.
+ */
+@Name("tornadovm.DriverInstall")
+@Label("Driver Install")
+@Description("Build and installation of the code of a task by the driver of the device")
+public final class DriverInstallEvent extends TornadoFlightEvent {
+
+    private static final EventType TYPE = EventType.getEventType(DriverInstallEvent.class);
+
+    @Label("Method")
+    public String method;
+
+    @Label("From Kernel Cache")
+    public boolean cached;
+
+    public static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+
+    /**
+     * @return a started event, or {@code null} if no recording is running.
+     */
+    public static DriverInstallEvent begin(String taskId, String deviceName, String method, boolean cached) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        DriverInstallEvent event = new DriverInstallEvent();
+        event.setTaskLabels(taskId, deviceName);
+        event.method = method;
+        event.cached = cached;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.profiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the JDK Flight Recorder events emitted by TornadoVM. Each event
+ * carries the task-graph, the task and the device it refers to, so it can be
+ * correlated with the GC and CPU events of the same recording.
+ *
+ * <p>
+ * The events are only created when a recording has enabled them. The call sites
+ * check {@code isRecording()} of the event class, which reads a flag of the
+ * registered event type, and they do not allocate when no recording is running.
+ * </p>
+ */
+@Category({ "TornadoVM" })
+@StackTrace(false)
+public abstract class TornadoFlightEvent extends Event {
+
+    @Label("Task-Graph")
+    public String taskGraph;
+
+    @Label("Task")
+    public String task;
+
+    @Label("Device")
+    public String device;
+
+    /**
+     * Sets the labels of the event from the identifier of a task, in the form
+     * {@code <task-graph>.<task>}.
+     */
+    final void setTaskLabels(String taskId, String deviceName) {
+        if (taskId != null) {
+            int separator = taskId.lastIndexOf('.');
+            taskGraph = separator == -1 ? null : taskId.substring(0, separator);
+            task = separator == -1 ? taskId : taskId.substring(separator + 1);
+        }
+        device = deviceName;
+    }
+
+    /**
+     * Commits an event created by one of the {@code begin} methods. It does nothing
+     * when the event is {@code null}, which is the case when no recording was
+     * running at the time the event would have started.
+     *
+     * @param event
+     *     Event to commit, or {@code null}.
+     */
+    public static void commitIfRecording(TornadoFlightEvent event) {
+        if (event != null && event.shouldCommit()) {
+            event.commit();
+        }
+    }
+}
@@ -37,14 +37,22 @@ public class SketchRequest {
     final Providers providers;
     final PhaseSuite<HighTierContext> graphBuilderSuite;
     final TornadoSketchTier sketchTier;
+    final String taskId;
 
-    public SketchRequest(ResolvedJavaMethod resolvedMethod, Providers providers, PhaseSuite<HighTierContext> graphBuilderSuite, TornadoSketchTier sketchTier, int driverIndex, int deviceIndex) {
+    /**
+     * @param taskId
+     *     Identifier of the task that requests the sketch. It is only used to
+     *     label the profiling events of the sketcher, and it can be {@code null}.
+     */
+    public SketchRequest(ResolvedJavaMethod resolvedMethod, Providers providers, PhaseSuite<HighTierContext> graphBuilderSuite, TornadoSketchTier sketchTier, int driverIndex, int deviceIndex,
+            String taskId) {
         this.resolvedMethod = resolvedMethod;
         this.providers = providers;
         this.graphBuilderSuite = graphBuilderSuite;
         this.sketchTier = sketchTier;
         this.driverIndex = driverIndex;
         this.deviceIndex = deviceIndex;
+        this.taskId = taskId;
     }
 
     public void run() {
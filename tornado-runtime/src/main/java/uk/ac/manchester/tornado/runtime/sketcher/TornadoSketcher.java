@@ -38,7 +38,7 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.graalvm.compiler.debug.DebugCloseable;
@@ -70,6 +70,8 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoCompilerIdentifier;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSketchTier;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoSketchTierContext;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.SketchEvent;
+import uk.ac.manchester.tornado.runtime.profiler.jfr.TornadoFlightEvent;
 
 public class TornadoSketcher {
 
@@ -80,36 +82,27 @@ public class TornadoSketcher {
     private static TornadoLogger logger = new TornadoLogger();
     public static Access[] methodAccesses;
 
-    private static boolean cacheContainsSketch(ResolvedJavaMethod method, int driverIndex, int deviceIndex) {
-        List<TornadoSketcherCacheEntry> entries = cache.get(method);
-        if (entries == null) {
-            return false;
-        }
-
+    public static Sketch lookup(ResolvedJavaMethod resolvedMethod, int driverIndex, int deviceIndex) {
+        guarantee(cache.containsKey(resolvedMethod), "cache miss for: %s", resolvedMethod.getName());
+        List<TornadoSketcherCacheEntry> entries = cache.get(resolvedMethod);
+        FutureTask<Sketch> sketchFuture = null;
         synchronized (entries) {
             for (TornadoSketcherCacheEntry entry : entries) {
                 if (entry.matchesDriverAndDevice(driverIndex, deviceIndex)) {
-                    return true;
+                    sketchFuture = entry.getSketchFuture();
+                    break;
                 }
             }
         }
-        return false;
-    }
+        guarantee(sketchFuture != null, "No sketch available for %d:%d %s", driverIndex, deviceIndex, resolvedMethod.getName());
+
+        // If no sketcher thread has picked up the request yet, build it in the calling
+        // thread. This is a no-op when the sketch is already running or done, and it
+        // prevents sketches of callees from waiting behind their callers in the pool.
+        sketchFuture.run();
 
-    public static Sketch lookup(ResolvedJavaMethod resolvedMethod, int driverIndex, int deviceIndex) {
-        Sketch sketch = null;
-        guarantee(cache.containsKey(resolvedMethod), "cache miss for: %s", resolvedMethod.getName());
-        List<TornadoSketcherCacheEntry> entries = cache.get(resolvedMethod);
         try {
-            synchronized (entries) {
-                for (TornadoSketcherCacheEntry entry : entries) {
-                    if (entry.matchesDriverAndDevice(driverIndex, deviceIndex)) {
-                        sketch = entry.getSketchFuture().get();
-                        break;
-                    }
-                }
-            }
-            guarantee(sketch != null, "No sketch available for %d:%d %s", driverIndex, deviceIndex, resolvedMethod.getName());
+            return sketchFuture.get();
         } catch (InterruptedException | ExecutionException e) {
             logger.fatal("Failed to retrieve sketch for %d:%d %s ", driverIndex, deviceIndex, resolvedMethod.getName());
             if (TornadoOptions.DEBUG) {
@@ -124,22 +117,30 @@ public class TornadoSketcher {
             }
             throw new TornadoInternalError(cause);
         }
-        return sketch;
     }
 
     static void buildSketch(SketchRequest request) {
-        if (cacheContainsSketch(request.resolvedMethod, request.driverIndex, request.deviceIndex)) {
-            return;
-        }
         List<TornadoSketcherCacheEntry> sketches = cache.computeIfAbsent(request.resolvedMethod, k -> Collections.synchronizedList(new ArrayList<>(TornadoVMBackendType.values().length)));
-        Future<Sketch> result = getTornadoExecutor().submit(new TornadoSketcherCallable(request));
-        sketches.add(new TornadoSketcherCacheEntry(request.driverIndex, request.deviceIndex, result));
+        FutureTask<Sketch> result;
+        synchronized (sketches) {
+            for (TornadoSketcherCacheEntry entry : sketches) {
+                if (entry.matchesDriverAndDevice(request.driverIndex, request.deviceIndex)) {
+                    return;
+                }
+            }
+            result = new FutureTask<>(new TornadoSketcherCallable(request));
+            sketches.add(new TornadoSketcherCacheEntry(request.driverIndex, request.deviceIndex, result));
+        }
+        getTornadoExecutor().execute(result);
     }
 
     @SuppressWarnings("checkstyle:LineLength")
     private static Sketch buildSketch(ResolvedJavaMethod resolvedMethod, Providers providers, PhaseSuite<HighTierContext> graphBuilderSuite, TornadoSketchTier sketchTier, int backendIndex,
-            int deviceIndex) {
+            int deviceIndex, String taskId) {
         logger.info("Building sketch of %s::%s", resolvedMethod.getDeclaringClass().getName(), resolvedMethod.getName());
+        final SketchEvent sketchEvent = SketchEvent.isRecording()
+                ? SketchEvent.begin(taskId, TornadoCoreRuntime.getTornadoRuntime().getBackend(backendIndex).getDevice(deviceIndex).getDeviceName(), resolvedMethod.getName())
+                : null;
         TornadoCompilerIdentifier id = new TornadoCompilerIdentifier("sketch-" + resolvedMethod.getName(), sketchId.getAndIncrement());
         Builder builder = new Builder(getOptions(), getDebugContext(), AllowAssumptions.YES);
         builder.method(resolvedMethod);
@@ -171,7 +172,8 @@ public class TornadoSketcher {
                             throw new TornadoRuntimeException("[ERROR] Java method name corresponds to an OpenCL Token. Change the Java method's name: " + invoke.callTarget().targetMethod()
                                     .getName());
                         }
-                        SketchRequest newRequest = new SketchRequest(invoke.callTarget().targetMethod(), providers, graphBuilderSuite, sketchTier, backendIndex, deviceIndex);
+                        SketchRequest newRequest = new SketchRequest(invoke.callTarget().targetMethod(), providers, graphBuilderSuite, sketchTier, backendIndex, deviceIndex,
+                                taskId);
                         buildSketch(newRequest);
                     });
 
@@ -184,7 +186,9 @@ public class TornadoSketcher {
 
             methodAccesses = highTierAccesses;
 
-            return new Sketch(graph.copy(TornadoCoreRuntime.getDebugContext()), methodAccesses, highTierContext.getBatchWriteThreadIndex());
+            Sketch sketch = new Sketch(graph.copy(TornadoCoreRuntime.getDebugContext()), highTierAccesses, highTierContext.getBatchWriteThreadIndex());
+            TornadoFlightEvent.commitIfRecording(sketchEvent);
+            return sketch;
 
         } catch (Throwable e) {
             logger.fatal("unable to build sketch for method: %s (%s)", resolvedMethod.getName(), e.getMessage());
@@ -236,9 +240,9 @@ public class TornadoSketcher {
 
         private final int driverIndex;
         private final int deviceIndex;
-        private final Future<Sketch> sketchFuture;
+        private final FutureTask<Sketch> sketchFuture;
 
-        private TornadoSketcherCacheEntry(int driverIndex, int deviceIndex, Future<Sketch> sketchFuture) {
+        private TornadoSketcherCacheEntry(int driverIndex, int deviceIndex, FutureTask<Sketch> sketchFuture) {
             this.driverIndex = driverIndex;
             this.deviceIndex = deviceIndex;
             this.sketchFuture = sketchFuture;
@@ -248,7 +252,7 @@ public class TornadoSketcher {
             return this.driverIndex == driverIndex && this.deviceIndex == deviceIndex;
         }
 
-        public Future<Sketch> getSketchFuture() {
+        public FutureTask<Sketch> getSketchFuture() {
             return sketchFuture;
         }
     }
@@ -263,7 +267,7 @@ public class TornadoSketcher {
         @Override
         public Sketch call() {
             try (DebugContext.Scope ignored = getDebugContext().scope("SketchCompiler")) {
-                return buildSketch(request.resolvedMethod, request.providers, request.graphBuilderSuite, request.sketchTier, request.driverIndex, request.deviceIndex);
+                return buildSketch(request.resolvedMethod, request.providers, request.graphBuilderSuite, request.sketchTier, request.driverIndex, request.deviceIndex, request.taskId);
             } catch (Throwable e) {
                 throw getDebugContext().handle(e);
             }
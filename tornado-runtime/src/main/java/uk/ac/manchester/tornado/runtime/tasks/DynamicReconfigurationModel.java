@@ -0,0 +1,294 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import uk.ac.manchester.tornado.api.Policy;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Cost model for the dynamic reconfiguration. For each policy, task-graph
+ * signature (the methods of its tasks) and device, it keeps the samples
+ * measured by the dynamic reconfiguration at different input sizes: the
+ * compilation time and the execution time. The execution time includes the
+ * data transfers of the task-graph, so they are part of the cost of each device.
+ *
+ * <p>
+ * The cost of a device for a new input size is interpolated between the
+ * closest samples. When all devices have samples close to the input size, and
+ * the best device is faster than the rest by the margin set with
+ * {@link TornadoOptions#DR_MODEL_MARGIN}, the device is selected without
+ * running the task-graph on all devices. Otherwise, the dynamic reconfiguration
+ * explores all devices and records the new samples. Only the explorations of
+ * {@code DRMode.SERIAL} are recorded: in {@code DRMode.PARALLEL}, all devices
+ * run at the same time and contend for the host, so their times do not predict
+ * the time of a device on its own.
+ * </p>
+ *
+ * <p>
+ * The model is enabled with {@link TornadoOptions#DR_MODEL_FILE}. It is loaded
+ * from that file on first use and written back after each exploration, so it is
+ * shared by all processes that use the same file.
+ * </p>
+ */
+public final class DynamicReconfigurationModel {
+
+    /**
+     * A device is only predicted for input sizes within this factor of its
+     * smallest and largest samples.
+     */
+    private static final int EXTRAPOLATION_RANGE = 2;
+
+    private static final String FILE_HEADER = "# policy\tsignature\tdevice\tinputSize\tcompileTime(ns)\texecutionTime(ns)";
+
+    private static final TornadoLogger logger = new TornadoLogger(DynamicReconfigurationModel.class);
+    private static volatile DynamicReconfigurationModel instance;
+
+    private final Path file;
+    private final Map<String, TreeMap<Integer, Sample>> samples = new HashMap<>();
+
+    private DynamicReconfigurationModel(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return the model stored in {@link TornadoOptions#DR_MODEL_FILE}, or
+     *     {@code null} if the model is not enabled.
+     */
+    public static DynamicReconfigurationModel getInstance() {
+        if (TornadoOptions.DR_MODEL_FILE.isEmpty()) {
+            return null;
+        }
+        if (instance == null) {
+            synchronized (DynamicReconfigurationModel.class) {
+                if (instance == null) {
+                    DynamicReconfigurationModel model = new DynamicReconfigurationModel(Paths.get(TornadoOptions.DR_MODEL_FILE));
+                    model.merge();
+                    instance = model;
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static String getKey(Policy policy, String signature, String device) {
+        return policy + "\t" + signature + "\t" + device;
+    }
+
+    private static long getCost(Policy policy, Sample sample) {
+        // END_2_END measures the first execution, so the compilation time is part of the
+        // cost. PERFORMANCE measures the execution after the warm-up.
+        return (policy == Policy.END_2_END) ? sample.compileTime() + sample.executionTime() : sample.executionTime();
+    }
+
+    /**
+     * Interpolates the cost of a device from its samples.
+     *
+     * @return the predicted cost, or -1 if the samples are not close enough to
+     *     the input size.
+     */
+    private static long predictCost(Policy policy, TreeMap<Integer, Sample> deviceSamples, int inputSize) {
+        if (deviceSamples == null || deviceSamples.isEmpty()) {
+            return -1;
+        }
+        if ((long) inputSize * EXTRAPOLATION_RANGE < deviceSamples.firstKey() || inputSize > (long) deviceSamples.lastKey() * EXTRAPOLATION_RANGE) {
+            return -1;
+        }
+
+        Map.Entry<Integer, Sample> lower = deviceSamples.floorEntry(inputSize);
+        Map.Entry<Integer, Sample> upper = deviceSamples.ceilingEntry(inputSize);
+        if (lower != null && upper != null && lower.getKey().equals(upper.getKey())) {
+            return getCost(policy, lower.getValue());
+        }
+        if (lower == null) {
+            // Extrapolate below the smallest sample, using the next sample if there is one
+            lower = upper;
+            upper = deviceSamples.higherEntry(upper.getKey());
+        } else if (upper == null) {
+            // Extrapolate above the largest sample, using the previous sample if there is one
+            upper = lower;
+            lower = deviceSamples.lowerEntry(lower.getKey());
+        }
+        if (lower == null || upper == null) {
+            // Only one sample: the execution time scales with the input size
+            Sample sample = (lower != null) ? lower.getValue() : upper.getValue();
+            int sampleSize = (lower != null) ? lower.getKey() : upper.getKey();
+            return getCost(policy, new Sample(sample.compileTime(), (long) ((double) sample.executionTime() * inputSize / sampleSize)));
+        }
+
+        double lowerCost = getCost(policy, lower.getValue());
+        double upperCost = getCost(policy, upper.getValue());
+        double slope = (upperCost - lowerCost) / (upper.getKey() - lower.getKey());
+        return Math.max(0, (long) (lowerCost + slope * (inputSize - lower.getKey())));
+    }
+
+    /**
+     * Predicts the cost of a device from its recorded samples.
+     *
+     * @param policy
+     *     Policy of the dynamic reconfiguration.
+     * @param signature
+     *     Signature of the task-graph.
+     * @param device
+     *     Identifier of the device.
+     * @param inputSize
+     *     Input size of the task-graph.
+     * @return the predicted cost in nanoseconds, or -1 if the samples are not
+     *     close enough to the input size.
+     */
+    public synchronized long predictCost(Policy policy, String signature, String device, int inputSize) {
+        return predictCost(policy, samples.get(getKey(policy, signature, device)), inputSize);
+    }
+
+    /**
+     * Selects a device from the recorded samples.
+     *
+     * @param policy
+     *     Policy of the dynamic reconfiguration.
+     * @param signature
+     *     Signature of the task-graph.
+     * @param inputSize
+     *     Input size of the task-graph.
+     * @param devices
+     *     Identifiers of the devices, in the order used by the dynamic
+     *     reconfiguration.
+     * @return the index of the selected device, or -1 if the model is not
+     *     confident and all devices must be explored.
+     */
+    public synchronized int selectDevice(Policy policy, String signature, int inputSize, List<String> devices) {
+        int bestDevice = -1;
+        long bestCost = Long.MAX_VALUE;
+        long secondCost = Long.MAX_VALUE;
+        for (int i = 0; i < devices.size(); i++) {
+            long cost = predictCost(policy, samples.get(getKey(policy, signature, devices.get(i))), inputSize);
+            if (cost < 0) {
+                return -1;
+            }
+            if (cost < bestCost) {
+                secondCost = bestCost;
+                bestCost = cost;
+                bestDevice = i;
+            } else if (cost < secondCost) {
+                secondCost = cost;
+            }
+        }
+        if (secondCost != Long.MAX_VALUE && (double) secondCost < bestCost * (1.0 + TornadoOptions.DR_MODEL_MARGIN / 100.0)) {
+            return -1;
+        }
+        return bestDevice;
+    }
+
+    /**
+     * Records the samples of an exploration and writes the model to its file.
+     *
+     * @param devicesSamples
+     *     Sample for each device, in the same order as the devices. Devices
+     *     without a sample are {@code null}.
+     */
+    public synchronized void record(Policy policy, String signature, int inputSize, List<String> devices, Sample[] devicesSamples) {
+        for (int i = 0; i < devices.size(); i++) {
+            if (devicesSamples[i] != null) {
+                samples.computeIfAbsent(getKey(policy, signature, devices.get(i)), key -> new TreeMap<>()).put(inputSize, devicesSamples[i]);
+            }
+        }
+        save();
+    }
+
+    /**
+     * Adds the samples stored in the file that are not in memory. Samples in
+     * memory are newer, so they are kept.
+     */
+    private void merge() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String[] fields = line.split("\t");
+                if (line.startsWith("#") || fields.length != 6) {
+                    continue;
+                }
+                try {
+                    Sample sample = new Sample(Long.parseLong(fields[4]), Long.parseLong(fields[5]));
+                    String key = getKey(Policy.valueOf(fields[0]), fields[1], fields[2]);
+                    samples.computeIfAbsent(key, k -> new TreeMap<>()).putIfAbsent(Integer.parseInt(fields[3]), sample);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("[DR Model] Ignoring malformed entry in %s: %s", file, line);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("[DR Model] Unable to read %s: %s", file, e.getMessage());
+        }
+    }
+
+    private void save() {
+        // Keep the samples recorded by other processes since the file was read
+        merge();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Write to a temporary file first, so other processes never read a partial model
+            Path temporaryFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile)) {
+                writer.write(FILE_HEADER);
+                writer.newLine();
+                for (Map.Entry<String, TreeMap<Integer, Sample>> entry : samples.entrySet()) {
+                    for (Map.Entry<Integer, Sample> sample : entry.getValue().entrySet()) {
+                        writer.write(entry.getKey() + "\t" + sample.getKey() + "\t" + sample.getValue().compileTime() + "\t" + sample.getValue().executionTime());
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("[DR Model] Unable to write %s: %s", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Measurements of one device at one input size.
+     *
+     * @param compileTime
+     *     Time of the first execution that is not part of the following
+     *     executions (compilation and first allocations), in nanoseconds.
+     * @param executionTime
+     *     Time of the measured execution, including the data transfers, in
+     *     nanoseconds.
+     */
+    public record Sample(long compileTime, long executionTime) {
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+
+/**
+ * {@link KernelContext} of one work-item when a kernel runs on the host with
+ * {@link HostKernelExecutor}. The barriers synchronise the work-items of the
+ * same work-group, the local arrays are shared by the work-group, and the
+ * atomics are atomic across all the work-items of the kernel.
+ */
+final class HostKernelContext extends KernelContext {
+
+    private static final VarHandle INT_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+
+    // Native arrays are updated under a lock, picked from the array and the index
+    private static final int NUM_LOCKS = 256;
+    private static final Object[] LOCKS = new Object[NUM_LOCKS];
+
+    static {
+        for (int i = 0; i < NUM_LOCKS; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    private final HostKernelExecutor.WorkGroup workGroup;
+    private int localArrayIndex;
+
+    HostKernelContext(HostKernelExecutor.WorkGroup workGroup, int[] globalId, int[] localId, int[] globalGroupSize) {
+        super(globalId, workGroup.groupId, localId, globalGroupSize, workGroup.localGroupSize);
+        this.workGroup = workGroup;
+    }
+
+    private static Object lockFor(Object array, int index) {
+        return LOCKS[(System.identityHashCode(array) * 31 + index) & (NUM_LOCKS - 1)];
+    }
+
+    @Override
+    public void localBarrier() {
+        workGroup.barrier();
+    }
+
+    @Override
+    public void globalBarrier() {
+        // As in OpenCL, the barrier only synchronises the work-items of the work-group
+        workGroup.barrier();
+    }
+
+    @Override
+    public int[] allocateIntLocalArray(int size) {
+        return (int[]) workGroup.localArray(localArrayIndex++, () -> new int[size]);
+    }
+
+    @Override
+    public long[] allocateLongLocalArray(int size) {
+        return (long[]) workGroup.localArray(localArrayIndex++, () -> new long[size]);
+    }
+
+    @Override
+    public float[] allocateFloatLocalArray(int size) {
+        return (float[]) workGroup.localArray(localArrayIndex++, () -> new float[size]);
+    }
+
+    @Override
+    public double[] allocateDoubleLocalArray(int size) {
+        return (double[]) workGroup.localArray(localArrayIndex++, () -> new double[size]);
+    }
+
+    @Override
+    public void atomicAdd(int[] array, int index, int val) {
+        INT_ARRAY.getAndAdd(array, index, val);
+    }
+
+    @Override
+    public void atomicAdd(IntArray array, int index, int val) {
+        synchronized (lockFor(array, index)) {
+            array.set(index, array.get(index) + val);
+        }
+    }
+
+    @Override
+    public void atomicAdd(LongArray array, int index, long val) {
+        synchronized (lockFor(array, index)) {
+            array.set(index, array.get(index) + val);
+        }
+    }
+
+    @Override
+    public void atomicAdd(FloatArray array, int index, float val) {
+        synchronized (lockFor(array, index)) {
+            array.set(index, array.get(index) + val);
+        }
+    }
+
+    @Override
+    public void atomicAdd(DoubleArray array, int index, double val) {
+        synchronized (lockFor(array, index)) {
+            array.set(index, array.get(index) + val);
+        }
+    }
+}
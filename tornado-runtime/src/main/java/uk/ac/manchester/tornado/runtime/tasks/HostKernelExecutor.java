@@ -0,0 +1,336 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.graalvm.compiler.bytecode.BytecodeStream;
+import org.graalvm.compiler.bytecode.Bytecodes;
+
+import jdk.vm.ci.meta.ConstantPool;
+import jdk.vm.ci.meta.JavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.analyzer.TaskUtils;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Runs a task written with the {@link KernelContext} API on the host, over the
+ * {@link WorkerGrid} of the task. It is used when a task-graph bails out.
+ *
+ * <p>
+ * The work-groups are distributed across the threads of a {@link ForkJoinPool}.
+ * Each work-item receives its own {@link HostKernelContext} with its
+ * identifiers. If the kernel calls a barrier, the work-items of a work-group run
+ * in virtual threads that synchronise at each barrier. Otherwise, the work-items
+ * of a work-group run in a loop in the thread of the work-group.
+ * </p>
+ */
+public final class HostKernelExecutor {
+
+    private static final TornadoLogger logger = new TornadoLogger(HostKernelExecutor.class);
+
+    // Methods are inspected up to this depth of calls when looking for barriers
+    private static final int MAX_CALL_DEPTH = 8;
+    private static final int MAX_DEFAULT_LOCAL_SIZE = 64;
+
+    private static final ConcurrentHashMap<Method, Boolean> barrierKernels = new ConcurrentHashMap<>();
+    private static volatile ForkJoinPool pool;
+
+    private HostKernelExecutor() {
+    }
+
+    /**
+     * State shared by the work-items of a work-group.
+     */
+    static final class WorkGroup {
+        final int[] groupId;
+        final int[] localGroupSize;
+        private final Phaser phaser;
+        private final List<Object> localArrays = new ArrayList<>();
+
+        private WorkGroup(int[] groupId, int[] localGroupSize, Phaser phaser) {
+            this.groupId = groupId;
+            this.localGroupSize = localGroupSize;
+            this.phaser = phaser;
+        }
+
+        void barrier() {
+            if (phaser == null) {
+                throw new TornadoRuntimeException("[ERROR] Barrier found in a kernel that was executed without barriers on the host");
+            }
+            phaser.arriveAndAwaitAdvance();
+        }
+
+        /**
+         * Returns the local array allocated by the n-th allocation of each
+         * work-item. The first work-item that reaches the allocation creates it.
+         */
+        synchronized Object localArray(int index, Supplier<Object> allocator) {
+            if (index == localArrays.size()) {
+                localArrays.add(allocator.get());
+            }
+            return localArrays.get(index);
+        }
+
+        private void arriveAndDeregister() {
+            if (phaser != null) {
+                phaser.arriveAndDeregister();
+            }
+        }
+    }
+
+    private static ForkJoinPool getPool() {
+        if (pool == null) {
+            synchronized (HostKernelExecutor.class) {
+                if (pool == null) {
+                    int numThreads = TornadoOptions.HOST_PARALLEL_FALLBACK ? Math.max(1, TornadoOptions.HOST_PARALLEL_FALLBACK_THREADS) : 1;
+                    pool = new ForkJoinPool(numThreads);
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static int kernelContextIndex(Object[] taskParameters) {
+        for (int i = 1; i < taskParameters.length; i++) {
+            if (taskParameters[i] instanceof KernelContext) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean usesBarriers(Object task) {
+        Method method;
+        try {
+            method = TaskUtils.resolveMethodHandle(task);
+        } catch (RuntimeException | InternalError e) {
+            // Without the kernel method, assume that the work-items synchronise
+            return true;
+        }
+        return barrierKernels.computeIfAbsent(method, m -> {
+            ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(m);
+            return callsBarrier(resolvedMethod, new HashSet<>(), 0);
+        });
+    }
+
+    private static boolean isInvoke(int opcode) {
+        return opcode == Bytecodes.INVOKEVIRTUAL || opcode == Bytecodes.INVOKESPECIAL || opcode == Bytecodes.INVOKESTATIC || opcode == Bytecodes.INVOKEINTERFACE;
+    }
+
+    private static boolean isLibraryMethod(ResolvedJavaMethod method) {
+        String holder = method.getDeclaringClass().toJavaName();
+        return holder.startsWith("java.") || holder.startsWith("jdk.") || holder.startsWith("uk.ac.manchester.tornado.api.");
+    }
+
+    /**
+     * Looks for calls to a barrier in the bytecodes of a method and of the methods
+     * it calls. Calls that cannot be resolved are considered to have barriers.
+     */
+    private static boolean callsBarrier(ResolvedJavaMethod method, Set<ResolvedJavaMethod> visited, int depth) {
+        final byte[] code = method.getCode();
+        if (code == null) {
+            return false;
+        }
+        if (depth > MAX_CALL_DEPTH) {
+            return true;
+        }
+        if (!visited.add(method)) {
+            return false;
+        }
+        final ConstantPool constantPool = method.getConstantPool();
+        final BytecodeStream stream = new BytecodeStream(code);
+        while (stream.currentBC() != Bytecodes.END) {
+            final int opcode = stream.currentBC();
+            if (opcode == Bytecodes.INVOKEDYNAMIC) {
+                // Lambdas inside the kernel can call barriers
+                return true;
+            } else if (isInvoke(opcode)) {
+                final int cpi = stream.readCPI();
+                constantPool.loadReferencedType(cpi, opcode);
+                final JavaMethod callee = constantPool.lookupMethod(cpi, opcode);
+                if (callee.getName().equals("localBarrier") || callee.getName().equals("globalBarrier")) {
+                    return true;
+                }
+                if (!(callee instanceof ResolvedJavaMethod resolvedCallee)) {
+                    return true;
+                }
+                if (!isLibraryMethod(resolvedCallee) && callsBarrier(resolvedCallee, visited, depth + 1)) {
+                    return true;
+                }
+            }
+            stream.next();
+        }
+        return false;
+    }
+
+    private static int defaultLocalSize(long globalSize) {
+        for (int size = MAX_DEFAULT_LOCAL_SIZE; size > 1; size--) {
+            if (globalSize % size == 0) {
+                return size;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Runs a task that receives a {@link KernelContext} on the host, with one
+     * work-item per point of the worker grid.
+     *
+     * @param taskPackage
+     *     {@link TaskPackage} to execute.
+     * @param workerGrid
+     *     {@link WorkerGrid} of the task.
+     * @return true if the task has been executed; false if the task does not use
+     *     the {@link KernelContext} API.
+     */
+    public static boolean run(TaskPackage taskPackage, WorkerGrid workerGrid) {
+        final Object[] taskParameters = taskPackage.getTaskParameters();
+        final int contextIndex = kernelContextIndex(taskParameters);
+        if (contextIndex == -1) {
+            return false;
+        }
+
+        final long[] global = workerGrid.getGlobalWork();
+        final long[] local = workerGrid.getLocalWork();
+        final long[] offset = workerGrid.getGlobalOffset();
+        final int[] globalSize = new int[3];
+        final int[] localSize = new int[3];
+        final long[] numGroups = new long[3];
+        for (int dim = 0; dim < 3; dim++) {
+            globalSize[dim] = dim < global.length ? Math.toIntExact(global[dim]) : 1;
+            localSize[dim] = (local != null && dim < local.length) ? Math.toIntExact(local[dim]) : (dim == 0 ? defaultLocalSize(globalSize[dim]) : 1);
+            numGroups[dim] = (globalSize[dim] + localSize[dim] - 1) / localSize[dim];
+        }
+        final int[] globalOffset = new int[3];
+        for (int dim = 0; dim < 3 && offset != null && dim < offset.length; dim++) {
+            globalOffset[dim] = Math.toIntExact(offset[dim]);
+        }
+
+        final boolean barriers = usesBarriers(taskParameters[0]);
+        final long totalGroups = numGroups[0] * numGroups[1] * numGroups[2];
+        final AtomicLong nextGroup = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final KernelLaunch launch = new KernelLaunch(taskPackage.getTaskType(), taskParameters, contextIndex, globalSize, localSize, globalOffset, barriers, failure);
+
+        final int numWorkers = (int) Math.min(getPool().getParallelism(), totalGroups);
+        ForkJoinTask<?>[] workers = new ForkJoinTask<?>[numWorkers];
+        for (int worker = 0; worker < numWorkers; worker++) {
+            workers[worker] = getPool().submit(() -> {
+                for (long group = nextGroup.getAndIncrement(); group < totalGroups && failure.get() == null; group = nextGroup.getAndIncrement()) {
+                    launch.runWorkGroup(group % numGroups[0], (group / numGroups[0]) % numGroups[1], group / (numGroups[0] * numGroups[1]));
+                }
+            });
+        }
+
+        // Tasks in the graph may depend on each other, so we wait for all work-groups before returning
+        for (ForkJoinTask<?> worker : workers) {
+            worker.join();
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (error instanceof Error e) {
+            throw e;
+        } else if (error instanceof Exception exception) {
+            throw new TornadoRuntimeException(exception);
+        }
+        logger.debug("[Host Fallback] Kernel %s executed with %d work-groups on %d host threads (barriers: %b)", taskPackage.getId(), totalGroups, numWorkers, barriers);
+        return true;
+    }
+
+    private record KernelLaunch(int taskType, Object[] taskParameters, int contextIndex, int[] globalSize, int[] localSize, int[] globalOffset, boolean barriers,
+            AtomicReference<Throwable> failure) {
+
+        void runWorkGroup(long groupX, long groupY, long groupZ) {
+            final int[] groupId = { (int) groupX, (int) groupY, (int) groupZ };
+            // The last work-group of a dimension is smaller if the global size is not a multiple of the local size
+            final int[] groupSize = new int[3];
+            for (int dim = 0; dim < 3; dim++) {
+                groupSize[dim] = Math.min(localSize[dim], globalSize[dim] - groupId[dim] * localSize[dim]);
+            }
+            final int numWorkItems = groupSize[0] * groupSize[1] * groupSize[2];
+            final WorkGroup workGroup = new WorkGroup(groupId, groupSize, barriers ? new Phaser(numWorkItems) : null);
+
+            if (!barriers) {
+                for (int item = 0; item < numWorkItems && failure.get() == null; item++) {
+                    runWorkItem(workGroup, item);
+                }
+                return;
+            }
+
+            Thread[] workItems = new Thread[numWorkItems];
+            for (int item = 0; item < numWorkItems; item++) {
+                final int workItem = item;
+                workItems[item] = Thread.ofVirtual().start(() -> runWorkItem(workGroup, workItem));
+            }
+            for (Thread workItem : workItems) {
+                try {
+                    workItem.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+            }
+        }
+
+        private void runWorkItem(WorkGroup workGroup, int item) {
+            final int[] groupSize = workGroup.localGroupSize;
+            final int[] localId = { item % groupSize[0], (item / groupSize[0]) % groupSize[1], item / (groupSize[0] * groupSize[1]) };
+            final int[] globalId = new int[3];
+            for (int dim = 0; dim < 3; dim++) {
+                globalId[dim] = globalOffset[dim] + workGroup.groupId[dim] * localSize[dim] + localId[dim];
+            }
+            final Object[] arguments = taskParameters.clone();
+            arguments[contextIndex] = new HostKernelContext(workGroup, globalId, localId, globalSize);
+            try {
+                TornadoTaskGraph.invokeTask(taskType, arguments);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                // The rest of the work-group does not wait for a work-item that has finished
+                workGroup.arriveAndDeregister();
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.ASMClassVisitorProvider;
+import uk.ac.manchester.tornado.runtime.analyzer.TaskUtils;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Multi-threaded host execution used when a task-graph bails out. For each
+ * task, the outermost loop annotated with
+ * {@link uk.ac.manchester.tornado.api.annotations.Parallel} is split across the
+ * threads of a {@link ForkJoinPool}. The split version of the task is built
+ * once per method by the annotation module (see
+ * {@link ASMClassVisitorProvider#getHostParallelKernel(Method)}) and cached.
+ * Tasks that cannot be split are reported back to the caller, which runs them
+ * sequentially.
+ */
+final class HostParallelFallback {
+
+    private static final TornadoLogger logger = new TornadoLogger(HostParallelFallback.class);
+    private static final ConcurrentHashMap<Method, Optional<MethodHandle>> hostKernels = new ConcurrentHashMap<>();
+    private static final ASMClassVisitorProvider asmClassVisitorProvider = loadProvider();
+    private static volatile ForkJoinPool pool;
+
+    private HostParallelFallback() {
+    }
+
+    private static ASMClassVisitorProvider loadProvider() {
+        String tornadoAnnotationImplementation = System.getProperty("tornado.load.annotation.implementation");
+        if (tornadoAnnotationImplementation == null) {
+            return null;
+        }
+        try {
+            Class<?> klass = Class.forName(tornadoAnnotationImplementation);
+            Constructor<?> constructor = klass.getConstructor();
+            return (ASMClassVisitorProvider) constructor.newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            logger.debug("[Host Fallback] Annotation implementation not available: %s", e);
+            return null;
+        }
+    }
+
+    private static ForkJoinPool getPool() {
+        if (pool == null) {
+            synchronized (HostParallelFallback.class) {
+                if (pool == null) {
+                    pool = new ForkJoinPool(Math.max(1, TornadoOptions.HOST_PARALLEL_FALLBACK_THREADS));
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static MethodHandle getHostKernel(Method method) {
+        return hostKernels.computeIfAbsent(method, m -> Optional.ofNullable(asmClassVisitorProvider.getHostParallelKernel(m))).orElse(null);
+    }
+
+    private static void invoke(MethodHandle kernel, Object[] arguments) {
+        try {
+            kernel.invokeWithArguments(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            // Keep the exception thrown by the task as the cause
+            TornadoRuntimeException exception = new TornadoRuntimeException(t.getMessage());
+            exception.initCause(t);
+            throw exception;
+        }
+    }
+
+    /**
+     * Runs the task on the host, splitting its outermost parallel loop across all
+     * worker threads.
+     *
+     * @param taskPackage
+     *     {@link TaskPackage} to execute.
+     * @return true if the task has been executed; false if it cannot be split and
+     *     the caller must run it sequentially.
+     */
+    static boolean run(TaskPackage taskPackage) {
+        if (asmClassVisitorProvider == null || taskPackage.getTaskParameters().length == 0) {
+            return false;
+        }
+
+        final Object[] taskParameters = taskPackage.getTaskParameters();
+        final Method method = TaskUtils.resolveMethodHandle(taskParameters[0]);
+        // Only lambdas that forward all their arguments to a static method can be redirected
+        if (!Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != taskParameters.length - 1) {
+            return false;
+        }
+
+        final MethodHandle kernel = getHostKernel(method);
+        if (kernel == null) {
+            return false;
+        }
+
+        final int numWorkers = Math.max(1, TornadoOptions.HOST_PARALLEL_FALLBACK_THREADS);
+        final int numArguments = taskParameters.length - 1;
+        ForkJoinTask<?>[] workers = new ForkJoinTask<?>[numWorkers];
+        for (int worker = 0; worker < numWorkers; worker++) {
+            final Object[] arguments = new Object[numArguments + 2];
+            System.arraycopy(taskParameters, 1, arguments, 0, numArguments);
+            arguments[numArguments] = worker;
+            arguments[numArguments + 1] = numWorkers;
+            workers[worker] = getPool().submit(() -> invoke(kernel, arguments));
+        }
+
+        // Tasks in the graph may depend on each other, so we wait for all workers before returning
+        for (ForkJoinTask<?> worker : workers) {
+            worker.join();
+        }
+        logger.debug("[Host Fallback] Task %s executed with %d host threads", taskPackage.getId(), numWorkers);
+        return true;
+    }
+}
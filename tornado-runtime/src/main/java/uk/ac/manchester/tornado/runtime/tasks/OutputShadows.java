@@ -0,0 +1,136 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.lang.reflect.Array;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.api.types.collections.TornadoCollectionInterface;
+import uk.ac.manchester.tornado.api.types.images.TornadoImagesInterface;
+import uk.ac.manchester.tornado.api.types.matrix.TornadoMatrixInterface;
+import uk.ac.manchester.tornado.api.types.volumes.TornadoVolumesInterface;
+
+/**
+ * Private copies of the output objects of a task-graph, used by each device
+ * that runs in the parallel dynamic reconfiguration. Each device writes its
+ * results into its own copies, so the devices that finish later do not
+ * overwrite the results of the selected device. The copies of the selected
+ * device are then copied back into the original objects.
+ *
+ * <p>
+ * Copies are supported for native arrays (including tensors), collections,
+ * matrices, images, volumes and primitive arrays, and they are created and
+ * published with bulk copies. Other objects are shared by all devices.
+ * </p>
+ */
+public final class OutputShadows {
+
+    private final Map<Object, Object> shadows = new IdentityHashMap<>();
+
+    public OutputShadows(List<Object> outputs) {
+        for (Object output : outputs) {
+            if (!shadows.containsKey(output)) {
+                Object shadow = createShadow(output);
+                if (shadow != null) {
+                    shadows.put(output, shadow);
+                }
+            }
+        }
+    }
+
+    private static Object createShadow(Object object) {
+        return switch (object) {
+            case TornadoNativeArray nativeArray -> nativeArray.duplicate();
+            case TornadoCollectionInterface<?> collection -> collection.duplicate();
+            case TornadoMatrixInterface<?> matrix -> matrix.duplicate();
+            case TornadoImagesInterface<?> image -> image.duplicate();
+            case TornadoVolumesInterface<?> volume -> volume.duplicate();
+            case float[] array -> array.clone();
+            case double[] array -> array.clone();
+            case int[] array -> array.clone();
+            case long[] array -> array.clone();
+            case short[] array -> array.clone();
+            case byte[] array -> array.clone();
+            case char[] array -> array.clone();
+            case null, default -> null;
+        };
+    }
+
+    private static void copy(Object source, Object destination) {
+        switch (destination) {
+            case TornadoNativeArray nativeArray -> nativeArray.getSegment().copyFrom(((TornadoNativeArray) source).getSegment());
+            case TornadoCollectionInterface<?> collection -> collection.getSegment().copyFrom(((TornadoCollectionInterface<?>) source).getSegment());
+            case TornadoMatrixInterface<?> matrix -> matrix.getSegment().copyFrom(((TornadoMatrixInterface<?>) source).getSegment());
+            case TornadoImagesInterface<?> image -> image.getSegment().copyFrom(((TornadoImagesInterface<?>) source).getSegment());
+            case TornadoVolumesInterface<?> volume -> volume.getSegment().copyFrom(((TornadoVolumesInterface<?>) source).getSegment());
+            default -> System.arraycopy(source, 0, destination, 0, Array.getLength(destination));
+        }
+    }
+
+    /**
+     * @return true if no output object has a private copy.
+     */
+    public boolean isEmpty() {
+        return shadows.isEmpty();
+    }
+
+    /**
+     * @param object
+     *     Object of the task-graph.
+     * @return the private copy of the object, or the object itself if it is not an
+     *     output or it cannot be copied.
+     */
+    public Object get(Object object) {
+        return shadows.getOrDefault(object, object);
+    }
+
+    /**
+     * Creates a copy of a task that uses the private copies of the outputs.
+     *
+     * @param taskPackage
+     *     Task of the task-graph.
+     * @return task with the parameters replaced by their private copies.
+     */
+    public TaskPackage apply(TaskPackage taskPackage) {
+        if (shadows.isEmpty() || taskPackage.isPrebuiltTask()) {
+            return taskPackage;
+        }
+        Object[] parameters = taskPackage.getTaskParameters().clone();
+        for (int i = 1; i < parameters.length; i++) {
+            parameters[i] = get(parameters[i]);
+        }
+        return taskPackage.withTaskParameters(parameters);
+    }
+
+    /**
+     * Copies the private copies back into the original output objects.
+     */
+    public void publish() {
+        shadows.forEach((original, shadow) -> copy(shadow, original));
+    }
+}
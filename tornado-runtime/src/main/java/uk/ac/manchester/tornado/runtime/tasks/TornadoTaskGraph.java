@@ -62,9 +62,12 @@ import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.Policy;
 import uk.ac.manchester.tornado.api.TaskGraph;
 import uk.ac.manchester.tornado.api.TornadoBackend;
+import uk.ac.manchester.tornado.api.TornadoDeviceContext;
+import uk.ac.manchester.tornado.api.TornadoDeviceMap;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 import uk.ac.manchester.tornado.api.TornadoRuntime;
 import uk.ac.manchester.tornado.api.TornadoTaskGraphInterface;
+import uk.ac.manchester.tornado.api.WorkerGrid;
 import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.PrebuiltTaskPackage;
@@ -104,6 +107,8 @@ import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.api.types.matrix.TornadoMatrixInterface;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.TornadoVM;
 import uk.ac.manchester.tornado.runtime.analyzer.MetaReduceCodeAnalysis;
@@ -120,8 +125,10 @@ import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSuitesProvider;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraph;
 import uk.ac.manchester.tornado.runtime.graph.TornadoGraphBuilder;
+import uk.ac.manchester.tornado.runtime.graph.TornadoTaskFusion;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeBuilder;
 import uk.ac.manchester.tornado.runtime.profiler.EmptyProfiler;
+import uk.ac.manchester.tornado.runtime.profiler.LockFreeTimeProfiler;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.SketchRequest;
@@ -137,8 +144,6 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     /**
      * Options for Dynamic Reconfiguration.
      */
-    private static final boolean EXPERIMENTAL_MULTI_HOST_HEAP = false;
-    private static final int DEFAULT_DRIVER_INDEX = 0;
     private static final int PERFORMANCE_WARMUP_DYNAMIC_RECONF_PARALLEL = 3;
     private static final boolean TIME_IN_NANOSECONDS = TornadoOptions.TIME_IN_NANOSECONDS;
     private static final String TASK_GRAPH_PREFIX = "XXX";
@@ -154,16 +159,25 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private static final CompileInfo NOT_COMPILE_UPDATE = new CompileInfo(false, false);
     private static final Pattern SIZE_PATTERN = Pattern.compile("(\\d+)(MB|mg|gb|GB)");
     private static final int MAX_ITERATIONS_DYNAMIC_RECONF_SEQUENTIAL = 100;
+    private static final int MAX_PENDING_PROFILER_LOGS = 64;
 
     private static ConcurrentHashMap<Integer, TaskGraph> globalTaskGraphIndex = new ConcurrentHashMap<>();
     private static int baseGlobalIndex = 0;
     private static AtomicInteger offsetGlobalIndex = new AtomicInteger(0);
+
+    /**
+     * Devices explored by the dynamic reconfiguration. The backends do not change
+     * after the runtime is initialised, so the list is created once.
+     */
+    private static volatile List<DynamicReconfigurationTarget> dynamicReconfigurationTargets;
+
     MetaReduceCodeAnalysis analysisTaskGraph;
     private TornadoExecutionContext executionContext;
     private byte[] highLevelCode = new byte[2048];
     private ByteBuffer hlBuffer;
     private TornadoVMBytecodeBuilder tornadoVMBytecodeBuilder;
     private long batchSizeBytes = -1;
+    private AutomaticBatchKey automaticBatchKey;
     private long memoryLimitSizeBytes = -1;
 
     private TornadoVM vm;  // One TornadoVM instance per TornadoExecutionPlan
@@ -185,10 +199,15 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     private List<StreamingObject> outputModeObjects; // List of objects with its data transfer mode (OUT)
     private ConcurrentHashMap<Policy, Integer> policyTimeTable = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerOutputs = new ConcurrentHashMap<>();
-    private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerInputs = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, TaskGraph> taskGraphIndex = new ConcurrentHashMap<>();
     private StringBuilder bufferLogProfiler = new StringBuilder();
+    private final List<LockFreeTimeProfiler> pendingProfilerLogs = new ArrayList<>();
+    /**
+     * Lock-free profiler of this task-graph. It is created by the first
+     * execution and cleaned before the next ones. Copies of the task-graph create
+     * their own.
+     */
+    private LockFreeTimeProfiler lockFreeProfiler;
     private Graph compilationGraph;
     /**
      * Options for new reductions - experimental.
@@ -204,6 +223,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private ProfilerMode profilerMode;
 
     private boolean isConcurrentDevicesEnabled;
+    private TornadoTaskFusion taskFusion;
     private long executionPlanId;
     private boolean bailout;
     private Access[] accesses;
@@ -428,6 +448,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
         newTaskGraph.timeProfiler = this.timeProfiler;
         newTaskGraph.gridScheduler = this.gridScheduler;
+        newTaskGraph.taskFusion = this.taskFusion;
 
         // Pass the profiler to the execution context
         newTaskGraph.executionContext.withProfiler(timeProfiler);
@@ -480,6 +501,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         meta().disableThreadInfo();
     }
 
+    @Override
+    public void withPrelinkedBytecodes() {
+        executionContext.setPrelinkedBytecodes(true);
+    }
+
+    @Override
+    public void withoutPrelinkedBytecodes() {
+        executionContext.setPrelinkedBytecodes(false);
+    }
+
     @Override
     public void withPrintKernel() {
         meta().enablePrintKernel();
@@ -501,6 +532,12 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return executionContext.getCurrentDeviceMemoryUsage();
     }
 
+    @Override
+    public long getDeviceMemoryUsageWithoutBufferSharing() {
+        long usage = executionContext.getCurrentDeviceMemoryUsage();
+        return (usage == 0) ? 0 : usage + executionContext.getBufferSharingSavedBytes();
+    }
+
     @Override
     public Map<String, List<Object>> getPersistedTaskToObjectsMap() {
         return executionContext.getPersistedTaskToObjectsMap();
@@ -538,7 +575,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         // destDevice and device must be the same
 
         // Then we need to copy the pointers
-        deviceDest.mapDeviceRegion(executionPlanId, destArray, srcArray, deviceStateSrc, deviceStateDest, offset);
+        withCommandQueues(deviceDest, () -> deviceDest.mapDeviceRegion(executionPlanId, destArray, srcArray, deviceStateSrc, deviceStateDest, offset));
     }
 
     @Override
@@ -626,17 +663,23 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
         meta().setDevice(device);
 
-        // Make sure that a sketch is available for the device.
+        // Make sure that a sketch is available for the device. All missing sketches are
+        // requested first, so they are built in parallel before being looked up.
+        List<Integer> tasksToSketch = new ArrayList<>();
         for (int i = 0; i < executionContext.getTaskCount(); i++) {
             SchedulableTask task = executionContext.getTask(i);
             task.meta().setDevice(device);
             if (task instanceof CompilableTask compilableTask) {
                 ResolvedJavaMethod method = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(compilableTask.getMethod());
                 if (!meta().getXPUDevice().getDeviceContext().isCached(executionPlanId, method.getName(), compilableTask)) {
-                    updateInner(i, executionContext.getTask(i));
+                    requestSketch(compilableTask);
+                    tasksToSketch.add(i);
                 }
             }
         }
+        for (int i : tasksToSketch) {
+            updateInner(i, executionContext.getTask(i));
+        }
 
         //Release locked buffers from the old device and lock them on the new one.
         for (LocalObjectState localState : executionContext.getObjectStates()) {
@@ -746,38 +789,38 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return executionContext.getDeviceForTask(id);
     }
 
-    private void updateInner(int index, SchedulableTask task) {
-        int driverIndex = task.meta().getBackendIndex();
-        Providers providers = TornadoCoreRuntime.getTornadoRuntime().getBackend(driverIndex).getProviders();
-        TornadoSuitesProvider suites = TornadoCoreRuntime.getTornadoRuntime().getBackend(driverIndex).getSuitesProvider();
+    /**
+     * Submits the sketch of a task to the sketcher pool without waiting for it. Sketches of
+     * different tasks are built concurrently and only joined when their graph is looked up.
+     */
+    private ResolvedJavaMethod requestSketch(CompilableTask task) {
+        TornadoSuitesProvider suites = TornadoCoreRuntime.getTornadoRuntime().getBackend(task.meta().getBackendIndex()).getSuitesProvider();
+        Providers providers = TornadoCoreRuntime.getTornadoRuntime().getBackend(task.meta().getBackendIndex()).getProviders();
+        final ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(task.getMethod());
+        final TaskDataContext taskMetaData = task.meta();
+        new SketchRequest(resolvedMethod, providers, suites.getGraphBuilderSuite(), suites.getSketchTier(), taskMetaData.getBackendIndex(), taskMetaData.getDeviceIndex(), task.getId())
+                .run();
+        return resolvedMethod;
+    }
 
+    private void updateInner(int index, SchedulableTask task) {
         executionContext.setTask(index, task);
 
         if (task instanceof CompilableTask compilableTask) {
-            final ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(compilableTask.getMethod());
-            final TaskDataContext taskMetaData = compilableTask.meta();
-            new SketchRequest(resolvedMethod, providers, suites.getGraphBuilderSuite(), suites.getSketchTier(), taskMetaData.getBackendIndex(), taskMetaData.getDeviceIndex()).run();
-
-            Sketch sketchGraph = TornadoSketcher.lookup(resolvedMethod, taskMetaData.getBackendIndex(), taskMetaData.getDeviceIndex());
+            final ResolvedJavaMethod resolvedMethod = requestSketch(compilableTask);
+            Sketch sketchGraph = TornadoSketcher.lookup(resolvedMethod, compilableTask.meta().getBackendIndex(), compilableTask.meta().getDeviceIndex());
             this.compilationGraph = sketchGraph.getGraph();
         }
     }
 
     @Override
     public void addInner(SchedulableTask task) {
-        int driverIndex = task.meta().getBackendIndex();
-        Providers providers = TornadoCoreRuntime.getTornadoRuntime().getBackend(driverIndex).getProviders();
-        TornadoSuitesProvider suites = TornadoCoreRuntime.getTornadoRuntime().getBackend(driverIndex).getSuitesProvider();
-
         int index = executionContext.addTask(task);
 
         if (task instanceof CompilableTask compilableTask) {
             checkForMemorySegmentAsTaskParameter(compilableTask);
 
-            final ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(compilableTask.getMethod());
-            final TaskDataContext taskMetaData = compilableTask.meta();
-            new SketchRequest(resolvedMethod, providers, suites.getGraphBuilderSuite(), suites.getSketchTier(), taskMetaData.getBackendIndex(), taskMetaData.getDeviceIndex()).run();
-
+            final ResolvedJavaMethod resolvedMethod = requestSketch(compilableTask);
             Sketch lookup = TornadoSketcher.lookup(resolvedMethod, compilableTask.meta().getBackendIndex(), compilableTask.meta().getDeviceIndex());
             this.compilationGraph = lookup.getGraph();
             this.accesses = lookup.getArgumentsAccess();
@@ -827,6 +870,23 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         executionContext.setDevice(meta().getXPUDevice());
     }
 
+    /**
+     * Tasks are not fused when the task-graph runs in batches, with a grid
+     * scheduler, on concurrent devices or on an FPGA, because these modes
+     * configure or launch each task separately.
+     */
+    private boolean isTaskFusionEnabled() {
+        return TornadoOptions.TASK_FUSION && batchSizeBytes == TornadoExecutionContext.INIT_VALUE && gridScheduler == null && !isConcurrentDevicesEnabled && !meta().getXPUDevice()
+                .getDeviceContext().isPlatformFPGA();
+    }
+
+    private TornadoTaskFusion getTaskFusion() {
+        if (taskFusion == null) {
+            taskFusion = new TornadoTaskFusion();
+        }
+        return taskFusion;
+    }
+
     /**
      * Compile a {@link TaskGraph} into TornadoVM byte-code.
      *
@@ -838,7 +898,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.limit(hlBuffer.position());
 
-        final TornadoGraph tornadoGraph = TornadoGraphBuilder.buildGraph(executionContext, buffer);
+        TornadoGraph tornadoGraph = TornadoGraphBuilder.buildGraph(executionContext, buffer);
+
+        if (isTaskFusionEnabled()) {
+            ByteBuffer fusedBuffer = getTaskFusion().fuse(executionContext, tornadoGraph, buffer);
+            if (fusedBuffer != null) {
+                tornadoGraph = TornadoGraphBuilder.buildGraph(executionContext, fusedBuffer);
+            }
+        } else {
+            TornadoTaskFusion.restoreTasks(executionContext);
+        }
 
         if (setNewDevice) {
             // setNewDevice does not need to propagate any further as executionContext is
@@ -914,8 +983,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private boolean compileComputeGraphToTornadoVMBytecode() {
+        boolean batchSizeChanged = updateAutomaticBatchSize();
         CompileInfo compileInfo = extractCompileInfo();
-        if (compileInfo.compile) {
+        if (compileInfo.compile || batchSizeChanged) {
             timeProfiler.start(ProfilerType.TOTAL_BYTE_CODE_GENERATION);
             executionContext.scheduleTaskToDevices();
             TornadoVM tornadoVM = compileGraphAndBuildVM(compileInfo.updateDevice);
@@ -975,6 +1045,12 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
         if (!TornadoOptions.PROFILER_LOGS_ACCUMULATE()) {
             timeProfiler.dumpJson(new StringBuilder(), this.getId());
+        } else if (timeProfiler instanceof LockFreeTimeProfiler profiler) {
+            // The JSON log is created when it is requested, or when too many executions are pending
+            if (pendingProfilerLogs.size() == MAX_PENDING_PROFILER_LOGS) {
+                drainProfilerLogs();
+            }
+            pendingProfilerLogs.add(profiler.snapshot());
         } else {
             bufferLogProfiler.append(timeProfiler.createJson(new StringBuilder(), this.getId()));
         }
@@ -996,7 +1072,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     private void dumpDeoptimisationReason(TornadoBailoutRuntimeException e) {
         if (!DEBUG) {
-            System.err.println(RED + "[Bailout] Running the sequential implementation. Enable --debug to see the reason." + RESET);
+            System.err.println(RED + "[Bailout] Running the Java implementation on the host. Enable --debug to see the reason." + RESET);
         } else {
             System.err.println(e.getMessage());
             for (StackTraceElement s : e.getStackTrace()) {
@@ -1007,7 +1083,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     private void deoptimiseToSequentialJava(TornadoBailoutRuntimeException e) {
         dumpDeoptimisationReason(e);
-        runAllTasksJavaSequential();
+        runAllTasksOnHost();
     }
 
     @Override
@@ -1072,7 +1148,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         } else {
             for (TornadoXPUDevice tornadoXPUDevice : executionContext.getDevices()) {
                 if (tornadoXPUDevice != null) {
-                    tornadoXPUDevice.sync(executionPlanId);
+                    withCommandQueues(tornadoXPUDevice, () -> tornadoXPUDevice.sync(executionPlanId));
                 }
             }
         }
@@ -1176,6 +1252,21 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return parameter instanceof AtomicInteger;
     }
 
+    /**
+     * Checks if the host memory of an object is a read-only segment, such as an
+     * array mapped with {@code fromFile(Path)}. The runtime copies the outputs of
+     * a task-graph into the host segment without the checks of the Java
+     * accessors, so writing into a read-only mapping would crash the JVM.
+     */
+    private boolean isReadOnlySegment(Object parameter) {
+        MemorySegment segment = switch (parameter) {
+            case TornadoNativeArray nativeArray -> nativeArray.getSegmentWithHeader();
+            case TornadoMatrixInterface<?> matrix -> matrix.getSegmentWithHeader();
+            default -> null;
+        };
+        return segment != null && segment.isReadOnly();
+    }
+
     @Override
     public void transferToHost(final int mode, Object... objects) {
         for (Object functionParameter : objects) {
@@ -1188,6 +1279,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 throw new TornadoRuntimeException("[ERROR] Scalar value used as output. Use an array or a vector-type instead");
             }
 
+            if (isReadOnlySegment(functionParameter)) {
+                throw new TornadoRuntimeException("[ERROR] An array mapped from a file in read-only mode is used as output. Map the file with MapMode.PRIVATE or MapMode.READ_WRITE instead");
+            }
+
             if (mode != DataTransferMode.UNDER_DEMAND) {
                 streamOutObjects.add(functionParameter);
                 // the access will be updated later on by the TornadoDataflowAnalysis if necessary
@@ -1310,6 +1405,15 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         if (vm == null) {
             return;
         }
+        // The queues are unbound once the buffers are released
+        withCommandQueues(meta().getXPUDevice(), this::freeDeviceMemoryObjects);
+        meta().getXPUDevice().getDeviceContext().reset(executionPlanId);
+        if (executionContext.isBatchPipelineEnabled()) {
+            meta().getXPUDevice().getDeviceContext().reset(executionContext.getTransferQueueId());
+        }
+    }
+
+    private void freeDeviceMemoryObjects() {
         for (StreamingObject inputStreamObject : inputModesObjects) {
             if (streamOutObjects.contains(inputStreamObject.object)) {
                 // READ-WRITE
@@ -1327,7 +1431,23 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 freeDeviceMemoryObject(outputStreamObject.object, Access.WRITE_ONLY);
             }
         }
-        meta().getXPUDevice().getDeviceContext().reset(executionPlanId);
+    }
+
+    /**
+     * Runs an action that enqueues commands outside the execution of the
+     * task-graph. The command queues of the execution plan are leased as in an
+     * execution, so the commands do not interleave with the executions of other
+     * execution plans that share the queues.
+     */
+    private void withCommandQueues(TornadoXPUDevice device, Runnable action) {
+        final long transferQueueId = executionContext.isBatchPipelineEnabled() ? executionContext.getTransferQueueId() : executionPlanId;
+        final TornadoDeviceContext deviceContext = device.getDeviceContext();
+        deviceContext.acquireCommandQueues(executionPlanId, transferQueueId);
+        try {
+            action.run();
+        } finally {
+            deviceContext.releaseCommandQueues(executionPlanId, transferQueueId);
+        }
     }
 
     private void freeDeviceMemoryObject(Object object, Access access) {
@@ -1439,7 +1559,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         if (vm == null) {
             return;
         }
+        withCommandQueues(meta().getXPUDevice(), () -> syncObjectsToHost(objects));
+    }
 
+    private void syncObjectsToHost(Object... objects) {
         List<Event> events = new ArrayList<>();
         for (Object object : objects) {
             if (DEBUG) {
@@ -1483,10 +1606,13 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void syncRuntimeTransferToHost(Object object, long offset, long partialCopySize) {
-
         if (vm == null) {
             return;
         }
+        withCommandQueues(meta().getXPUDevice(), () -> syncObjectToHost(object, offset, partialCopySize));
+    }
+
+    private void syncObjectToHost(Object object, long offset, long partialCopySize) {
 
         Event event = null;
         if (DEBUG) {
@@ -1621,7 +1747,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private void setupProfiler() {
-        if (isProfilerEnabled()) {
+        if (isProfilerEnabled() && TornadoOptions.LOCK_FREE_PROFILER) {
+            if (lockFreeProfiler == null) {
+                lockFreeProfiler = new LockFreeTimeProfiler(executionContext.getTaskCount());
+            }
+            List<SchedulableTask> tasks = executionContext.getTasks();
+            for (int taskIndex = 0; taskIndex < tasks.size(); taskIndex++) {
+                lockFreeProfiler.registerTask(taskIndex, tasks.get(taskIndex).getId());
+            }
+            this.timeProfiler = lockFreeProfiler;
+        } else if (isProfilerEnabled()) {
             this.timeProfiler = new TimeProfiler();
         } else {
             this.timeProfiler = new EmptyProfiler();
@@ -1636,7 +1771,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         if (!TornadoOptions.RECOVER_BAILOUT) {
             throw new TornadoBailoutRuntimeException("[TornadoVM] Error - Recover option disabled");
         } else {
-            runAllTasksJavaSequential();
+            runAllTasksOnHost();
         }
     }
 
@@ -1694,6 +1829,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private TornadoTaskGraphInterface executeWithDynamicReconfiguration(ExecutorFrame executorFrame) {
+        setupProfiler();
+        timeProfiler.clean();
         return switch (executorFrame.getDRMode()) {
             case SERIAL -> scheduleDynamicReconfigurationSequential(executorFrame.getDynamicReconfigurationPolicy());
             case PARALLEL -> scheduleDynamicReconfigurationParallel(executorFrame.getDynamicReconfigurationPolicy());
@@ -1726,92 +1863,102 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return gridTaskNames.stream().anyMatch(this::isTaskNamePresent);
     }
 
-    @SuppressWarnings("unchecked")
     private void runSequentialCodeInThread(TaskPackage taskPackage) {
-        int type = taskPackage.getTaskType();
+        invokeTask(taskPackage.getTaskType(), taskPackage.getTaskParameters());
+    }
+
+    /**
+     * Calls the Java code of a task.
+     *
+     * @param type
+     *     Number of parameters of the task, as returned by
+     *     {@link TaskPackage#getTaskType()}.
+     * @param taskParameters
+     *     The lambda of the task, followed by its arguments.
+     */
+    @SuppressWarnings("unchecked")
+    static void invokeTask(int type, Object[] taskParameters) {
         switch (type) {
             case 0:
-                @SuppressWarnings("rawtypes") Task task = (Task) taskPackage.getTaskParameters()[0];
+                @SuppressWarnings("rawtypes") Task task = (Task) taskParameters[0];
                 task.apply();
                 break;
             case 1:
-                @SuppressWarnings("rawtypes") Task1 task1 = (Task1) taskPackage.getTaskParameters()[0];
-                task1.apply(taskPackage.getTaskParameters()[1]);
+                @SuppressWarnings("rawtypes") Task1 task1 = (Task1) taskParameters[0];
+                task1.apply(taskParameters[1]);
                 break;
             case 2:
-                @SuppressWarnings("rawtypes") Task2 task2 = (Task2) taskPackage.getTaskParameters()[0];
-                task2.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2]);
+                @SuppressWarnings("rawtypes") Task2 task2 = (Task2) taskParameters[0];
+                task2.apply(taskParameters[1], taskParameters[2]);
                 break;
             case 3:
-                @SuppressWarnings("rawtypes") Task3 task3 = (Task3) taskPackage.getTaskParameters()[0];
-                task3.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3]);
+                @SuppressWarnings("rawtypes") Task3 task3 = (Task3) taskParameters[0];
+                task3.apply(taskParameters[1], taskParameters[2], taskParameters[3]);
                 break;
             case 4:
-                @SuppressWarnings("rawtypes") Task4 task4 = (Task4) taskPackage.getTaskParameters()[0];
-                task4.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4]);
+                @SuppressWarnings("rawtypes") Task4 task4 = (Task4) taskParameters[0];
+                task4.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4]);
                 break;
             case 5:
-                @SuppressWarnings("rawtypes") Task5 task5 = (Task5) taskPackage.getTaskParameters()[0];
-                task5.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5]);
+                @SuppressWarnings("rawtypes") Task5 task5 = (Task5) taskParameters[0];
+                task5.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5]);
                 break;
             case 6:
-                @SuppressWarnings("rawtypes") Task6 task6 = (Task6) taskPackage.getTaskParameters()[0];
-                task6.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6]);
+                @SuppressWarnings("rawtypes") Task6 task6 = (Task6) taskParameters[0];
+                task6.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6]);
                 break;
             case 7:
-                @SuppressWarnings("rawtypes") Task7 task7 = (Task7) taskPackage.getTaskParameters()[0];
-                task7.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7]);
+                @SuppressWarnings("rawtypes") Task7 task7 = (Task7) taskParameters[0];
+                task7.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6], taskParameters[7]);
                 break;
             case 8:
-                @SuppressWarnings("rawtypes") Task8 task8 = (Task8) taskPackage.getTaskParameters()[0];
-                task8.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8]);
+                @SuppressWarnings("rawtypes") Task8 task8 = (Task8) taskParameters[0];
+                task8.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8]);
                 break;
             case 9:
-                @SuppressWarnings("rawtypes") Task9 task9 = (Task9) taskPackage.getTaskParameters()[0];
-                task9.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9]);
+                @SuppressWarnings("rawtypes") Task9 task9 = (Task9) taskParameters[0];
+                task9.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9]);
                 break;
             case 10:
-                @SuppressWarnings("rawtypes") Task10 task10 = (Task10) taskPackage.getTaskParameters()[0];
-                task10.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10]);
+                @SuppressWarnings("rawtypes") Task10 task10 = (Task10) taskParameters[0];
+                task10.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10]);
                 break;
             case 11:
-                @SuppressWarnings("rawtypes") Task11 task11 = (Task11) taskPackage.getTaskParameters()[0];
-                task11.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11]);
+                @SuppressWarnings("rawtypes") Task11 task11 = (Task11) taskParameters[0];
+                task11.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11]);
                 break;
             case 12:
-                @SuppressWarnings("rawtypes") Task12 task12 = (Task12) taskPackage.getTaskParameters()[0];
-                task12.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12]);
+                @SuppressWarnings("rawtypes") Task12 task12 = (Task12) taskParameters[0];
+                task12.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11], taskParameters[12]);
                 break;
             case 13:
-                @SuppressWarnings("rawtypes") Task13 task13 = (Task13) taskPackage.getTaskParameters()[0];
-                task13.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12], taskPackage.getTaskParameters()[13]);
+                @SuppressWarnings("rawtypes") Task13 task13 = (Task13) taskParameters[0];
+                task13.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11], taskParameters[12], taskParameters[13]);
                 break;
             case 14:
-                @SuppressWarnings("rawtypes") Task14 task14 = (Task14) taskPackage.getTaskParameters()[0];
-                task14.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12], taskPackage.getTaskParameters()[13], taskPackage
-                                .getTaskParameters()[14]);
+                @SuppressWarnings("rawtypes") Task14 task14 = (Task14) taskParameters[0];
+                task14.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11], taskParameters[12], taskParameters[13], taskParameters[14]);
                 break;
             case 15:
-                @SuppressWarnings("rawtypes") Task15 task15 = (Task15) taskPackage.getTaskParameters()[0];
-                task15.apply(taskPackage.getTaskParameters()[1], taskPackage.getTaskParameters()[2], taskPackage.getTaskParameters()[3], taskPackage.getTaskParameters()[4], taskPackage
-                        .getTaskParameters()[5], taskPackage.getTaskParameters()[6], taskPackage.getTaskParameters()[7], taskPackage.getTaskParameters()[8], taskPackage.getTaskParameters()[9],
-                        taskPackage.getTaskParameters()[10], taskPackage.getTaskParameters()[11], taskPackage.getTaskParameters()[12], taskPackage.getTaskParameters()[13], taskPackage
-                                .getTaskParameters()[14], taskPackage.getTaskParameters()[15]);
+                @SuppressWarnings("rawtypes") Task15 task15 = (Task15) taskParameters[0];
+                task15.apply(taskParameters[1], taskParameters[2], taskParameters[3], taskParameters[4],
+                        taskParameters[5], taskParameters[6], taskParameters[7], taskParameters[8], taskParameters[9],
+                        taskParameters[10], taskParameters[11], taskParameters[12], taskParameters[13], taskParameters[14], taskParameters[15]);
                 break;
             default:
                 throw new TornadoRuntimeException("Sequential Runner not supported yet. Number of parameters: " + type);
@@ -1882,19 +2029,42 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
-    private void runThreadSequentialVersion(Policy policy, Thread[] threads, int indexSequential, Timer timer, long[] totalTimers) {
+    /**
+     * Runs all tasks on the host, in the order they were added to the task-graph. Tasks that use the
+     * {@link KernelContext} API run over their worker grid. If enabled, tasks with a parallel loop are split across
+     * host threads. The rest of the tasks run sequentially.
+     */
+    private void runAllTasksOnHost() {
+        for (TaskPackage taskPackage : taskPackages) {
+            WorkerGrid workerGrid = gridScheduler != null ? gridScheduler.get(getId() + "." + taskPackage.getId()) : null;
+            if (workerGrid != null && HostKernelExecutor.run(taskPackage, workerGrid)) {
+                continue;
+            }
+            if (!TornadoOptions.HOST_PARALLEL_FALLBACK || !HostParallelFallback.run(taskPackage)) {
+                runSequentialCodeInThread(taskPackage);
+            }
+        }
+    }
+
+    private void runAllTasksJavaSequential(OutputShadows shadows) {
+        for (TaskPackage taskPackage : taskPackages) {
+            runSequentialCodeInThread(shadows.apply(taskPackage));
+        }
+    }
+
+    private void runThreadSequentialVersion(Policy policy, Thread[] threads, int indexSequential, Timer timer, long[] totalTimers, OutputShadows shadows) {
         // Last Thread runs the sequential code
         threads[indexSequential] = new Thread(() -> {
             Thread.currentThread().setName("Thread-sequential");
 
             if (policy == Policy.PERFORMANCE) {
                 for (int k = 0; k < MAX_ITERATIONS_DYNAMIC_RECONF_SEQUENTIAL; k++) {
-                    runAllTasksJavaSequential();
+                    runAllTasksJavaSequential(shadows);
                 }
             }
 
             final long start = timer.time();
-            runAllTasksJavaSequential();
+            runAllTasksJavaSequential(shadows);
             final long endSequentialCode = timer.time();
             if (DEBUG) {
                 System.out.println("Seq finished: " + Thread.currentThread().getName());
@@ -1904,30 +2074,33 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         });
     }
 
-    private void runParallelTaskGraphs(int numDevices, Thread[] threads, Timer timer, Policy policy, long[] totalTimers) {
-        for (int i = 0; i < numDevices; i++) {
+    private void runParallelTaskGraphs(List<DynamicReconfigurationTarget> targets, Thread[] threads, Timer timer, Policy policy, long[] totalTimers, long[] firstRunTimers,
+            List<OutputShadows> shadows) {
+        for (int i = 0; i < targets.size(); i++) {
             final int taskScheduleNumber = i;
+            final DynamicReconfigurationTarget target = targets.get(i);
+            final OutputShadows deviceShadows = shadows.get(i);
             threads[i] = new Thread(() -> {
                 String newTaskScheduleName = TASK_GRAPH_PREFIX + taskScheduleNumber;
                 TaskGraph task = new TaskGraph(newTaskScheduleName);
 
-                Thread.currentThread().setName("Thread-DEV: " + TornadoRuntimeProvider.getTornadoRuntime().getBackend(0).getDevice(taskScheduleNumber).getPhysicalDevice().getDeviceName());
+                Thread.currentThread().setName("Thread-DEV: " + target.device().getPhysicalDevice().getDeviceName());
 
                 for (StreamingObject streamingObject : inputModesObjects) {
-                    performStreamInObject(task, streamingObject.object, streamingObject.mode);
+                    performStreamInObject(task, deviceShadows.get(streamingObject.object), streamingObject.mode);
                 }
 
                 for (TaskPackage taskPackage : taskPackages) {
                     String taskID = taskPackage.getId();
-                    TornadoRuntimeProvider.setProperty(newTaskScheduleName + "." + taskID + ".device", "0:" + taskScheduleNumber);
+                    TornadoRuntimeProvider.setProperty(newTaskScheduleName + "." + taskID + ".device", target.getDeviceId());
                     if (DEBUG) {
-                        System.out.println("SET DEVICE: " + newTaskScheduleName + "." + taskID + ".device=0:" + taskScheduleNumber);
+                        System.out.println("SET DEVICE: " + newTaskScheduleName + "." + taskID + ".device=" + target.getDeviceId());
                     }
-                    task.addTask(taskPackage);
+                    task.addTask(deviceShadows.apply(taskPackage));
                 }
 
                 for (StreamingObject streamingObject : outputModeObjects) {
-                    performStreamOutThreads(streamingObject.mode, task, streamingObject.object);
+                    performStreamOutThreads(streamingObject.mode, task, deviceShadows.get(streamingObject.object));
                 }
 
                 ImmutableTaskGraph immutableTaskGraph = task.snapshot();
@@ -1935,7 +2108,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
                 if (policy == Policy.PERFORMANCE) {
                     // first warm up
-                    for (int k = 0; k < PERFORMANCE_WARMUP_DYNAMIC_RECONF_PARALLEL; k++) {
+                    final long startFirstRun = timer.time();
+                    executor.execute();
+                    firstRunTimers[taskScheduleNumber] = timer.time() - startFirstRun;
+                    for (int k = 1; k < PERFORMANCE_WARMUP_DYNAMIC_RECONF_PARALLEL; k++) {
                         executor.execute();
                     }
                 }
@@ -1943,13 +2119,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 long start = timer.time();
                 executor.execute();
                 final long end = timer.time();
-                taskGraphIndex.put(taskScheduleNumber, task);
 
-                if (USE_GLOBAL_TASK_CACHE) {
-                    globalTaskGraphIndex.put(offsetGlobalIndex.get(), task);
-                    offsetGlobalIndex.incrementAndGet();
-                } else {
-                    globalTaskGraphIndex.put(taskScheduleNumber, task);
+                // A task-graph that uses private copies of the outputs cannot be reused for the next executions
+                if (deviceShadows.isEmpty()) {
+                    taskGraphIndex.put(taskScheduleNumber, task);
+                    if (USE_GLOBAL_TASK_CACHE) {
+                        globalTaskGraphIndex.put(offsetGlobalIndex.get(), task);
+                        offsetGlobalIndex.incrementAndGet();
+                    } else {
+                        globalTaskGraphIndex.put(taskScheduleNumber, task);
+                    }
                 }
 
                 totalTimers[taskScheduleNumber] = (end - start);
@@ -1958,23 +2137,30 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     }
 
-    private void runScheduleWithParallelProfiler(Policy policy) {
+    private void runScheduleWithParallelProfiler(Policy policy, List<DynamicReconfigurationTarget> targets) {
 
         final Timer timer = (TIME_IN_NANOSECONDS) ? new NanoSecTimer() : new MilliSecTimer();
-        TornadoBackend tornadoDriver = TornadoCoreRuntime.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX);
-        int numDevices = tornadoDriver.getNumDevices();
+        int numDevices = targets.size();
         long masterThreadID = Thread.currentThread().getId();
 
         // One additional threads is reserved for sequential CPU execution
         final int numThreads = numDevices + 1;
         Thread[] threads = new Thread[numThreads];
         long[] totalTimers = new long[numThreads];
+        long[] firstRunTimers = new long[numThreads];
+
+        // Each thread writes into its own copy of the outputs
+        List<Object> outputs = outputModeObjects.stream().map(streamingObject -> streamingObject.object).toList();
+        List<OutputShadows> shadows = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            shadows.add(new OutputShadows(outputs));
+        }
 
         // Last Thread runs the sequential code
-        runThreadSequentialVersion(policy, threads, numDevices, timer, totalTimers);
+        runThreadSequentialVersion(policy, threads, numDevices, timer, totalTimers, shadows.get(numDevices));
 
         // Run all task schedules in parallel
-        runParallelTaskGraphs(numDevices, threads, timer, policy, totalTimers);
+        runParallelTaskGraphs(targets, threads, timer, policy, totalTimers, firstRunTimers, shadows);
 
         // FORK
         for (int i = 0; i < numThreads; i++) {
@@ -1987,6 +2173,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             int deviceWinnerIndex = tuple.threadWinnerIndex;
             tuple.join.start();
             policyTimeTable.put(Policy.LATENCY, deviceWinnerIndex);
+            shadows.get(deviceWinnerIndex).publish();
         } else {
             // JOIN for the PERFORMANCE and END_TO_END policies.
             for (Thread t : threads) {
@@ -2001,8 +2188,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         if ((policy == Policy.PERFORMANCE || policy == Policy.END_2_END) && (masterThreadID == Thread.currentThread().getId())) {
             int deviceWinnerIndex = synchronizeWithPolicy(policy, totalTimers);
             policyTimeTable.put(policy, deviceWinnerIndex);
+            shadows.get(deviceWinnerIndex).publish();
+            // The devices ran concurrently, so their times are not recorded in the dynamic reconfiguration model
             if (DEBUG) {
-                System.out.println(getListDevices());
+                System.out.println(getListDevices(targets));
                 System.out.println("BEST Position: #" + deviceWinnerIndex + " " + Arrays.toString(totalTimers));
             }
         }
@@ -2014,23 +2203,23 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
-    private TaskGraph recompileTask(int deviceWinnerIndex) {
+    private TaskGraph recompileTask(int deviceWinnerIndex, DynamicReconfigurationTarget target) {
         // Force re-compilation in device <deviceWinnerIndex>
         String newTaskScheduleName = TASK_GRAPH_PREFIX + deviceWinnerIndex;
         TaskGraph taskToCompile = new TaskGraph(newTaskScheduleName);
         performStreamInObject(taskToCompile, streamInObjects, DataTransferMode.EVERY_EXECUTION);
         for (TaskPackage taskPackage : taskPackages) {
             String taskID = taskPackage.getId();
-            TornadoRuntimeProvider.setProperty(newTaskScheduleName + "." + taskID + ".device", "0:" + deviceWinnerIndex);
+            TornadoRuntimeProvider.setProperty(newTaskScheduleName + "." + taskID + ".device", target.getDeviceId());
             taskToCompile.addTask(taskPackage);
         }
         performStreamOutThreads(DataTransferMode.EVERY_EXECUTION, taskToCompile, streamOutObjects);
         return taskToCompile;
     }
 
-    private void runTaskGraphParallelSelected(int deviceWinnerIndex) {
+    private void runTaskGraphParallelSelected(int deviceWinnerIndex, DynamicReconfigurationTarget target) {
         for (TaskPackage taskPackage : taskPackages) {
-            TornadoRuntimeProvider.setProperty(this.getTaskGraphName() + "." + taskPackage.getId() + ".device", "0:" + deviceWinnerIndex);
+            TornadoRuntimeProvider.setProperty(this.getTaskGraphName() + "." + taskPackage.getId() + ".device", target.getDeviceId());
         }
         if (DEBUG) {
             System.out.println("Running in parallel device: " + deviceWinnerIndex);
@@ -2041,7 +2230,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 // This is only if compilation is not using Partial Evaluation
                 task = globalTaskGraphIndex.get(deviceWinnerIndex);
             } else {
-                task = recompileTask(deviceWinnerIndex);
+                task = recompileTask(deviceWinnerIndex, target);
                 // Save the TaskSchedule in cache
                 taskGraphIndex.put(deviceWinnerIndex, task);
             }
@@ -2053,61 +2242,23 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private TornadoTaskGraphInterface scheduleDynamicReconfigurationParallel(Policy policy) {
-        if (policyTimeTable.get(policy) == null) {
-            runScheduleWithParallelProfiler(policy);
+        List<DynamicReconfigurationTarget> targets = getDynamicReconfigurationTargets();
+        if (policyTimeTable.get(policy) == null && !selectDeviceFromModel(policy, targets)) {
+            final long startExploration = System.nanoTime();
+            runScheduleWithParallelProfiler(policy, targets);
+            timeProfiler.setTimer(ProfilerType.DYNAMIC_RECONFIGURATION_EXPLORATION_TIME, System.nanoTime() - startExploration);
         } else {
             // Run with the winner device
             int deviceWinnerIndex = policyTimeTable.get(policy);
-            if (deviceWinnerIndex >= TornadoRuntimeProvider.getTornadoRuntime().getBackend(0).getNumDevices()) {
+            if (deviceWinnerIndex >= targets.size()) {
                 runSequential();
             } else {
-                runTaskGraphParallelSelected(deviceWinnerIndex);
+                runTaskGraphParallelSelected(deviceWinnerIndex, targets.get(deviceWinnerIndex));
             }
         }
         return this;
     }
 
-    private Object cloneObject(Object o) {
-        if (o instanceof float[] cloneFloat) {
-            return cloneFloat.clone();
-        } else if (o instanceof int[] cloneInt) {
-            return cloneInt.clone();
-        } else {
-            throw new RuntimeException("Data type cloning not supported");
-        }
-    }
-
-    @SuppressWarnings("unused")
-    private void cloneInputOutputObjects() {
-        final long startSearchProfiler = (TIME_IN_NANOSECONDS) ? System.nanoTime() : System.currentTimeMillis();
-        TornadoBackend tornadoDriver = TornadoCoreRuntime.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX);
-        int numDevices = tornadoDriver.getNumDevices();
-        // Clone objects (only outputs) for each device
-        for (int deviceNumber = 0; deviceNumber < numDevices; deviceNumber++) {
-            ArrayList<Object> newInObjects = new ArrayList<>();
-            ArrayList<Object> newOutObjects = new ArrayList<>();
-
-            for (Object in : streamInObjects) {
-                boolean outputObjectFound = false;
-                for (Object out : streamOutObjects) {
-                    if (in == out) {
-                        outputObjectFound = true;
-                        break;
-                    }
-                }
-                if (outputObjectFound) {
-                    Object clonedObject = cloneObject(in);
-                    newInObjects.add(clonedObject);
-                    newOutObjects.add(clonedObject);
-                } else {
-                    newInObjects.add(in);
-                }
-            }
-            multiHeapManagerInputs.put(deviceNumber, newInObjects);
-            multiHeapManagerOutputs.put(deviceNumber, newOutObjects);
-        }
-    }
-
     private void runSequentialTaskGraph(Policy policy, Timer timer, long[] totalTimers, int indexSequential) {
         if (policy == Policy.PERFORMANCE) {
             for (int k = 0; k < MAX_ITERATIONS_DYNAMIC_RECONF_SEQUENTIAL; k++) {
@@ -2120,11 +2271,12 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         totalTimers[indexSequential] = (endSequentialCode - startSequential);
     }
 
-    private void runAllTaskGraphsInAcceleratorsSequentially(int numDevices, Timer timer, Policy policy, long[] totalTimers) {
+    private void runAllTaskGraphsInAcceleratorsSequentially(List<DynamicReconfigurationTarget> targets, Timer timer, Policy policy, long[] totalTimers, long[] firstRunTimers) {
         String[] ignoreTaskNames = System.getProperties().getProperty("tornado.ignore.tasks", "").split(",");
 
         // Running sequentially for all the devices
-        for (int taskNumber = 0; taskNumber < numDevices; taskNumber++) {
+        for (int taskNumber = 0; taskNumber < targets.size(); taskNumber++) {
+            DynamicReconfigurationTarget target = targets.get(taskNumber);
             String newTaskScheduleName = TASK_GRAPH_PREFIX + taskNumber;
             TaskGraph task = new TaskGraph(newTaskScheduleName);
 
@@ -2145,9 +2297,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                     }
                 }
 
-                TornadoRuntimeProvider.setProperty(newTaskScheduleName + "." + taskID + ".device", "0:" + taskNumber);
+                TornadoRuntimeProvider.setProperty(newTaskScheduleName + "." + taskID + ".device", target.getDeviceId());
                 if (DEBUG) {
-                    System.out.println("SET DEVICE: " + newTaskScheduleName + "." + taskID + ".device=0:" + taskNumber);
+                    System.out.println("SET DEVICE: " + newTaskScheduleName + "." + taskID + ".device=" + target.getDeviceId());
                 }
                 task.addTask(taskPackage);
             }
@@ -2163,7 +2315,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             TornadoExecutionPlan executor = new TornadoExecutionPlan(immutableTaskGraph);
 
             if (policy == Policy.PERFORMANCE) {
-                for (int k = 0; k < PERFORMANCE_WARMUP_DYNAMIC_RECONF_PARALLEL; k++) {
+                final long startFirstRun = timer.time();
+                executor.execute();
+                firstRunTimers[taskNumber] = timer.time() - startFirstRun;
+                for (int k = 1; k < PERFORMANCE_WARMUP_DYNAMIC_RECONF_PARALLEL; k++) {
                     executor.execute();
                 }
             }
@@ -2222,12 +2377,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
-    private String getListDevices() {
+    private String getListDevices(List<DynamicReconfigurationTarget> targets) {
         StringBuilder str = new StringBuilder();
         str.append("                  : [");
-        int num = TornadoRuntimeProvider.getTornadoRuntime().getBackend(0).getNumDevices();
-        for (int i = 0; i < num; i++) {
-            TornadoDeviceType deviceType = TornadoRuntimeProvider.getTornadoRuntime().getBackend(0).getDevice(i).getDeviceType();
+        for (DynamicReconfigurationTarget target : targets) {
+            TornadoDeviceType deviceType = target.device().getDeviceType();
             String type = switch (deviceType) {
                 case CPU -> "CPU";
                 case GPU -> "GPU";
@@ -2235,61 +2389,39 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 case ACCELERATOR -> "ACCELERATOR";
                 default -> "JAVA";
             };
-            str.append(type).append(",").append("\t ");
+            str.append(type).append("(").append(target.device().getTornadoVMBackend()).append("),").append("\t ");
         }
         str.append("JVM]");
         return str.toString();
     }
 
-    private void runWithSequentialProfiler(Policy policy) {
+    private void runWithSequentialProfiler(Policy policy, List<DynamicReconfigurationTarget> targets) {
         final Timer timer = (TIME_IN_NANOSECONDS) ? new NanoSecTimer() : new MilliSecTimer();
-        int numDevices = TornadoCoreRuntime.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX).getNumDevices();
+        int numDevices = targets.size();
         final int totalTornadoDevices = numDevices + 1;
         long[] totalTimers = new long[totalTornadoDevices];
+        long[] firstRunTimers = new long[totalTornadoDevices];
 
         // Run Sequential
         runSequentialTaskGraph(policy, timer, totalTimers, numDevices);
 
         // Run Task Schedules on the accelerator
-        runAllTaskGraphsInAcceleratorsSequentially(numDevices, timer, policy, totalTimers);
+        runAllTaskGraphsInAcceleratorsSequentially(targets, timer, policy, totalTimers, firstRunTimers);
 
         if (policy == Policy.PERFORMANCE || policy == Policy.END_2_END) {
             int deviceWinnerIndex = synchronizeWithPolicy(policy, totalTimers);
             policyTimeTable.put(policy, deviceWinnerIndex);
+            recordDynamicReconfigurationModel(policy, targets, timer, totalTimers, firstRunTimers);
 
             updateHistoryTables(policy, deviceWinnerIndex);
 
             if (DEBUG) {
-                System.out.println(getListDevices());
+                System.out.println(getListDevices(targets));
                 System.out.println("BEST Position: #" + deviceWinnerIndex + " " + Arrays.toString(totalTimers));
             }
         }
     }
 
-    /**
-     * Experimental method to sync all objects when making a clone copy for all output objects per device.
-     *
-     * @param policy
-     *     input policy
-     * @param numDevices
-     *     number of devices
-     */
-    private void restoreVarsIntoJavaHeap(Policy policy, int numDevices) {
-        if (policyTimeTable.get(policy) < numDevices) {
-            // link output
-            int deviceWinnerIndex = policyTimeTable.get(policy);
-            ArrayList<Object> deviceOutputObjects = multiHeapManagerOutputs.get(deviceWinnerIndex);
-            for (int i = 0; i < streamOutObjects.size(); i++) {
-                @SuppressWarnings("unused") Object output = streamOutObjects.get(i);
-                output = deviceOutputObjects.get(i);
-            }
-
-            for (int i = 0; i < numDevices; i++) {
-                deviceOutputObjects = multiHeapManagerOutputs.get(i);
-            }
-        }
-    }
-
     /**
      * It obtains the maximum input size for an input task.
      *
@@ -2303,6 +2435,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             if (o.getClass().isArray()) {
                 int currentSize = Array.getLength(o);
                 size = Math.max(currentSize, size);
+            } else if (o instanceof TornadoNativeArray nativeArray) {
+                size = Math.max(nativeArray.getSize(), size);
             } else {
                 size = Math.max(1, size);
             }
@@ -2310,6 +2444,117 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return size;
     }
 
+    /**
+     * It obtains the signature of the task-graph for the dynamic reconfiguration
+     * model, built from the methods of all tasks.
+     *
+     * @return signature of the task-graph.
+     */
+    private String getTaskGraphSignature() {
+        StringBuilder signature = new StringBuilder();
+        for (TaskPackage taskPackage : taskPackages) {
+            Method method = TaskUtils.resolveMethodHandle(taskPackage.getTaskParameters()[0]);
+            signature.append(method.toGenericString()).append(";");
+        }
+        return signature.toString();
+    }
+
+    /**
+     * It obtains the devices of all backends that the dynamic reconfiguration
+     * explores, in the order of the {@link TornadoDeviceMap}. The Java sequential
+     * execution on the host follows the last device. The list is created the
+     * first time it is requested and shared by all task graphs.
+     *
+     * @return list of devices.
+     */
+    private static List<DynamicReconfigurationTarget> getDynamicReconfigurationTargets() {
+        List<DynamicReconfigurationTarget> targets = dynamicReconfigurationTargets;
+        if (targets == null) {
+            synchronized (TornadoTaskGraph.class) {
+                targets = dynamicReconfigurationTargets;
+                if (targets == null) {
+                    targets = Collections.unmodifiableList(createDynamicReconfigurationTargets());
+                    dynamicReconfigurationTargets = targets;
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static List<DynamicReconfigurationTarget> createDynamicReconfigurationTargets() {
+        List<TornadoBackend> backends = new TornadoDeviceMap().getAllBackends();
+        List<DynamicReconfigurationTarget> targets = new ArrayList<>();
+        for (int backendIndex = 0; backendIndex < backends.size(); backendIndex++) {
+            TornadoBackend backend = backends.get(backendIndex);
+            for (int deviceIndex = 0; deviceIndex < backend.getNumDevices(); deviceIndex++) {
+                targets.add(new DynamicReconfigurationTarget(backendIndex, deviceIndex, backend.getDevice(deviceIndex)));
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * It obtains the identifiers of the devices used by the dynamic
+     * reconfiguration model, in the same order. The last one is the Java
+     * sequential execution on the host.
+     *
+     * @return list of device identifiers.
+     */
+    private static List<String> getDynamicReconfigurationDevices(List<DynamicReconfigurationTarget> targets) {
+        List<String> devices = new ArrayList<>();
+        for (DynamicReconfigurationTarget target : targets) {
+            devices.add(target.getDeviceId() + " " + target.device().getPhysicalDevice().getDeviceName().replace('\t', ' '));
+        }
+        devices.add("JVM");
+        return devices;
+    }
+
+    /**
+     * Selects the device for the policy from the dynamic reconfiguration model,
+     * without running the task-graph on all devices.
+     *
+     * @param policy
+     *     input policy
+     * @return true if the model selected a device, false if all devices have to
+     *     be explored.
+     */
+    private boolean selectDeviceFromModel(Policy policy, List<DynamicReconfigurationTarget> targets) {
+        DynamicReconfigurationModel model = DynamicReconfigurationModel.getInstance();
+        if (model == null || (policy != Policy.PERFORMANCE && policy != Policy.END_2_END)) {
+            return false;
+        }
+        int deviceIndex = model.selectDevice(policy, getTaskGraphSignature(), getMaxInputSize(), getDynamicReconfigurationDevices(targets));
+        if (deviceIndex < 0) {
+            return false;
+        }
+        if (DEBUG) {
+            System.out.println("Device selected by the dynamic reconfiguration model: #" + deviceIndex);
+        }
+        policyTimeTable.put(policy, deviceIndex);
+        return true;
+    }
+
+    /**
+     * Records the times measured by the serial exploration of all devices in the
+     * dynamic reconfiguration model.
+     */
+    private void recordDynamicReconfigurationModel(Policy policy, List<DynamicReconfigurationTarget> targets, Timer timer, long[] totalTimers, long[] firstRunTimers) {
+        DynamicReconfigurationModel model = DynamicReconfigurationModel.getInstance();
+        if (model == null) {
+            return;
+        }
+        DynamicReconfigurationModel.Sample[] samples = new DynamicReconfigurationModel.Sample[totalTimers.length];
+        for (int i = 0; i < totalTimers.length; i++) {
+            if (totalTimers[i] != Long.MAX_VALUE) {
+                long executionTime = timer.toNanoSeconds(totalTimers[i]);
+                // The first run is only measured separately with the PERFORMANCE policy
+                long compileTime = Math.max(0, timer.toNanoSeconds(firstRunTimers[i]) - executionTime);
+                samples[i] = new DynamicReconfigurationModel.Sample(compileTime, executionTime);
+            }
+        }
+        model.record(policy, getTaskGraphSignature(), getMaxInputSize(), getDynamicReconfigurationDevices(targets), samples);
+    }
+
     private TornadoTaskGraphInterface scheduleDynamicReconfigurationSequential(Policy policy) {
 
         if (policy == Policy.LATENCY) {
@@ -2319,14 +2564,13 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             policy = Policy.PERFORMANCE;
         }
 
-        int numDevices = TornadoRuntimeProvider.getTornadoRuntime().getBackend(DEFAULT_DRIVER_INDEX).getNumDevices();
-
-        if (policyTimeTable.get(policy) == null) {
-            runWithSequentialProfiler(policy);
+        List<DynamicReconfigurationTarget> targets = getDynamicReconfigurationTargets();
+        int numDevices = targets.size();
 
-            if (EXPERIMENTAL_MULTI_HOST_HEAP) {
-                restoreVarsIntoJavaHeap(policy, numDevices);
-            }
+        if (policyTimeTable.get(policy) == null && !selectDeviceFromModel(policy, targets)) {
+            final long startExploration = System.nanoTime();
+            runWithSequentialProfiler(policy, targets);
+            timeProfiler.setTimer(ProfilerType.DYNAMIC_RECONFIGURATION_EXPLORATION_TIME, System.nanoTime() - startExploration);
         } else {
             // Run with the winner device
             int deviceWinnerIndex = policyTimeTable.get(policy);
@@ -2335,7 +2579,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 runSequential();
             } else {
                 // Otherwise, it runs the parallel in the corresponding device
-                runTaskGraphParallelSelected(deviceWinnerIndex);
+                runTaskGraphParallelSelected(deviceWinnerIndex, targets.get(deviceWinnerIndex));
             }
         }
         return this;
@@ -2533,7 +2777,55 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     @Override
     public void withBatch(String batchSize) {
         this.batchSizeBytes = parseSizeToBytes(batchSize);
+        executionContext.setAutomaticBatch(false);
+        executionContext.setBatchSize(this.batchSizeBytes);
+        executionContext.setBatchBufferSlots(1);
+    }
+
+    @Override
+    public void withPipelinedBatch(String batchSize, int numBufferSlots) {
+        this.batchSizeBytes = parseSizeToBytes(batchSize);
+        executionContext.setAutomaticBatch(false);
         executionContext.setBatchSize(this.batchSizeBytes);
+        executionContext.setBatchBufferSlots(numBufferSlots);
+    }
+
+    @Override
+    public void withAutomaticBatch() {
+        executionContext.setAutomaticBatch(true);
+        executionContext.setBatchBufferSlots(1);
+        automaticBatchKey = null;
+    }
+
+    /**
+     * Selects the batch size of an execution plan with automatic batches. A
+     * larger batch size is only selected when the input sizes, the memory limit
+     * or the device change, so the bytecodes are not generated again because of
+     * small changes in the device memory usage. A smaller batch size is selected
+     * as soon as the current one does not fit.
+     *
+     * @return true if the batch size changed and the TornadoVM bytecodes have to
+     *     be generated again.
+     */
+    private boolean updateAutomaticBatchSize() {
+        if (!executionContext.isAutomaticBatch()) {
+            return false;
+        }
+        TornadoXPUDevice device = meta().getXPUDevice();
+        AutomaticBatchKey key = new AutomaticBatchKey(BatchConfiguration.getBatchedObjectSize(executionContext), executionContext.getExecutionPlanMemoryLimit(), device);
+        long newBatchSize = BatchConfiguration.computeAutomaticBatchSize(executionContext, device);
+        if (newBatchSize == batchSizeBytes || (key.equals(automaticBatchKey) && newBatchSize > batchSizeBytes)) {
+            return false;
+        }
+        automaticBatchKey = key;
+        batchSizeBytes = newBatchSize;
+        executionContext.setBatchSize(newBatchSize);
+        // Kernels specialised for the previous batch size cannot be reused
+        executionContext.getTasks().forEach(SchedulableTask::forceCompilation);
+        return true;
+    }
+
+    private record AutomaticBatchKey(long objectSize, long memoryLimit, TornadoXPUDevice device) {
     }
 
     @Override
@@ -2613,6 +2905,21 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return getProfilerValue(TOTAL_KERNEL_TIME);
     }
 
+    @Override
+    public long getBatchPipelineTime() {
+        return getProfilerValue(ProfilerType.BATCH_PIPELINE_TIME);
+    }
+
+    @Override
+    public long getBatchOverlapTime() {
+        return getProfilerValue(ProfilerType.BATCH_OVERLAP_TIME);
+    }
+
+    @Override
+    public long getDynamicReconfigurationExplorationTime() {
+        return getProfilerValue(ProfilerType.DYNAMIC_RECONFIGURATION_EXPLORATION_TIME);
+    }
+
     private long getProfilerValueFromReduceTaskGraph(ProfilerType profilerType) {
         return switch (profilerType) {
             case TOTAL_KERNEL_TIME -> reduceTaskGraph.getExecutionResult().getProfilerResult().getDeviceKernelTime();
@@ -2643,6 +2950,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             case TOTAL_COPY_IN_SIZE_BYTES -> timeProfiler.getSize(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES);
             case TOTAL_COPY_OUT_SIZE_BYTES -> timeProfiler.getSize(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES);
             case ALLOCATION_BYTES -> timeProfiler.getSize(ProfilerType.ALLOCATION_BYTES);
+            case BATCH_PIPELINE_TIME -> timeProfiler.getTimer(ProfilerType.BATCH_PIPELINE_TIME);
+            case BATCH_OVERLAP_TIME -> timeProfiler.getTimer(ProfilerType.BATCH_OVERLAP_TIME);
+            case DYNAMIC_RECONFIGURATION_EXPLORATION_TIME -> timeProfiler.getTimer(ProfilerType.DYNAMIC_RECONFIGURATION_EXPLORATION_TIME);
             default -> 0L;
         };
     }
@@ -2657,9 +2967,17 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public String getProfileLog() {
+        drainProfilerLogs();
         return bufferLogProfiler.toString();
     }
 
+    private void drainProfilerLogs() {
+        for (LockFreeTimeProfiler profilerLog : pendingProfilerLogs) {
+            bufferLogProfiler.append(profilerLog.createJson(new StringBuilder(), this.getId()));
+        }
+        pendingProfilerLogs.clear();
+    }
+
     @Override
     public long getTotalBytesCopyIn() {
         return getProfilerValue(TOTAL_COPY_IN_SIZE_BYTES);
@@ -2681,9 +2999,27 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     public record Tuple2(int threadWinnerIndex, Thread join) {
     }
 
+    /**
+     * Device explored by the dynamic reconfiguration.
+     *
+     * @param backendIndex
+     *     Index of the backend in the {@link TornadoDeviceMap}.
+     * @param deviceIndex
+     *     Index of the device within its backend.
+     * @param device
+     *     The device.
+     */
+    private record DynamicReconfigurationTarget(int backendIndex, int deviceIndex, TornadoDevice device) {
+        private String getDeviceId() {
+            return backendIndex + ":" + deviceIndex;
+        }
+    }
+
     // Timer implementation within the Task Schedule
     private interface Timer {
         long time();
+
+        long toNanoSeconds(long time);
     }
 
     private static class MilliSecTimer implements Timer {
@@ -2691,6 +3027,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         public long time() {
             return System.currentTimeMillis();
         }
+
+        @Override
+        public long toNanoSeconds(long time) {
+            return time * 1_000_000;
+        }
     }
 
     private static class NanoSecTimer implements Timer {
@@ -2698,6 +3039,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         public long time() {
             return System.nanoTime();
         }
+
+        @Override
+        public long toNanoSeconds(long time) {
+            return time;
+        }
     }
 
     private static final class CompileInfo {
@@ -87,6 +87,7 @@ public abstract class AbstractRTContext implements TaskContextInterface {
     private final ConcurrentHashMap<TornadoVMBackendType, String> compilerOptionsPerBackend;
 
     private boolean openclUseDriverScheduling;
+    private final boolean autotuneEnabled;
 
     AbstractRTContext(String id, AbstractRTContext parent) {
         this.id = id;
@@ -121,6 +122,8 @@ public abstract class AbstractRTContext implements TaskContextInterface {
 
         openclGpuBlock2DY = parseInt(getDefault("opencl.gpu.block2d.y", id, "4"));
         isOpenclGpuBlock2DYDefined = getProperty(id + ".opencl.gpu.block2d.y") != null;
+
+        autotuneEnabled = Boolean.parseBoolean(getDefault("autotune", id, "false"));
     }
 
     private static String getProperty(String key) {
@@ -224,6 +227,14 @@ public abstract class AbstractRTContext implements TaskContextInterface {
         return openclUseDriverScheduling;
     }
 
+    /**
+     * @return {@code true} if the local work size of the task is selected by the
+     *     work-group autotuner.
+     */
+    public boolean isAutotuneEnabled() {
+        return autotuneEnabled;
+    }
+
     public boolean isDeviceDefined() {
         return isDeviceDefined;
     }
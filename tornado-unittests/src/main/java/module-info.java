@@ -1,9 +1,11 @@
 open module tornado.unittests {
     requires transitive junit;
     requires transitive tornado.api;
+    requires tornado.drivers.common;
     requires lucene.core;
     requires java.desktop;
     requires jdk.incubator.vector;
+    requires jdk.jfr;
     requires com.microsoft.onnxruntime;
 
     exports uk.ac.manchester.tornado.unittests;
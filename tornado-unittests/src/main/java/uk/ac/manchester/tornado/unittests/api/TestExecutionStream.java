@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.api;
+
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionStream;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.api.TestExecutionStream
+ * </code>
+ */
+public class TestExecutionStream extends TornadoTestBase {
+    // CHECKSTYLE:OFF
+
+    private static final int CHUNK_SIZE = 4096;
+
+    public static void scale(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * 2.0f);
+        }
+    }
+
+    private static List<MemorySegment> createChunks(int numChunks, int lastChunkSize) {
+        List<MemorySegment> chunks = new ArrayList<>();
+        for (int c = 0; c < numChunks; c++) {
+            int size = (c == numChunks - 1) ? lastChunkSize : CHUNK_SIZE;
+            FloatArray chunk = new FloatArray(size);
+            for (int i = 0; i < size; i++) {
+                chunk.set(i, c * CHUNK_SIZE + i);
+            }
+            chunks.add(chunk.getSegment());
+        }
+        return chunks;
+    }
+
+    @Test
+    public void testStreamChunks() throws TornadoExecutionPlanException, InterruptedException {
+        final int numChunks = 16;
+        final int lastChunkSize = CHUNK_SIZE / 2;
+        FloatArray input = new FloatArray(CHUNK_SIZE);
+        FloatArray output = new FloatArray(CHUNK_SIZE);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestExecutionStream::scale, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        List<Long> receivedChunks = new ArrayList<>();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            TornadoExecutionStream stream = new TornadoExecutionStream(executionPlan, input, output, 2);
+            long processed = stream.run(createChunks(numChunks, lastChunkSize).iterator(), (chunkIndex, result, numElements) -> {
+                receivedChunks.add(chunkIndex);
+                assertEquals((chunkIndex == numChunks - 1) ? lastChunkSize : CHUNK_SIZE, numElements);
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    float expected = (chunkIndex == numChunks - 1 && i >= lastChunkSize) ? 0.0f : (chunkIndex * CHUNK_SIZE + i) * 2.0f;
+                    assertEquals(expected, result.getAtIndex(JAVA_FLOAT, i), 0.01f);
+                }
+            });
+            assertEquals(numChunks, processed);
+        }
+
+        // Results are delivered in order
+        assertEquals(numChunks, receivedChunks.size());
+        for (int i = 0; i < numChunks; i++) {
+            assertEquals(i, (long) receivedChunks.get(i));
+        }
+    }
+
+    @Test
+    public void testSinkFailure() throws TornadoExecutionPlanException, InterruptedException {
+        FloatArray input = new FloatArray(CHUNK_SIZE);
+        FloatArray output = new FloatArray(CHUNK_SIZE);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestExecutionStream::scale, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            TornadoExecutionStream stream = new TornadoExecutionStream(executionPlan, input, output, 2);
+            boolean failed = false;
+            try {
+                stream.run(createChunks(8, CHUNK_SIZE).iterator(), (chunkIndex, result, numElements) -> {
+                    if (chunkIndex == 3) {
+                        throw new IllegalStateException("sink failure");
+                    }
+                });
+            } catch (IllegalStateException e) {
+                failed = true;
+            }
+            assertTrue(failed);
+        }
+    }
+    // CHECKSTYLE:ON
+}
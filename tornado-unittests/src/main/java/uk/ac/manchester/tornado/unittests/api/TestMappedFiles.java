@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.api.types.matrix.Matrix2DFloat;
+import uk.ac.manchester.tornado.unittests.arrays.TestArrays;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for native arrays backed by memory-mapped files.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.api.TestMappedFiles
+ * </code>
+ */
+public class TestMappedFiles extends TornadoTestBase {
+    // CHECKSTYLE:OFF
+
+    private static final int SIZE = 1024;
+
+    private static FloatArray createArray(int size, float offset) {
+        FloatArray array = new FloatArray(size);
+        for (int i = 0; i < size; i++) {
+            array.set(i, i + offset);
+        }
+        return array;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path file = Files.createTempFile("tornado", ".bin");
+        try {
+            FloatArray array = createArray(SIZE, 0.5f);
+            array.toFile(file);
+
+            FloatArray mapped = FloatArray.fromFile(file);
+            assertEquals(SIZE, mapped.getSize());
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(array.get(i), mapped.get(i), 0.0f);
+            }
+
+            // Updates of a region mapped in private mode are not written to the file
+            FloatArray privateCopy = FloatArray.fromFile(file, TornadoNativeArray.ARRAY_HEADER, SIZE, FileChannel.MapMode.PRIVATE);
+            privateCopy.set(0, -1.0f);
+            assertEquals(0.5f, FloatArray.fromFile(file).get(0), 0.0f);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testMappedInputAndOutput() throws IOException, TornadoExecutionPlanException {
+        Path inputA = Files.createTempFile("tornado", ".bin");
+        Path inputB = Files.createTempFile("tornado", ".bin");
+        Path output = Files.createTempFile("tornado", ".bin");
+        try {
+            createArray(SIZE, 0).toFile(inputA);
+            createArray(SIZE, 100).toFile(inputB);
+            new FloatArray(SIZE).toFile(output);
+
+            FloatArray a = FloatArray.fromFile(inputA);
+            FloatArray b = FloatArray.fromFile(inputB);
+            // The data of the output file starts after the array header
+            FloatArray c = FloatArray.fromFile(output, TornadoNativeArray.ARRAY_HEADER, SIZE, FileChannel.MapMode.READ_WRITE);
+
+            TaskGraph taskGraph = new TaskGraph("s0") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                    .task("t0", TestArrays::vectorAddFloat, a, b, c) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+                executionPlan.execute();
+            }
+            c.getSegmentWithHeader().force();
+
+            FloatArray result = FloatArray.fromFile(output);
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(2 * i + 100, result.get(i), 0.01f);
+            }
+        } finally {
+            Files.deleteIfExists(inputA);
+            Files.deleteIfExists(inputB);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    public void testRegionWithoutHeader() throws IOException {
+        Path file = Files.createTempFile("tornado", ".bin");
+        try {
+            // The bytes before the data belong to the file format, not to an array header
+            byte[] contents = new byte[(int) TornadoNativeArray.ARRAY_HEADER + SIZE * Float.BYTES];
+            for (int i = 0; i < contents.length; i++) {
+                contents[i] = (byte) (i + 1);
+            }
+            Files.write(file, contents);
+
+            // Mapping the region in read-write mode would overwrite the file header
+            assertThrows(IllegalArgumentException.class, () -> FloatArray.fromFile(file, TornadoNativeArray.ARRAY_HEADER, SIZE, FileChannel.MapMode.READ_WRITE));
+
+            FloatArray privateCopy = FloatArray.fromFile(file, TornadoNativeArray.ARRAY_HEADER, SIZE, FileChannel.MapMode.PRIVATE);
+            assertEquals(SIZE, privateCopy.getSize());
+            privateCopy.set(0, -1.0f);
+
+            byte[] afterMapping = Files.readAllBytes(file);
+            assertArrayEquals(contents, afterMapping);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testReadOnlyMappingAsOutput() throws IOException {
+        Path inputA = Files.createTempFile("tornado", ".bin");
+        Path output = Files.createTempFile("tornado", ".bin");
+        try {
+            createArray(SIZE, 0).toFile(inputA);
+            new FloatArray(SIZE).toFile(output);
+
+            FloatArray a = FloatArray.fromFile(inputA);
+            FloatArray c = FloatArray.fromFile(output);
+
+            // Copying the result into a read-only mapping would crash the JVM
+            TaskGraph taskGraph = new TaskGraph("s0") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+                    .task("t0", TestArrays::vectorAddFloat, a, a, c);
+            assertThrows(TornadoRuntimeException.class, () -> taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, c));
+        } finally {
+            Files.deleteIfExists(inputA);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    @Test
+    public void testMatrixFromFile() throws IOException {
+        Path file = Files.createTempFile("tornado", ".bin");
+        try {
+            Matrix2DFloat matrix = new Matrix2DFloat(16, 32);
+            for (int i = 0; i < matrix.getNumRows(); i++) {
+                for (int j = 0; j < matrix.getNumColumns(); j++) {
+                    matrix.set(i, j, i * j);
+                }
+            }
+            matrix.toFile(file);
+
+            Matrix2DFloat mapped = Matrix2DFloat.fromFile(16, 32, file);
+            for (int i = 0; i < matrix.getNumRows(); i++) {
+                for (int j = 0; j < matrix.getNumColumns(); j++) {
+                    assertEquals(matrix.get(i, j), mapped.get(i, j), 0.0f);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    // CHECKSTYLE:ON
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.foreign.Arena;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.NativeArrayPool;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.unittests.arrays.TestArrays;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for native arrays allocated from an arena or a {@link NativeArrayPool}.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.api.TestNativeArrayPool
+ * </code>
+ */
+public class TestNativeArrayPool extends TornadoTestBase {
+    // CHECKSTYLE:OFF
+
+    private static final int SIZE = 1024;
+
+    @Test
+    public void testPoolReuse() {
+        try (NativeArrayPool pool = new NativeArrayPool()) {
+            IntArray a = new IntArray(SIZE, pool);
+            a.init(7);
+            long address = a.getSegmentWithHeader().address();
+            a.close();
+            assertEquals(0, pool.getUsedBytes());
+
+            // The block is reused, and it is cleared before it is returned
+            IntArray b = new IntArray(SIZE, pool);
+            assertEquals(address, b.getSegmentWithHeader().address());
+            assertEquals(SIZE, b.getSize());
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(0, b.get(i));
+            }
+
+            IntArray c = new IntArray(SIZE, pool);
+            assertNotEquals(address, c.getSegmentWithHeader().address());
+            assertEquals(NativeArrayPool.DEFAULT_SLAB_SIZE, pool.getReservedBytes());
+        }
+    }
+
+    @Test
+    public void testUseAfterClose() {
+        try (NativeArrayPool pool = new NativeArrayPool()) {
+            IntArray a = new IntArray(SIZE, pool);
+            a.close();
+            assertTrue(a.isClosed());
+
+            // The block of a is reused by b, and a cannot access it anymore
+            IntArray b = new IntArray(SIZE, pool);
+            b.init(7);
+            assertFalse(b.isClosed());
+            assertThrows(IndexOutOfBoundsException.class, () -> a.get(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> a.set(0, 1));
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(7, b.get(i));
+            }
+
+            // Closing the array again has no effect
+            a.close();
+            b.close();
+            assertEquals(0, pool.getUsedBytes());
+        }
+    }
+
+    @Test
+    public void testTransferAfterClose() {
+        try (NativeArrayPool pool = new NativeArrayPool()) {
+            FloatArray a = new FloatArray(SIZE, pool, TornadoNativeArray.PAGE_ALIGNMENT);
+            FloatArray b = new FloatArray(SIZE, pool, TornadoNativeArray.PAGE_ALIGNMENT);
+            FloatArray c = new FloatArray(SIZE, pool, TornadoNativeArray.PAGE_ALIGNMENT);
+            a.close();
+
+            TaskGraph taskGraph = new TaskGraph("s0") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                    .task("t0", TestArrays::vectorAddFloat, a, b, c) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+            assertThrows(Exception.class, () -> {
+                try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+                    executionPlan.execute();
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testAlignment() {
+        try (NativeArrayPool pool = new NativeArrayPool(); Arena arena = Arena.ofConfined()) {
+            FloatArray a = new FloatArray(3, pool);
+            FloatArray b = new FloatArray(SIZE, pool, TornadoNativeArray.PAGE_ALIGNMENT);
+            FloatArray c = new FloatArray(SIZE, arena, TornadoNativeArray.DEVICE_ALIGNMENT);
+            assertEquals(0, a.getSegmentWithHeader().address() % Long.BYTES);
+            assertEquals(0, b.getSegmentWithHeader().address() % TornadoNativeArray.PAGE_ALIGNMENT);
+            assertEquals(0, c.getSegmentWithHeader().address() % TornadoNativeArray.DEVICE_ALIGNMENT);
+            assertEquals(SIZE * Float.BYTES, b.getNumBytesOfSegment());
+        }
+    }
+
+    @Test
+    public void testPooledArrays() throws TornadoExecutionPlanException {
+        try (NativeArrayPool pool = new NativeArrayPool(); //
+                FloatArray a = new FloatArray(SIZE, pool, TornadoNativeArray.PAGE_ALIGNMENT); //
+                FloatArray b = new FloatArray(SIZE, pool, TornadoNativeArray.PAGE_ALIGNMENT); //
+                FloatArray c = new FloatArray(SIZE, pool, TornadoNativeArray.PAGE_ALIGNMENT)) {
+            for (int i = 0; i < SIZE; i++) {
+                a.set(i, i);
+                b.set(i, 2 * i);
+            }
+
+            TaskGraph taskGraph = new TaskGraph("s0") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                    .task("t0", TestArrays::vectorAddFloat, a, b, c) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+                executionPlan.execute();
+            }
+
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(3 * i, c.get(i), 0.01f);
+            }
+        }
+    }
+    // CHECKSTYLE:ON
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.utils.SegmentOps;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests for the host-side bulk operations of {@link SegmentOps}. The sizes are
+ * not multiples of the vector length, so the scalar tails are also tested.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.api.TestSegmentOps
+ * </code>
+ */
+public class TestSegmentOps extends TornadoTestBase {
+    // CHECKSTYLE:OFF
+
+    private static final int SIZE = 1027;
+
+    @Test
+    public void testFillAndCopy() {
+        FloatArray a = new FloatArray(SIZE);
+        a.init(2.5f);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(2.5f, a.get(i), 0.0f);
+        }
+
+        int[] values = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = i;
+        }
+        IntArray b = IntArray.fromArray(values);
+        assertArrayEquals(values, b.toHeapArray());
+    }
+
+    @Test
+    public void testAxpyAndReductions() {
+        FloatArray x = new FloatArray(SIZE);
+        FloatArray y = new FloatArray(SIZE);
+        IntArray z = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            x.set(i, i);
+            y.set(i, 1);
+            z.set(i, i - 100);
+        }
+
+        assertEquals((SIZE - 1) * SIZE / 2.0f, SegmentOps.dotFloat(x.getSegment(), y.getSegment()), 0.01f);
+
+        SegmentOps.axpy(2.0f, x.getSegment(), y.getSegment());
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(2.0f * i + 1, y.get(i), 0.0f);
+        }
+
+        assertEquals(SIZE - 1, SegmentOps.maxFloat(x.getSegment()), 0.0f);
+        assertEquals(0, SegmentOps.minFloat(x.getSegment()), 0.0f);
+        assertEquals((SIZE - 1) * SIZE / 2 - 100 * SIZE, SegmentOps.sumInt(z.getSegment()));
+        assertEquals(-100, SegmentOps.minInt(z.getSegment()));
+    }
+
+    @Test
+    public void testConversions() {
+        IntArray a = new IntArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            a.set(i, i - 10);
+        }
+        FloatArray b = new FloatArray(SIZE);
+        SegmentOps.convertIntToFloat(a.getSegment(), b.getSegment());
+        HalfFloatArray half = new HalfFloatArray(SIZE);
+        SegmentOps.convertFloatToHalf(b.getSegment(), half.getSegment());
+        FloatArray c = new FloatArray(SIZE);
+        SegmentOps.convertHalfToFloat(half.getSegment(), c.getSegment());
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i - 10, b.get(i), 0.0f);
+            // Integers up to 2048 are exact in fp16
+            assertEquals(i - 10, c.get(i), 0.0f);
+            assertEquals(i - 10, half.get(i).getFloat32(), 0.0f);
+        }
+    }
+    // CHECKSTYLE:ON
+}
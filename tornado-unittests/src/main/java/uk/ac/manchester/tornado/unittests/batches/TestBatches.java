@@ -19,6 +19,7 @@
 package uk.ac.manchester.tornado.unittests.batches;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Random;
 import java.util.stream.IntStream;
@@ -935,6 +936,99 @@ public class TestBatches extends TornadoTestBase {
         }
     }
 
+    @Test
+    public void testPipelinedBatch() throws TornadoExecutionPlanException {
+        checkMaxHeapAllocationOnDevice(64, MemoryUnit.MB);
+
+        // Allocate ~ 2 x 40MB, so the last batch is not even
+        int size = 1024 * 1024 * 10;
+        FloatArray arrayA = new FloatArray(size);
+        FloatArray arrayB = new FloatArray(size);
+
+        Random r = new Random();
+        IntStream.range(0, arrayA.getSize()).sequential().forEach(idx -> arrayA.set(idx, r.nextFloat()));
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, arrayA) //
+                .task("t0", TestBatches::compute, arrayA, arrayB) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, arrayB);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withPipelinedBatch("6MB", 3); // Batches of 6MB using three buffer slots
+            // Run twice to check the buffer slots are set up again in the next execution
+            for (int i = 0; i < 2; i++) {
+                arrayB.init(0.0f);
+                executionPlan.execute();
+                for (int j = 0; j < arrayB.getSize(); j++) {
+                    assertEquals(arrayA.get(j) + 100, arrayB.get(j), 0.1f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAutomaticBatch() throws TornadoExecutionPlanException {
+        checkMaxHeapAllocationOnDevice(64, MemoryUnit.MB);
+
+        // Allocate ~ 2 x 40MB, which does not fit in the memory limit of the execution plan
+        int size = 1024 * 1024 * 10;
+        FloatArray arrayA = new FloatArray(size);
+        FloatArray arrayB = new FloatArray(size);
+
+        Random r = new Random();
+        IntStream.range(0, arrayA.getSize()).sequential().forEach(idx -> arrayA.set(idx, r.nextFloat()));
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, arrayA) //
+                .task("t0", TestBatches::compute, arrayA, arrayB) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, arrayB);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withMemoryLimit("64MB") //
+                    .withAutomaticBatch() // The batch size is selected by TornadoVM
+                    .execute();
+        }
+
+        for (int i = 0; i < arrayB.getSize(); i++) {
+            assertEquals(arrayA.get(i) + 100, arrayB.get(i), 0.1f);
+        }
+    }
+
+    @Test
+    public void testAutomaticBatchRepeatedExecutions() throws TornadoExecutionPlanException {
+        checkMaxHeapAllocationOnDevice(64, MemoryUnit.MB);
+
+        int size = 1024 * 1024 * 10;
+        FloatArray arrayA = new FloatArray(size);
+        FloatArray arrayB = new FloatArray(size);
+
+        Random r = new Random();
+        IntStream.range(0, arrayA.getSize()).sequential().forEach(idx -> arrayA.set(idx, r.nextFloat()));
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, arrayA) //
+                .task("t0", TestBatches::compute, arrayA, arrayB) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, arrayB);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withMemoryLimit("64MB").withAutomaticBatch();
+            executionPlan.execute();
+            // The device memory in use is the size of the batch buffers
+            long batchMemoryUsage = executionPlan.getCurrentDeviceMemoryUsage();
+            assertTrue(batchMemoryUsage > 0);
+
+            for (int i = 0; i < 4; i++) {
+                executionPlan.execute();
+                // The batch buffers of the previous execution do not reduce the batch size
+                assertEquals(batchMemoryUsage, executionPlan.getCurrentDeviceMemoryUsage());
+            }
+        }
+
+        for (int i = 0; i < arrayB.getSize(); i++) {
+            assertEquals(arrayA.get(i) + 100, arrayB.get(i), 0.1f);
+        }
+    }
+
     private long checkMaxHeapAllocationOnDevice(int size, MemoryUnit memoryUnit) throws UnsupportedConfigurationException {
         long maxAllocMemory = getTornadoRuntime().getDefaultDevice().getDeviceContext().getMemoryManager().getHeapSize();
 
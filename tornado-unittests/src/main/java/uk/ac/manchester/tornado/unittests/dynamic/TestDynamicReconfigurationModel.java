@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.dynamic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNotNull;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.Policy;
+import uk.ac.manchester.tornado.runtime.tasks.DynamicReconfigurationModel;
+import uk.ac.manchester.tornado.runtime.tasks.DynamicReconfigurationModel.Sample;
+
+/**
+ * Unit tests of the cost model of the dynamic reconfiguration. The samples are
+ * recorded directly, so the tests do not need a device. Each test uses its own
+ * task-graph signature.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V -J"-Dtornado.dr.model.file=/tmp/dr-model-test.tsv" uk.ac.manchester.tornado.unittests.dynamic.TestDynamicReconfigurationModel
+ * </code>
+ */
+public class TestDynamicReconfigurationModel {
+
+    private static final String GPU = "0:0 GPU";
+    private static final String CPU = "0:1 CPU";
+    private static final String JVM = "JVM";
+    private static final List<String> DEVICES = List.of(GPU, CPU, JVM);
+
+    private DynamicReconfigurationModel model;
+
+    @Before
+    public void enableModel() {
+        model = DynamicReconfigurationModel.getInstance();
+        assumeNotNull(model);
+    }
+
+    private static Sample sample(long compileTime, long executionTime) {
+        return new Sample(compileTime, executionTime);
+    }
+
+    @Test
+    public void testPredictCostAtSample() {
+        model.record(Policy.PERFORMANCE, "atSample", 1024, List.of(GPU), new Sample[] { sample(500, 100) });
+        assertEquals(100, model.predictCost(Policy.PERFORMANCE, "atSample", GPU, 1024));
+    }
+
+    @Test
+    public void testPredictCostInterpolation() {
+        model.record(Policy.PERFORMANCE, "interpolation", 1000, List.of(GPU), new Sample[] { sample(0, 100) });
+        model.record(Policy.PERFORMANCE, "interpolation", 2000, List.of(GPU), new Sample[] { sample(0, 300) });
+        assertEquals(200, model.predictCost(Policy.PERFORMANCE, "interpolation", GPU, 1500));
+        // Extrapolated from the two closest samples
+        assertEquals(500, model.predictCost(Policy.PERFORMANCE, "interpolation", GPU, 3000));
+        assertEquals(0, model.predictCost(Policy.PERFORMANCE, "interpolation", GPU, 500));
+    }
+
+    @Test
+    public void testPredictCostSingleSampleScales() {
+        model.record(Policy.PERFORMANCE, "singleSample", 1000, List.of(GPU), new Sample[] { sample(0, 100) });
+        assertEquals(150, model.predictCost(Policy.PERFORMANCE, "singleSample", GPU, 1500));
+        assertEquals(50, model.predictCost(Policy.PERFORMANCE, "singleSample", GPU, 500));
+    }
+
+    @Test
+    public void testPredictCostOutOfRange() {
+        model.record(Policy.PERFORMANCE, "outOfRange", 1000, List.of(GPU), new Sample[] { sample(0, 100) });
+        // Samples are only used within a factor of 2 of the input size
+        assertEquals(-1, model.predictCost(Policy.PERFORMANCE, "outOfRange", GPU, 2001));
+        assertEquals(-1, model.predictCost(Policy.PERFORMANCE, "outOfRange", GPU, 499));
+        assertEquals(-1, model.predictCost(Policy.PERFORMANCE, "outOfRange", CPU, 1000));
+        assertEquals(-1, model.predictCost(Policy.END_2_END, "outOfRange", GPU, 1000));
+    }
+
+    @Test
+    public void testPredictCostEndToEndIncludesCompilation() {
+        model.record(Policy.END_2_END, "endToEnd", 1000, List.of(GPU), new Sample[] { sample(900, 100) });
+        model.record(Policy.PERFORMANCE, "endToEnd", 1000, List.of(GPU), new Sample[] { sample(900, 100) });
+        assertEquals(1000, model.predictCost(Policy.END_2_END, "endToEnd", GPU, 1000));
+        assertEquals(100, model.predictCost(Policy.PERFORMANCE, "endToEnd", GPU, 1000));
+    }
+
+    @Test
+    public void testSelectDevice() {
+        model.record(Policy.PERFORMANCE, "select", 1000, DEVICES, new Sample[] { sample(0, 100), sample(0, 400), sample(0, 900) });
+        assertEquals(0, model.selectDevice(Policy.PERFORMANCE, "select", 1200, DEVICES));
+
+        // The compilation time makes the CPU the best device for a single execution
+        model.record(Policy.END_2_END, "select", 1000, DEVICES, new Sample[] { sample(2000, 100), sample(200, 400), sample(0, 900) });
+        assertEquals(1, model.selectDevice(Policy.END_2_END, "select", 1000, DEVICES));
+    }
+
+    @Test
+    public void testSelectDeviceWithinMargin() {
+        // The CPU is less than 10% slower than the GPU, so the devices are explored
+        model.record(Policy.PERFORMANCE, "margin", 1000, DEVICES, new Sample[] { sample(0, 100), sample(0, 105), sample(0, 900) });
+        assertEquals(-1, model.selectDevice(Policy.PERFORMANCE, "margin", 1000, DEVICES));
+    }
+
+    @Test
+    public void testSelectDeviceWithoutSamples() {
+        // The JVM has no sample, so the devices are explored
+        model.record(Policy.PERFORMANCE, "missing", 1000, DEVICES, new Sample[] { sample(0, 100), sample(0, 400), null });
+        assertEquals(-1, model.selectDevice(Policy.PERFORMANCE, "missing", 1000, DEVICES));
+        // None of the devices has samples close to the input size
+        assertEquals(-1, model.selectDevice(Policy.PERFORMANCE, "missing", 4000, DEVICES));
+    }
+}
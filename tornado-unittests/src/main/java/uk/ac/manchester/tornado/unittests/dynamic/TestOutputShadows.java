@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.dynamic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task3;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.matrix.Matrix2DFloat;
+import uk.ac.manchester.tornado.runtime.tasks.OutputShadows;
+
+/**
+ * Unit tests of the private copies of the outputs used by the parallel dynamic
+ * reconfiguration ({@code DRMode.PARALLEL}). The devices of the race are
+ * simulated by running the tasks on the host, so the tests do not need a
+ * device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.dynamic.TestOutputShadows
+ * </code>
+ */
+public class TestOutputShadows {
+
+    private static final int SIZE = 256;
+
+    public static void scale(FloatArray input, FloatArray output, float[] javaOutput) {
+        for (int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * 2.0f);
+            javaOutput[i] = input.get(i) * 3.0f;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void run(TaskPackage taskPackage) {
+        Object[] parameters = taskPackage.getTaskParameters();
+        ((Task3<FloatArray, FloatArray, float[]>) parameters[0]).apply((FloatArray) parameters[1], (FloatArray) parameters[2], (float[]) parameters[3]);
+    }
+
+    private static FloatArray input() {
+        FloatArray input = new FloatArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            input.set(i, i);
+        }
+        return input;
+    }
+
+    @Test
+    public void testApplyReplacesOnlyOutputs() {
+        FloatArray input = input();
+        FloatArray output = new FloatArray(SIZE);
+        float[] javaOutput = new float[SIZE];
+        TaskPackage task = TaskPackage.createPackage("t0", TestOutputShadows::scale, input, output, javaOutput);
+
+        OutputShadows shadows = new OutputShadows(List.of(output, javaOutput));
+        assertFalse(shadows.isEmpty());
+        TaskPackage shadowTask = shadows.apply(task);
+
+        Object[] parameters = shadowTask.getTaskParameters();
+        assertEquals(task.getId(), shadowTask.getId());
+        assertSame(task.getTaskParameters()[0], parameters[0]);
+        assertSame(input, parameters[1]);
+        assertNotSame(output, parameters[2]);
+        assertNotSame(javaOutput, parameters[3]);
+        assertSame(shadows.get(output), parameters[2]);
+        assertSame(shadows.get(javaOutput), parameters[3]);
+
+        // The task of the task-graph keeps the objects of the application
+        assertSame(output, task.getTaskParameters()[2]);
+        assertSame(javaOutput, task.getTaskParameters()[3]);
+    }
+
+    @Test
+    public void testLoserCannotOverwriteOutputs() {
+        FloatArray input = input();
+        FloatArray output = new FloatArray(SIZE);
+        float[] javaOutput = new float[SIZE];
+        TaskPackage task = TaskPackage.createPackage("t0", TestOutputShadows::scale, input, output, javaOutput);
+        List<Object> outputs = List.of(output, javaOutput);
+
+        OutputShadows winner = new OutputShadows(outputs);
+        OutputShadows loser = new OutputShadows(outputs);
+        run(winner.apply(task));
+        run(loser.apply(task));
+
+        // Nothing reaches the application before the winner is selected
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(0.0f, output.get(i), 0.0f);
+            assertEquals(0.0f, javaOutput[i], 0.0f);
+        }
+
+        winner.publish();
+
+        // The losing device copies other results back after the winner has been published
+        ((FloatArray) loser.get(output)).init(-1.0f);
+        Arrays.fill((float[]) loser.get(javaOutput), -1.0f);
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i * 2.0f, output.get(i), 0.0f);
+            assertEquals(i * 3.0f, javaOutput[i], 0.0f);
+        }
+    }
+
+    @Test
+    public void testMatrixOutput() {
+        Matrix2DFloat matrix = new Matrix2DFloat(16, 16);
+        OutputShadows winner = new OutputShadows(List.of(matrix));
+        OutputShadows loser = new OutputShadows(List.of(matrix));
+        ((Matrix2DFloat) winner.get(matrix)).set(3, 4, 42.0f);
+        ((Matrix2DFloat) loser.get(matrix)).set(3, 4, -1.0f);
+
+        winner.publish();
+        assertEquals(42.0f, matrix.get(3, 4), 0.0f);
+        assertEquals(0.0f, matrix.get(4, 3), 0.0f);
+    }
+
+    @Test
+    public void testObjectsWithoutCopiesAreShared() {
+        Object[] references = new Object[SIZE];
+        OutputShadows shadows = new OutputShadows(Collections.singletonList(references));
+        assertTrue(shadows.isEmpty());
+        assertSame(references, shadows.get(references));
+
+        TaskPackage task = TaskPackage.createPackage("t0", TestOutputShadows::scale, input(), new FloatArray(SIZE), new float[SIZE]);
+        assertSame(task, shadows.apply(task));
+    }
+
+    @Test
+    public void testWithTaskParametersKeepsTheCode() {
+        TaskPackage task = TaskPackage.createPackage("t0", TestOutputShadows::scale, input(), new FloatArray(SIZE), new float[SIZE]);
+        FloatArray otherOutput = new FloatArray(SIZE);
+        float[] otherJavaOutput = new float[SIZE];
+        Object[] parameters = { task.getTaskParameters()[0], task.getTaskParameters()[1], otherOutput, otherJavaOutput };
+        run(task.withTaskParameters(parameters));
+        assertEquals(10.0f, otherOutput.get(5), 0.0f);
+        assertArrayEquals(new float[] { 0.0f, 3.0f }, Arrays.copyOf(otherJavaOutput, 2), 0.0f);
+
+        assertThrows(IllegalArgumentException.class, () -> task.withTaskParameters(Arrays.copyOf(parameters, 3)));
+        Object[] otherCode = parameters.clone();
+        otherCode[0] = (Task3<FloatArray, FloatArray, float[]>) TestOutputShadows::scale;
+        assertThrows(IllegalArgumentException.class, () -> task.withTaskParameters(otherCode));
+    }
+}
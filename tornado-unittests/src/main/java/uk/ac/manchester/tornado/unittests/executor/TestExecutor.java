@@ -403,5 +403,52 @@ public class TestExecutor extends TornadoTestBase {
         }
     }
 
+    /**
+     * Test the pre-linked execution of the TornadoVM bytecodes. The bytecodes are linked after
+     * the first execution, so the following executions must produce the same results as the
+     * interpreter.
+     *
+     * @throws TornadoExecutionPlanException
+     */
+    @Test
+    public void test08() throws TornadoExecutionPlanException {
+        int numElements = 16;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+
+        Random r = new Random();
+        for (int i = 0; i < a.getSize(); i++) {
+            a.set(i, r.nextInt());
+            b.set(i, r.nextInt());
+        }
+
+        TaskGraph tg = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestHello::add, a, b, c) //
+                .task("t1", TestHello::compute, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(tg.snapshot())) {
+            executionPlan.withPrelinkedBytecodes();
+
+            for (int iteration = 0; iteration < 4; iteration++) {
+                for (int i = 0; i < a.getSize(); i++) {
+                    a.set(i, a.get(i) + iteration);
+                }
+                executionPlan.execute();
+                for (int i = 0; i < c.getSize(); i++) {
+                    assertEquals((a.get(i) + b.get(i)) * 2, c.get(i));
+                }
+            }
+
+            // Switch back to the interpreter
+            executionPlan.withoutPrelinkedBytecodes().execute();
+            for (int i = 0; i < c.getSize(); i++) {
+                assertEquals((a.get(i) + b.get(i)) * 2, c.get(i));
+            }
+        }
+    }
+
     // CHECKSTYLE:ON
 }
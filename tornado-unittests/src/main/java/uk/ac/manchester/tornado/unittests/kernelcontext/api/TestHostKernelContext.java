@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.kernelcontext.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.tasks.HostKernelExecutor;
+
+/**
+ * Runs {@link KernelContext} kernels on the host with the
+ * {@link HostKernelExecutor} used when a task-graph bails out, and compares
+ * them with sequential Java. The kernels do not need a device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.kernelcontext.api.TestHostKernelContext
+ * </code>
+ */
+public class TestHostKernelContext {
+
+    private static final int SIZE = 4096;
+    private static final int LOCAL_SIZE = 256;
+
+    public static void reduceLocal(KernelContext context, FloatArray input, FloatArray output) {
+        int globalId = context.globalIdx;
+        int localId = context.localIdx;
+        int groupSize = context.localGroupSizeX;
+        int groupId = context.groupIdx;
+
+        float[] localArray = context.allocateFloatLocalArray(LOCAL_SIZE);
+        localArray[localId] = input.get(globalId);
+        for (int stride = groupSize / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localId < stride) {
+                localArray[localId] += localArray[localId + stride];
+            }
+        }
+        if (localId == 0) {
+            output.set(groupId, localArray[0]);
+        }
+    }
+
+    public static void histogram(KernelContext context, IntArray input, IntArray bins) {
+        context.atomicAdd(bins, input.get(context.globalIdx), 1);
+    }
+
+    public static void sum(KernelContext context, FloatArray input, FloatArray output) {
+        context.atomicAdd(output, 0, input.get(context.globalIdx));
+    }
+
+    private static WorkerGrid grid(int localSize) {
+        WorkerGrid workerGrid = new WorkerGrid1D(SIZE);
+        workerGrid.setLocalWork(localSize, 1, 1);
+        return workerGrid;
+    }
+
+    @Test
+    public void testLocalMemoryReduction() {
+        FloatArray input = new FloatArray(SIZE);
+        FloatArray output = new FloatArray(SIZE / LOCAL_SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            input.set(i, i % 100);
+        }
+
+        TaskPackage taskPackage = TaskPackage.createPackage("s0.t0", TestHostKernelContext::reduceLocal, new KernelContext(), input, output);
+        assertTrue(HostKernelExecutor.run(taskPackage, grid(LOCAL_SIZE)));
+
+        for (int group = 0; group < SIZE / LOCAL_SIZE; group++) {
+            float expected = 0;
+            for (int i = group * LOCAL_SIZE; i < (group + 1) * LOCAL_SIZE; i++) {
+                expected += input.get(i);
+            }
+            assertEquals(expected, output.get(group), 0.01f);
+        }
+    }
+
+    @Test
+    public void testAtomicAddInt() {
+        final int numBins = 16;
+        IntArray input = new IntArray(SIZE);
+        IntArray bins = new IntArray(numBins);
+        int[] expected = new int[numBins];
+        for (int i = 0; i < SIZE; i++) {
+            input.set(i, (i * 7) % numBins);
+            expected[input.get(i)]++;
+        }
+
+        TaskPackage taskPackage = TaskPackage.createPackage("s0.t0", TestHostKernelContext::histogram, new KernelContext(), input, bins);
+        assertTrue(HostKernelExecutor.run(taskPackage, grid(64)));
+
+        for (int bin = 0; bin < numBins; bin++) {
+            assertEquals(expected[bin], bins.get(bin));
+        }
+    }
+
+    @Test
+    public void testAtomicAddFloat() {
+        FloatArray input = new FloatArray(SIZE);
+        FloatArray output = new FloatArray(1);
+        float expected = 0;
+        for (int i = 0; i < SIZE; i++) {
+            // Small integers, so the sum is exact in any order
+            input.set(i, i % 8);
+            expected += input.get(i);
+        }
+
+        TaskPackage taskPackage = TaskPackage.createPackage("s0.t0", TestHostKernelContext::sum, new KernelContext(), input, output);
+        assertTrue(HostKernelExecutor.run(taskPackage, grid(64)));
+
+        assertEquals(expected, output.get(0), 0.0f);
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.loops;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoAutoParalleliser;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * <p>
+ * Kernels without {@code @Parallel} annotations. With
+ * {@code -Dtornado.parallelise.auto=True}, the loops that the dependence
+ * analysis proves free of cross-iteration dependences are parallelised, and the
+ * rest keep running sequentially. The results must be the same in both cases.
+ * Each test also checks the number of loops that were parallelised in the
+ * sketch of the task, where the accesses to the native arrays are memory reads
+ * and writes.
+ * </p>
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.parallelise.auto=True" uk.ac.manchester.tornado.unittests.loops.TestAutoParallelisation
+ * </code>
+ */
+public class TestAutoParallelisation extends TornadoTestBase {
+    // CHECKSTYLE:OFF
+
+    private static void vectorAdd(FloatArray a, FloatArray b, FloatArray c) {
+        for (int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    private static void matrixTranspose(FloatArray a, FloatArray b, final int rows, final int columns) {
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                b.set(j * rows + i, a.get(i * columns + j));
+            }
+        }
+    }
+
+    private static void matrixMultiplication(FloatArray a, FloatArray b, FloatArray c, final int size) {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                float sum = 0.0f;
+                for (int k = 0; k < size; k++) {
+                    sum += a.get(i * size + k) * b.get(k * size + j);
+                }
+                c.set(i * size + j, sum);
+            }
+        }
+    }
+
+    private static void prefixSum(IntArray a, IntArray b) {
+        for (int i = 1; i < a.getSize(); i++) {
+            a.set(i, a.get(i - 1) + b.get(i));
+        }
+    }
+
+    private static void rowSum(FloatArray a, FloatArray result, final int size) {
+        for (int i = 0; i < size; i++) {
+            result.set(0, result.get(0) + a.get(i));
+        }
+    }
+
+    private static void shiftInPlace(IntArray a) {
+        for (int i = 0; i < a.getSize() - 1; i++) {
+            a.set(i, a.get(i + 1));
+        }
+    }
+
+    private static void assertParallelDepth(int expected, String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = TestAutoParallelisation.class.getDeclaredMethod(name, parameterTypes);
+        int parallelDepth = TornadoAutoParalleliser.getParallelDepth(method, TornadoOptions.DEFAULT_BACKEND_INDEX, TornadoOptions.DEFAULT_DEVICE_INDEX);
+        assertEquals(TornadoOptions.AUTO_PARALLELISATION ? expected : 0, parallelDepth);
+    }
+
+    @Test
+    public void testVectorAdd() throws TornadoExecutionPlanException, NoSuchMethodException {
+        final int size = 4096;
+        FloatArray a = new FloatArray(size);
+        FloatArray b = new FloatArray(size);
+        FloatArray c = new FloatArray(size);
+        FloatArray seq = new FloatArray(size);
+
+        Random r = new Random();
+        for (int i = 0; i < size; i++) {
+            a.set(i, r.nextFloat());
+            b.set(i, r.nextFloat());
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestAutoParallelisation::vectorAdd, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+            assertParallelDepth(1, "vectorAdd", FloatArray.class, FloatArray.class, FloatArray.class);
+        }
+
+        vectorAdd(a, b, seq);
+        for (int i = 0; i < size; i++) {
+            assertEquals(seq.get(i), c.get(i), 0.001f);
+        }
+    }
+
+    @Test
+    public void testMatrixTranspose() throws TornadoExecutionPlanException, NoSuchMethodException {
+        final int rows = 384;
+        final int columns = 200;
+        FloatArray a = new FloatArray(rows * columns);
+        FloatArray b = new FloatArray(rows * columns);
+        FloatArray seq = new FloatArray(rows * columns);
+
+        Random r = new Random();
+        for (int i = 0; i < a.getSize(); i++) {
+            a.set(i, r.nextFloat());
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestAutoParallelisation::matrixTranspose, a, b, rows, columns) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+            assertParallelDepth(2, "matrixTranspose", FloatArray.class, FloatArray.class, int.class, int.class);
+        }
+
+        matrixTranspose(a, seq, rows, columns);
+        for (int i = 0; i < seq.getSize(); i++) {
+            assertEquals(seq.get(i), b.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testMatrixMultiplication() throws TornadoExecutionPlanException, NoSuchMethodException {
+        final int size = 128;
+        FloatArray a = new FloatArray(size * size);
+        FloatArray b = new FloatArray(size * size);
+        FloatArray c = new FloatArray(size * size);
+        FloatArray seq = new FloatArray(size * size);
+
+        Random r = new Random();
+        for (int i = 0; i < a.getSize(); i++) {
+            a.set(i, r.nextFloat());
+            b.set(i, r.nextFloat());
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestAutoParallelisation::matrixMultiplication, a, b, c, size) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+            assertParallelDepth(2, "matrixMultiplication", FloatArray.class, FloatArray.class, FloatArray.class, int.class);
+        }
+
+        matrixMultiplication(a, b, seq, size);
+        for (int i = 0; i < seq.getSize(); i++) {
+            assertEquals(seq.get(i), c.get(i), 0.01f);
+        }
+    }
+
+    /**
+     * Loop-carried flow dependence: the loop must stay sequential.
+     */
+    @Test
+    public void testPrefixSumIsSequential() throws TornadoExecutionPlanException, NoSuchMethodException {
+        final int size = 2048;
+        IntArray a = new IntArray(size);
+        IntArray b = new IntArray(size);
+        IntArray seq = new IntArray(size);
+        b.init(1);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestAutoParallelisation::prefixSum, a, b) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+            assertParallelDepth(0, "prefixSum", IntArray.class, IntArray.class);
+        }
+
+        prefixSum(seq, b);
+        for (int i = 0; i < size; i++) {
+            assertEquals(seq.get(i), a.get(i));
+        }
+    }
+
+    /**
+     * Every iteration writes the same element: the loop must stay sequential.
+     */
+    @Test
+    public void testAccumulationIsSequential() throws TornadoExecutionPlanException, NoSuchMethodException {
+        final int size = 1024;
+        FloatArray a = new FloatArray(size);
+        FloatArray result = new FloatArray(1);
+        a.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, result) //
+                .task("t0", TestAutoParallelisation::rowSum, a, result, size) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+            assertParallelDepth(0, "rowSum", FloatArray.class, FloatArray.class, int.class);
+        }
+
+        assertEquals(size, result.get(0), 0.01f);
+    }
+
+    /**
+     * Loop-carried anti dependence: the loop must stay sequential.
+     */
+    @Test
+    public void testShiftIsSequential() throws TornadoExecutionPlanException, NoSuchMethodException {
+        final int size = 2048;
+        IntArray a = new IntArray(size);
+        IntArray seq = new IntArray(size);
+        for (int i = 0; i < size; i++) {
+            a.set(i, i);
+            seq.set(i, i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestAutoParallelisation::shiftInPlace, a) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+            assertParallelDepth(0, "shiftInPlace", IntArray.class);
+        }
+
+        shiftInPlace(seq);
+        for (int i = 0; i < size; i++) {
+            assertEquals(seq.get(i), a.get(i));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.loops;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoAutoParalleliser;
+
+/**
+ * Unit tests of the loop dependence analysis used by the automatic
+ * parallelisation ({@code -Dtornado.parallelise.auto=True}). The kernels are
+ * parsed and analysed without compiling them, so the tests do not need a
+ * device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.loops.TestLoopDependenceAnalysis
+ * </code>
+ */
+public class TestLoopDependenceAnalysis {
+    // CHECKSTYLE:OFF
+
+    public static void vectorAdd(float[] a, float[] b, float[] c) {
+        for (int i = 0; i < c.length; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    public static void matrixTranspose(float[] a, float[] b, final int rows, final int columns) {
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                b[j * rows + i] = a[i * columns + j];
+            }
+        }
+    }
+
+    public static void matrixMultiplication(float[] a, float[] b, float[] c, final int size) {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                float sum = 0.0f;
+                for (int k = 0; k < size; k++) {
+                    sum += a[i * size + k] * b[k * size + j];
+                }
+                c[i * size + j] = sum;
+            }
+        }
+    }
+
+    public static void prefixSum(int[] a, int[] b) {
+        for (int i = 1; i < a.length; i++) {
+            a[i] = a[i - 1] + b[i];
+        }
+    }
+
+    public static void shiftInPlace(int[] a) {
+        for (int i = 0; i < a.length - 1; i++) {
+            a[i] = a[i + 1];
+        }
+    }
+
+    /**
+     * The even elements are written and the odd elements are read, so the
+     * iterations never access the same element.
+     */
+    public static void evenFromOdd(int[] a, final int n) {
+        for (int i = 0; i < n; i++) {
+            a[2 * i] = a[2 * i + 1];
+        }
+    }
+
+    /**
+     * Iteration {@code i} reads the element written by iteration {@code i + 1}.
+     */
+    public static void stride2Overlap(int[] a, final int n) {
+        for (int i = 0; i < n; i++) {
+            a[2 * i] = a[2 * i + 2];
+        }
+    }
+
+    /**
+     * Loop with a stride of 2 that also writes the next element, which is not
+     * accessed by the other iterations.
+     */
+    public static void stride2Pairs(int[] a, int[] b, final int n) {
+        for (int i = 0; i < n; i += 2) {
+            a[i] = b[i];
+            a[i + 1] = b[i];
+        }
+    }
+
+    /**
+     * Loop with a stride of 2 whose writes overlap the elements written by the
+     * next iteration.
+     */
+    public static void stride2Triples(int[] a, final int n) {
+        for (int i = 0; i < n; i += 2) {
+            a[i] = 0;
+            a[i + 1] = 1;
+            a[i + 2] = 2;
+        }
+    }
+
+    /**
+     * The inner loop runs over {@code columns} elements of rows of length
+     * {@code rows}, so the rows are only distinct when the dimensions are known to
+     * match.
+     */
+    public static void unboundedRows(float[] a, final int rows, final int columns) {
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                a[i * rows + j] = i + j;
+            }
+        }
+    }
+
+    /**
+     * The inner loop reads one element past its row, which is the first element
+     * of the next row.
+     */
+    public static void rowOverrun(float[] a, final int size) {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                a[i * size + j] = a[i * size + j + 1];
+            }
+        }
+    }
+
+    private static int parallelDepth(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = TestLoopDependenceAnalysis.class.getMethod(name, parameterTypes);
+        return TornadoAutoParalleliser.getParallelDepth(method);
+    }
+
+    @Test
+    public void testVectorAdd() throws NoSuchMethodException {
+        assertEquals(1, parallelDepth("vectorAdd", float[].class, float[].class, float[].class));
+    }
+
+    @Test
+    public void testMatrixTranspose() throws NoSuchMethodException {
+        assertEquals(2, parallelDepth("matrixTranspose", float[].class, float[].class, int.class, int.class));
+    }
+
+    @Test
+    public void testMatrixMultiplication() throws NoSuchMethodException {
+        // The reduction loop over k stays sequential
+        assertEquals(2, parallelDepth("matrixMultiplication", float[].class, float[].class, float[].class, int.class));
+    }
+
+    @Test
+    public void testFlowDependence() throws NoSuchMethodException {
+        assertEquals(0, parallelDepth("prefixSum", int[].class, int[].class));
+    }
+
+    @Test
+    public void testAntiDependence() throws NoSuchMethodException {
+        assertEquals(0, parallelDepth("shiftInPlace", int[].class));
+    }
+
+    @Test
+    public void testStride2WithoutOverlap() throws NoSuchMethodException {
+        assertEquals(1, parallelDepth("evenFromOdd", int[].class, int.class));
+        assertEquals(1, parallelDepth("stride2Pairs", int[].class, int[].class, int.class));
+    }
+
+    @Test
+    public void testStride2Overlap() throws NoSuchMethodException {
+        assertEquals(0, parallelDepth("stride2Overlap", int[].class, int.class));
+        assertEquals(0, parallelDepth("stride2Triples", int[].class, int.class));
+    }
+
+    @Test
+    public void testDelinearisationBounds() throws NoSuchMethodException {
+        assertEquals(0, parallelDepth("unboundedRows", float[].class, int.class, int.class));
+        assertEquals(0, parallelDepth("rowOverrun", float[].class, int.class));
+    }
+}
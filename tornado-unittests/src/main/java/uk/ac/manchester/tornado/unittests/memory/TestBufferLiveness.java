@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Checks the device memory used by a chain of tasks with intermediate arrays.
+ * With the buffer liveness analysis, intermediate arrays whose lifetimes do not
+ * overlap share the same device buffer.
+ *
+ * <p>
+ * How to test?
+ * </p>
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.buffers.liveness=True" uk.ac.manchester.tornado.unittests.memory.TestBufferLiveness
+ * </code>
+ */
+public class TestBufferLiveness extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 8192;
+    private static final int ITERATIONS = 4;
+
+    private static final boolean BUFFER_LIVENESS = Boolean.parseBoolean(System.getProperty("tornado.buffers.liveness", "False"));
+
+    public static void twice(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) * 2);
+        }
+    }
+
+    public static void addOne(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) + 1);
+        }
+    }
+
+    private static FloatArray init(int numElements) {
+        FloatArray array = new FloatArray(numElements);
+        for (int i = 0; i < numElements; i++) {
+            array.set(i, i);
+        }
+        return array;
+    }
+
+    @Test
+    public void testIntermediateArrays() throws TornadoExecutionPlanException {
+        FloatArray x = init(NUM_ELEMENTS);
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        FloatArray c = new FloatArray(NUM_ELEMENTS);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x) //
+                .task("t0", TestBufferLiveness::twice, x, a) //
+                .task("t1", TestBufferLiveness::addOne, a, b) //
+                .task("t2", TestBufferLiveness::twice, b, c) //
+                .task("t3", TestBufferLiveness::addOne, c, z) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                executionPlan.execute();
+            }
+
+            // a and c are not live at the same time, so they share a buffer
+            final int numBuffers = BUFFER_LIVENESS ? 4 : 5;
+            assertEquals(x.getNumBytesOfSegmentWithHeader() * numBuffers, executionPlan.getCurrentDeviceMemoryUsage());
+            assertEquals(x.getNumBytesOfSegmentWithHeader() * 5, executionPlan.getDeviceMemoryUsageWithoutBufferSharing());
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals((x.get(i) * 2 + 1) * 2 + 1, z.get(i), 0.01f);
+        }
+    }
+
+    @Test
+    public void testIntermediateCopiedToHost() throws TornadoExecutionPlanException {
+        FloatArray x = init(NUM_ELEMENTS);
+        FloatArray a = new FloatArray(NUM_ELEMENTS);
+        FloatArray b = new FloatArray(NUM_ELEMENTS);
+        FloatArray c = new FloatArray(NUM_ELEMENTS);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x) //
+                .task("t0", TestBufferLiveness::twice, x, a) //
+                .task("t1", TestBufferLiveness::addOne, a, b) //
+                .task("t2", TestBufferLiveness::twice, b, c) //
+                .task("t3", TestBufferLiveness::addOne, c, z) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c, z);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                executionPlan.execute();
+            }
+
+            // c is copied to the host, so it keeps its own buffer
+            assertEquals(x.getNumBytesOfSegmentWithHeader() * 5, executionPlan.getCurrentDeviceMemoryUsage());
+            assertEquals(x.getNumBytesOfSegmentWithHeader() * 5, executionPlan.getDeviceMemoryUsageWithoutBufferSharing());
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals((x.get(i) * 2 + 1) * 2, c.get(i), 0.01f);
+            assertEquals((x.get(i) * 2 + 1) * 2 + 1, z.get(i), 0.01f);
+        }
+    }
+}
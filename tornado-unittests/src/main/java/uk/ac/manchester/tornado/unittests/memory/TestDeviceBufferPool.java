@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.drivers.common.mm.DeviceBufferPool;
+
+/**
+ * Unit tests of the {@link DeviceBufferPool} used by the backends to reuse
+ * device buffers. The buffers are identifiers handed out by a fake allocator,
+ * so the tests do not need a device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestDeviceBufferPool
+ * </code>
+ */
+public class TestDeviceBufferPool {
+
+    private static final long FLAGS = 1;
+    private static final long KB = 1024;
+
+    /**
+     * Allocator with a fixed capacity that records the buffers that are alive on
+     * the fake device.
+     */
+    private static final class FakeAllocator implements DeviceBufferPool.BufferAllocator<Long> {
+        private final long capacity;
+        private final Map<Long, Long> liveBuffers = new HashMap<>();
+        private long usedBytes;
+        private long nextId = 1;
+
+        FakeAllocator(long capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public Long allocate(long flags, long size) {
+            if (usedBytes + size > capacity) {
+                return null;
+            }
+            usedBytes += size;
+            liveBuffers.put(nextId, size);
+            return nextId++;
+        }
+
+        @Override
+        public void release(Long buffer) {
+            Long size = liveBuffers.remove(buffer);
+            assertNotNull("Buffer released twice", size);
+            usedBytes -= size;
+        }
+
+        @Override
+        public long getId(Long buffer) {
+            return buffer;
+        }
+    }
+
+    @Test
+    public void testSizeClasses() {
+        assertEquals(256, DeviceBufferPool.sizeClassOf(1));
+        assertEquals(256, DeviceBufferPool.sizeClassOf(256));
+        assertEquals(320, DeviceBufferPool.sizeClassOf(257));
+        assertEquals(KB, DeviceBufferPool.sizeClassOf(1000));
+        assertEquals(KB, DeviceBufferPool.sizeClassOf(KB));
+        assertEquals(1280, DeviceBufferPool.sizeClassOf(KB + 1));
+    }
+
+    @Test
+    public void testReuse() {
+        FakeAllocator allocator = new FakeAllocator(Long.MAX_VALUE);
+        DeviceBufferPool<Long> pool = new DeviceBufferPool<>(allocator, Long.MAX_VALUE, 16 * KB);
+
+        long first = pool.allocate(1000, FLAGS);
+        assertTrue(pool.release(first));
+        assertEquals(KB, pool.getRetainedBytes());
+
+        // A request of the same size class and flags reuses the buffer
+        long second = pool.allocate(900, FLAGS);
+        assertEquals(first, second);
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, pool.getRetainedBytes());
+
+        // Other flags or another size class need a new buffer
+        assertTrue(pool.release(second));
+        assertNotEquals(first, (long) pool.allocate(900, FLAGS + 1));
+        assertNotEquals(first, (long) pool.allocate(2 * KB, FLAGS));
+        assertEquals(3, pool.getMisses());
+    }
+
+    @Test
+    public void testForeignBuffer() {
+        DeviceBufferPool<Long> pool = new DeviceBufferPool<>(new FakeAllocator(Long.MAX_VALUE), Long.MAX_VALUE, 16 * KB);
+        assertFalse(pool.release(42));
+        assertEquals(0, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void testEviction() {
+        FakeAllocator allocator = new FakeAllocator(Long.MAX_VALUE);
+        DeviceBufferPool<Long> pool = new DeviceBufferPool<>(allocator, Long.MAX_VALUE, 2 * KB);
+
+        long a = pool.allocate(KB, FLAGS);
+        long b = pool.allocate(KB, FLAGS);
+        long c = pool.allocate(KB, FLAGS);
+        long large = pool.allocate(4 * KB, FLAGS);
+        pool.release(a);
+        pool.release(b);
+        pool.release(c);
+
+        // Only two buffers fit under the high-water mark
+        assertEquals(2 * KB, pool.getRetainedBytes());
+        assertEquals(1, pool.getEvictions());
+
+        // A buffer larger than the high-water mark is released straight away
+        pool.release(large);
+        assertEquals(2, pool.getEvictions());
+        assertEquals(2, allocator.liveBuffers.size());
+    }
+
+    @Test
+    public void testLimit() {
+        FakeAllocator allocator = new FakeAllocator(Long.MAX_VALUE);
+        DeviceBufferPool<Long> pool = new DeviceBufferPool<>(allocator, Long.MAX_VALUE, 8 * KB);
+        for (long buffer : new long[] { pool.allocate(KB, FLAGS), pool.allocate(KB, FLAGS), pool.allocate(KB, FLAGS), pool.allocate(KB, FLAGS) }) {
+            pool.release(buffer);
+        }
+        assertEquals(4 * KB, pool.getRetainedBytes());
+
+        // The limits of two plans running at the same time: the lowest one applies
+        pool.addLimit(2 * KB);
+        pool.addLimit(KB);
+        assertEquals(KB, pool.getHighWaterMark());
+        assertEquals(KB, pool.getRetainedBytes());
+        pool.removeLimit(KB);
+        assertEquals(2 * KB, pool.getHighWaterMark());
+
+        // The pool recovers its own high-water mark after the plans finish
+        pool.removeLimit(2 * KB);
+        assertEquals(8 * KB, pool.getHighWaterMark());
+
+        // A limit above the maximum of the pool does not raise it
+        pool.addLimit(64 * KB);
+        assertEquals(8 * KB, pool.getHighWaterMark());
+        pool.removeLimit(64 * KB);
+    }
+
+    @Test
+    public void testDrain() {
+        FakeAllocator allocator = new FakeAllocator(Long.MAX_VALUE);
+        DeviceBufferPool<Long> pool = new DeviceBufferPool<>(allocator, Long.MAX_VALUE, 8 * KB);
+        long inUse = pool.allocate(KB, FLAGS);
+        pool.release(pool.allocate(KB, FLAGS));
+        pool.release(pool.allocate(2 * KB, FLAGS));
+
+        pool.drain();
+        assertEquals(0, pool.getRetainedBytes());
+        // Only the buffer in use is still alive on the device
+        assertEquals(Set.of(inUse), allocator.liveBuffers.keySet());
+    }
+
+    @Test
+    public void testOutOfMemoryReleasesRetainedBuffers() {
+        FakeAllocator allocator = new FakeAllocator(2 * KB);
+        DeviceBufferPool<Long> pool = new DeviceBufferPool<>(allocator, Long.MAX_VALUE, 8 * KB);
+        pool.release(pool.allocate(KB, FLAGS));
+        assertEquals(KB, pool.getRetainedBytes());
+
+        // The retained buffer leaves no room on the device, so the pool releases it and retries
+        Long buffer = pool.allocate(2 * KB, FLAGS);
+        assertNotNull(buffer);
+        assertEquals(0, pool.getRetainedBytes());
+        assertEquals(1, allocator.liveBuffers.size());
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.multithreaded;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.drivers.common.CommandQueuePool;
+
+/**
+ * Unit tests of the {@link CommandQueuePool} shared by the execution plans of a
+ * device. The queues are plain objects, so the tests do not need a device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.multithreaded.TestCommandQueuePool
+ * </code>
+ */
+public class TestCommandQueuePool {
+
+    private static final long TIMEOUT = 10000;
+
+    /**
+     * Queue of the tests. It records the number of times it was recycled and
+     * destroyed.
+     */
+    private static final class FakeQueue {
+        private int recycled;
+        private boolean destroyed;
+    }
+
+    private static void waitUntilBlocked(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue("The thread finished without waiting", thread.isAlive());
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testBindingBalance() {
+        AtomicInteger created = new AtomicInteger();
+        CommandQueuePool<FakeQueue> pool = new CommandQueuePool<>(4, () -> {
+            created.incrementAndGet();
+            return new FakeQueue();
+        });
+
+        Set<FakeQueue> queues = new HashSet<>();
+        for (long id = 0; id < 4; id++) {
+            queues.add(pool.get(id));
+        }
+        // The first identifiers take one queue each
+        assertEquals(4, queues.size());
+        assertEquals(4, created.get());
+
+        // Identifiers 4..7 are spread over the queues, two identifiers per queue
+        int[] bindingsPerQueue = new int[4];
+        FakeQueue[] byIndex = queues.toArray(new FakeQueue[0]);
+        for (long id = 0; id < 8; id++) {
+            FakeQueue queue = pool.get(id);
+            for (int i = 0; i < byIndex.length; i++) {
+                bindingsPerQueue[i] += byIndex[i] == queue ? 1 : 0;
+            }
+        }
+        for (int bindings : bindingsPerQueue) {
+            assertEquals(2, bindings);
+        }
+        assertEquals(4, created.get());
+        assertEquals(4, pool.getNumQueues());
+        assertEquals(8, pool.getNumBindings());
+
+        // The binding of an identifier does not change
+        for (long id = 0; id < 8; id++) {
+            assertSame(pool.get(id), pool.get(id));
+        }
+    }
+
+    @Test
+    public void testUnbindRecyclesIdleQueue() {
+        CommandQueuePool<FakeQueue> pool = new CommandQueuePool<>(1, FakeQueue::new, queue -> queue.recycled++);
+        FakeQueue queue = pool.get(1);
+        assertSame(queue, pool.get(2));
+
+        pool.unbind(1);
+        assertEquals(0, queue.recycled);
+        assertNull(pool.getIfBound(1));
+        assertSame(queue, pool.getIfBound(2));
+
+        // The queue is recycled when its last identifier is unbound, and it stays in the pool
+        pool.unbind(2);
+        assertEquals(1, queue.recycled);
+        assertEquals(0, pool.getNumBindings());
+        assertEquals(1, pool.getNumQueues());
+
+        // Unbinding an unknown identifier does nothing
+        pool.unbind(3);
+        assertEquals(1, queue.recycled);
+        assertSame(queue, pool.get(3));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testUnbindWaitsForLease() throws InterruptedException {
+        CommandQueuePool<FakeQueue> pool = new CommandQueuePool<>(2, FakeQueue::new);
+        pool.acquire(1, 1);
+
+        Thread unbinder = new Thread(() -> pool.unbind(1));
+        unbinder.start();
+        waitUntilBlocked(unbinder);
+        assertEquals(1, pool.getNumBindings());
+
+        pool.release(1, 1);
+        unbinder.join();
+        assertEquals(0, pool.getNumBindings());
+    }
+
+    @Test
+    public void testReleaseWithoutLease() {
+        CommandQueuePool<FakeQueue> pool = new CommandQueuePool<>(2, FakeQueue::new);
+        pool.get(1);
+        assertThrows(IllegalStateException.class, () -> pool.release(1, 1));
+        assertThrows(IllegalStateException.class, () -> pool.release(2, 2));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLockOrdering() throws InterruptedException {
+        final int iterations = 10000;
+        CommandQueuePool<FakeQueue> pool = new CommandQueuePool<>(2, FakeQueue::new);
+        // 0 and 1 are bound to different queues
+        assertNotSame(pool.get(0), pool.get(1));
+
+        // Each thread leases the two queues with the identifiers in the opposite order
+        Thread first = new Thread(() -> {
+            for (int i = 0; i < iterations; i++) {
+                pool.acquire(0, 1);
+                pool.release(0, 1);
+            }
+        });
+        Thread second = new Thread(() -> {
+            for (int i = 0; i < iterations; i++) {
+                pool.acquire(1, 0);
+                pool.release(1, 0);
+            }
+        });
+        first.start();
+        second.start();
+        first.join();
+        second.join();
+        assertEquals(iterations * 4L, pool.getAcquisitions());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testContentionCounters() throws InterruptedException {
+        CommandQueuePool<FakeQueue> pool = new CommandQueuePool<>(2, FakeQueue::new);
+        pool.acquire(1, 1);
+        assertEquals(1, pool.getAcquisitions());
+        assertEquals(0, pool.getContendedAcquisitions());
+
+        Thread contender = new Thread(() -> {
+            pool.acquire(1, 1);
+            pool.release(1, 1);
+        });
+        contender.start();
+        waitUntilBlocked(contender);
+        pool.release(1, 1);
+        contender.join();
+
+        assertEquals(2, pool.getAcquisitions());
+        assertEquals(1, pool.getContendedAcquisitions());
+        assertTrue(pool.getWaitTime() > 0);
+
+        // A lease of a queue that is not leased by other executions is not contended
+        pool.acquire(2, 2);
+        pool.release(2, 2);
+        assertEquals(3, pool.getAcquisitions());
+        assertEquals(1, pool.getContendedAcquisitions());
+    }
+
+    @Test
+    public void testDestroy() {
+        CommandQueuePool<FakeQueue> pool = new CommandQueuePool<>(4, FakeQueue::new);
+        Set<FakeQueue> queues = new HashSet<>();
+        for (long id = 0; id < 3; id++) {
+            queues.add(pool.get(id));
+        }
+
+        pool.destroy(queue -> {
+            assertFalse("Queue destroyed twice", queue.destroyed);
+            queue.destroyed = true;
+        });
+        for (FakeQueue queue : queues) {
+            assertTrue(queue.destroyed);
+        }
+        assertEquals(0, pool.getNumQueues());
+        assertEquals(0, pool.getNumBindings());
+
+        // The pool creates new queues if it is used again
+        FakeQueue queue = pool.get(0);
+        assertFalse(queues.contains(queue));
+        assertEquals(1, pool.getNumQueues());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.profiler.ChromeEventTracer;
+
+/**
+ * Tests of the trace files written by the {@link ChromeEventTracer}. The
+ * events are recorded directly, so the tests do not need a device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V -J"-Dtornado.chrome.event.tracer.enabled=True -Dtornado.chrome.event.tracer.filename=/tmp/trace/chrome.json -Dtornado.chrome.event.tracer.buffer=1024 -Dtornado.chrome.event.tracer.events=500 -Dtornado.chrome.event.tracer.files=4 -Dtornado.chrome.event.tracer.flush=3600000" uk.ac.manchester.tornado.unittests.profiler.TestChromeEventTracer
+ * </code>
+ */
+public class TestChromeEventTracer {
+
+    private static final String HEADER = "{\"traceEvents\":[";
+    private static final String FOOTER = "\n]}\n";
+
+    @Before
+    public void enableTracer() {
+        assumeTrue(ChromeEventTracer.isEnabled());
+    }
+
+    private static Path basePath() {
+        return Path.of(ChromeEventTracer.getChromeEventTracerFileName()).toAbsolutePath();
+    }
+
+    /**
+     * Returns the trace file and its rotated files, which are named
+     * {@code chrome.1.json}, {@code chrome.2.json}, etc.
+     */
+    private static List<Path> traceFiles() throws IOException {
+        Path base = basePath();
+        String name = base.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        Pattern rotated = Pattern.compile(Pattern.quote(name.substring(0, extension)) + "(\\.\\d+)?" + Pattern.quote(name.substring(extension)));
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(base.getParent())) {
+            for (Path path : stream) {
+                if (rotated.matcher(path.getFileName().toString()).matches()) {
+                    files.add(path);
+                }
+            }
+        }
+        return files;
+    }
+
+    private static String readTrace() throws IOException {
+        StringBuilder trace = new StringBuilder();
+        for (Path file : traceFiles()) {
+            trace.append(Files.readString(file, StandardCharsets.UTF_8));
+        }
+        return trace.toString();
+    }
+
+    private static int countEvents(String trace, String name) {
+        Matcher matcher = Pattern.compile("\"name\":\"" + Pattern.quote(name) + "\"").matcher(trace);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void recordTasks(String name, int numEvents) {
+        for (int i = 0; i < numEvents; i++) {
+            long start = System.nanoTime();
+            ChromeEventTracer.enqueueTaskIfEnabled(name, start, start + 1000);
+        }
+    }
+
+    @Test
+    public void testEventsOfAllThreads() throws Exception {
+        final int numThreads = 4;
+        final int eventsPerThread = 100;
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            String name = "thread-event-" + i;
+            threads[i] = new Thread(() -> recordTasks(name, eventsPerThread));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        ChromeEventTracer.flush();
+
+        String trace = readTrace();
+        for (int i = 0; i < numThreads; i++) {
+            assertEquals(eventsPerThread, countEvents(trace, "thread-event-" + i));
+        }
+    }
+
+    @Test
+    public void testEventArguments() throws IOException {
+        long start = System.nanoTime();
+        ChromeEventTracer.enqueueWriteIfEnabled("copy-in-\"quoted\"", 4096, start, start + 2000);
+        ChromeEventTracer.flush();
+
+        String trace = readTrace();
+        assertTrue(trace.contains("\"name\":\"copy-in-\\\"quoted\\\"\",\"cat\":\"write\""));
+        assertTrue(trace.contains("\"args\":{\"bytes\":4096}"));
+    }
+
+    @Test
+    public void testFullBufferDropsEvents() throws Exception {
+        final int bufferSize = Integer.getInteger("tornado.chrome.event.tracer.buffer");
+        final int numEvents = bufferSize * 3;
+        Thread thread = new Thread(() -> recordTasks("dropped-event", numEvents));
+        thread.start();
+        thread.join();
+        ChromeEventTracer.flush();
+
+        String trace = readTrace();
+        assertEquals(bufferSize, countEvents(trace, "dropped-event"));
+        assertTrue(trace.contains("\"name\":\"dropped events\",\"pid\":0,\"tid\":" + thread.threadId()));
+        assertTrue(trace.contains("\"args\":{\"dropped\":" + (numEvents - bufferSize) + "}"));
+    }
+
+    @Test
+    public void testRotatedFilesAreBounded() throws IOException {
+        final int eventsPerFile = Integer.getInteger("tornado.chrome.event.tracer.events");
+        final int maxFiles = Integer.getInteger("tornado.chrome.event.tracer.files");
+        final int bufferSize = Integer.getInteger("tornado.chrome.event.tracer.buffer");
+
+        // Write enough events to rotate the trace more times than the files kept
+        for (int written = 0; written < eventsPerFile * (maxFiles + 2); written += bufferSize) {
+            recordTasks("rotated-event", bufferSize);
+            ChromeEventTracer.flush();
+        }
+
+        List<Path> files = traceFiles();
+        assertEquals(maxFiles, files.size());
+        int openFiles = 0;
+        for (Path file : files) {
+            String content = Files.readString(file, StandardCharsets.UTF_8);
+            assertTrue(content.startsWith(HEADER));
+            if (!content.endsWith(FOOTER)) {
+                openFiles++;
+                continue;
+            }
+            // The closed files are complete traces
+            String[] events = content.substring(HEADER.length() + 1, content.length() - FOOTER.length()).split(",\n");
+            assertEquals(eventsPerFile, events.length);
+            for (String event : events) {
+                assertTrue(event, event.startsWith("{\"ph\":") && event.endsWith("}"));
+            }
+        }
+        // Only the file that receives the new events is still open
+        assertEquals(1, openFiles);
+    }
+}
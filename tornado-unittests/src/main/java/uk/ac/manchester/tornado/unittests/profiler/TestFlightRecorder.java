@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntimeProvider;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.TestHello;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Checks the JDK Flight Recorder events of the compilation, the data transfers
+ * and the kernels of a task-graph.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.profiler.TestFlightRecorder
+ * </code>
+ */
+public class TestFlightRecorder extends TornadoTestBase {
+
+    private static final String[] EVENTS = { "tornadovm.Sketch", "tornadovm.GraalCompilation", "tornadovm.DriverInstall", "tornadovm.DataTransfer", "tornadovm.KernelDispatch",
+            "tornadovm.BufferAllocation", "tornadovm.BufferDeallocation" };
+
+    private static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws TornadoExecutionPlanException, IOException {
+        final int numElements = 256;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+        a.init(1);
+        b.init(2);
+
+        // Make sure that the task is compiled while the recording runs
+        TornadoRuntimeProvider.getTornadoRuntime().getDefaultDevice().clean();
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestHello::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+
+        Path recordingFile = Files.createTempFile("tornado", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(event).withoutThreshold();
+            }
+            recording.start();
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+                executionPlan.execute();
+                executionPlan.execute();
+            }
+            recording.stop();
+            recording.dump(recordingFile);
+            events = RecordingFile.readAllEvents(recordingFile);
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(3, c.get(i));
+        }
+
+        // The code of the task can come from the persistent kernel cache
+        List<RecordedEvent> installs = eventsOf(events, "tornadovm.DriverInstall");
+        assertFalse(installs.isEmpty());
+        assertEquals("s0", installs.getFirst().getString("taskGraph"));
+        assertEquals("t0", installs.getFirst().getString("task"));
+
+        List<RecordedEvent> kernels = eventsOf(events, "tornadovm.KernelDispatch");
+        assertEquals(2, kernels.size());
+        for (RecordedEvent kernel : kernels) {
+            assertEquals("s0", kernel.getString("taskGraph"));
+            assertEquals("t0", kernel.getString("task"));
+            assertEquals(TornadoRuntimeProvider.getTornadoRuntime().getDefaultDevice().getDeviceName(), kernel.getString("device"));
+            assertTrue(kernel.getDuration("deviceTime").toNanos() >= 0);
+        }
+
+        List<RecordedEvent> transfers = eventsOf(events, "tornadovm.DataTransfer");
+        assertEquals(4, transfers.stream().filter(e -> e.getString("direction").equals("HostToDevice")).count());
+        assertEquals(2, transfers.stream().filter(e -> e.getString("direction").equals("DeviceToHost")).count());
+        for (RecordedEvent transfer : transfers) {
+            assertTrue(transfer.getLong("bytes") >= (long) numElements * Integer.BYTES);
+        }
+
+        assertFalse(eventsOf(events, "tornadovm.BufferAllocation").isEmpty());
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
+import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.runtime.profiler.LockFreeTimeProfiler;
+import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
+
+/**
+ * Tests that the {@link LockFreeTimeProfiler} reports the same JSON content as
+ * the {@link TimeProfiler}. The metrics are recorded directly, so the tests do
+ * not need a device. The order of the entries differs, because the
+ * {@link TimeProfiler} iterates over hash maps, so the reports are compared as
+ * maps of sections to entries.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.profiler.TestLockFreeTimeProfiler
+ * </code>
+ */
+public class TestLockFreeTimeProfiler {
+
+    private static final String SECTION = "s0";
+
+    private static final Pattern ENTRY = Pattern.compile("\"([^\"]+)\": \"([^\"]*)\",?");
+    private static final Pattern OPEN = Pattern.compile("(?:\"([^\"]+)\": )?\\{");
+    private static final Pattern CLOSE = Pattern.compile("\\},?");
+
+    /**
+     * Parses the JSON created by a {@link TornadoProfiler} into a map from the
+     * path of each section (e.g. {@code s0/t0.task}) to its entries.
+     */
+    private static Map<String, Map<String, String>> parse(String json) {
+        Map<String, Map<String, String>> sections = new HashMap<>();
+        Deque<String> path = new ArrayDeque<>();
+        for (String line : json.split("\n")) {
+            String trimmed = line.trim();
+            Matcher matcher;
+            if (trimmed.isEmpty()) {
+                continue;
+            } else if ((matcher = ENTRY.matcher(trimmed)).matches()) {
+                assertFalse("Entry outside of a section: " + trimmed, path.isEmpty());
+                String previous = sections.get(path.peek()).put(matcher.group(1), matcher.group(2));
+                assertEquals("Duplicated entry: " + trimmed, null, previous);
+            } else if ((matcher = OPEN.matcher(trimmed)).matches()) {
+                String name = matcher.group(1) == null ? "" : matcher.group(1);
+                String section = path.isEmpty() ? name : path.peek() + "/" + name;
+                path.push(section);
+                assertEquals("Duplicated section: " + section, null, sections.put(section, new HashMap<>()));
+            } else if (CLOSE.matcher(trimmed).matches()) {
+                path.pop();
+            } else {
+                throw new AssertionError("Unexpected line in the JSON report: " + trimmed);
+            }
+        }
+        assertTrue("Unbalanced JSON report:\n" + json, path.isEmpty());
+        return sections;
+    }
+
+    private static void registerTask(TornadoProfiler profiler, String taskName, String method, String device) {
+        profiler.registerBackend(taskName, "OPENCL");
+        profiler.registerMethodHandle(ProfilerType.METHOD, taskName, method);
+        profiler.registerDeviceID(taskName, "0:0");
+        profiler.registerDeviceName(taskName, device);
+    }
+
+    /**
+     * Records the metrics of an execution with two tasks and a sync
+     * operation.
+     */
+    private static void recordExecution(TornadoProfiler profiler, long offset) {
+        registerTask(profiler, "t0.task", "vectorAdd", "GPU-0");
+        registerTask(profiler, "t0.other", "saxpy", "GPU-1");
+
+        profiler.setTimer(ProfilerType.TOTAL_TASK_GRAPH_TIME, 1000 + offset);
+        profiler.setTimer(ProfilerType.TOTAL_KERNEL_TIME, 400 + offset);
+        profiler.sum(ProfilerType.COPY_IN_TIME, 50);
+        profiler.sum(ProfilerType.COPY_IN_TIME, 25 + offset);
+        profiler.sum(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, 10);
+
+        profiler.setTaskTimer(ProfilerType.TASK_KERNEL_TIME, "t0.task", 300 + offset);
+        profiler.setTaskTimer(ProfilerType.TASK_COMPILE_GRAAL_TIME, "t0.task", 7000);
+        profiler.setTaskTimer(ProfilerType.TASK_KERNEL_TIME, "t0.other", 100 + offset);
+
+        profiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, "t0.task", 1024);
+        profiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, "t0.task", 2048);
+        profiler.addValueToMetric(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES, "t0.other", 512);
+        profiler.addValueToMetric(ProfilerType.COPY_OUT_SIZE_BYTES_SYNC, TimeProfiler.NO_TASK_NAME, 256 + offset);
+
+        profiler.setTaskPowerUsage(ProfilerType.POWER_USAGE_mW, "t0.task", 1500);
+        profiler.setSystemPowerConsumption(ProfilerType.SYSTEM_POWER_CONSUMPTION_W, "t0.task", 0);
+        profiler.setSystemVoltage(ProfilerType.SYSTEM_VOLTAGE_V, "t0.other", 12);
+    }
+
+    private static Map<String, Map<String, String>> json(TornadoProfiler profiler) {
+        return parse(profiler.createJson(new StringBuilder(), SECTION));
+    }
+
+    @Test
+    public void testSameJson() {
+        TimeProfiler timeProfiler = new TimeProfiler();
+        LockFreeTimeProfiler lockFreeProfiler = new LockFreeTimeProfiler(1);
+        recordExecution(timeProfiler, 0);
+        recordExecution(lockFreeProfiler, 0);
+
+        Map<String, Map<String, String>> expected = json(timeProfiler);
+        assertEquals(expected, json(lockFreeProfiler));
+
+        Map<String, String> graph = expected.get("/" + SECTION);
+        assertEquals("75", graph.get(ProfilerType.COPY_IN_TIME.name()));
+        assertEquals("256", graph.get(ProfilerType.COPY_OUT_SIZE_BYTES_SYNC.name()));
+        Map<String, String> task = expected.get("/" + SECTION + "/t0.task");
+        assertEquals("3072", task.get(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES.name()));
+        assertEquals("n/a", task.get(ProfilerType.SYSTEM_POWER_CONSUMPTION_W.name()));
+        assertEquals("GPU-0", task.get(ProfilerType.DEVICE.name()));
+    }
+
+    @Test
+    public void testSameTimersAndSizes() {
+        TimeProfiler timeProfiler = new TimeProfiler();
+        LockFreeTimeProfiler lockFreeProfiler = new LockFreeTimeProfiler(1);
+        recordExecution(timeProfiler, 0);
+        recordExecution(lockFreeProfiler, 0);
+
+        for (ProfilerType type : ProfilerType.values()) {
+            assertEquals(type.name(), timeProfiler.getTimer(type), lockFreeProfiler.getTimer(type));
+            assertEquals(type.name(), timeProfiler.getSize(type), lockFreeProfiler.getSize(type));
+            assertEquals(type.name(), timeProfiler.getTaskTimer(type, "t0.task"), lockFreeProfiler.getTaskTimer(type, "t0.task"));
+            assertEquals(type.name(), timeProfiler.getTaskTimer(type, "t0.other"), lockFreeProfiler.getTaskTimer(type, "t0.other"));
+        }
+    }
+
+    @Test
+    public void testSameJsonAfterClean() {
+        TimeProfiler timeProfiler = new TimeProfiler();
+        LockFreeTimeProfiler lockFreeProfiler = new LockFreeTimeProfiler(1);
+        recordExecution(timeProfiler, 0);
+        recordExecution(lockFreeProfiler, 0);
+
+        timeProfiler.clean();
+        lockFreeProfiler.clean();
+        assertEquals(json(timeProfiler), json(lockFreeProfiler));
+
+        recordExecution(timeProfiler, 5);
+        recordExecution(lockFreeProfiler, 5);
+        Map<String, Map<String, String>> expected = json(timeProfiler);
+        assertEquals(expected, json(lockFreeProfiler));
+        assertEquals("80", expected.get("/" + SECTION).get(ProfilerType.COPY_IN_TIME.name()));
+    }
+
+    @Test
+    public void testRegisteredTasks() {
+        TimeProfiler timeProfiler = new TimeProfiler();
+        LockFreeTimeProfiler lockFreeProfiler = new LockFreeTimeProfiler(2);
+        lockFreeProfiler.registerTask(0, "t0.task");
+        lockFreeProfiler.registerTask(1, "t0.other");
+
+        // The runtime registers the tasks again before each execution and cleans the profiler
+        for (int execution = 0; execution < 3; execution++) {
+            timeProfiler.clean();
+            lockFreeProfiler.clean();
+            lockFreeProfiler.registerTask(0, "t0.task");
+            lockFreeProfiler.registerTask(1, "t0.other");
+            recordExecution(timeProfiler, execution);
+            recordExecution(lockFreeProfiler, execution);
+            assertEquals(json(timeProfiler), json(lockFreeProfiler));
+        }
+
+        // Tasks are reported in the order of their index
+        String report = lockFreeProfiler.createJson(new StringBuilder(), SECTION);
+        assertTrue(report.indexOf("\"t0.task\"") < report.indexOf("\"t0.other\""));
+    }
+
+    @Test
+    public void testTaskMovedToAnotherIndex() {
+        LockFreeTimeProfiler profiler = new LockFreeTimeProfiler(1);
+        profiler.registerTask(0, "t0.task");
+        profiler.setTaskTimer(ProfilerType.TASK_KERNEL_TIME, "t0.task", 10);
+
+        profiler.registerTask(0, "t0.fused");
+        profiler.registerTask(1, "t0.task");
+        profiler.setTaskTimer(ProfilerType.TASK_KERNEL_TIME, "t0.fused", 20);
+
+        assertEquals(10, profiler.getTaskTimer(ProfilerType.TASK_KERNEL_TIME, "t0.task"));
+        assertEquals(20, profiler.getTaskTimer(ProfilerType.TASK_KERNEL_TIME, "t0.fused"));
+        registerTask(profiler, "t0.task", "vectorAdd", "GPU-0");
+        registerTask(profiler, "t0.fused", "fused", "GPU-0");
+        String report = profiler.createJson(new StringBuilder(), SECTION);
+        assertTrue(report.indexOf("\"t0.fused\"") < report.indexOf("\"t0.task\""));
+    }
+
+    @Test
+    public void testSnapshotKeepsJson() {
+        LockFreeTimeProfiler profiler = new LockFreeTimeProfiler(1);
+        recordExecution(profiler, 0);
+        LockFreeTimeProfiler snapshot = profiler.snapshot();
+        String expected = profiler.createJson(new StringBuilder(), SECTION);
+
+        profiler.clean();
+        recordExecution(profiler, 5);
+
+        assertEquals(expected, snapshot.createJson(new StringBuilder(), SECTION));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeNotNull;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.PersistentKernelCache;
+import uk.ac.manchester.tornado.runtime.common.PersistentKernelCache.CachedKernel;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.ScheduleContext;
+
+/**
+ * Unit tests of the {@link PersistentKernelCache}. The entries are stored and
+ * loaded directly, so the tests do not need a device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V -J"-Dtornado.kernel.cache.enable=True -Dtornado.kernel.cache.dir=/tmp/kernel-cache-test" uk.ac.manchester.tornado.unittests.runtime.TestPersistentKernelCache
+ * </code>
+ */
+public class TestPersistentKernelCache {
+
+    private static final String DEVICE = "test-device";
+
+    private PersistentKernelCache cache;
+
+    public static void scale(int[] a, int factor) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] = a[i] * factor;
+        }
+    }
+
+    private static Method scaleMethod() throws NoSuchMethodException {
+        return TestPersistentKernelCache.class.getMethod("scale", int[].class, int.class);
+    }
+
+    /**
+     * Builds the array of inlined methods passed to the cache. The JVMCI types
+     * are not exported to the unit tests, so they cannot be named here.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T[] dependencies(T method) {
+        T[] methods = (T[]) Array.newInstance(method.getClass(), 1);
+        methods[0] = method;
+        return methods;
+    }
+
+    private String keyOf(int[] a, int factor) throws NoSuchMethodException {
+        Method method = scaleMethod();
+        CompilableTask task = new CompilableTask(new ScheduleContext("s0"), "t0", method, a, factor);
+        return cache.computeKey(TornadoVMBackendType.OPENCL, DEVICE, task, TornadoCoreRuntime.getTornadoRuntime().resolveMethod(method));
+    }
+
+    private static CachedKernel kernel(String code) {
+        DomainTree domain = new DomainTree(1);
+        domain.set(0, new IntDomain(0, 1, 128));
+        return new CachedKernel("scale", domain, code.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    @Before
+    public void enableCache() {
+        cache = PersistentKernelCache.getInstance();
+        assumeNotNull(cache);
+    }
+
+    @Test
+    public void testHit() throws NoSuchMethodException {
+        String key = keyOf(new int[128], 2);
+        cache.store(key, kernel("__kernel void scale() {}"), dependencies(TornadoCoreRuntime.getTornadoRuntime().resolveMethod(scaleMethod())));
+
+        long hits = cache.getHits();
+        CachedKernel cached = cache.load(key, getClass().getClassLoader());
+
+        assertNotNull(cached);
+        assertEquals(hits + 1, cache.getHits());
+        assertEquals("scale", cached.entryPoint());
+        assertArrayEquals("__kernel void scale() {}".getBytes(StandardCharsets.UTF_8), cached.code());
+        assertNull(cached.binary());
+        IntDomain domain = (IntDomain) cached.domain().get(0);
+        assertEquals(128, domain.getLength());
+        assertEquals(1, domain.getStep());
+    }
+
+    @Test
+    public void testMiss() throws NoSuchMethodException {
+        String stored = keyOf(new int[128], 2);
+        cache.store(stored, kernel("__kernel void scale() {}"), null);
+
+        // The compiler specialises the scalar arguments and the array lengths
+        String otherFactor = keyOf(new int[128], 3);
+        String otherLength = keyOf(new int[256], 2);
+        assertNotEquals(stored, otherFactor);
+        assertNotEquals(stored, otherLength);
+        assertEquals(stored, keyOf(new int[128], 2));
+
+        long misses = cache.getMisses();
+        assertNull(cache.load(otherFactor, getClass().getClassLoader()));
+        assertNull(cache.load(otherLength, getClass().getClassLoader()));
+        assertEquals(misses + 2, cache.getMisses());
+    }
+
+    @Test
+    public void testOptionsInvalidateKey() throws NoSuchMethodException {
+        String key = keyOf(new int[128], 2);
+        System.setProperty("tornado.test.kernel.cache.option", "True");
+        try {
+            assertNotEquals(key, keyOf(new int[128], 2));
+        } finally {
+            System.clearProperty("tornado.test.kernel.cache.option");
+        }
+        assertEquals(key, keyOf(new int[128], 2));
+    }
+
+    @Test
+    public void testChangedDependencyInvalidatesEntry() throws NoSuchMethodException {
+        String key = keyOf(new int[64], 4);
+        cache.store(key, kernel("__kernel void scale() {}"), dependencies(TornadoCoreRuntime.getTornadoRuntime().resolveMethod(scaleMethod())));
+        assertNotNull(cache.load(key, getClass().getClassLoader()));
+
+        // The inlined method cannot be resolved any longer, so the entry is stale
+        ClassLoader withoutTests = new ClassLoader(null) {
+        };
+        long misses = cache.getMisses();
+        assertNull(cache.load(key, withoutTests));
+        assertEquals(misses + 1, cache.getMisses());
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Checks the results of task-graphs that bail out to the host. The tasks record
+ * the threads that run them in a set, which cannot be compiled for a device, so
+ * the task-graph always bails out. Tasks with a {@code @Parallel} loop must run
+ * on the threads of the host fallback, and the other tasks on the thread that
+ * executes the plan.
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.tasks.TestHostParallelBailout
+ * </code>
+ */
+public class TestHostParallelBailout extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 10000;
+
+    public static final Set<Thread> HOST_THREADS = ConcurrentHashMap.newKeySet();
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray z) {
+        for (@Parallel int i = 0; i < x.getSize(); i++) {
+            z.set(i, alpha * x.get(i) + y.get(i));
+            HOST_THREADS.add(Thread.currentThread());
+        }
+    }
+
+    public static void scale(FloatArray z, FloatArray w) {
+        for (@Parallel int i = 0; i < z.getSize(); i++) {
+            w.set(i, z.get(i) * 0.5f);
+            HOST_THREADS.add(Thread.currentThread());
+        }
+    }
+
+    public static void scaleEven(FloatArray z, FloatArray w) {
+        for (@Parallel int i = 0; i < z.getSize(); i += 2) {
+            w.set(i, z.get(i) * 0.5f);
+            HOST_THREADS.add(Thread.currentThread());
+        }
+    }
+
+    private static FloatArray init(int numElements, float offset) {
+        FloatArray array = new FloatArray(numElements);
+        for (int i = 0; i < numElements; i++) {
+            array.set(i, i + offset);
+        }
+        return array;
+    }
+
+    private static boolean ranOnForkJoinWorkers() {
+        return !HOST_THREADS.isEmpty() && HOST_THREADS.stream().allMatch(thread -> thread instanceof ForkJoinWorkerThread);
+    }
+
+    @Before
+    public void clearThreads() {
+        HOST_THREADS.clear();
+    }
+
+    @Test
+    public void testParallelLoopOnHostThreads() throws TornadoExecutionPlanException {
+        FloatArray x = init(NUM_ELEMENTS, 0);
+        FloatArray y = init(NUM_ELEMENTS, 1);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestHostParallelBailout::saxpy, 2f, x, y, z) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(2f * x.get(i) + y.get(i), z.get(i), 0.01f);
+        }
+        assertTrue(ranOnForkJoinWorkers());
+    }
+
+    @Test
+    public void testDependentTasksOnHostThreads() throws TornadoExecutionPlanException {
+        FloatArray x = init(NUM_ELEMENTS, 0);
+        FloatArray y = init(NUM_ELEMENTS, 1);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+        FloatArray w = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestHostParallelBailout::saxpy, 2f, x, y, z) //
+                .task("t1", TestHostParallelBailout::scale, z, w) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, w);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            // The second task must see all the elements written by the first one in every execution
+            for (int iteration = 0; iteration < 3; iteration++) {
+                y.set(0, iteration);
+                executionPlan.execute();
+                assertEquals((2f * x.get(0) + iteration) * 0.5f, w.get(0), 0.01f);
+            }
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals((2f * x.get(i) + y.get(i)) * 0.5f, w.get(i), 0.01f);
+        }
+        assertTrue(ranOnForkJoinWorkers());
+    }
+
+    @Test
+    public void testNonUnitStrideRunsSequentially() throws TornadoExecutionPlanException {
+        FloatArray z = init(NUM_ELEMENTS, 0);
+        FloatArray w = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, z) //
+                .task("t0", TestHostParallelBailout::scaleEven, z, w) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, w);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(i % 2 == 0 ? z.get(i) * 0.5f : 0f, w.get(i), 0.01f);
+        }
+        assertEquals(Set.of(Thread.currentThread()), HOST_THREADS);
+        assertFalse(ranOnForkJoinWorkers());
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.runtime.ASMClassVisitorProvider;
+
+/**
+ * Tests of the host kernels used when a task-graph bails out. The outermost
+ * {@link Parallel} loop of each task is split across workers by the annotation
+ * module, the workers run on a {@link ForkJoinPool} as in the bailout path, and
+ * the results are compared with the sequential Java execution. The tests do
+ * not need a device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.tasks.TestHostParallelFallback
+ * </code>
+ */
+public class TestHostParallelFallback {
+
+    private static final int[] NUM_WORKERS = { 1, 3, 4, 7 };
+
+    private static ASMClassVisitorProvider provider;
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void loadProvider() throws ReflectiveOperationException {
+        String implementation = System.getProperty("tornado.load.annotation.implementation");
+        if (implementation != null) {
+            provider = (ASMClassVisitorProvider) Class.forName(implementation).getConstructor().newInstance();
+        }
+        pool = new ForkJoinPool(NUM_WORKERS[NUM_WORKERS.length - 1]);
+    }
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    public static void vectorAdd(int[] a, int[] b, int[] c) {
+        for (@Parallel int i = 0; i < c.length; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    public static void blur(float[] input, float[] output, int size) {
+        for (@Parallel int i = 1; i < size - 1; i++) {
+            output[i] = (input[i - 1] + input[i] + input[i + 1]) / 3.0f;
+        }
+    }
+
+    public static void matrixMultiplication(float[] a, float[] b, float[] c, int size) {
+        for (@Parallel int i = 0; i < size; i++) {
+            for (@Parallel int j = 0; j < size; j++) {
+                float sum = 0.0f;
+                for (int k = 0; k < size; k++) {
+                    sum += a[i * size + k] * b[k * size + j];
+                }
+                c[i * size + j] = sum;
+            }
+        }
+    }
+
+    public static void countNearMaxValue(int[] counts, int start) {
+        for (@Parallel int i = start; i < Integer.MAX_VALUE; i++) {
+            counts[i - start]++;
+        }
+    }
+
+    public static void stride(int[] a) {
+        for (@Parallel int i = 0; i < a.length; i += 2) {
+            a[i] = i;
+        }
+    }
+
+    public static void reduction(int[] input, @Reduce int[] result) {
+        for (@Parallel int i = 0; i < input.length; i++) {
+            result[0] += input[i];
+        }
+    }
+
+    public static void kernelContext(KernelContext context, int[] a) {
+        a[context.globalIdx] = context.globalIdx;
+    }
+
+    public static void sequential(int[] a) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i;
+        }
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return TestHostParallelFallback.class.getMethod(name, parameterTypes);
+    }
+
+    private static MethodHandle hostKernel(Method method) {
+        assumeNotNull(provider);
+        return provider.getHostParallelKernel(method);
+    }
+
+    /**
+     * Runs the split kernel with one task per worker and waits for all of them.
+     */
+    private static void runWorkers(MethodHandle kernel, int numWorkers, Object... arguments) {
+        ForkJoinTask<?>[] workers = new ForkJoinTask<?>[numWorkers];
+        for (int worker = 0; worker < numWorkers; worker++) {
+            final Object[] workerArguments = new Object[arguments.length + 2];
+            System.arraycopy(arguments, 0, workerArguments, 0, arguments.length);
+            workerArguments[arguments.length] = worker;
+            workerArguments[arguments.length + 1] = numWorkers;
+            workers[worker] = pool.submit(() -> {
+                try {
+                    kernel.invokeWithArguments(workerArguments);
+                } catch (Throwable t) {
+                    throw new RuntimeException(t);
+                }
+            });
+        }
+        for (ForkJoinTask<?> worker : workers) {
+            worker.join();
+        }
+    }
+
+    @Test
+    public void testVectorAdd() throws NoSuchMethodException {
+        MethodHandle kernel = hostKernel(method("vectorAdd", int[].class, int[].class, int[].class));
+        assertNotNull(kernel);
+
+        // The size is not a multiple of the block size, so the last block is partial
+        final int size = 1000;
+        int[] a = IntStream.range(0, size).toArray();
+        int[] b = IntStream.range(0, size).map(i -> 2 * i + 1).toArray();
+        int[] expected = new int[size];
+        vectorAdd(a, b, expected);
+
+        for (int numWorkers : NUM_WORKERS) {
+            int[] c = new int[size];
+            runWorkers(kernel, numWorkers, a, b, c);
+            assertArrayEquals(expected, c);
+        }
+    }
+
+    @Test
+    public void testWorkersShareTheIterations() throws Throwable {
+        MethodHandle kernel = hostKernel(method("vectorAdd", int[].class, int[].class, int[].class));
+        assertNotNull(kernel);
+
+        final int size = 1000;
+        final int numWorkers = 4;
+        int[] ones = new int[size];
+        Arrays.fill(ones, 1);
+        int[][] results = new int[numWorkers][size];
+        for (int worker = 0; worker < numWorkers; worker++) {
+            kernel.invokeWithArguments(ones, new int[size], results[worker], worker, numWorkers);
+        }
+
+        // Each iteration is executed by exactly one worker, and all workers get some
+        for (int i = 0; i < size; i++) {
+            int owners = 0;
+            for (int[] result : results) {
+                owners += result[i];
+            }
+            assertEquals("Iteration " + i, 1, owners);
+        }
+        for (int[] result : results) {
+            assertTrue(Arrays.stream(result).sum() > 0);
+        }
+    }
+
+    @Test
+    public void testLoopWithOffset() throws NoSuchMethodException {
+        MethodHandle kernel = hostKernel(method("blur", float[].class, float[].class, int.class));
+        assertNotNull(kernel);
+
+        final int size = 777;
+        float[] input = new float[size];
+        for (int i = 0; i < size; i++) {
+            input[i] = (i * 37) % 101;
+        }
+        float[] expected = new float[size];
+        blur(input, expected, size);
+
+        for (int numWorkers : NUM_WORKERS) {
+            float[] output = new float[size];
+            runWorkers(kernel, numWorkers, input, output, size);
+            assertArrayEquals(expected, output, 0.0f);
+        }
+    }
+
+    @Test
+    public void testNestedParallelLoops() throws NoSuchMethodException {
+        MethodHandle kernel = hostKernel(method("matrixMultiplication", float[].class, float[].class, float[].class, int.class));
+        assertNotNull(kernel);
+
+        final int size = 70;
+        float[] a = new float[size * size];
+        float[] b = new float[size * size];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i % 13;
+            b[i] = i % 7;
+        }
+        float[] expected = new float[size * size];
+        matrixMultiplication(a, b, expected, size);
+
+        for (int numWorkers : NUM_WORKERS) {
+            float[] c = new float[size * size];
+            runWorkers(kernel, numWorkers, a, b, c, size);
+            assertArrayEquals(expected, c, 0.0f);
+        }
+    }
+
+    @Test
+    public void testLoopEndsNearMaxValue() throws NoSuchMethodException {
+        MethodHandle kernel = hostKernel(method("countNearMaxValue", int[].class, int.class));
+        assertNotNull(kernel);
+
+        // The next block of a worker starts after Integer.MAX_VALUE
+        final int size = 1000;
+        int[] expected = new int[size];
+        Arrays.fill(expected, 1);
+        for (int numWorkers : NUM_WORKERS) {
+            int[] counts = new int[size];
+            runWorkers(kernel, numWorkers, counts, Integer.MAX_VALUE - size);
+            assertArrayEquals(expected, counts);
+        }
+    }
+
+    @Test
+    public void testEmptyIterationSpace() throws NoSuchMethodException {
+        MethodHandle kernel = hostKernel(method("vectorAdd", int[].class, int[].class, int[].class));
+        assertNotNull(kernel);
+        int[] empty = new int[0];
+        for (int numWorkers : NUM_WORKERS) {
+            runWorkers(kernel, numWorkers, empty, empty, empty);
+        }
+    }
+
+    @Test
+    public void testNonUnitStrideIsNotSplit() throws NoSuchMethodException {
+        assertNull(hostKernel(method("stride", int[].class)));
+    }
+
+    @Test
+    public void testReductionIsNotSplit() throws NoSuchMethodException {
+        assertNull(hostKernel(method("reduction", int[].class, int[].class)));
+    }
+
+    @Test
+    public void testKernelContextIsNotSplit() throws NoSuchMethodException {
+        assertNull(hostKernel(method("kernelContext", KernelContext.class, int[].class)));
+    }
+
+    @Test
+    public void testLoopWithoutParallelIsNotSplit() throws NoSuchMethodException {
+        assertNull(hostKernel(method("sequential", int[].class)));
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Checks that task-graphs with producer/consumer tasks compute the same
+ * results with and without task fusion. The tests cover tasks that can be
+ * fused, intermediate arrays that are copied back to the host, and consumers
+ * that read other elements than the ones written by the producer, which must
+ * not be fused. When fusion is enabled, the tests check that the intermediate
+ * arrays of the fused tasks are not allocated on the device.
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.fusion=True" uk.ac.manchester.tornado.unittests.tasks.TestTaskFusion
+ * </code>
+ */
+public class TestTaskFusion extends TornadoTestBase {
+
+    private static final int NUM_ELEMENTS = 4096;
+    private static final int ITERATIONS = 4;
+    private static final boolean TASK_FUSION = Boolean.parseBoolean(System.getProperty("tornado.fusion", "False"));
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray t) {
+        for (@Parallel int i = 0; i < x.getSize(); i++) {
+            t.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void scale(FloatArray t, FloatArray u) {
+        for (@Parallel int i = 0; i < t.getSize(); i++) {
+            u.set(i, t.get(i) * 0.5f);
+        }
+    }
+
+    public static void add(FloatArray u, FloatArray y, FloatArray z) {
+        for (@Parallel int i = 0; i < u.getSize(); i++) {
+            z.set(i, u.get(i) + y.get(i));
+        }
+    }
+
+    public static void shift(FloatArray t, FloatArray u) {
+        for (@Parallel int i = 0; i < t.getSize() - 1; i++) {
+            u.set(i, t.get(i + 1));
+        }
+    }
+
+    public static void addOne(FloatArray a, FloatArray b, int size) {
+        for (@Parallel int i = 0; i < size; i++) {
+            for (@Parallel int j = 0; j < size; j++) {
+                b.set(i * size + j, a.get(i * size + j) + 1);
+            }
+        }
+    }
+
+    public static void twice(FloatArray b, FloatArray c, int size) {
+        for (@Parallel int i = 0; i < size; i++) {
+            for (@Parallel int j = 0; j < size; j++) {
+                c.set(i * size + j, b.get(i * size + j) * 2);
+            }
+        }
+    }
+
+    private static FloatArray init(int numElements, float offset) {
+        FloatArray array = new FloatArray(numElements);
+        for (int i = 0; i < numElements; i++) {
+            array.set(i, i + offset);
+        }
+        return array;
+    }
+
+    @Test
+    public void testPipeline() throws TornadoExecutionPlanException {
+        FloatArray x = init(NUM_ELEMENTS, 0);
+        FloatArray y = init(NUM_ELEMENTS, 1);
+        FloatArray t = new FloatArray(NUM_ELEMENTS);
+        FloatArray u = new FloatArray(NUM_ELEMENTS);
+        FloatArray z = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestTaskFusion::saxpy, 2f, x, y, t) //
+                .task("t1", TestTaskFusion::scale, t, u) //
+                .task("t2", TestTaskFusion::add, u, y, z) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, z);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                executionPlan.execute();
+            }
+
+            // t and u are only used inside the fused kernel, so only x, y and z are allocated
+            if (TASK_FUSION) {
+                assertTrue(executionPlan.getCurrentDeviceMemoryUsage() < x.getNumBytesOfSegmentWithHeader() * 4);
+            } else {
+                assertEquals(x.getNumBytesOfSegmentWithHeader() * 5, executionPlan.getCurrentDeviceMemoryUsage());
+            }
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            float expected = (2f * x.get(i) + y.get(i)) * 0.5f + y.get(i);
+            assertEquals(expected, z.get(i), 0.01f);
+        }
+    }
+
+    @Test
+    public void testIntermediateCopiedToHost() throws TornadoExecutionPlanException {
+        FloatArray x = init(NUM_ELEMENTS, 0);
+        FloatArray y = init(NUM_ELEMENTS, 1);
+        FloatArray t = new FloatArray(NUM_ELEMENTS);
+        FloatArray u = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestTaskFusion::saxpy, 2f, x, y, t) //
+                .task("t1", TestTaskFusion::scale, t, u) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, t, u);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+
+            // t and u are copied back to the host, so they are allocated with or without fusion
+            assertEquals(x.getNumBytesOfSegmentWithHeader() * 4, executionPlan.getCurrentDeviceMemoryUsage());
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS; i++) {
+            float expected = 2f * x.get(i) + y.get(i);
+            assertEquals(expected, t.get(i), 0.01f);
+            assertEquals(expected * 0.5f, u.get(i), 0.01f);
+        }
+    }
+
+    @Test
+    public void testShiftedConsumer() throws TornadoExecutionPlanException {
+        FloatArray x = init(NUM_ELEMENTS, 0);
+        FloatArray y = init(NUM_ELEMENTS, 1);
+        FloatArray t = new FloatArray(NUM_ELEMENTS);
+        FloatArray u = new FloatArray(NUM_ELEMENTS);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestTaskFusion::saxpy, 2f, x, y, t) //
+                .task("t1", TestTaskFusion::shift, t, u) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, u);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+
+            // The tasks are not fused, so t is allocated
+            assertEquals(x.getNumBytesOfSegmentWithHeader() * 4, executionPlan.getCurrentDeviceMemoryUsage());
+        }
+
+        for (int i = 0; i < NUM_ELEMENTS - 1; i++) {
+            float expected = 2f * x.get(i + 1) + y.get(i + 1);
+            assertEquals(expected, u.get(i), 0.01f);
+        }
+    }
+
+    @Test
+    public void testTwoDimensions() throws TornadoExecutionPlanException {
+        final int size = 128;
+        FloatArray a = init(size * size, 0);
+        FloatArray b = new FloatArray(size * size);
+        FloatArray c = new FloatArray(size * size);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestTaskFusion::addOne, a, b, size) //
+                .task("t1", TestTaskFusion::twice, b, c, size) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                executionPlan.execute();
+            }
+
+            // b is only used inside the fused kernel, so only a and c are allocated
+            if (TASK_FUSION) {
+                assertTrue(executionPlan.getCurrentDeviceMemoryUsage() < a.getNumBytesOfSegmentWithHeader() * 3);
+            } else {
+                assertEquals(a.getNumBytesOfSegmentWithHeader() * 3, executionPlan.getCurrentDeviceMemoryUsage());
+            }
+        }
+
+        for (int i = 0; i < size * size; i++) {
+            assertEquals((a.get(i) + 1) * 2, c.get(i), 0.01f);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Checks that the results of a task stay correct while the work-group
+ * autotuner sweeps the local work sizes and after it has selected one. The
+ * tests run enough executions to finish the sweep with the default number of
+ * samples per candidate, and check that the selected local work size is stored
+ * in the tuning file.
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V --jvm="-Dtornado.autotune=True -Dtornado.autotune.file=/tmp/autotune-test.tsv" uk.ac.manchester.tornado.unittests.tasks.TestWorkGroupAutotuner
+ * </code>
+ */
+public class TestWorkGroupAutotuner extends TornadoTestBase {
+
+    private static final int ITERATIONS = 64;
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y) {
+        for (@Parallel int i = 0; i < y.getSize(); i++) {
+            y.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void transpose(FloatArray a, FloatArray b, int rows, int columns) {
+        for (@Parallel int i = 0; i < rows; i++) {
+            for (@Parallel int j = 0; j < columns; j++) {
+                b.set(j * rows + i, a.get(i * columns + j));
+            }
+        }
+    }
+
+    /**
+     * Checks that the tuning file holds an entry for a global work size, which
+     * the autotuner writes when it finishes a sweep.
+     */
+    private static void assertTuned(long... globalWork) throws IOException {
+        Path file = Paths.get(TornadoOptions.AUTOTUNE_FILE);
+        assertTrue(Files.exists(file));
+        // The backends may order the dimensions of the global work size differently
+        String global = Arrays.stream(globalWork).mapToObj(Long::toString).collect(Collectors.joining(","));
+        String reversed = LongStream.range(0, globalWork.length).map(i -> globalWork[globalWork.length - 1 - (int) i]).mapToObj(Long::toString).collect(Collectors.joining(","));
+        boolean tuned = Files.readAllLines(file).stream() //
+                .map(line -> line.split("\t")) //
+                .anyMatch(fields -> fields.length == 5 && (fields[2].equals(global) || fields[2].equals(reversed)));
+        assertTrue("No tuned local work size for " + global, tuned);
+    }
+
+    @Test
+    public void testAutotune1D() throws TornadoExecutionPlanException, IOException {
+        // The size is not a power of 2 to check the generated candidates
+        final int numElements = 1000;
+        FloatArray x = new FloatArray(numElements);
+        FloatArray y = new FloatArray(numElements);
+        for (int i = 0; i < numElements; i++) {
+            x.set(i, i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, x) //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, y) //
+                .task("t0", TestWorkGroupAutotuner::saxpy, 2.0f, x, y) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                y.init(1.0f);
+                executionPlan.execute();
+                for (int i = 0; i < numElements; i++) {
+                    assertEquals(2.0f * i + 1.0f, y.get(i), 0.0f);
+                }
+            }
+        }
+        assertTuned(numElements);
+    }
+
+    @Test
+    public void testAutotune2D() throws TornadoExecutionPlanException, IOException {
+        final int rows = 384;
+        final int columns = 200;
+        FloatArray a = new FloatArray(rows * columns);
+        FloatArray b = new FloatArray(rows * columns);
+        for (int i = 0; i < a.getSize(); i++) {
+            a.set(i, i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a) //
+                .task("t0", TestWorkGroupAutotuner::transpose, a, b, rows, columns) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, b);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                b.init(0.0f);
+                executionPlan.execute();
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < columns; j++) {
+                        assertEquals(a.get(i * columns + j), b.get(j * rows + i), 0.0f);
+                    }
+                }
+            }
+        }
+        assertTuned(rows, columns);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2025, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.drivers.common.WorkGroupAutotuner;
+import uk.ac.manchester.tornado.drivers.common.WorkGroupAutotuner.Tuning;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Unit tests of the candidates generated by the {@link WorkGroupAutotuner} and
+ * of its tuning database. The kernel times are recorded directly, so the tests
+ * do not need a device.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V -J"-Dtornado.autotune.file=/tmp/autotune-test.tsv" uk.ac.manchester.tornado.unittests.tasks.TestWorkGroupTuning
+ * </code>
+ */
+public class TestWorkGroupTuning {
+
+    private static final byte[] KERNEL = "__kernel void saxpy() {}".getBytes(StandardCharsets.UTF_8);
+    private static final long MAX_WORK_GROUP_SIZE = 256;
+    private static final long[] MAX_WORK_ITEM_SIZES = { 256, 256, 64 };
+    private static final int MAX_CANDIDATES = 16;
+
+    /**
+     * Entries written before the database is loaded, as if another process had
+     * tuned the kernel.
+     */
+    @BeforeClass
+    public static void writeDatabase() throws IOException {
+        Path file = Paths.get(TornadoOptions.AUTOTUNE_FILE);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, List.of( //
+                "# kernel\tdevice\tglobalWork\tlocalWork\tkernelTime(ns)", //
+                hash(KERNEL) + "\tstored-device\t1000\t125\t42", //
+                hash(KERNEL) + "\tmalformed-device\t1000\tabc\t42", //
+                hash(KERNEL) + "\tincomplete-device\t1000"));
+    }
+
+    private static String hash(byte[] kernelCode) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(kernelCode);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                sb.append(String.format("%02x", digest[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static WorkGroupAutotuner autotuner(String deviceName, boolean driverLocalWork) {
+        return new WorkGroupAutotuner(KERNEL, deviceName, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES, driverLocalWork, true);
+    }
+
+    private static void assertValidCandidates(Tuning tuning, long[] globalWork) {
+        assertTrue(tuning.getNumCandidates() <= MAX_CANDIDATES);
+        for (int i = 0; i < tuning.getNumCandidates(); i++) {
+            long[] localWork = tuning.getLocalWork(i);
+            assertEquals(globalWork.length, localWork.length);
+            long workGroupSize = 1;
+            for (int dim = 0; dim < localWork.length; dim++) {
+                assertEquals(0, globalWork[dim] % localWork[dim]);
+                assertTrue(localWork[dim] <= MAX_WORK_ITEM_SIZES[dim]);
+                workGroupSize *= localWork[dim];
+            }
+            assertTrue(workGroupSize <= MAX_WORK_GROUP_SIZE);
+            for (int j = 0; j < i; j++) {
+                assertFalse(Arrays.equals(tuning.getLocalWork(j), localWork));
+            }
+        }
+    }
+
+    /**
+     * Measures all candidates until the sweep selects one. The candidate
+     * {@code fastest} gets the lowest kernel time.
+     */
+    private static void sweep(Tuning tuning, int fastest) {
+        while (tuning.isSweeping()) {
+            int candidate = tuning.select();
+            tuning.record(candidate, (candidate == fastest) ? 10 : 100 + candidate);
+        }
+    }
+
+    @Test
+    public void testPrimeGlobalWork() {
+        // 997 is prime and larger than a work-group, so only work-groups of one work-item divide it
+        Tuning tuning = autotuner("prime-device", false).getTuning(1, new long[] { 997 }, new long[] { 1 });
+        assertEquals(1, tuning.getNumCandidates());
+        assertFalse(tuning.isSweeping());
+        assertArrayEquals(new long[] { 1 }, tuning.getLocalWork(tuning.select()));
+
+        // The local work size selected by the driver is the only alternative
+        tuning = autotuner("prime-driver-device", true).getTuning(1, new long[] { 997 }, new long[] { 1 });
+        assertEquals(2, tuning.getNumCandidates());
+        assertTrue(tuning.isSweeping());
+        assertNull(tuning.getLocalWork(1));
+    }
+
+    @Test
+    public void testNonPowerOfTwoGlobalWork() {
+        long[] globalWork = { 1000 };
+        Tuning tuning = autotuner("1d-device", false).getTuning(1, globalWork, new long[] { 8 });
+        assertValidCandidates(tuning, globalWork);
+        assertArrayEquals(new long[] { 8 }, tuning.getLocalWork(0));
+        // Largest divisors of 1000 below the maximum size, half of it and a quarter of it
+        assertArrayEquals(new long[] { 250 }, tuning.getLocalWork(1));
+        assertArrayEquals(new long[] { 125 }, tuning.getLocalWork(2));
+        assertArrayEquals(new long[] { 50 }, tuning.getLocalWork(3));
+    }
+
+    @Test
+    public void test2DGlobalWork() {
+        long[] globalWork = { 384, 200 };
+        Tuning tuning = autotuner("2d-device", false).getTuning(2, globalWork, new int[] { 16, 8, 1 });
+        assertValidCandidates(tuning, globalWork);
+        assertArrayEquals(new long[] { 16, 8 }, tuning.getLocalWork(0));
+        assertEquals(MAX_CANDIDATES, tuning.getNumCandidates());
+
+        boolean twoDimensionalShape = false;
+        for (int i = 1; i < tuning.getNumCandidates(); i++) {
+            long[] localWork = tuning.getLocalWork(i);
+            twoDimensionalShape |= localWork[0] > 1 && localWork[1] > 1;
+        }
+        assertTrue(twoDimensionalShape);
+    }
+
+    @Test
+    public void testStoredEntry() {
+        Tuning tuning = autotuner("stored-device", false).getTuning(1, new long[] { 1000 }, new long[] { 8 });
+        assertFalse(tuning.isSweeping());
+        assertArrayEquals(new long[] { 125 }, tuning.getLocalWork(tuning.select()));
+    }
+
+    @Test
+    public void testMalformedEntriesAreIgnored() {
+        assertTrue(autotuner("malformed-device", false).getTuning(1, new long[] { 1000 }, new long[] { 8 }).isSweeping());
+        assertTrue(autotuner("incomplete-device", false).getTuning(1, new long[] { 1000 }, new long[] { 8 }).isSweeping());
+    }
+
+    @Test
+    public void testSaveMergesEntriesOfOtherProcesses() throws IOException {
+        Path file = Paths.get(TornadoOptions.AUTOTUNE_FILE);
+        Tuning tuning = autotuner("merge-device", false).getTuning(1, new long[] { 512 }, new long[] { 32 });
+        assertTrue(tuning.isSweeping());
+
+        // Another process tunes a kernel while this one sweeps
+        Files.writeString(file, hash(KERNEL) + "\tother-device\t512\t64\t7\n", StandardOpenOption.APPEND);
+        sweep(tuning, 2);
+        assertFalse(tuning.isSweeping());
+        assertEquals(2, tuning.select());
+
+        List<String> lines = Files.readAllLines(file);
+        assertTrue(lines.contains(hash(KERNEL) + "\tother-device\t512\t64\t7"));
+        assertTrue(lines.contains(hash(KERNEL) + "\tstored-device\t1000\t125\t42"));
+        long[] winner = tuning.getLocalWork(2);
+        assertTrue(lines.contains(hash(KERNEL) + "\tmerge-device\t512\t" + winner[0] + "\t10"));
+
+        // The database is written through a temporary file that is renamed
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(file.toAbsolutePath().getParent(), file.getFileName() + "*.tmp")) {
+            assertFalse(stream.iterator().hasNext());
+        }
+    }
+}
@@ -30,6 +30,7 @@ import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.collections.VectorHalf;
 import uk.ac.manchester.tornado.api.types.collections.VectorHalf16;
@@ -37,6 +38,9 @@ import uk.ac.manchester.tornado.api.types.collections.VectorHalf2;
 import uk.ac.manchester.tornado.api.types.collections.VectorHalf3;
 import uk.ac.manchester.tornado.api.types.collections.VectorHalf4;
 import uk.ac.manchester.tornado.api.types.collections.VectorHalf8;
+import uk.ac.manchester.tornado.api.types.tensors.Shape;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP16;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP32;
 import uk.ac.manchester.tornado.api.types.vectors.Half16;
 import uk.ac.manchester.tornado.api.types.vectors.Half2;
 import uk.ac.manchester.tornado.api.types.vectors.Half3;
@@ -937,4 +941,43 @@ public class TestHalfFloats extends TornadoTestBase {
         }
     }
 
+    @Test
+    public void testPrimitiveAccess() throws TornadoExecutionPlanException {
+        int size = 1024;
+
+        FloatArray values = new FloatArray(size);
+        HalfFloatArray a = new HalfFloatArray(size);
+        HalfFloatArray b = new HalfFloatArray(size);
+        HalfFloatArray output = new HalfFloatArray(size);
+        for (int i = 0; i < size; i++) {
+            values.set(i, i % 64);
+            b.setFromFloat(i, 0.5f);
+        }
+        a.setFromFloatArray(values);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                .task("t0", TestHalfFloats::dotProductFunctionMap, a, b, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.execute();
+        }
+
+        FloatArray result = output.toFloatArray();
+        for (int i = 0; i < size; i++) {
+            assertEquals((i % 64) * 0.5f, output.getHalfAsFloat(i), DELTA);
+            assertEquals((i % 64) * 0.5f, result.get(i), DELTA);
+            assertEquals(output.get(i).getHalfFloatValue(), output.getHalf(i));
+        }
+
+        TensorFP16 tensor = new TensorFP16(new Shape(32, 32));
+        tensor.setFromFloatArray(values);
+        TensorFP32 tensorFP32 = tensor.toTensorFP32();
+        for (int i = 0; i < size; i++) {
+            assertEquals(values.get(i), tensor.getHalfAsFloat(i), DELTA);
+            assertEquals(values.get(i), tensorFP32.get(i), DELTA);
+        }
+    }
+
 }